@@ -0,0 +1,33 @@
+package gov.nasa.jpl.aerie.constraints.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A read-only index over the activity instances of a {@link SimulationResults}, supporting lookup by type name.
+ *
+ * Lookups return activities in the order they appear in the indexed list, so that callers iterating the
+ * index observe the same order as a linear scan would.
+ */
+public final class ActivityIndex {
+  private final Map<String, List<ActivityInstance>> byType;
+
+  public ActivityIndex(final List<ActivityInstance> activities) {
+    final var byType = new HashMap<String, List<ActivityInstance>>();
+    for (final var activity : activities) {
+      byType.computeIfAbsent(activity.type(), $ -> new ArrayList<>()).add(activity);
+    }
+    for (final var entry : byType.entrySet()) {
+      entry.setValue(Collections.unmodifiableList(entry.getValue()));
+    }
+    this.byType = byType;
+  }
+
+  /** Gets all activities of the given type, or an empty list if there are none. */
+  public List<ActivityInstance> ofType(final String type) {
+    return this.byType.getOrDefault(type, List.of());
+  }
+}
@@ -104,6 +104,17 @@ public final class DiscreteProfile implements Profile<DiscreteProfile>, Iterable
     return new Windows(result.build());
   }
 
+  /**
+   * Restricts this profile to the segments relevant to the given bounds.
+   *
+   * @see IntervalMap#slice(Interval)
+   */
+  public DiscreteProfile slice(final Interval bounds) {
+    final var sliced = this.profilePieces.slice(bounds);
+    if (sliced == this.profilePieces) return this;
+    return new DiscreteProfile(sliced);
+  }
+
   @Override
   public boolean isConstant() {
     return profilePieces.size() <= 1;
@@ -3,7 +3,12 @@ package gov.nasa.jpl.aerie.constraints.model;
 import gov.nasa.jpl.aerie.constraints.time.Interval;
 import gov.nasa.jpl.aerie.constraints.time.Spans;
 
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 /** A container for additional context needed for Constraints AST evaluation. */
 public record EvaluationEnvironment(
@@ -20,4 +25,70 @@ public record EvaluationEnvironment(
   public EvaluationEnvironment(Map<String, LinearProfile> realExternalProfiles, Map<String, DiscreteProfile> discreteExternalProfiles) {
     this(Map.of(), Map.of(), Map.of(), realExternalProfiles, discreteExternalProfiles);
   }
+
+  /**
+   * Creates a new environment with an additional activity binding, without copying the existing bindings.
+   *
+   * The returned environment shares its bindings with this one, so this is cheap enough to call once per activity
+   * in a for-each loop. The existing activity bindings must not be mutated afterward.
+   */
+  public EvaluationEnvironment withActivityInstance(final String alias, final ActivityInstance activity) {
+    return new EvaluationEnvironment(
+        new Binding<>(this.activityInstances, alias, activity),
+        this.spansInstances,
+        this.intervals,
+        this.realExternalProfiles,
+        this.discreteExternalProfiles
+    );
+  }
+
+  /** Creates a new environment with an additional interval binding, without copying the existing bindings. */
+  public EvaluationEnvironment withInterval(final String alias, final Interval interval) {
+    return new EvaluationEnvironment(
+        this.activityInstances,
+        this.spansInstances,
+        new Binding<>(this.intervals, alias, interval),
+        this.realExternalProfiles,
+        this.discreteExternalProfiles
+    );
+  }
+
+  /**
+   * An immutable map that extends a parent map with a single key, shadowing any existing binding for that key.
+   *
+   * Lookups walk the chain of bindings, which is only as deep as the nesting of the expression that created it.
+   * The full entry set is only materialized if something iterates over the map.
+   */
+  private static final class Binding<V> extends AbstractMap<String, V> {
+    private final Map<String, V> parent;
+    private final String key;
+    private final V value;
+    private Set<Entry<String, V>> entries = null;
+
+    private Binding(final Map<String, V> parent, final String key, final V value) {
+      this.parent = Objects.requireNonNull(parent);
+      this.key = Objects.requireNonNull(key);
+      this.value = value;
+    }
+
+    @Override
+    public V get(final Object key) {
+      return (this.key.equals(key)) ? this.value : this.parent.get(key);
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+      return this.key.equals(key) || this.parent.containsKey(key);
+    }
+
+    @Override
+    public Set<Entry<String, V>> entrySet() {
+      if (this.entries == null) {
+        final var flattened = new HashMap<>(this.parent);
+        flattened.put(this.key, this.value);
+        this.entries = Collections.unmodifiableMap(flattened).entrySet();
+      }
+      return this.entries;
+    }
+  }
 }
@@ -129,6 +129,17 @@ public final class LinearProfile implements Profile<LinearProfile>, Iterable<Seg
     }
 
 
+  /**
+   * Restricts this profile to the segments relevant to the given bounds.
+   *
+   * @see IntervalMap#slice(Interval)
+   */
+  public LinearProfile slice(final Interval bounds) {
+    final var sliced = this.profilePieces.slice(bounds);
+    if (sliced == this.profilePieces) return this;
+    return new LinearProfile(sliced);
+  }
+
   @Override
   public boolean isConstant() {
     return profilePieces.isEmpty() ||
@@ -14,6 +14,8 @@ public final class SimulationResults {
   public final Map<String, LinearProfile> realProfiles;
   public final Map<String, DiscreteProfile> discreteProfiles;
 
+  private volatile ActivityIndex activityIndex = null;
+
   public SimulationResults(
       final Instant planStart, final Interval bounds,
       final List<ActivityInstance> activities,
@@ -27,6 +29,25 @@ public final class SimulationResults {
     this.discreteProfiles = discreteProfiles;
   }
 
+  /**
+   * Gets an index over {@link #activities} by type.
+   *
+   * The index is built on first use, and assumes that the activity list is not modified afterward.
+   */
+  public ActivityIndex activityIndex() {
+    var index = this.activityIndex;
+    if (index == null) {
+      synchronized (this) {
+        index = this.activityIndex;
+        if (index == null) {
+          index = new ActivityIndex(this.activities);
+          this.activityIndex = index;
+        }
+      }
+    }
+    return index;
+  }
+
   @Override
   public boolean equals(Object obj) {
     if (!(obj instanceof final SimulationResults o)) return false;
@@ -195,6 +195,39 @@ public final class IntervalMap<V> implements Iterable<Segment<V>> {
     );
   }
 
+  /**
+   * Restricts this map to the segments relevant to the given bounds, without splitting any segment.
+   *
+   * The result contains every segment that overlaps the bounds, plus the nearest segment on either side of them,
+   * so that operations that look at neighboring segments (such as change points and transitions) give the same
+   * answer inside the bounds as they would on the full map. Segments are located by navigating the underlying
+   * sorted set, so the cost is proportional to the size of the result rather than the size of this map.
+   *
+   * @return this map if every segment is relevant, otherwise a new IntervalMap
+   */
+  public IntervalMap<V> slice(final Interval bounds) {
+    if (this.segments.isEmpty() || bounds.isEmpty()) return this;
+
+    // A probe with a null value sorts just before any real segment with the same interval.
+    final var lastStartingBefore = this.segments.floor(Segment.of(Interval.at(bounds.start), null));
+    final Segment<V> from;
+    if (lastStartingBefore == null) {
+      from = this.segments.first();
+    } else {
+      final var margin = this.segments.lower(lastStartingBefore);
+      from = (margin == null) ? lastStartingBefore : margin;
+    }
+
+    final var result = new ArrayList<Segment<V>>();
+    for (final var segment : this.segments.tailSet(from, true)) {
+      result.add(segment);
+      if (Interval.compareEndToStart(bounds, segment.interval()) <= 0) break;
+    }
+
+    if (result.size() == this.segments.size()) return this;
+    return new IntervalMap<>(result);
+  }
+
   /**
    * Maps intervals and the gaps between them in IntervalMap intervals to new values following some function transform
    *  which converts the old values and gaps to new values.
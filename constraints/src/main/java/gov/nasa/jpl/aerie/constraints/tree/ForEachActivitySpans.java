@@ -7,7 +7,7 @@ import gov.nasa.jpl.aerie.constraints.time.Interval;
 import gov.nasa.jpl.aerie.constraints.time.Spans;
 import org.apache.commons.lang3.function.TriFunction;
 
-import java.util.HashMap;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 
@@ -28,16 +28,9 @@ public record ForEachActivitySpans(
   @Override
   public Spans evaluate(final SimulationResults results, final Interval bounds, final EvaluationEnvironment environment) {
     final var spans = new Spans();
-    for (final var activity : results.activities) {
+    for (final var activity : candidates(results)) {
       if (this.activityPredicate.apply(activity, results, environment)) {
-        final var newEnvironment = new EvaluationEnvironment(
-            new HashMap<>(environment.activityInstances()),
-            environment.spansInstances(),
-            environment.intervals(),
-            environment.realExternalProfiles(),
-            environment.discreteExternalProfiles()
-        );
-        newEnvironment.activityInstances().put(this.alias, activity);
+        final var newEnvironment = environment.withActivityInstance(this.alias, activity);
 
         final var expressionSpans = this.expression.evaluate(results, bounds, newEnvironment);
         spans.addAll(expressionSpans);
@@ -46,6 +39,12 @@ public record ForEachActivitySpans(
     return spans;
   }
 
+  /** Narrows the activities to test against the predicate, using the results' type index when possible. */
+  private List<ActivityInstance> candidates(final SimulationResults results) {
+    if (this.activityPredicate instanceof MatchType m) return results.activityIndex().ofType(m.type());
+    return results.activities;
+  }
+
   @Override
   public void extractResources(final Set<String> names) {
     this.expression.extractResources(names);
@@ -24,14 +24,15 @@ public final class RealResource implements Expression<LinearProfile> {
 
   @Override
   public LinearProfile evaluate(final SimulationResults results, final Interval bounds, final EvaluationEnvironment environment) {
+    // Slice before converting, so that evaluation over a small window doesn't pay for the whole profile.
     if (results.realProfiles.containsKey(this.name)) {
-      return results.realProfiles.get(this.name);
+      return results.realProfiles.get(this.name).slice(bounds);
     } else if (results.discreteProfiles.containsKey(this.name)) {
-      return convertDiscreteProfile(results.discreteProfiles.get(this.name));
+      return convertDiscreteProfile(results.discreteProfiles.get(this.name).slice(bounds));
     } else if (environment.realExternalProfiles().containsKey(this.name)) {
-      return environment.realExternalProfiles().get(this.name);
+      return environment.realExternalProfiles().get(this.name).slice(bounds);
     } else if (environment.discreteExternalProfiles().containsKey(this.name)) {
-      return convertDiscreteProfile(environment.discreteExternalProfiles().get(this.name));
+      return convertDiscreteProfile(environment.discreteExternalProfiles().get(this.name).slice(bounds));
     }
 
     throw new InputMismatchException(String.format("%s is not a valid resource", this.name));
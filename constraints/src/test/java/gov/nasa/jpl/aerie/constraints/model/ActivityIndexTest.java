@@ -0,0 +1,44 @@
+package gov.nasa.jpl.aerie.constraints.model;
+
+import gov.nasa.jpl.aerie.constraints.time.Interval;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class ActivityIndexTest {
+  private static ActivityInstance act(final long id, final String type, final Interval interval) {
+    return new ActivityInstance(id, type, Map.of(), interval);
+  }
+
+  private final ActivityInstance a = act(1, "A", Interval.between(10, 20, SECONDS));
+  private final ActivityInstance b = act(2, "B", Interval.between(0, 5, SECONDS));
+  private final ActivityInstance c = act(3, "A", Interval.between(0, 100, SECONDS));
+  private final ActivityInstance d = act(4, "B", Interval.between(20, 30, SECONDS));
+  private final ActivityInstance e = act(5, "A", Interval.at(50, SECONDS));
+
+  private final ActivityIndex index = new ActivityIndex(List.of(a, b, c, d, e));
+
+  @Test
+  public void testOfType() {
+    assertEquals(List.of(a, c, e), index.ofType("A"));
+    assertEquals(List.of(b, d), index.ofType("B"));
+    assertEquals(List.of(), index.ofType("C"));
+  }
+
+  @Test
+  public void testEnvironmentBindingsShadowWithoutCopying() {
+    final var base = new EvaluationEnvironment().withActivityInstance("x", a);
+    final var extended = base.withActivityInstance("y", b).withActivityInstance("x", c);
+
+    assertEquals(a, base.activityInstances().get("x"));
+    assertNull(base.activityInstances().get("y"));
+    assertEquals(c, extended.activityInstances().get("x"));
+    assertEquals(b, extended.activityInstances().get("y"));
+    assertEquals(Map.of("x", c, "y", b), extended.activityInstances());
+  }
+}
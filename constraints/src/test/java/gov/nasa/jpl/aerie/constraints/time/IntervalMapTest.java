@@ -9,6 +9,7 @@ import static gov.nasa.jpl.aerie.constraints.time.Interval.interval;
 import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.SECONDS;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 public class IntervalMapTest {
 
@@ -274,4 +275,51 @@ public class IntervalMapTest {
 
     assertIterableEquals(expected, left);
   }
+
+  @Test
+  public void sliceKeepsOverlappingSegmentsAndOneNeighborOnEachSide() {
+    final var map = IntervalMap.<String>of()
+        .set(interval(0, Inclusive, 10, Exclusive, SECONDS), "a")
+        .set(interval(10, Inclusive, 20, Exclusive, SECONDS), "b")
+        .set(interval(20, Inclusive, 30, Exclusive, SECONDS), "c")
+        .set(interval(30, Inclusive, 40, Exclusive, SECONDS), "d")
+        .set(interval(40, Inclusive, 50, Exclusive, SECONDS), "e")
+        .set(interval(50, Inclusive, 60, Exclusive, SECONDS), "f");
+
+    final var expected = IntervalMap.of(
+        Segment.of(interval(10, Inclusive, 20, Exclusive, SECONDS), "b"),
+        Segment.of(interval(20, Inclusive, 30, Exclusive, SECONDS), "c"),
+        Segment.of(interval(30, Inclusive, 40, Exclusive, SECONDS), "d"),
+        Segment.of(interval(40, Inclusive, 50, Exclusive, SECONDS), "e")
+    );
+
+    assertIterableEquals(expected, map.slice(interval(25, 35, SECONDS)));
+  }
+
+  @Test
+  public void sliceReturnsSameMapWhenBoundsCoverEverything() {
+    final var map = IntervalMap.<String>of()
+        .set(interval(0, Inclusive, 10, Exclusive, SECONDS), "a")
+        .set(interval(10, Inclusive, 20, Exclusive, SECONDS), "b");
+
+    assertSame(map, map.slice(interval(-5, 25, SECONDS)));
+    assertSame(map, map.slice(Interval.FOREVER));
+  }
+
+  @Test
+  public void sliceAtPoint() {
+    final var map = IntervalMap.<String>of()
+        .set(interval(0, Inclusive, 10, Exclusive, SECONDS), "a")
+        .set(interval(10, Inclusive, 20, Exclusive, SECONDS), "b")
+        .set(interval(20, Inclusive, 30, Exclusive, SECONDS), "c")
+        .set(interval(30, Inclusive, 40, Exclusive, SECONDS), "d");
+
+    final var expected = IntervalMap.of(
+        Segment.of(interval(0, Inclusive, 10, Exclusive, SECONDS), "a"),
+        Segment.of(interval(10, Inclusive, 20, Exclusive, SECONDS), "b"),
+        Segment.of(interval(20, Inclusive, 30, Exclusive, SECONDS), "c")
+    );
+
+    assertIterableEquals(expected, map.slice(Interval.at(10, SECONDS)));
+  }
 }
@@ -576,6 +576,44 @@ public class ASTTests {
     assertEquivalent(expected, result);
   }
 
+  @Test
+  public void testResourceBoundsPushdownMatchesFullEvaluation() {
+    final var discreteSegments = new ArrayList<Segment<SerializedValue>>();
+    final var realSegments = new ArrayList<Segment<LinearEquation>>();
+    for (var i = 0; i < 100; i++) {
+      final var interval = Interval.between(i, Inclusive, i + 1, Exclusive, SECONDS);
+      discreteSegments.add(Segment.of(interval, SerializedValue.of((i / 3) % 2)));
+      realSegments.add(Segment.of(interval, new LinearEquation(Duration.of(i, SECONDS), i % 7, (i % 2 == 0) ? 1 : -1)));
+    }
+    final var simResults = new SimulationResults(
+        Instant.EPOCH, Interval.between(0, 100, SECONDS),
+        List.of(),
+        Map.of("real", new LinearProfile(realSegments)),
+        Map.of("discrete", new DiscreteProfile(discreteSegments))
+    );
+
+    final var expressions = List.<Expression<Windows>>of(
+        new Changes<>(new ProfileExpression<>(new DiscreteResource("discrete"))),
+        new Changes<>(new ProfileExpression<>(new RealResource("real"))),
+        new Transition(new DiscreteResource("discrete"), SerializedValue.of(0), SerializedValue.of(1)),
+        new GreaterThan(new Rate(new RealResource("real")), new RealValue(0)),
+        new LessThan(new RealResource("real"), new RealValue(4))
+    );
+    final var windows = List.of(
+        Interval.between(30, 40, SECONDS),
+        Interval.between(30, Exclusive, 40, Exclusive, SECONDS),
+        Interval.between(Duration.of(45500, MILLISECOND), Duration.of(46500, MILLISECOND)),
+        Interval.at(60, SECONDS)
+    );
+
+    for (final var expression : expressions) {
+      final var full = expression.evaluate(simResults, new EvaluationEnvironment());
+      for (final var window : windows) {
+        assertEquivalent(full.select(window), expression.evaluate(simResults, window, new EvaluationEnvironment()));
+      }
+    }
+  }
+
   @Test
   public void testRealResourceOnDiscrete() {
     final var simResults = new SimulationResults(
@@ -0,0 +1,79 @@
+package gov.nasa.jpl.aerie.constraints.tree;
+
+import gov.nasa.jpl.aerie.constraints.model.DiscreteProfile;
+import gov.nasa.jpl.aerie.constraints.model.EvaluationEnvironment;
+import gov.nasa.jpl.aerie.constraints.model.LinearEquation;
+import gov.nasa.jpl.aerie.constraints.model.LinearProfile;
+import gov.nasa.jpl.aerie.constraints.model.SimulationResults;
+import gov.nasa.jpl.aerie.constraints.time.Interval;
+import gov.nasa.jpl.aerie.constraints.time.Segment;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static gov.nasa.jpl.aerie.constraints.time.Interval.Inclusivity.Exclusive;
+import static gov.nasa.jpl.aerie.constraints.time.Interval.Inclusivity.Inclusive;
+import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.SECONDS;
+
+/**
+ * Measures the cost of evaluating profile expressions over windows of increasing size on a long plan.
+ *
+ * Since resource nodes slice their profiles to the evaluation bounds, the time per evaluation should grow with the
+ * size of the window rather than with the length of the profiles.
+ */
+public class BoundsPushdownBenchmark {
+
+  private static SimulationResults makeResults(final int segments) {
+    final var discrete = new ArrayList<Segment<SerializedValue>>(segments);
+    final var real = new ArrayList<Segment<LinearEquation>>(segments);
+    for (var i = 0; i < segments; i++) {
+      final var interval = Interval.between(i, Inclusive, i + 1, Exclusive, SECONDS);
+      discrete.add(Segment.of(interval, SerializedValue.of(i % 3)));
+      real.add(Segment.of(interval, new LinearEquation(Duration.of(i, SECONDS), i % 5, (i % 2 == 0) ? 1 : -1)));
+    }
+
+    return new SimulationResults(
+        Instant.EPOCH,
+        Interval.between(0, segments, SECONDS),
+        List.of(),
+        Map.of("real", new LinearProfile(real)),
+        Map.of("discrete", new DiscreteProfile(discrete))
+    );
+  }
+
+  private static long timePerRun(final Expression<?> expression, final SimulationResults results, final Interval bounds, final int nbRuns) {
+    // warm up
+    for (int i = 0; i < nbRuns; i++) expression.evaluate(results, bounds, new EvaluationEnvironment());
+
+    final var before = System.nanoTime();
+    for (int i = 0; i < nbRuns; i++) expression.evaluate(results, bounds, new EvaluationEnvironment());
+    return (System.nanoTime() - before) / nbRuns;
+  }
+
+  public static void main(String[] args) {
+    //number of one-second segments in each profile
+    final var segments = 200_000;
+    //number of runs per measurement
+    final var nbRuns = 20;
+
+    final var results = makeResults(segments);
+    final var expressions = Map.<String, Expression<?>>of(
+        "changes(discrete)", new Changes<>(new ProfileExpression<>(new DiscreteResource("discrete"))),
+        "transition(discrete)", new Transition(new DiscreteResource("discrete"), SerializedValue.of(0), SerializedValue.of(1)),
+        "real < 3", new LessThan(new RealResource("real"), new RealValue(3))
+    );
+
+    for (final var entry : expressions.entrySet()) {
+      System.out.println(entry.getKey());
+      for (final var window : List.of(10, 100, 1_000, 10_000, segments)) {
+        final var start = (segments - window) / 2;
+        final var bounds = Interval.between(start, start + window, SECONDS);
+        System.out.println("  window " + window + "s: " + timePerRun(entry.getValue(), results, bounds, nbRuns) + " ns");
+      }
+    }
+  }
+}
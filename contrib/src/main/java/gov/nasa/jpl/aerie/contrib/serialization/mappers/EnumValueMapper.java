@@ -11,19 +11,26 @@ import java.util.stream.Collectors;
 
 public final class EnumValueMapper<E extends Enum<E>> implements ValueMapper<E> {
     private final Class<E> enumType;
+    private final ValueSchema schema;
+    private final SerializedValue[] serializedConstants;
 
     public EnumValueMapper(Class<E> enumType) {
         this.enumType = enumType;
+
+        final var constants = enumType.getEnumConstants();
+        this.schema = ValueSchema.ofVariant(Arrays
+            .stream(constants)
+            .map(c -> new ValueSchema.Variant(c.name(), c.toString()))
+            .collect(Collectors.toUnmodifiableList()));
+        this.serializedConstants = new SerializedValue[constants.length];
+        for (final var constant : constants) {
+            this.serializedConstants[constant.ordinal()] = SerializedValue.of(constant.name());
+        }
     }
 
     @Override
     public ValueSchema getValueSchema() {
-        final var variants = Arrays
-            .stream(this.enumType.getEnumConstants())
-            .map(c -> new ValueSchema.Variant(c.name(), c.toString()))
-            .collect(Collectors.toUnmodifiableList());
-
-        return ValueSchema.ofVariant(variants);
+        return this.schema;
     }
 
     @Override
@@ -37,7 +44,7 @@ public final class EnumValueMapper<E extends Enum<E>> implements ValueMapper<E>
 
     @Override
     public SerializedValue serializeValue(E value) {
-        return SerializedValue.of(value.name());
+        return this.serializedConstants[value.ordinal()];
     }
 
     private Result<E, String> deserializeEnumValue(String name) {
@@ -6,13 +6,15 @@ import gov.nasa.jpl.aerie.merlin.protocol.model.CellType;
 import gov.nasa.jpl.aerie.merlin.protocol.model.EffectTrait;
 import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
 
+import java.util.Optional;
+import java.util.function.BiPredicate;
 import java.util.function.BinaryOperator;
 import java.util.function.Predicate;
 
 import static gov.nasa.jpl.aerie.contrib.streamline.core.ErrorCatching.failure;
 import static gov.nasa.jpl.aerie.contrib.streamline.core.Expiring.expiring;
 import static gov.nasa.jpl.aerie.contrib.streamline.debugging.Naming.*;
-import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.ZERO;
+import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.MICROSECOND;
 
 /**
  * Utility class for a simplified allocate method.
@@ -24,7 +26,11 @@ public final class CellRefV2 {
    * Allocate a new resource with an explicitly given effect type and effect trait.
    */
   public static <D extends Dynamics<?, D>, E extends DynamicsEffect<D>> CellRef<E, Cell<D>> allocate(ErrorCatching<Expiring<D>> initialDynamics, EffectTrait<E> effectTrait) {
-    return CellRef.allocate(new Cell<>(initialDynamics), new CellType<>() {
+    return CellRef.allocate(new Cell<>(initialDynamics), cellType(effectTrait));
+  }
+
+  static <D extends Dynamics<?, D>, E extends DynamicsEffect<D>> CellType<E, Cell<D>> cellType(EffectTrait<E> effectTrait) {
+    return new CellType<>() {
       @Override
       public EffectTrait<E> getEffectType() {
         return effectTrait;
@@ -32,28 +38,34 @@ public final class CellRefV2 {
 
       @Override
       public Cell<D> duplicate(Cell<D> cell) {
-        return new Cell<>(cell.initialDynamics, cell.dynamics, cell.elapsedTime);
+        // Step the dynamics up on the original, so later copies of the same cell needn't repeat the work.
+        return new Cell<>(cell.initialDynamics, cell.dynamics(), cell.elapsedMicroseconds);
       }
 
       @Override
       public void apply(Cell<D> cell, E effect) {
-        cell.initialDynamics = effect.apply(cell.dynamics).match(
+        cell.initialDynamics = effect.apply(cell.dynamics()).match(
             ErrorCatching::success,
                 error -> failure(new RuntimeException(
                     "Applying effect '%s' failed.".formatted(getName(effect, null)), error)));
         cell.dynamics = cell.initialDynamics;
-        cell.elapsedTime = ZERO;
+        cell.elapsedMicroseconds = 0;
       }
 
       @Override
       public void step(Cell<D> cell, Duration duration) {
-        // Avoid accumulated round-off error in imperfect stepping
-        // by always stepping up from the initial dynamics
-        cell.elapsedTime = cell.elapsedTime.plus(duration);
-        cell.dynamics = ErrorCatchingMonad.map(cell.initialDynamics, d ->
-            expiring(d.data().step(cell.elapsedTime), d.expiry().minus(cell.elapsedTime)));
+        // Cells are stepped far more often than they are read,
+        // so only accumulate the elapsed time here and step the dynamics when they are next read.
+        cell.elapsedMicroseconds = Math.addExact(cell.elapsedMicroseconds, duration.in(MICROSECOND));
+        cell.dynamics = null;
       }
-    });
+
+      @Override
+      public Optional<BiPredicate<Cell<D>, Cell<D>>> getStateEquivalence() {
+        // Cells holding equal dynamics behave identically from here on.
+        return Optional.of((left, right) -> left.dynamics().equals(right.dynamics()));
+      }
+    };
   }
 
   public static <D extends Dynamics<?, D>> EffectTrait<DynamicsEffect<D>> noncommutingEffects() {
@@ -146,19 +158,45 @@ public final class CellRefV2 {
     };
   }
 
-  public static class Cell<D> {
-    public ErrorCatching<Expiring<D>> initialDynamics;
-    public ErrorCatching<Expiring<D>> dynamics;
-    public Duration elapsedTime;
+  public static class Cell<D extends Dynamics<?, D>> {
+    private ErrorCatching<Expiring<D>> initialDynamics;
+    /** The dynamics at the current time, or null if they have not been stepped up from the initial dynamics yet. */
+    private ErrorCatching<Expiring<D>> dynamics;
+    private long elapsedMicroseconds;
 
     public Cell(ErrorCatching<Expiring<D>> dynamics) {
-      this(dynamics, dynamics, ZERO);
+      this(dynamics, dynamics, 0);
     }
 
     public Cell(ErrorCatching<Expiring<D>> initialDynamics, ErrorCatching<Expiring<D>> dynamics, Duration elapsedTime) {
+      this(initialDynamics, dynamics, elapsedTime.in(MICROSECOND));
+    }
+
+    public Cell(ErrorCatching<Expiring<D>> initialDynamics, ErrorCatching<Expiring<D>> dynamics, long elapsedMicroseconds) {
       this.initialDynamics = initialDynamics;
       this.dynamics = dynamics;
-      this.elapsedTime = elapsedTime;
+      this.elapsedMicroseconds = elapsedMicroseconds;
+    }
+
+    public ErrorCatching<Expiring<D>> dynamics() {
+      if (this.dynamics == null) {
+        // Avoid accumulated round-off error in imperfect stepping
+        // by always stepping up from the initial dynamics
+        final var elapsedTime = elapsedTime();
+        this.dynamics = ErrorCatchingMonad.map(this.initialDynamics, d ->
+            expiring(d.data().step(elapsedTime), d.expiry().minus(elapsedTime)));
+      }
+      return this.dynamics;
+    }
+
+    /** The dynamics as of the last effect applied to this cell. */
+    public ErrorCatching<Expiring<D>> initialDynamics() {
+      return this.initialDynamics;
+    }
+
+    /** The time elapsed since the last effect applied to this cell. */
+    public Duration elapsedTime() {
+      return Duration.of(this.elapsedMicroseconds, MICROSECOND);
     }
   }
 }
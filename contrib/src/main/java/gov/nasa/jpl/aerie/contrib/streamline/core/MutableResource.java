@@ -3,6 +3,7 @@ package gov.nasa.jpl.aerie.contrib.streamline.core;
 import gov.nasa.jpl.aerie.contrib.streamline.core.monads.DynamicsMonad;
 import gov.nasa.jpl.aerie.contrib.streamline.core.monads.ErrorCatchingMonad;
 import gov.nasa.jpl.aerie.contrib.streamline.debugging.Context;
+import gov.nasa.jpl.aerie.contrib.streamline.debugging.Naming;
 import gov.nasa.jpl.aerie.contrib.streamline.debugging.Profiling;
 import gov.nasa.jpl.aerie.merlin.framework.CellRef;
 import gov.nasa.jpl.aerie.contrib.streamline.core.CellRefV2.Cell;
@@ -51,12 +52,15 @@ public interface MutableResource<D extends Dynamics<?, D>> extends Resource<D> {
         // Replacing effect::apply with effect would create a self-loop in the naming graph on effect, which isn't allowed.
         // Using Naming.getName to get effect's current name and use that when elaborating is correct but potentially slow,
         //   depending on how deep the naming graph is.
-        cell.emit(name(effect::apply, "%s on %s" + Context.get().stream().map(c -> " during " + c).collect(joining()), effect, this));
+        // Skip elaborating the name entirely when naming is off, since this runs for every effect.
+        cell.emit(Naming.isEnabled()
+            ? name(effect::apply, "%s on %s" + Context.get().stream().map(c -> " during " + c).collect(joining()), effect, this)
+            : effect);
       }
 
       @Override
       public ErrorCatching<Expiring<D>> getDynamics() {
-        return cell.get().dynamics;
+        return cell.get().dynamics();
       }
     };
     if (MutableResourceFlags.DETECT_BUSY_CELLS) {
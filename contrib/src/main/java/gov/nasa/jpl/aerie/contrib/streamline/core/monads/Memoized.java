@@ -0,0 +1,107 @@
+package gov.nasa.jpl.aerie.contrib.streamline.core.monads;
+
+import gov.nasa.jpl.aerie.contrib.streamline.core.ThinResource;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Caches the dynamics of derived resources against the exact dynamics objects their inputs returned.
+ *
+ * <p>
+ *     Cells only produce new dynamics objects when they are stepped or have an effect applied,
+ *     so an input returning the same object (by identity) as last time means nothing upstream of it changed.
+ *     Memoized nodes return the same object again in that case, so the check stays cheap through deep chains,
+ *     and a DAG of derived resources is recomputed once per change rather than once per consumer.
+ * </p>
+ * <p>
+ *     Inputs are always queried, all the way down to the cells.
+ *     The engine learns which cells a condition or resource reads by watching those queries,
+ *     so skipping them would hide dependencies from it.
+ * </p>
+ * <p>
+ *     This relies on dynamics being immutable and the combining functions being pure,
+ *     which the resource monads already assume.
+ * </p>
+ */
+final class Memoized {
+  private Memoized() {}
+
+  /**
+   * Combine two inputs, where the second may be derived from the first.
+   * The result is recomputed only when either input changes identity.
+   */
+  static <A, B, C> ThinResource<C> memoize(ThinResource<A> first, Function<A, B> second, BiFunction<A, B, C> combine) {
+    return new Binary<>(first, second, combine);
+  }
+
+  /**
+   * Combine all operands at once.
+   * The result is recomputed only when any operand changes identity.
+   */
+  static <A, C> ThinResource<C> memoize(Collection<? extends ThinResource<A>> operands, Function<List<A>, C> combine) {
+    return new Nary<>(List.copyOf(operands), combine);
+  }
+
+  private static final class Binary<A, B, C> implements ThinResource<C> {
+    private record Entry<A, B, C>(A first, B second, C result) {}
+
+    private final ThinResource<A> first;
+    private final Function<A, B> second;
+    private final BiFunction<A, B, C> combine;
+    // Entries are immutable, so a racing reader sees either a whole entry or a stale one, which only costs a recomputation.
+    private Entry<A, B, C> entry = null;
+
+    private Binary(ThinResource<A> first, Function<A, B> second, BiFunction<A, B, C> combine) {
+      this.first = first;
+      this.second = second;
+      this.combine = combine;
+    }
+
+    @Override
+    public C getDynamics() {
+      final A a = first.getDynamics();
+      final B b = second.apply(a);
+      final var cached = entry;
+      if (cached != null && cached.first == a && cached.second == b) return cached.result;
+
+      final C result = combine.apply(a, b);
+      entry = new Entry<>(a, b, result);
+      return result;
+    }
+  }
+
+  private static final class Nary<A, C> implements ThinResource<C> {
+    private record Entry<A, C>(List<A> operands, C result) {}
+
+    private final List<? extends ThinResource<A>> operands;
+    private final Function<List<A>, C> combine;
+    private Entry<A, C> entry = null;
+
+    private Nary(List<? extends ThinResource<A>> operands, Function<List<A>, C> combine) {
+      this.operands = operands;
+      this.combine = combine;
+    }
+
+    @Override
+    public C getDynamics() {
+      final var cached = entry;
+      final int size = operands.size();
+      final var values = new ArrayList<A>(size);
+      boolean unchanged = cached != null;
+      for (final var operand : operands) {
+        final A value = operand.getDynamics();
+        unchanged = unchanged && value == cached.operands.get(values.size());
+        values.add(value);
+      }
+      if (unchanged) return cached.result;
+
+      final C result = combine.apply(values);
+      entry = new Entry<>(values, result);
+      return result;
+    }
+  }
+}
@@ -3,7 +3,6 @@ package gov.nasa.jpl.aerie.contrib.streamline.core.monads;
 import gov.nasa.jpl.aerie.contrib.streamline.core.ErrorCatching;
 import gov.nasa.jpl.aerie.contrib.streamline.core.Expiring;
 import gov.nasa.jpl.aerie.contrib.streamline.core.Resource;
-import gov.nasa.jpl.aerie.contrib.streamline.core.ThinResource;
 import gov.nasa.jpl.aerie.contrib.streamline.debugging.Profiling;
 import gov.nasa.jpl.aerie.contrib.streamline.utils.*;
 import org.apache.commons.lang3.function.TriFunction;
@@ -12,6 +11,7 @@ import java.util.Collection;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
+import static gov.nasa.jpl.aerie.contrib.streamline.core.monads.Memoized.memoize;
 import static gov.nasa.jpl.aerie.contrib.streamline.debugging.Dependencies.addDependency;
 import static gov.nasa.jpl.aerie.contrib.streamline.debugging.Naming.argsFormat;
 import static gov.nasa.jpl.aerie.contrib.streamline.debugging.Naming.name;
@@ -53,23 +53,20 @@ public final class ResourceMonad {
   }
 
   public static <A, B> Resource<B> apply(Resource<A> a, Resource<Function<A, B>> f) {
-    Resource<B> result = ThinResourceMonad.apply(a, ThinResourceMonad.map(f, DynamicsMonad::apply))::getDynamics;
+    Resource<B> result = memoize(f, $ -> a.getDynamics(), (f$, a$) -> DynamicsMonad.apply(a$, f$))::getDynamics;
     addDependency(result, a);
     addDependency(result, f);
     if (profileAllResources) result = profile(result);
     return result;
   }
 
-  private static <A> ThinResource<ErrorCatching<Expiring<A>>> distribute(ErrorCatching<Expiring<ThinResource<A>>> a) {
-    return () -> DynamicsMonad.map(a, ThinResource::getDynamics);
-  }
-
   public static <A> Resource<A> join(Resource<Resource<A>> a) {
-    // Perform a trivial down-conversion to the base ThinResource types, to expose the Dynamics wrappers in the type signature.
-    ThinResource<ErrorCatching<Expiring<ThinResource<ErrorCatching<Expiring<A>>>>>> a$ = map(a, $ -> $);
-    // Then use distributivity and basic joins to collapse the type.
+    // Query the inner resource only if the outer one succeeded, then collapse the two layers of dynamics.
     // The ::getDynamics at the end up-converts back to Resource, from ThinResource
-    Resource<A> result = ThinResourceMonad.map(ThinResourceMonad.join(ThinResourceMonad.map(a$, ResourceMonad::distribute)), DynamicsMonad::join)::getDynamics;
+    Resource<A> result = memoize(
+        a,
+        outer -> outer.match(inner -> inner.data().getDynamics(), error -> null),
+        (outer, inner) -> DynamicsMonad.join(DynamicsMonad.map(outer, $ -> inner)))::getDynamics;
     addDependency(result, a);
     if (profileAllResources) result = profile(result);
     return result;
@@ -115,7 +112,7 @@ public final class ResourceMonad {
    * @see ResourceMonad#reduce(Collection, ErrorCatching, BiFunction, String)
    */
   public static <A> Resource<A> reduce(Collection<? extends Resource<A>> operands, ErrorCatching<Expiring<A>> identity, BiFunction<ErrorCatching<Expiring<A>>, ErrorCatching<Expiring<A>>, ErrorCatching<Expiring<A>>> f) {
-    Resource<A> result = ThinResourceMonad.reduce(operands, identity, f)::getDynamics;
+    Resource<A> result = memoize(operands, values -> values.stream().reduce(identity, f, f::apply))::getDynamics;
     operands.forEach(op -> addDependency(result, op));
     return result;
   }
@@ -3,6 +3,8 @@ package gov.nasa.jpl.aerie.contrib.streamline.debugging;
 import java.util.*;
 
 import static java.util.Collections.newSetFromMap;
+import static java.util.Collections.synchronizedMap;
+import static java.util.Collections.synchronizedSet;
 import static java.util.stream.Collectors.joining;
 
 public final class Dependencies {
@@ -10,31 +12,63 @@ public final class Dependencies {
 
   // Use a WeakHashMap so that describing a thing's dependencies
   // doesn't prevent it from being garbage-collected.
-  private static final WeakHashMap<Object, Set<Object>> DEPENDENCIES = new WeakHashMap<>();
-  private static final WeakHashMap<Object, Set<Object>> DEPENDENTS = new WeakHashMap<>();
+  // Synchronize it, since several simulations may run in the same JVM.
+  private static final Map<Object, Set<Object>> DEPENDENCIES = synchronizedMap(new WeakHashMap<>());
+  private static final Map<Object, Set<Object>> DEPENDENTS = synchronizedMap(new WeakHashMap<>());
   private static final String ANONYMOUS_NAME = "...";
+  private static volatile boolean enabled = true;
+
+  /**
+   * Turn off dependency tracking.
+   *
+   * <p>
+   *     Dependencies are only used to describe the dependency graph when debugging.
+   *     Calling this method once before constructing your model skips recording them.
+   *     Dependencies registered before this call are kept.
+   * </p>
+   */
+  public static void disable() {
+    enabled = false;
+  }
+
+  /**
+   * Turn dependency tracking back on after {@link Dependencies#disable}.
+   * Dependencies added while tracking was disabled stay unrecorded.
+   */
+  public static void enable() {
+    enabled = true;
+  }
 
   /**
    * Register that dependent depends on dependency.
    */
   public static void addDependency(Object dependent, Object dependency) {
+    if (!enabled) return;
     // Use WeakSet = newSetFromMap + WeakHashMap, to only weakly reference dependencies.
-    DEPENDENCIES.computeIfAbsent(dependent, $ -> newSetFromMap(new WeakHashMap<>())).add(dependency);
-    DEPENDENTS.computeIfAbsent(dependency, $ -> newSetFromMap(new WeakHashMap<>())).add(dependent);
+    DEPENDENCIES.computeIfAbsent(dependent, $ -> synchronizedSet(newSetFromMap(new WeakHashMap<>()))).add(dependency);
+    DEPENDENTS.computeIfAbsent(dependency, $ -> synchronizedSet(newSetFromMap(new WeakHashMap<>()))).add(dependent);
   }
 
   /**
    * Get all registered dependencies of dependent.
    */
   public static Set<Object> getDependencies(Object dependent) {
-    return DEPENDENCIES.getOrDefault(dependent, Set.of());
+    return snapshot(DEPENDENCIES.get(dependent));
   }
 
   /**
    * Get all registered dependents of dependency.
    */
   public static Set<Object> getDependents(Object dependency) {
-    return DEPENDENTS.getOrDefault(dependency, Set.of());
+    return snapshot(DEPENDENTS.get(dependency));
+  }
+
+  private static Set<Object> snapshot(Set<Object> set) {
+    if (set == null) return Set.of();
+    // Copy while holding the lock, so callers can iterate while other threads add dependencies.
+    synchronized (set) {
+      return Set.copyOf(set);
+    }
   }
 
   /**
@@ -58,7 +92,11 @@ public final class Dependencies {
    * @param elideAnonymousNodes When true, remove anonymous nodes and replace them with their dependencies.
    */
   public static String describeDependencyGraph(boolean elideAnonymousNodes) {
-    return describeDependencyGraph(DEPENDENCIES.keySet(), elideAnonymousNodes);
+    List<Object> sources;
+    synchronized (DEPENDENCIES) {
+      sources = new ArrayList<>(DEPENDENCIES.keySet());
+    }
+    return describeDependencyGraph(sources, elideAnonymousNodes);
   }
 
   /**
@@ -26,7 +26,9 @@ public final class Naming {
   private Naming() {}
 
   // Use a WeakHashMap so that naming a thing doesn't prevent it from being garbage-collected.
-  private static final WeakHashMap<Object, Function<NamingContext, Optional<String>>> NAMES = new WeakHashMap<>();
+  // Synchronize it, since several simulations may run in the same JVM.
+  private static final Map<Object, Function<NamingContext, Optional<String>>> NAMES = Collections.synchronizedMap(new WeakHashMap<>());
+  private static volatile boolean enabled = true;
 
   private record NamingContext(Set<Object> visited, Function<Object, Optional<String>> anonymousName) {
     NamingContext visit(Object thing) {
@@ -44,11 +46,42 @@ public final class Naming {
     }
   }
 
+  /**
+   * Turn off naming.
+   *
+   * <p>
+   *     Effects are named as they're emitted, so naming costs time and memory throughout simulation.
+   *     Calling this method once before constructing your model skips that work entirely,
+   *     at the cost of less informative error messages and debugging output.
+   *     Names registered before this call are kept.
+   * </p>
+   */
+  public static void disable() {
+    enabled = false;
+  }
+
+  /**
+   * Turn naming back on after {@link Naming#disable}.
+   * Things named while naming was disabled stay anonymous.
+   */
+  public static void enable() {
+    enabled = true;
+  }
+
+  /**
+   * Whether names are being registered.
+   * Callers that do extra work to build a name, beyond calling {@link Naming#name}, can check this first.
+   */
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
   /**
    * Register a name for thing, as a function of args' names.
    * If any of the args are anonymous, so is this thing.
    */
   public static <T> T name(T thing, String nameFormat, Object... args) {
+    if (!enabled) return thing;
     // Only capture weak references to arguments, so we don't leak memory
     var args$ = Arrays.stream(args).map(WeakReference::new).toArray(WeakReference[]::new);
     NAMES.put(thing, context -> {
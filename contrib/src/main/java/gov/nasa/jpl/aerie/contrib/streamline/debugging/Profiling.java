@@ -38,6 +38,12 @@ import static java.util.Comparator.comparingLong;
  *     }
  *   </pre>
  * </p>
+ * <p>
+ *   For an overview without modifying the model, prefer the simulation engine's own instrumentation,
+ *   enabled with the {@code aerie.engine.instrumentation} system property.
+ *   It reports time per task type and resource, and reads per cell.
+ *   The tools here remain useful to drill into individual derived resources and effects.
+ * </p>
  */
 public final class Profiling {
   private Profiling() {}
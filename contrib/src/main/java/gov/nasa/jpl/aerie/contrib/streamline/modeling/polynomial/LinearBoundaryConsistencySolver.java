@@ -22,7 +22,6 @@ import static gov.nasa.jpl.aerie.contrib.streamline.core.Reactions.whenever;
 import static gov.nasa.jpl.aerie.contrib.streamline.core.monads.ExpiringMonad.bind;
 import static gov.nasa.jpl.aerie.contrib.streamline.debugging.Context.contextualized;
 import static gov.nasa.jpl.aerie.contrib.streamline.debugging.Dependencies.addDependency;
-import static gov.nasa.jpl.aerie.contrib.streamline.debugging.Naming.getName;
 import static gov.nasa.jpl.aerie.contrib.streamline.debugging.Naming.name;
 import static gov.nasa.jpl.aerie.contrib.streamline.modeling.polynomial.LinearBoundaryConsistencySolver.GeneralConstraint.constraint;
 import static gov.nasa.jpl.aerie.contrib.streamline.modeling.polynomial.LinearBoundaryConsistencySolver.InequalityComparison.GreaterThanOrEquals;
@@ -46,12 +45,15 @@ import static java.util.stream.Collectors.toMap;
  * </p>
  */
 public final class LinearBoundaryConsistencySolver {
+  // Keep our own name, since naming may be disabled.
+  private final String name;
   private final List<Resource<Polynomial>> drivenTerms = new LinkedList<>();
   private final List<Variable> variables = new LinkedList<>();
   private final List<DirectionalConstraint> constraints = new LinkedList<>();
   private final Map<Variable, Set<DirectionalConstraint>> neighboringConstraints = new HashMap<>();
 
   public LinearBoundaryConsistencySolver(String name) {
+    this.name = name;
     name(this, name);
 
     spawn(contextualized(name + " solving", () -> {
@@ -123,7 +125,7 @@ public final class LinearBoundaryConsistencySolver {
             if (D.isEmpty()) {
               throw new IllegalStateException(
                   "LinearBoundaryConsistencySolver %s failed. Domain for %s is empty: [%s, %s]".formatted(
-                      getName(this).orElseThrow(), D.variable, D.lowerBound, D.upperBound));
+                      name, D.variable, D.lowerBound, D.upperBound));
             }
             for (DirectionalConstraint constraintToAdd : neighboringConstraints.get(D.variable)) {
               if (!remainingConstraints.contains(constraintToAdd)) {
@@ -172,6 +174,7 @@ public final class LinearBoundaryConsistencySolver {
   }
 
   public static final class Variable {
+    private final String name;
     private final MutableResource<Polynomial> resource;
     private final Function<Domain, Expiring<Polynomial>> selectionPolicy;
 
@@ -179,6 +182,7 @@ public final class LinearBoundaryConsistencySolver {
         String name,
         MutableResource<Polynomial> resource,
         Function<Domain, Expiring<Polynomial>> selectionPolicy) {
+      this.name = name;
       name(this, name);
       name(resource, name);
       this.resource = resource;
@@ -187,7 +191,7 @@ public final class LinearBoundaryConsistencySolver {
 
     @Override
     public String toString() {
-      return getName(this).orElseThrow();
+      return name;
     }
 
     // Expose resource as Resource, not CellResource,
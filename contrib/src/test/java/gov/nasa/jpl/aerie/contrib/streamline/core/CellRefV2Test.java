@@ -1,8 +1,13 @@
 package gov.nasa.jpl.aerie.contrib.streamline.core;
 
+import gov.nasa.jpl.aerie.contrib.streamline.core.CellRefV2.Cell;
+import gov.nasa.jpl.aerie.contrib.streamline.core.monads.ErrorCatchingMonad;
 import gov.nasa.jpl.aerie.contrib.streamline.modeling.discrete.Discrete;
+import gov.nasa.jpl.aerie.contrib.streamline.modeling.polynomial.Polynomial;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
 import gov.nasa.jpl.aerie.merlin.framework.Registrar;
 import gov.nasa.jpl.aerie.merlin.framework.junit.MerlinExtension;
+import gov.nasa.jpl.aerie.merlin.protocol.model.CellType;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
@@ -12,12 +17,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import static gov.nasa.jpl.aerie.contrib.streamline.core.CellRefV2.autoEffects;
 import static gov.nasa.jpl.aerie.contrib.streamline.core.CellRefV2.commutingEffects;
 import static gov.nasa.jpl.aerie.contrib.streamline.core.CellRefV2.noncommutingEffects;
+import static gov.nasa.jpl.aerie.contrib.streamline.core.ErrorCatching.success;
+import static gov.nasa.jpl.aerie.contrib.streamline.core.Expiring.expiring;
 import static gov.nasa.jpl.aerie.contrib.streamline.core.MutableResource.resource;
 import static gov.nasa.jpl.aerie.contrib.streamline.core.Resources.currentValue;
 import static gov.nasa.jpl.aerie.contrib.streamline.modeling.discrete.Discrete.discrete;
 import static gov.nasa.jpl.aerie.contrib.streamline.modeling.discrete.monads.DiscreteDynamicsMonad.effect;
+import static gov.nasa.jpl.aerie.contrib.streamline.modeling.polynomial.Polynomial.polynomial;
 import static gov.nasa.jpl.aerie.merlin.framework.ModelActions.delay;
 import static gov.nasa.jpl.aerie.merlin.framework.ModelActions.spawn;
+import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.HOUR;
+import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.MICROSECONDS;
 import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.ZERO;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -155,3 +165,57 @@ class MutableResourceTest {
     }
   }
 }
+
+class CellRefV2Test {
+  private final CellType<DynamicsEffect<Polynomial>, Cell<Polynomial>> cellType =
+      CellRefV2.<Polynomial, DynamicsEffect<Polynomial>>cellType(commutingEffects());
+
+  @Test
+  void lazy_stepping_over_many_small_steps_matches_eager_stepping() {
+    final ErrorCatching<Expiring<Polynomial>> initial = success(expiring(polynomial(1.5, -0.25, 1e-4), HOUR));
+    final DynamicsEffect<Polynomial> effect = dynamics ->
+        ErrorCatchingMonad.map(dynamics, d -> expiring(polynomial(d.data().extract(), 0.75), d.expiry()));
+
+    final var readEveryStep = new Cell<>(initial);
+    final var readAtEnd = new Cell<>(initial);
+    // Reference: the eager stepping these cells used to do, from the initial dynamics after every step
+    var eagerInitial = initial;
+    var eagerElapsed = ZERO;
+    var eager = initial;
+
+    for (int i = 0; i < 20_000; ++i) {
+      if (i == 10_000) {
+        cellType.apply(readEveryStep, effect);
+        cellType.apply(readAtEnd, effect);
+        eagerInitial = effect.apply(eager);
+        eagerElapsed = ZERO;
+        eager = eagerInitial;
+      }
+
+      final var step = Duration.of(1 + i % 13, MICROSECONDS);
+      cellType.step(readEveryStep, step);
+      cellType.step(readAtEnd, step);
+      final var elapsed = eagerElapsed = eagerElapsed.plus(step);
+      eager = ErrorCatchingMonad.map(eagerInitial, d ->
+          expiring(d.data().step(elapsed), d.expiry().minus(elapsed)));
+
+      assertEquals(eager, readEveryStep.dynamics());
+    }
+
+    assertEquals(eager, readAtEnd.dynamics());
+    assertEquals(eagerElapsed, readAtEnd.elapsedTime());
+    assertEquals(eagerInitial, readAtEnd.initialDynamics());
+  }
+
+  @Test
+  void duplicate_reads_the_same_dynamics_as_the_original() {
+    final var cell = new Cell<>(success(expiring(polynomial(2, 1), HOUR)));
+    for (int i = 0; i < 1_000; ++i) cellType.step(cell, Duration.of(3, MICROSECONDS));
+
+    final var copy = cellType.duplicate(cell);
+    cellType.step(copy, Duration.of(3, MICROSECONDS));
+    cellType.step(cell, Duration.of(3, MICROSECONDS));
+
+    assertEquals(cell.dynamics(), copy.dynamics());
+  }
+}
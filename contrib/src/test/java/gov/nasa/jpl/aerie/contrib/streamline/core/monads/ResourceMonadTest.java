@@ -0,0 +1,65 @@
+package gov.nasa.jpl.aerie.contrib.streamline.core.monads;
+
+import gov.nasa.jpl.aerie.contrib.streamline.core.MutableResource;
+import gov.nasa.jpl.aerie.contrib.streamline.core.Resource;
+import gov.nasa.jpl.aerie.contrib.streamline.core.Resources;
+import gov.nasa.jpl.aerie.contrib.streamline.modeling.discrete.Discrete;
+import gov.nasa.jpl.aerie.contrib.streamline.modeling.discrete.monads.DiscreteResourceMonad;
+import gov.nasa.jpl.aerie.merlin.framework.Registrar;
+import gov.nasa.jpl.aerie.merlin.framework.junit.MerlinExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.List;
+
+import static gov.nasa.jpl.aerie.contrib.streamline.core.MutableResource.resource;
+import static gov.nasa.jpl.aerie.contrib.streamline.core.Resources.currentValue;
+import static gov.nasa.jpl.aerie.contrib.streamline.modeling.discrete.Discrete.discrete;
+import static gov.nasa.jpl.aerie.contrib.streamline.modeling.discrete.DiscreteEffects.set;
+import static gov.nasa.jpl.aerie.merlin.framework.ModelActions.delay;
+import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.MINUTE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ExtendWith(MerlinExtension.class)
+@TestInstance(Lifecycle.PER_CLASS)
+class ResourceMonadTest {
+  public ResourceMonadTest(final Registrar registrar) {
+    Resources.init();
+  }
+
+  private int evaluations = 0;
+
+  private final MutableResource<Discrete<Integer>> cell = resource(discrete(1));
+  // A diamond: both branches share the counted node, and are joined back together.
+  private final Resource<Discrete<Integer>> shared = DiscreteResourceMonad.map(cell, x -> {
+    ++evaluations;
+    return 10 * x;
+  });
+  private final Resource<Discrete<Integer>> left = DiscreteResourceMonad.map(shared, x -> x + 1);
+  private final Resource<Discrete<Integer>> right = DiscreteResourceMonad.map(shared, x -> x - 1);
+  private final Resource<Discrete<Integer>> sum = DiscreteResourceMonad.map(left, right, Integer::sum);
+  private final Resource<Discrete<Integer>> total = DiscreteResourceMonad.reduce(List.of(sum, left, right), 0, Integer::sum);
+  private final Resource<Discrete<Integer>> chosen = DiscreteResourceMonad.bind(cell, x -> x > 1 ? left : right);
+
+  @Test
+  void shared_derived_resources_are_evaluated_once_per_change() {
+    evaluations = 0;
+    assertEquals(20, currentValue(sum));
+    assertEquals(40, currentValue(total));
+    assertEquals(9, currentValue(chosen));
+    assertEquals(1, evaluations);
+
+    set(cell, 2);
+    assertEquals(40, currentValue(sum));
+    assertEquals(80, currentValue(total));
+    assertEquals(21, currentValue(chosen));
+    assertEquals(2, evaluations);
+
+    delay(MINUTE);
+    assertEquals(40, currentValue(sum));
+    assertEquals(80, currentValue(total));
+    assertEquals(21, currentValue(chosen));
+  }
+}
@@ -0,0 +1,85 @@
+package gov.nasa.jpl.aerie.contrib.streamline.debugging;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DisablingTest {
+  @Test
+  void names_are_not_registered_while_naming_is_disabled() {
+    var thing = new Object();
+    Naming.disable();
+    try {
+      assertFalse(Naming.isEnabled());
+      assertSame(thing, Naming.name(thing, "thing"));
+      assertTrue(Naming.getName(thing).isEmpty());
+    } finally {
+      Naming.enable();
+    }
+    assertTrue(Naming.isEnabled());
+    Naming.name(thing, "thing");
+    assertEquals("thing", Naming.getName(thing).orElseThrow());
+  }
+
+  @Test
+  void names_registered_before_disabling_are_kept() {
+    var thing = Naming.name(new Object(), "thing");
+    Naming.disable();
+    try {
+      assertEquals("thing", Naming.getName(thing).orElseThrow());
+    } finally {
+      Naming.enable();
+    }
+  }
+
+  @Test
+  void dependencies_are_not_recorded_while_tracking_is_disabled() {
+    var dependent = new Object();
+    var dependency = new Object();
+    Dependencies.disable();
+    try {
+      Dependencies.addDependency(dependent, dependency);
+      assertTrue(Dependencies.getDependencies(dependent).isEmpty());
+      assertTrue(Dependencies.getDependents(dependency).isEmpty());
+    } finally {
+      Dependencies.enable();
+    }
+    Dependencies.addDependency(dependent, dependency);
+    assertEquals(Set.of(dependency), Dependencies.getDependencies(dependent));
+    assertEquals(Set.of(dependent), Dependencies.getDependents(dependency));
+  }
+
+  @Test
+  void dependencies_recorded_before_disabling_are_kept() {
+    var dependent = new Object();
+    var dependency = new Object();
+    Dependencies.addDependency(dependent, dependency);
+    Dependencies.disable();
+    try {
+      Dependencies.addDependency(dependent, new Object());
+      assertEquals(Set.of(dependency), Dependencies.getDependencies(dependent));
+    } finally {
+      Dependencies.enable();
+    }
+  }
+
+  @Test
+  void dependency_snapshots_do_not_change_as_dependencies_are_added() {
+    var dependent = new Object();
+    var first = new Object();
+    var second = new Object();
+    Dependencies.addDependency(dependent, first);
+    var dependencies = Dependencies.getDependencies(dependent);
+    var dependents = Dependencies.getDependents(first);
+
+    Dependencies.addDependency(dependent, second);
+    Dependencies.addDependency(second, first);
+
+    assertEquals(Set.of(first), dependencies);
+    assertEquals(Set.of(dependent), dependents);
+    assertEquals(Set.of(first, second), Dependencies.getDependencies(dependent));
+    assertEquals(Set.of(dependent, second), Dependencies.getDependents(first));
+  }
+}
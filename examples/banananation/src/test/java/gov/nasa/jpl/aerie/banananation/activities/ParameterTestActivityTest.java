@@ -12,6 +12,7 @@ import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class ParameterTestActivityTest {
   private final ParameterTestActivityMapper mapper;
@@ -160,6 +161,30 @@ public class ParameterTestActivityTest {
     // TODO; Check equality for obnoxious (this is quite complex)
   }
 
+  @Test
+  public void testRecordSerialization() throws InstantiationException {
+    final ParameterTestActivity sourceActivity = new ParameterTestActivity();
+    final Map<String, SerializedValue> activityArgs = new HashMap<>(this.mapper.getInputType().getArguments(sourceActivity));
+
+    final ParameterTestActivity deserializedActivity = this.mapper.getInputType().instantiate(activityArgs);
+
+    assertEquals(sourceActivity.record.primitiveInt(), deserializedActivity.record.primitiveInt());
+    assertEquals(sourceActivity.record.stringMap(), deserializedActivity.record.stringMap());
+    assertEquals(sourceActivity.record.testEnum(), deserializedActivity.record.testEnum());
+    assertEquals(sourceActivity.record.nested(), deserializedActivity.record.nested());
+    assertEquals(sourceActivity.record.genericParameter(), deserializedActivity.record.genericParameter());
+
+    final var fields = new HashMap<>(activityArgs.get("record").asMap().orElseThrow());
+    fields.put("extra", SerializedValue.of(1));
+    activityArgs.put("record", SerializedValue.of(fields));
+    assertThrows(InstantiationException.class, () -> this.mapper.getInputType().instantiate(activityArgs));
+
+    fields.remove("extra");
+    fields.remove("nested");
+    activityArgs.put("record", SerializedValue.of(fields));
+    assertThrows(InstantiationException.class, () -> this.mapper.getInputType().instantiate(activityArgs));
+  }
+
   private Map<String, SerializedValue> createSerializedArguments() {
     final ParameterTestActivity testValues = new ParameterTestActivity();
     final Map<String, SerializedValue> arguments = new HashMap<>();
@@ -9,7 +9,9 @@ import gov.nasa.jpl.aerie.types.ActivityDirective;
 import gov.nasa.jpl.aerie.types.ActivityDirectiveId;
 
 import java.time.Instant;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
 
 public record CachedSimulationEngine(
       Duration endsAt,
@@ -24,12 +26,28 @@ public record CachedSimulationEngine(
   }
 
   public static CachedSimulationEngine empty(final MissionModel<?> missionModel, final Instant simulationStartTime) {
-    final SimulationEngine engine = new SimulationEngine(missionModel.getInitialCells());
+    return empty(missionModel, simulationStartTime, missionModel.getResources().keySet());
+  }
+
+  /**
+   * Creates an engine that profiles only the given resources of the mission model.
+   *
+   * Resources only read cells, so leaving some of them untracked does not change the rest of the simulation.
+   */
+  public static CachedSimulationEngine empty(
+      final MissionModel<?> missionModel,
+      final Instant simulationStartTime,
+      final Set<String> resourceNames)
+  {
+    final SimulationEngine engine = new SimulationEngine(missionModel.getInitialCells(), missionModel.getTopicIndex());
+
+    final var resources = new LinkedHashMap<>(missionModel.getResources());
+    resources.keySet().retainAll(resourceNames);
 
     // Specify a topic on which tasks can log the activity they're associated with.
     final var activityTopic = new Topic<ActivityDirectiveId>();
     try {
-      engine.init(missionModel.getResources(), missionModel.getDaemon());
+      engine.init(resources, missionModel.getDaemon());
 
       return new CachedSimulationEngine(
           Duration.MIN_VALUE,
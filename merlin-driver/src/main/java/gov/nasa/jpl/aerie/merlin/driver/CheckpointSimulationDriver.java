@@ -380,7 +380,8 @@ public class CheckpointSimulationDriver {
             computedStartTime,
             executor ->
                 Task.run(scheduler -> scheduler.emit(directiveIdToSchedule, activityTopic))
-                    .andThen(task.create(executor)));
+                    .andThen(task.create(executor)),
+            serializedDirective.getTypeName());
         activityToTask.put(directiveIdToSchedule, taskId);
         if (resolved.containsKey(directiveIdToSchedule)) {
           toCheckForDependencyScheduling.put(directiveIdToSchedule, taskId);
@@ -1,6 +1,7 @@
 package gov.nasa.jpl.aerie.merlin.driver;
 
 import gov.nasa.jpl.aerie.merlin.driver.timeline.LiveCells;
+import gov.nasa.jpl.aerie.merlin.driver.timeline.TopicIndex;
 import gov.nasa.jpl.aerie.merlin.protocol.driver.Scheduler;
 import gov.nasa.jpl.aerie.merlin.protocol.driver.Topic;
 import gov.nasa.jpl.aerie.merlin.protocol.model.OutputType;
@@ -22,6 +23,7 @@ import java.util.concurrent.Executor;
 public final class MissionModel<Model> {
   private final Model model;
   private final LiveCells initialCells;
+  private final TopicIndex topicIndex;
   private final Map<String, Resource<?>> resources;
   private final List<SerializableTopic<?>> topics;
   private final DirectiveTypeRegistry<Model> directiveTypes;
@@ -30,6 +32,7 @@ public final class MissionModel<Model> {
   public MissionModel(
       final Model model,
       final LiveCells initialCells,
+      final TopicIndex topicIndex,
       final Map<String, Resource<?>> resources,
       final List<SerializableTopic<?>> topics,
       final List<TaskFactory<?>> daemons,
@@ -37,6 +40,7 @@ public final class MissionModel<Model> {
   {
     this.model = Objects.requireNonNull(model);
     this.initialCells = Objects.requireNonNull(initialCells);
+    this.topicIndex = Objects.requireNonNull(topicIndex);
     this.resources = Collections.unmodifiableMap(resources);
     this.topics = Collections.unmodifiableList(topics);
     this.directiveTypes = Objects.requireNonNull(directiveTypes);
@@ -81,6 +85,11 @@ public final class MissionModel<Model> {
     return this.initialCells;
   }
 
+  /** The index of the topics the initial cells listen to, which any timeline read by those cells must share. */
+  public TopicIndex getTopicIndex() {
+    return this.topicIndex;
+  }
+
   public Iterable<SerializableTopic<?>> getTopics() {
     return this.topics;
   }
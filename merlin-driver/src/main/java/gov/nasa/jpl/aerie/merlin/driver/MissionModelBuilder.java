@@ -7,6 +7,7 @@ import gov.nasa.jpl.aerie.merlin.driver.timeline.LiveCells;
 import gov.nasa.jpl.aerie.merlin.driver.timeline.Query;
 import gov.nasa.jpl.aerie.merlin.driver.timeline.RecursiveEventGraphEvaluator;
 import gov.nasa.jpl.aerie.merlin.driver.timeline.Selector;
+import gov.nasa.jpl.aerie.merlin.driver.timeline.TopicIndex;
 import gov.nasa.jpl.aerie.merlin.protocol.driver.CellId;
 import gov.nasa.jpl.aerie.merlin.protocol.driver.Initializer;
 import gov.nasa.jpl.aerie.merlin.protocol.driver.Topic;
@@ -75,6 +76,7 @@ public final class MissionModelBuilder implements Initializer {
 
   private final class UnbuiltState implements MissionModelBuilderState {
     private final LiveCells initialCells = new LiveCells(new CausalEventSource());
+    private final TopicIndex topicIndex = new TopicIndex();
 
     private final Map<String, Resource<?>> resources = new HashMap<>();
     private final List<TaskFactory<?>> daemons = new ArrayList<>();
@@ -109,7 +111,7 @@ public final class MissionModelBuilder implements Initializer {
       final var query = new Query<State>();
       this.initialCells.put(query, new Cell<>(
           cellType,
-          new Selector<>(topic, interpretation),
+          new Selector<>(topic, this.topicIndex.register(topic), interpretation),
           evaluator,
           initialState));
 
@@ -141,6 +143,7 @@ public final class MissionModelBuilder implements Initializer {
       final var missionModel = new MissionModel<>(
           model,
           this.initialCells,
+          this.topicIndex,
           this.resources,
           this.topics,
           this.daemons,
@@ -33,9 +33,15 @@ public final class MissionModelLoader {
     throws MissionModelLoadException
     {
         final var service = loadMissionModelProvider(path, name, version);
-        final var modelType = service.getModelType();
-        final var builder = new MissionModelBuilder();
-        return loadMissionModel(planStart, missionModelConfig, modelType, builder);
+        return loadMissionModel(planStart, missionModelConfig, service.getModelType());
+    }
+
+    public static MissionModel<?> loadMissionModel(
+        final Instant planStart,
+        final SerializedValue missionModelConfig,
+        final ModelType<?, ?> modelType)
+    {
+        return loadMissionModel(planStart, missionModelConfig, modelType, new MissionModelBuilder());
     }
 
     private static <Config, Model>
@@ -0,0 +1,70 @@
+package gov.nasa.jpl.aerie.merlin.driver;
+
+import gov.nasa.jpl.aerie.merlin.protocol.model.MerlinPlugin;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mission model providers shared by every simulation a process runs, so that each mission model jar is opened and
+ * given a class loader once rather than once per simulation.
+ *
+ * A provider is reloaded if its jar's size or modification time changes. Mission models instantiated from a shared
+ * provider share its classes, and so share any static state those classes keep.
+ */
+public final class MissionModelProviderCache {
+  private record Entry(String name, String version, long size, FileTime lastModified, MerlinPlugin provider) {}
+
+  private final boolean enabled;
+  private final ConcurrentHashMap<Path, Entry> entries = new ConcurrentHashMap<>();
+
+  private MissionModelProviderCache(final boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public MissionModelProviderCache() {
+    this(true);
+  }
+
+  /** A cache that loads a new provider on every request. */
+  public static MissionModelProviderCache disabled() {
+    return new MissionModelProviderCache(false);
+  }
+
+  /**
+   * @see MissionModelLoader#loadMissionModelProvider(Path, String, String)
+   */
+  public MerlinPlugin get(final Path path, final String name, final String version)
+  throws MissionModelLoader.MissionModelLoadException
+  {
+    if (!this.enabled) return MissionModelLoader.loadMissionModelProvider(path, name, version);
+
+    final BasicFileAttributes attributes;
+    try {
+      attributes = Files.readAttributes(path, BasicFileAttributes.class);
+    } catch (final IOException ex) {
+      // Let the loader report the unreadable jar
+      return MissionModelLoader.loadMissionModelProvider(path, name, version);
+    }
+
+    final var cached = this.entries.get(path);
+    if (cached != null
+        && Objects.equals(cached.name(), name)
+        && Objects.equals(cached.version(), version)
+        && cached.size() == attributes.size()
+        && cached.lastModified().equals(attributes.lastModifiedTime()))
+    {
+      return cached.provider();
+    }
+
+    // Two simulations may race to load the same jar; either provider is as good as the other.
+    final var provider = MissionModelLoader.loadMissionModelProvider(path, name, version);
+    this.entries.put(path, new Entry(name, version, attributes.size(), attributes.lastModifiedTime(), provider));
+    return provider;
+  }
+}
@@ -57,7 +57,7 @@ public final class SimulationDriver {
       final Consumer<Duration> simulationExtentConsumer,
       final SimulationResourceManager resourceManager
   ) {
-    try (final var engine = new SimulationEngine(missionModel.getInitialCells())) {
+    try (final var engine = new SimulationEngine(missionModel.getInitialCells(), missionModel.getTopicIndex())) {
 
       /* The current real time. */
       simulationExtentConsumer.accept(Duration.ZERO);
@@ -134,7 +134,7 @@ public final class SimulationDriver {
   // This method is used as a helper method for executing unit tests
   public static <Model, Return>
   void simulateTask(final MissionModel<Model> missionModel, final TaskFactory<Return> task) {
-    try (final var engine = new SimulationEngine(missionModel.getInitialCells())) {
+    try (final var engine = new SimulationEngine(missionModel.getInitialCells(), missionModel.getTopicIndex())) {
       // Track resources and kick off daemon tasks
       try {
         engine.init(missionModel.getResources(), missionModel.getDaemon());
@@ -181,7 +181,7 @@ public final class SimulationDriver {
           resolved,
           missionModel,
           activityTopic
-      ));
+      ), serializedDirective.getTypeName());
     }
   }
 
@@ -10,6 +10,13 @@ import java.time.Instant;
 import java.util.Map;
 import java.util.Set;
 
+/**
+ * Everything needed to compute the results of a simulation after the fact.
+ *
+ * Results are computed incrementally when the simulation was resumed from a checkpoint: the engine picks up the span
+ * information and serialized events folded from the checkpoint's timeline by earlier results, and the resource
+ * manager reuses the profile segments it computed before the checkpoint.
+ */
 public record SimulationResultsComputerInputs(
     SimulationEngine engine,
     Instant simulationStartTime,
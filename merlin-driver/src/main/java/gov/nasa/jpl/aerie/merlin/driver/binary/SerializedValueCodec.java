@@ -0,0 +1,538 @@
+package gov.nasa.jpl.aerie.merlin.driver.binary;
+
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import gov.nasa.jpl.aerie.merlin.protocol.types.ValueSchema;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compact binary encoding of the {@link SerializedValue}s described by a {@link ValueSchema}.
+ *
+ * <p> A value is encoded as its schema describes it, so that the names of struct fields, the keys of variants and the
+ * kinds of primitives are known to both ends and never written: a real is 8 bytes, an int or a duration a variable-length
+ * integer, a struct its fields in the order of their names. Each value is preceded by a one-byte tag, which either says
+ * that the value follows its schema, or gives the kind of a value that does not -- a null, or anything else a schema
+ * does not forbid -- which is then encoded in a self-describing form. Every value hence decodes to a value equal to the
+ * encoded one, whether or not it conforms to the schema. </p>
+ *
+ * <p> A codec is built once for a schema, and is immutable. It writes to and reads from either a {@link DataOutput} and
+ * {@link DataInput}, such as streams, or a {@link ByteBuffer}. </p>
+ */
+public final class SerializedValueCodec {
+  // Tags preceding each value
+  private static final byte SCHEMA = 0;
+  private static final byte NULL = 1;
+  private static final byte LONG = 2;
+  private static final byte DOUBLE = 3;
+  private static final byte DECIMAL = 4;
+  private static final byte FALSE = 5;
+  private static final byte TRUE = 6;
+  private static final byte STRING = 7;
+  private static final byte LIST = 8;
+  private static final byte MAP = 9;
+
+  /** A codec for values with no known schema, which are all encoded in the self-describing form */
+  public static final SerializedValueCodec UNTYPED = new SerializedValueCodec(new Untyped());
+
+  private final Node root;
+
+  private SerializedValueCodec(final Node root) {
+    this.root = root;
+  }
+
+  public static SerializedValueCodec forSchema(final ValueSchema schema) {
+    return new SerializedValueCodec(compile(schema));
+  }
+
+  public void encode(final SerializedValue value, final DataOutput out) throws IOException {
+    this.root.write(value, new StreamSink(out));
+  }
+
+  /** @throws java.nio.BufferOverflowException if the value does not fit in the remaining space of the buffer */
+  public void encode(final SerializedValue value, final ByteBuffer buffer) {
+    try {
+      this.root.write(value, new BufferSink(buffer));
+    } catch (final IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  public SerializedValue decode(final DataInput in) throws IOException {
+    return this.root.read(new StreamSource(in));
+  }
+
+  /** @throws java.nio.BufferUnderflowException if the buffer ends before the value */
+  public SerializedValue decode(final ByteBuffer buffer) {
+    try {
+      return this.root.read(new BufferSource(buffer));
+    } catch (final IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  void write(final SerializedValue value, final Sink out) throws IOException {
+    this.root.write(value, out);
+  }
+
+  SerializedValue read(final Source in) throws IOException {
+    return this.root.read(in);
+  }
+
+  private static Node compile(final ValueSchema schema) {
+    return schema.match(new ValueSchema.Visitor<>() {
+      @Override
+      public Node onReal() {
+        return new Real();
+      }
+
+      @Override
+      public Node onInt() {
+        return new Int();
+      }
+
+      @Override
+      public Node onBoolean() {
+        return new Untyped();
+      }
+
+      @Override
+      public Node onString() {
+        return new Str();
+      }
+
+      @Override
+      public Node onDuration() {
+        return new Int();
+      }
+
+      @Override
+      public Node onPath() {
+        return new Str();
+      }
+
+      @Override
+      public Node onSeries(final ValueSchema value) {
+        return new Series(compile(value));
+      }
+
+      @Override
+      public Node onStruct(final Map<String, ValueSchema> value) {
+        final var names = value.keySet().toArray(String[]::new);
+        Arrays.sort(names);
+        final var fields = new Node[names.length];
+        for (int i = 0; i < names.length; i++) fields[i] = compile(value.get(names[i]));
+        return new Struct(names, fields);
+      }
+
+      @Override
+      public Node onVariant(final List<ValueSchema.Variant> variants) {
+        final var keys = new String[variants.size()];
+        final var indices = new HashMap<String, Integer>(variants.size());
+        for (int i = 0; i < keys.length; i++) {
+          keys[i] = variants.get(i).key();
+          indices.putIfAbsent(keys[i], i);
+        }
+        return new Variant(keys, indices);
+      }
+
+      @Override
+      public Node onMeta(final Map<String, SerializedValue> metadata, final ValueSchema target) {
+        return compile(target);
+      }
+    });
+  }
+
+  /** Encodes and decodes a value, tag included */
+  private abstract static class Node {
+    /** Whether the value can be encoded following the schema of this node */
+    abstract boolean conforms(SerializedValue value);
+
+    abstract void writeConforming(SerializedValue value, Sink out) throws IOException;
+
+    abstract SerializedValue readConforming(Source in) throws IOException;
+
+    final void write(final SerializedValue value, final Sink out) throws IOException {
+      if (this.conforms(value)) {
+        out.writeByte(SCHEMA);
+        this.writeConforming(value, out);
+      } else {
+        writeTagged(value, out);
+      }
+    }
+
+    final SerializedValue read(final Source in) throws IOException {
+      final var tag = in.readByte();
+      if (tag == SCHEMA) return this.readConforming(in);
+      return readTagged(tag, in);
+    }
+  }
+
+  /** Booleans take as much space with their tag as without, so they are always tagged, as are untyped values */
+  private static final class Untyped extends Node {
+    @Override
+    boolean conforms(final SerializedValue value) {
+      return false;
+    }
+
+    @Override
+    void writeConforming(final SerializedValue value, final Sink out) {
+      // No value conforms, so `write` always tags them instead.
+      throw new AssertionError("Untyped values are never written following a schema");
+    }
+
+    @Override
+    SerializedValue readConforming(final Source in) throws IOException {
+      throw new IOException("Untyped values cannot be encoded following a schema");
+    }
+  }
+
+  private static final class Real extends Node {
+    @Override
+    boolean conforms(final SerializedValue value) {
+      if (value instanceof SerializedValue.DoubleValue) return true;
+      // Other numbers must survive being read back as a double
+      final var real = value.asReal();
+      return real.isPresent() && Double.isFinite(real.get()) && SerializedValue.of(real.get()).equals(value);
+    }
+
+    @Override
+    void writeConforming(final SerializedValue value, final Sink out) throws IOException {
+      out.writeDouble(value.asReal().orElseThrow());
+    }
+
+    @Override
+    SerializedValue readConforming(final Source in) throws IOException {
+      return SerializedValue.of(in.readDouble());
+    }
+  }
+
+  private static final class Int extends Node {
+    @Override
+    boolean conforms(final SerializedValue value) {
+      return value instanceof SerializedValue.LongValue || value.asInt().isPresent();
+    }
+
+    @Override
+    void writeConforming(final SerializedValue value, final Sink out) throws IOException {
+      writeVarLong(value.asInt().orElseThrow(), out);
+    }
+
+    @Override
+    SerializedValue readConforming(final Source in) throws IOException {
+      return SerializedValue.of(readVarLong(in));
+    }
+  }
+
+  private static final class Str extends Node {
+    @Override
+    boolean conforms(final SerializedValue value) {
+      return value instanceof SerializedValue.StringValue;
+    }
+
+    @Override
+    void writeConforming(final SerializedValue value, final Sink out) throws IOException {
+      writeString(((SerializedValue.StringValue) value).value(), out);
+    }
+
+    @Override
+    SerializedValue readConforming(final Source in) throws IOException {
+      return SerializedValue.of(readString(in));
+    }
+  }
+
+  private static final class Series extends Node {
+    private final Node element;
+
+    Series(final Node element) {
+      this.element = element;
+    }
+
+    @Override
+    boolean conforms(final SerializedValue value) {
+      return value instanceof SerializedValue.ListValue;
+    }
+
+    @Override
+    void writeConforming(final SerializedValue value, final Sink out) throws IOException {
+      final var list = ((SerializedValue.ListValue) value).list();
+      writeVarInt(list.size(), out);
+      for (final var element : list) this.element.write(element, out);
+    }
+
+    @Override
+    SerializedValue readConforming(final Source in) throws IOException {
+      final var size = readVarInt(in);
+      final var list = new ArrayList<SerializedValue>(size);
+      for (int i = 0; i < size; i++) list.add(this.element.read(in));
+      return SerializedValue.of(list);
+    }
+  }
+
+  private static final class Struct extends Node {
+    /** names of the fields, in the order they are encoded */
+    private final String[] names;
+    private final Node[] fields;
+
+    Struct(final String[] names, final Node[] fields) {
+      this.names = names;
+      this.fields = fields;
+    }
+
+    @Override
+    boolean conforms(final SerializedValue value) {
+      if (!(value instanceof SerializedValue.MapValue map) || map.map().size() != this.names.length) return false;
+      for (final var name : this.names) {
+        if (!map.map().containsKey(name)) return false;
+      }
+      return true;
+    }
+
+    @Override
+    void writeConforming(final SerializedValue value, final Sink out) throws IOException {
+      final var map = ((SerializedValue.MapValue) value).map();
+      for (int i = 0; i < this.names.length; i++) this.fields[i].write(map.get(this.names[i]), out);
+    }
+
+    @Override
+    SerializedValue readConforming(final Source in) throws IOException {
+      final var map = new HashMap<String, SerializedValue>(this.names.length);
+      for (int i = 0; i < this.names.length; i++) map.put(this.names[i], this.fields[i].read(in));
+      return SerializedValue.of(map);
+    }
+  }
+
+  private static final class Variant extends Node {
+    private final String[] keys;
+    private final Map<String, Integer> indices;
+
+    Variant(final String[] keys, final Map<String, Integer> indices) {
+      this.keys = keys;
+      this.indices = indices;
+    }
+
+    @Override
+    boolean conforms(final SerializedValue value) {
+      return value instanceof SerializedValue.StringValue s && this.indices.containsKey(s.value());
+    }
+
+    @Override
+    void writeConforming(final SerializedValue value, final Sink out) throws IOException {
+      writeVarInt(this.indices.get(((SerializedValue.StringValue) value).value()), out);
+    }
+
+    @Override
+    SerializedValue readConforming(final Source in) throws IOException {
+      final var index = readVarInt(in);
+      if (index >= this.keys.length) throw new IOException("No variant at index " + index);
+      return SerializedValue.of(this.keys[index]);
+    }
+  }
+
+  private static void writeTagged(final SerializedValue value, final Sink out) throws IOException {
+    switch (value) {
+      case SerializedValue.NullValue v -> out.writeByte(NULL);
+      case SerializedValue.LongValue v -> {
+        out.writeByte(LONG);
+        writeVarLong(v.value(), out);
+      }
+      case SerializedValue.DoubleValue v -> {
+        out.writeByte(DOUBLE);
+        out.writeDouble(v.value());
+      }
+      case SerializedValue.NumericValue v -> {
+        out.writeByte(DECIMAL);
+        writeVarLong(v.value().scale(), out);
+        final var unscaled = v.value().unscaledValue().toByteArray();
+        writeVarInt(unscaled.length, out);
+        out.write(unscaled);
+      }
+      case SerializedValue.BooleanValue v -> out.writeByte(v.value() ? TRUE : FALSE);
+      case SerializedValue.StringValue v -> {
+        out.writeByte(STRING);
+        writeString(v.value(), out);
+      }
+      case SerializedValue.ListValue v -> {
+        out.writeByte(LIST);
+        writeVarInt(v.list().size(), out);
+        for (final var element : v.list()) writeTagged(element, out);
+      }
+      case SerializedValue.MapValue v -> {
+        out.writeByte(MAP);
+        writeVarInt(v.map().size(), out);
+        for (final var entry : v.map().entrySet()) {
+          writeString(entry.getKey(), out);
+          writeTagged(entry.getValue(), out);
+        }
+      }
+    }
+  }
+
+  private static SerializedValue readTagged(final byte tag, final Source in) throws IOException {
+    return switch (tag) {
+      case NULL -> SerializedValue.NULL;
+      case LONG -> SerializedValue.of(readVarLong(in));
+      case DOUBLE -> SerializedValue.of(in.readDouble());
+      case DECIMAL -> {
+        final var scale = Math.toIntExact(readVarLong(in));
+        final var unscaled = new byte[readVarInt(in)];
+        in.readFully(unscaled);
+        yield SerializedValue.of(new BigDecimal(new BigInteger(unscaled), scale));
+      }
+      case FALSE -> SerializedValue.of(false);
+      case TRUE -> SerializedValue.of(true);
+      case STRING -> SerializedValue.of(readString(in));
+      case LIST -> {
+        final var size = readVarInt(in);
+        final var list = new ArrayList<SerializedValue>(size);
+        for (int i = 0; i < size; i++) list.add(readTagged(in.readByte(), in));
+        yield SerializedValue.of(list);
+      }
+      case MAP -> {
+        final var size = readVarInt(in);
+        final var map = new HashMap<String, SerializedValue>(size);
+        for (int i = 0; i < size; i++) {
+          final var key = readString(in);
+          map.put(key, readTagged(in.readByte(), in));
+        }
+        yield SerializedValue.of(map);
+      }
+      default -> throw new IOException("Unknown value tag " + tag);
+    };
+  }
+
+  static void writeString(final String value, final Sink out) throws IOException {
+    final var bytes = value.getBytes(StandardCharsets.UTF_8);
+    writeVarInt(bytes.length, out);
+    out.write(bytes);
+  }
+
+  static String readString(final Source in) throws IOException {
+    final var bytes = new byte[readVarInt(in)];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  static void writeVarInt(final int value, final Sink out) throws IOException {
+    writeVarLong(value, out);
+  }
+
+  static int readVarInt(final Source in) throws IOException {
+    final var value = readVarLong(in);
+    if (value < 0 || value > Integer.MAX_VALUE) throw new IOException("Invalid length " + value);
+    return (int) value;
+  }
+
+  /** Writes a zigzag-encoded variable-length integer: 7 bits per byte, so that small magnitudes take few bytes */
+  static void writeVarLong(final long value, final Sink out) throws IOException {
+    var zigzag = (value << 1) ^ (value >> 63);
+    while ((zigzag & ~0x7FL) != 0) {
+      out.writeByte((byte) ((zigzag & 0x7F) | 0x80));
+      zigzag >>>= 7;
+    }
+    out.writeByte((byte) zigzag);
+  }
+
+  static long readVarLong(final Source in) throws IOException {
+    long zigzag = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      final var b = in.readByte();
+      zigzag |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+    throw new IOException("Malformed variable-length integer");
+  }
+
+  /** Where encoded bytes go; either a {@link DataOutput} or a {@link ByteBuffer} */
+  interface Sink {
+    void writeByte(byte value) throws IOException;
+    void writeDouble(double value) throws IOException;
+    void write(byte[] bytes) throws IOException;
+  }
+
+  /** Where encoded bytes come from; either a {@link DataInput} or a {@link ByteBuffer} */
+  interface Source {
+    byte readByte() throws IOException;
+    double readDouble() throws IOException;
+    void readFully(byte[] bytes) throws IOException;
+  }
+
+  record StreamSink(DataOutput out) implements Sink {
+    @Override
+    public void writeByte(final byte value) throws IOException {
+      this.out.writeByte(value);
+    }
+
+    @Override
+    public void writeDouble(final double value) throws IOException {
+      this.out.writeDouble(value);
+    }
+
+    @Override
+    public void write(final byte[] bytes) throws IOException {
+      this.out.write(bytes);
+    }
+  }
+
+  record BufferSink(ByteBuffer buffer) implements Sink {
+    @Override
+    public void writeByte(final byte value) {
+      this.buffer.put(value);
+    }
+
+    @Override
+    public void writeDouble(final double value) {
+      this.buffer.putDouble(value);
+    }
+
+    @Override
+    public void write(final byte[] bytes) {
+      this.buffer.put(bytes);
+    }
+  }
+
+  record StreamSource(DataInput in) implements Source {
+    @Override
+    public byte readByte() throws IOException {
+      return this.in.readByte();
+    }
+
+    @Override
+    public double readDouble() throws IOException {
+      return this.in.readDouble();
+    }
+
+    @Override
+    public void readFully(final byte[] bytes) throws IOException {
+      this.in.readFully(bytes);
+    }
+  }
+
+  record BufferSource(ByteBuffer buffer) implements Source {
+    @Override
+    public byte readByte() {
+      return this.buffer.get();
+    }
+
+    @Override
+    public double readDouble() {
+      return this.buffer.getDouble();
+    }
+
+    @Override
+    public void readFully(final byte[] bytes) {
+      this.buffer.get(bytes);
+    }
+  }
+}
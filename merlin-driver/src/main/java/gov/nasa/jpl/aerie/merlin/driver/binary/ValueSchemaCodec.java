@@ -0,0 +1,151 @@
+package gov.nasa.jpl.aerie.merlin.driver.binary;
+
+import gov.nasa.jpl.aerie.merlin.driver.binary.SerializedValueCodec.BufferSink;
+import gov.nasa.jpl.aerie.merlin.driver.binary.SerializedValueCodec.BufferSource;
+import gov.nasa.jpl.aerie.merlin.driver.binary.SerializedValueCodec.Sink;
+import gov.nasa.jpl.aerie.merlin.driver.binary.SerializedValueCodec.Source;
+import gov.nasa.jpl.aerie.merlin.driver.binary.SerializedValueCodec.StreamSink;
+import gov.nasa.jpl.aerie.merlin.driver.binary.SerializedValueCodec.StreamSource;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import gov.nasa.jpl.aerie.merlin.protocol.types.ValueSchema;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static gov.nasa.jpl.aerie.merlin.driver.binary.SerializedValueCodec.readString;
+import static gov.nasa.jpl.aerie.merlin.driver.binary.SerializedValueCodec.readVarInt;
+import static gov.nasa.jpl.aerie.merlin.driver.binary.SerializedValueCodec.writeString;
+import static gov.nasa.jpl.aerie.merlin.driver.binary.SerializedValueCodec.writeVarInt;
+
+/**
+ * A compact binary encoding of {@link ValueSchema}s, so that values encoded by a {@link SerializedValueCodec} can be
+ * stored along with their schema.
+ */
+public final class ValueSchemaCodec {
+  private static final byte REAL = 0;
+  private static final byte INT = 1;
+  private static final byte BOOLEAN = 2;
+  private static final byte STRING = 3;
+  private static final byte DURATION = 4;
+  private static final byte PATH = 5;
+  private static final byte SERIES = 6;
+  private static final byte STRUCT = 7;
+  private static final byte VARIANT = 8;
+  private static final byte META = 9;
+
+  private ValueSchemaCodec() {}
+
+  public static void encode(final ValueSchema schema, final DataOutput out) throws IOException {
+    write(schema, new StreamSink(out));
+  }
+
+  /** @throws java.nio.BufferOverflowException if the schema does not fit in the remaining space of the buffer */
+  public static void encode(final ValueSchema schema, final ByteBuffer buffer) {
+    try {
+      write(schema, new BufferSink(buffer));
+    } catch (final IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  public static ValueSchema decode(final DataInput in) throws IOException {
+    return read(new StreamSource(in));
+  }
+
+  /** @throws java.nio.BufferUnderflowException if the buffer ends before the schema */
+  public static ValueSchema decode(final ByteBuffer buffer) {
+    try {
+      return read(new BufferSource(buffer));
+    } catch (final IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  private static void write(final ValueSchema schema, final Sink out) throws IOException {
+    switch (schema) {
+      case ValueSchema.RealSchema s -> out.writeByte(REAL);
+      case ValueSchema.IntSchema s -> out.writeByte(INT);
+      case ValueSchema.BooleanSchema s -> out.writeByte(BOOLEAN);
+      case ValueSchema.StringSchema s -> out.writeByte(STRING);
+      case ValueSchema.DurationSchema s -> out.writeByte(DURATION);
+      case ValueSchema.PathSchema s -> out.writeByte(PATH);
+      case ValueSchema.SeriesSchema s -> {
+        out.writeByte(SERIES);
+        write(s.value(), out);
+      }
+      case ValueSchema.StructSchema s -> {
+        out.writeByte(STRUCT);
+        writeVarInt(s.value().size(), out);
+        for (final var field : s.value().entrySet()) {
+          writeString(field.getKey(), out);
+          write(field.getValue(), out);
+        }
+      }
+      case ValueSchema.VariantSchema s -> {
+        out.writeByte(VARIANT);
+        writeVarInt(s.variants().size(), out);
+        for (final var variant : s.variants()) {
+          writeString(variant.key(), out);
+          writeString(variant.label(), out);
+        }
+      }
+      case ValueSchema.MetaSchema s -> {
+        out.writeByte(META);
+        writeVarInt(s.metadata().size(), out);
+        for (final var entry : s.metadata().entrySet()) {
+          writeString(entry.getKey(), out);
+          SerializedValueCodec.UNTYPED.write(entry.getValue(), out);
+        }
+        write(s.target(), out);
+      }
+    }
+  }
+
+  private static ValueSchema read(final Source in) throws IOException {
+    final var tag = in.readByte();
+    return switch (tag) {
+      case REAL -> ValueSchema.REAL;
+      case INT -> ValueSchema.INT;
+      case BOOLEAN -> ValueSchema.BOOLEAN;
+      case STRING -> ValueSchema.STRING;
+      case DURATION -> ValueSchema.DURATION;
+      case PATH -> ValueSchema.PATH;
+      case SERIES -> ValueSchema.ofSeries(read(in));
+      case STRUCT -> {
+        final var size = readVarInt(in);
+        final var fields = new HashMap<String, ValueSchema>(size);
+        for (int i = 0; i < size; i++) {
+          final var name = readString(in);
+          fields.put(name, read(in));
+        }
+        yield ValueSchema.ofStruct(fields);
+      }
+      case VARIANT -> {
+        final var size = readVarInt(in);
+        final var variants = new ArrayList<ValueSchema.Variant>(size);
+        for (int i = 0; i < size; i++) {
+          final var key = readString(in);
+          variants.add(new ValueSchema.Variant(key, readString(in)));
+        }
+        yield ValueSchema.ofVariant(List.copyOf(variants));
+      }
+      case META -> {
+        final var size = readVarInt(in);
+        final var metadata = new HashMap<String, SerializedValue>(size);
+        for (int i = 0; i < size; i++) {
+          final var key = readString(in);
+          metadata.put(key, SerializedValueCodec.UNTYPED.read(in));
+        }
+        yield new ValueSchema.MetaSchema(Map.copyOf(metadata), read(in));
+      }
+      default -> throw new IOException("Unknown schema tag " + tag);
+    };
+  }
+}
@@ -0,0 +1,264 @@
+package gov.nasa.jpl.aerie.merlin.driver.engine;
+
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * Counts and times the work a {@link SimulationEngine} performs on behalf of a mission model:
+ * task steps, condition evaluations and reused condition windows by task type,
+ * resource samples by resource name, and cell reads by cell.
+ *
+ * <p>
+ *   Instrumentation is global and off by default, so that it needs no changes to mission model code.
+ *   Turn it on by setting the {@value #ENABLED_PROPERTY} system property to {@code true},
+ *   or by calling {@link #enable()} before constructing an engine.
+ *   Engines constructed while it is off pay nothing for it.
+ * </p>
+ * <p>
+ *   Counters are striped, so any number of engines may record into it concurrently.
+ *   Read the results with {@link #toJson()} or {@link #commitJfrEvents()},
+ *   and {@link #reset()} between runs; cells are tracked per mission model instance.
+ * </p>
+ */
+public final class EngineInstrumentation {
+  public static final String ENABLED_PROPERTY = "aerie.engine.instrumentation";
+
+  private static volatile EngineInstrumentation global =
+      Boolean.getBoolean(ENABLED_PROPERTY) ? new EngineInstrumentation() : null;
+
+  /** The instrumentation new engines record into, if enabled. */
+  public static Optional<EngineInstrumentation> global() {
+    return Optional.ofNullable(global);
+  }
+
+  /** Turn on instrumentation for engines constructed from now on, returning the instance they record into. */
+  public static synchronized EngineInstrumentation enable() {
+    if (global == null) global = new EngineInstrumentation();
+    return global;
+  }
+
+  /** Turn off instrumentation for engines constructed from now on. */
+  public static synchronized void disable() {
+    global = null;
+  }
+
+  /** A count of some kind of work, and the total time spent on it. */
+  public static final class Stats {
+    private final LongAdder count = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+
+    void record(final long elapsedNanos) {
+      this.count.increment();
+      this.nanos.add(elapsedNanos);
+    }
+
+    public long count() {
+      return this.count.sum();
+    }
+
+    public long nanos() {
+      return this.nanos.sum();
+    }
+  }
+
+  private record CellReads(int index, String stateType, LongAdder reads) {}
+
+  private final Map<String, Stats> taskSteps = new ConcurrentHashMap<>();
+  private final Map<String, Stats> conditionEvaluations = new ConcurrentHashMap<>();
+  private final Map<String, LongAdder> conditionCacheHits = new ConcurrentHashMap<>();
+  private final Map<String, Stats> resourceSamples = new ConcurrentHashMap<>();
+  // Cells have no names, so key them by the topic their queries are identified with,
+  // and number them in the order they were first read.
+  private final Map<Object, CellReads> cellReads = new ConcurrentHashMap<>();
+  private final AtomicInteger cellCount = new AtomicInteger();
+  private final LongAdder simulatedMicroseconds = new LongAdder();
+
+  void recordTaskStep(final String taskType, final long elapsedNanos) {
+    this.taskSteps.computeIfAbsent(taskType, $ -> new Stats()).record(elapsedNanos);
+  }
+
+  void recordConditionEvaluation(final String taskType, final long elapsedNanos) {
+    this.conditionEvaluations.computeIfAbsent(taskType, $ -> new Stats()).record(elapsedNanos);
+  }
+
+  void recordConditionCacheHit(final String taskType) {
+    this.conditionCacheHits.computeIfAbsent(taskType, $ -> new LongAdder()).increment();
+  }
+
+  void recordSimulatedTime(final Duration elapsed) {
+    this.simulatedMicroseconds.add(elapsed.in(Duration.MICROSECONDS));
+  }
+
+  void recordResourceSample(final String resourceName, final long elapsedNanos) {
+    this.resourceSamples.computeIfAbsent(resourceName, $ -> new Stats()).record(elapsedNanos);
+  }
+
+  void recordCellRead(final Object cellTopic, final Object state) {
+    this.cellReads
+        .computeIfAbsent(cellTopic, $ -> new CellReads(
+            this.cellCount.getAndIncrement(),
+            state.getClass().getName(),
+            new LongAdder()))
+        .reads()
+        .increment();
+  }
+
+  /** Task steps, by the type of the task; the directive type for activities, inherited by their subtasks. */
+  public Map<String, Stats> taskSteps() {
+    return new TreeMap<>(this.taskSteps);
+  }
+
+  /** Condition evaluations, by the type of the task waiting on the condition. */
+  public Map<String, Stats> conditionEvaluations() {
+    return new TreeMap<>(this.conditionEvaluations);
+  }
+
+  /**
+   * Condition evaluations skipped because the cells the condition last read were undisturbed, by task type.
+   * Only engines with the {@value SimulationEngine#CONDITION_CACHE_PROPERTY} system property set skip them.
+   */
+  public Map<String, Long> conditionCacheHits() {
+    final var result = new TreeMap<String, Long>();
+    this.conditionCacheHits.forEach((key, hits) -> result.put(key, hits.sum()));
+    return result;
+  }
+
+  /** The total simulated time the instrumented engines have advanced through. */
+  public Duration simulatedTime() {
+    return Duration.of(this.simulatedMicroseconds.sum(), Duration.MICROSECONDS);
+  }
+
+  /**
+   * Condition evaluations per simulated hour, by task type.
+   * A condition is re-evaluated whenever a cell it read may have changed, so this tracks how noisy its inputs are.
+   */
+  public Map<String, Double> conditionEvaluationsPerSimulatedHour() {
+    final var hours = this.simulatedTime().ratioOver(Duration.HOUR);
+    final var result = new TreeMap<String, Double>();
+    if (hours <= 0) return result;
+    this.conditionEvaluations.forEach((key, stats) -> result.put(key, stats.count() / hours));
+    return result;
+  }
+
+  /** Resource samples, by resource name. */
+  public Map<String, Stats> resourceSamples() {
+    return new TreeMap<>(this.resourceSamples);
+  }
+
+  /** Cell reads, by a label of the form "cell N (state type)". */
+  public Map<String, Long> cellReads() {
+    final var result = new TreeMap<String, Long>();
+    for (final var cell : this.cellReads.values()) {
+      result.put("cell %d (%s)".formatted(cell.index(), cell.stateType()), cell.reads().sum());
+    }
+    return result;
+  }
+
+  /** Discard everything recorded so far, such as between runs. */
+  public void reset() {
+    this.taskSteps.clear();
+    this.conditionEvaluations.clear();
+    this.conditionCacheHits.clear();
+    this.resourceSamples.clear();
+    this.cellReads.clear();
+    this.cellCount.set(0);
+    this.simulatedMicroseconds.reset();
+  }
+
+  public JsonObject toJson() {
+    final var conditionCacheHits = Json.createObjectBuilder();
+    this.conditionCacheHits().forEach(conditionCacheHits::add);
+    final var conditionRates = Json.createObjectBuilder();
+    this.conditionEvaluationsPerSimulatedHour().forEach(conditionRates::add);
+    final var cellReads = Json.createObjectBuilder();
+    this.cellReads().forEach(cellReads::add);
+
+    return Json.createObjectBuilder()
+        .add("simulatedMicroseconds", this.simulatedTime().in(Duration.MICROSECONDS))
+        .add("taskSteps", statsToJson(this.taskSteps()))
+        .add("conditionEvaluations", statsToJson(this.conditionEvaluations()))
+        .add("conditionEvaluationsPerSimulatedHour", conditionRates)
+        .add("conditionCacheHits", conditionCacheHits)
+        .add("resourceSamples", statsToJson(this.resourceSamples()))
+        .add("cellReads", cellReads)
+        .build();
+  }
+
+  private static JsonObjectBuilder statsToJson(final Map<String, Stats> stats) {
+    final var builder = Json.createObjectBuilder();
+    stats.forEach((key, value) -> builder.add(key, Json.createObjectBuilder()
+        .add("count", value.count())
+        .add("nanos", value.nanos())));
+    return builder;
+  }
+
+  /** Commit one JFR event per instrumented key, summarizing everything recorded so far. */
+  public void commitJfrEvents() {
+    if (!EngineMetricEvent.enabled()) return;
+
+    final BiConsumer<String, Map<String, Stats>> commitAll = (kind, stats) -> stats.forEach((key, value) -> {
+      final var event = new EngineMetricEvent();
+      event.kind = kind;
+      event.key = key;
+      event.count = value.count();
+      event.totalDuration = value.nanos();
+      event.commit();
+    });
+    commitAll.accept("taskStep", this.taskSteps());
+    commitAll.accept("conditionEvaluation", this.conditionEvaluations());
+    commitAll.accept("resourceSample", this.resourceSamples());
+    this.conditionCacheHits().forEach((key, hits) -> {
+      final var event = new EngineMetricEvent();
+      event.kind = "conditionCacheHit";
+      event.key = key;
+      event.count = hits;
+      event.commit();
+    });
+    this.cellReads().forEach((key, reads) -> {
+      final var event = new EngineMetricEvent();
+      event.kind = "cellRead";
+      event.key = key;
+      event.count = reads;
+      event.commit();
+    });
+  }
+
+  @Name("gov.nasa.jpl.aerie.EngineMetric")
+  @Label("Simulation Engine Metric")
+  @Category({"Aerie", "Simulation"})
+  @Description("Work done by a simulation engine on behalf of a mission model, accumulated since instrumentation was enabled")
+  private static final class EngineMetricEvent extends Event {
+    @Label("Kind")
+    String kind;
+
+    @Label("Key")
+    String key;
+
+    @Label("Count")
+    long count;
+
+    @Label("Total Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    long totalDuration;
+
+    static boolean enabled() {
+      return new EngineMetricEvent().isEnabled();
+    }
+  }
+}
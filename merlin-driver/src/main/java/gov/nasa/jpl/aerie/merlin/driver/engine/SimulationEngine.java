@@ -3,19 +3,24 @@ package gov.nasa.jpl.aerie.merlin.driver.engine;
 import gov.nasa.jpl.aerie.merlin.driver.MissionModel.SerializableTopic;
 import gov.nasa.jpl.aerie.merlin.driver.ActivityInstance;
 import gov.nasa.jpl.aerie.merlin.driver.ActivityInstanceId;
+import gov.nasa.jpl.aerie.merlin.driver.resources.ResourceProfiles;
 import gov.nasa.jpl.aerie.merlin.driver.resources.SimulationResourceManager;
 import gov.nasa.jpl.aerie.merlin.driver.SimulationResults;
 import gov.nasa.jpl.aerie.merlin.driver.UnfinishedActivity;
+import gov.nasa.jpl.aerie.merlin.driver.timeline.Cell;
 import gov.nasa.jpl.aerie.merlin.driver.timeline.Event;
 import gov.nasa.jpl.aerie.merlin.driver.timeline.EventGraph;
 import gov.nasa.jpl.aerie.merlin.driver.timeline.LiveCells;
+import gov.nasa.jpl.aerie.merlin.driver.timeline.Query;
 import gov.nasa.jpl.aerie.merlin.driver.timeline.TemporalEventSource;
+import gov.nasa.jpl.aerie.merlin.driver.timeline.TopicIndex;
 import gov.nasa.jpl.aerie.merlin.protocol.driver.CellId;
 import gov.nasa.jpl.aerie.merlin.protocol.driver.Querier;
 import gov.nasa.jpl.aerie.merlin.protocol.driver.Scheduler;
 import gov.nasa.jpl.aerie.merlin.protocol.driver.Topic;
 import gov.nasa.jpl.aerie.merlin.protocol.model.Condition;
 import gov.nasa.jpl.aerie.merlin.protocol.model.EffectTrait;
+import gov.nasa.jpl.aerie.merlin.protocol.model.RealDynamicsResource;
 import gov.nasa.jpl.aerie.merlin.protocol.model.Resource;
 import gov.nasa.jpl.aerie.merlin.protocol.model.Task;
 import gov.nasa.jpl.aerie.merlin.protocol.model.TaskFactory;
@@ -34,6 +39,7 @@ import org.apache.commons.lang3.mutable.MutableObject;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.commons.lang3.tuple.Triple;
 
+import java.lang.ref.WeakReference;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
@@ -41,6 +47,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -59,6 +66,16 @@ import java.util.stream.Collectors;
  * A representation of the work remaining to do during a simulation, and its accumulated results.
  */
 public final class SimulationEngine implements AutoCloseable {
+  /**
+   * Set this system property to {@code true} to have engines constructed from then on reuse a condition's last answer
+   * while the cells it read are undisturbed, rather than re-evaluating it whenever an event lands on a topic it read.
+   *
+   * This costs a copy of every cell a condition reads each time it is evaluated,
+   * so it only pays off for models whose conditions are often woken by events that leave their cells as they were.
+   * Only cells whose type provides a {@link gov.nasa.jpl.aerie.merlin.protocol.model.CellType#getStateEquivalence() state equivalence} can be compared.
+   */
+  public static final String CONDITION_CACHE_PROPERTY = "aerie.engine.conditionCache";
+
   private boolean closed = false;
 
   /** The set of all jobs waiting for time to pass. */
@@ -76,6 +93,10 @@ public final class SimulationEngine implements AutoCloseable {
   private final Map<TaskId, ExecutionState<?>> tasks;
   /** The getter for each tracked condition. */
   private final Map<ConditionId, Condition> conditions;
+  /** Whether to keep the last evaluation of each condition, to be reused while the cells it read are undisturbed. */
+  private final boolean cachesConditions;
+  /** The last evaluation of each tracked condition, if it can be reused while the cells it read are undisturbed. */
+  private final Map<ConditionId, ConditionEvaluation> conditionEvaluations;
   /** The profiling state for each tracked resource. */
   private final Map<ResourceId, Resource<?>> resources;
 
@@ -96,9 +117,23 @@ public final class SimulationEngine implements AutoCloseable {
   private final LiveCells cells;
   private Duration elapsedTime;
 
-  public SimulationEngine(LiveCells initialCells) {
-    timeline = new TemporalEventSource();
-    referenceTimeline = new TemporalEventSource();
+  /** The engines this one was (transitively) duplicated from, oldest first. */
+  private final List<Ancestor> ancestors;
+  /** The longest prefix of the combined timeline folded into results so far, if any. */
+  private volatile ResultsPrefix resultsPrefix;
+  /** The longest prefix of the combined timeline folded into results along with its serialized timeline, if any. */
+  private volatile ResultsPrefix serializedResultsPrefix;
+
+  /** Where to record the work done on behalf of the model, or null if instrumentation was off when this engine was built. */
+  private final EngineInstrumentation instrumentation;
+
+  /**
+   * @param initialCells The cells of the simulated mission model.
+   * @param topics The index of the topics those cells listen to, as given by the mission model.
+   */
+  public SimulationEngine(LiveCells initialCells, TopicIndex topics) {
+    timeline = new TemporalEventSource(topics);
+    referenceTimeline = new TemporalEventSource(topics);
     cells = new LiveCells(timeline, initialCells);
     elapsedTime = Duration.ZERO;
 
@@ -109,11 +144,15 @@ public final class SimulationEngine implements AutoCloseable {
     waitingResources = new Subscriptions<>();
     tasks = new LinkedHashMap<>();
     conditions = new LinkedHashMap<>();
+    cachesConditions = Boolean.getBoolean(CONDITION_CACHE_PROPERTY);
+    conditionEvaluations = new HashMap<>();
     resources = new LinkedHashMap<>();
     unstartedTasks = new LinkedHashMap<>();
     spans = new LinkedHashMap<>();
     spanContributorCount = new LinkedHashMap<>();
     executor = Executors.newVirtualThreadPerTaskExecutor();
+    ancestors = List.of();
+    instrumentation = EngineInstrumentation.global().orElse(null);
   }
 
   private SimulationEngine(SimulationEngine other) {
@@ -123,7 +162,7 @@ public final class SimulationEngine implements AutoCloseable {
 
     elapsedTime = other.elapsedTime;
 
-    timeline = new TemporalEventSource();
+    timeline = new TemporalEventSource(other.timeline.topics());
     cells = new LiveCells(timeline, other.cells);
     referenceTimeline = other.combineTimeline();
 
@@ -142,6 +181,12 @@ public final class SimulationEngine implements AutoCloseable {
       tasks.put(entry.getKey(), entry.getValue().duplicate(executor));
     }
     conditions = new LinkedHashMap<>(other.conditions);
+    cachesConditions = other.cachesConditions;
+    // Cached evaluations hold cell snapshots that are stepped in place, so copy them rather than share them.
+    conditionEvaluations = new HashMap<>();
+    for (final var entry : other.conditionEvaluations.entrySet()) {
+      conditionEvaluations.put(entry.getKey(), entry.getValue().duplicate());
+    }
     resources = new LinkedHashMap<>(other.resources);
     unstartedTasks = new LinkedHashMap<>(other.unstartedTasks);
     spans = new LinkedHashMap<>(other.spans);
@@ -149,6 +194,17 @@ public final class SimulationEngine implements AutoCloseable {
     for (final var entry : other.spanContributorCount.entrySet()) {
       spanContributorCount.put(entry.getKey(), new MutableInt(entry.getValue().getValue()));
     }
+
+    // The other engine's combined timeline is a prefix of ours, so anything folded from it is valid for us too.
+    final var ancestors = new ArrayList<Ancestor>(other.ancestors.size() + 1);
+    for (final var ancestor : other.ancestors) {
+      if (ancestor.engine().get() != null) ancestors.add(ancestor);
+    }
+    ancestors.add(new Ancestor(new WeakReference<>(other), referenceTimeline.points().size()));
+    this.ancestors = List.copyOf(ancestors);
+    resultsPrefix = other.resultsPrefix;
+    serializedResultsPrefix = other.serializedResultsPrefix;
+    instrumentation = other.instrumentation;
   }
 
   /** Initialize the engine by tracking resources and kicking off daemon tasks. **/
@@ -162,7 +218,7 @@ public final class SimulationEngine implements AutoCloseable {
     }
 
     // Start daemon task(s) immediately, before anything else happens.
-    this.scheduleTask(Duration.ZERO, daemons);
+    this.scheduleTask(Duration.ZERO, daemons, "daemon");
     {
       final var batch = this.extractNextJobs(Duration.MAX_VALUE);
       final var results = this.performJobs(batch.jobs(), cells, elapsedTime, Duration.MAX_VALUE);
@@ -193,6 +249,9 @@ public final class SimulationEngine implements AutoCloseable {
   public Status step(Duration simulationDuration) throws Throwable {
     final var nextTime = this.peekNextTime().orElse(Duration.MAX_VALUE);
     if (nextTime.longerThan(simulationDuration)) {
+      if (this.instrumentation != null && simulationDuration.longerThan(elapsedTime)) {
+        this.instrumentation.recordSimulatedTime(simulationDuration.minus(elapsedTime));
+      }
       elapsedTime = Duration.max(elapsedTime, simulationDuration); // avoid lowering elapsed time
       return new Status.AtDuration();
     }
@@ -203,6 +262,7 @@ public final class SimulationEngine implements AutoCloseable {
     final var delta = batch.offsetFromStart().minus(elapsedTime);
     elapsedTime = batch.offsetFromStart();
     timeline.add(delta);
+    if (this.instrumentation != null) this.instrumentation.recordSimulatedTime(delta);
 
     // TODO: Advance a dense time counter so that future tasks are strictly ordered relative to these,
     //   even if they occur at the same real time.
@@ -242,6 +302,9 @@ public final class SimulationEngine implements AutoCloseable {
     final var resource = update.resource;
     final var dynamics = update.update.dynamics();
 
+    // Typed real resources need no round-trip through their serialized form
+    if (resource instanceof RealDynamicsResource) return (RealDynamics) dynamics;
+
     final var serializedSegment = resource.getOutputType().serialize(dynamics).asMap().orElseThrow();
     final var initial = serializedSegment.get("initial").asReal().orElseThrow();
     final var rate = serializedSegment.get("rate").asReal().orElseThrow();
@@ -255,6 +318,16 @@ public final class SimulationEngine implements AutoCloseable {
 
   /** Schedule a new task to be performed at the given time. */
   public <Output> SpanId scheduleTask(final Duration startTime, final TaskFactory<Output> state) {
+    return this.scheduleTask(startTime, state, "task");
+  }
+
+  /**
+   * Schedule a new task to be performed at the given time.
+   *
+   * @param taskType What kind of task this is, such as its directive type, for attributing its work when instrumented.
+   *   Subtasks it spawns or calls share its type.
+   */
+  public <Output> SpanId scheduleTask(final Duration startTime, final TaskFactory<Output> state, final String taskType) {
     if (this.closed) throw new IllegalStateException("Cannot schedule task on closed simulation engine");
     if (startTime.isNegative()) throw new IllegalArgumentException(
         "Cannot schedule a task before the start time of the simulation");
@@ -264,7 +337,7 @@ public final class SimulationEngine implements AutoCloseable {
 
     final var task = TaskId.generate();
     this.spanContributorCount.put(span, new MutableInt(1));
-    this.tasks.put(task, new ExecutionState<>(span, Optional.empty(), state.create(this.executor)));
+    this.tasks.put(task, new ExecutionState<>(span, Optional.empty(), state.create(this.executor), taskType));
     this.scheduledJobs.schedule(JobId.forTask(task), SubInstant.Tasks.at(startTime));
 
     this.unstartedTasks.put(task, startTime);
@@ -282,6 +355,11 @@ public final class SimulationEngine implements AutoCloseable {
     this.scheduledJobs.schedule(JobId.forResource(id), SubInstant.Resources.at(nextQueryTime));
   }
 
+  /** Whether the profile of the given resource is accumulated by this engine. */
+  public boolean isTrackingResource(final String name) {
+    return this.resources.containsKey(new ResourceId(name));
+  }
+
   /** Schedules any conditions or resources dependent on the given topic to be re-checked at the given time. */
   public void invalidateTopic(final Topic<?> topic, final Duration invalidationTime) {
     if (this.closed) throw new IllegalStateException("Cannot invalidate topic on closed simulation engine");
@@ -312,6 +390,7 @@ public final class SimulationEngine implements AutoCloseable {
       if (!(job instanceof JobId.SignalJobId s)) continue;
 
       this.conditions.remove(s.id());
+      this.conditionEvaluations.remove(s.id());
       this.waitingConditions.unsubscribeQuery(s.id());
     }
 
@@ -426,12 +505,15 @@ public final class SimulationEngine implements AutoCloseable {
       final Duration currentTime
   ) throws SpanException {
     // Step the modeling state forward.
-    final var scheduler = new EngineScheduler(currentTime, progress.span(), progress.caller(), frame);
+    final var scheduler = new EngineScheduler(currentTime, progress.span(), progress.caller(), progress.type(), frame);
     final TaskStatus<Output> status;
+    final var startNanos = (this.instrumentation != null) ? System.nanoTime() : 0;
     try {
       status = progress.state().step(scheduler);
     } catch (Throwable ex) {
       throw new SpanException(scheduler.span, ex);
+    } finally {
+      if (this.instrumentation != null) this.instrumentation.recordTaskStep(progress.type(), System.nanoTime() - startNanos);
     }
     // TODO: Report which topics this activity wrote to at this point in time. This is useful insight for any user.
     // TODO: Report which cells this activity read from at this point in time. This is useful insight for any user.
@@ -493,7 +575,8 @@ public final class SimulationEngine implements AutoCloseable {
             new ExecutionState<>(
                 childSpan,
                 Optional.of(task),
-                s.child().create(this.executor)));
+                s.child().create(this.executor),
+                progress.type()));
         frame.signal(JobId.forTask(childTask));
 
         // Arrange for the parent task to resume.... later.
@@ -520,15 +603,51 @@ public final class SimulationEngine implements AutoCloseable {
       final Duration horizonTime
   ) {
     if (this.closed) throw new IllegalStateException("Cannot update condition on closed simulation engine");
-    final var querier = new EngineQuerier(frame);
+
+    // Events on a topic the condition read don't necessarily change the cells it read.
+    // If they didn't, the condition sees the same world it saw last time, and will give the same answer.
+    final var previous = (this.cachesConditions) ? this.conditionEvaluations.remove(condition) : null;
+    if (previous != null && previous.isUndisturbedAt(frame, currentTime, horizonTime)) {
+      if (this.instrumentation != null) this.instrumentation.recordConditionCacheHit(this.conditionTaskType(condition));
+
+      this.waitingConditions.subscribeQuery(condition, new HashSet<>(previous.topics));
+      this.conditionEvaluations.put(condition, previous);
+      this.scheduleConditionCheck(condition, currentTime, horizonTime, previous.prediction, previous.expiry);
+      return;
+    }
+
+    final var querier = new EngineQuerier(frame, this.instrumentation, this.cachesConditions);
+    final var startNanos = (this.instrumentation != null) ? System.nanoTime() : 0;
     final var prediction = this.conditions
         .get(condition)
         .nextSatisfied(querier, horizonTime.minus(currentTime))
         .map(currentTime::plus);
+    if (this.instrumentation != null) {
+      this.instrumentation.recordConditionEvaluation(this.conditionTaskType(condition), System.nanoTime() - startNanos);
+    }
+
+    final var expiry = querier.expiry.map(currentTime::plus);
+    if (querier.snapshots != null) {
+      this.conditionEvaluations.put(condition, new ConditionEvaluation(
+          currentTime,
+          horizonTime,
+          querier.snapshots,
+          Set.copyOf(querier.referencedTopics),
+          prediction,
+          expiry));
+    }
 
     this.waitingConditions.subscribeQuery(condition, querier.referencedTopics);
+    this.scheduleConditionCheck(condition, currentTime, horizonTime, prediction, expiry);
+  }
 
-    final var expiry = querier.expiry.map(currentTime::plus);
+  private void scheduleConditionCheck(
+      final ConditionId condition,
+      final Duration currentTime,
+      final Duration horizonTime,
+      final Optional<Duration> prediction,
+      final Optional<Duration> expiry
+  ) {
     if (prediction.isPresent() && (expiry.isEmpty() || prediction.get().shorterThan(expiry.get()))) {
       this.scheduledJobs.schedule(JobId.forSignal(condition), SubInstant.Tasks.at(prediction.get()));
     } else {
@@ -538,6 +657,77 @@ public final class SimulationEngine implements AutoCloseable {
     }
   }
 
+  /** The type of the task waiting on a condition; conditions are typically anonymous, so we attribute them to it. */
+  private String conditionTaskType(final ConditionId condition) {
+    final var waitingTask = this.tasks.get(this.waitingTasks.get(condition));
+    return (waitingTask != null) ? waitingTask.type() : "task";
+  }
+
+  /**
+   * The outcome of evaluating a condition, together with snapshots of the cells it read.
+   *
+   * Conditions are functions of the cells they read, so as long as those cells are in the state they'd be in
+   * had nothing happened to them since, the condition's answer still holds.
+   * We check that by stepping the snapshots forward alongside simulation time, and comparing them to the live cells.
+   */
+  private static final class ConditionEvaluation {
+    private Duration evaluatedAt;
+    private final Duration horizon;
+    private final List<CellSnapshot<?>> reads;
+    private final Set<Topic<?>> topics;
+    private final Optional<Duration> prediction;
+    private final Optional<Duration> expiry;
+
+    ConditionEvaluation(
+        final Duration evaluatedAt,
+        final Duration horizon,
+        final List<CellSnapshot<?>> reads,
+        final Set<Topic<?>> topics,
+        final Optional<Duration> prediction,
+        final Optional<Duration> expiry)
+    {
+      this.evaluatedAt = evaluatedAt;
+      this.horizon = horizon;
+      this.reads = reads;
+      this.topics = topics;
+      this.prediction = prediction;
+      this.expiry = expiry;
+    }
+
+    /** Get a copy of this evaluation whose snapshots are stepped independently of this one's. */
+    ConditionEvaluation duplicate() {
+      final var reads = new ArrayList<CellSnapshot<?>>(this.reads.size());
+      for (final var read : this.reads) reads.add(read.duplicate());
+      return new ConditionEvaluation(this.evaluatedAt, this.horizon, reads, this.topics, this.prediction, this.expiry);
+    }
+
+    /** Whether this evaluation still holds at the given time. On failure, the snapshots are left unusable. */
+    boolean isUndisturbedAt(final TaskFrame<JobId> frame, final Duration currentTime, final Duration horizonTime) {
+      if (!this.horizon.isEqualTo(horizonTime)) return false;
+      if (this.prediction.isPresent() && currentTime.longerThan(this.prediction.get())) return false;
+      // Past the expiry (or the horizon, if none), the condition was scheduled to look again, so it must do so.
+      if (currentTime.noShorterThan(this.expiry.orElse(this.horizon))) return false;
+
+      final var elapsed = currentTime.minus(this.evaluatedAt);
+      for (final var read : this.reads) {
+        if (!read.isUndisturbed(frame, elapsed)) return false;
+      }
+      this.evaluatedAt = currentTime;
+      return true;
+    }
+  }
+
+  private record CellSnapshot<State>(Query<State> query, Cell<State> cell) {
+    CellSnapshot<State> duplicate() {
+      return new CellSnapshot<>(this.query, this.cell.duplicate());
+    }
+
+    boolean isUndisturbed(final TaskFrame<JobId> frame, final Duration elapsed) {
+      if (!elapsed.isZero()) this.cell.step(elapsed);
+      return frame.hasState(this.query, this.cell);
+    }
+  }
+
   /** Get the current behavior of a given resource and accumulate it into the resource's profile. */
   public void updateResource(
       final ResourceId resourceId,
@@ -545,12 +735,16 @@ public final class SimulationEngine implements AutoCloseable {
       final Duration currentTime,
       final ResourceUpdates resourceUpdates) {
     if (this.closed) throw new IllegalStateException("Cannot update resource on closed simulation engine");
-    final var querier = new EngineQuerier(frame);
+    final var querier = new EngineQuerier(frame, this.instrumentation);
+    final var startNanos = (this.instrumentation != null) ? System.nanoTime() : 0;
     resourceUpdates.add(new ResourceUpdates.ResourceUpdate<>(
         querier,
         currentTime,
         resourceId,
         this.resources.get(resourceId)));
+    if (this.instrumentation != null) {
+      this.instrumentation.recordResourceSample(resourceId.id(), System.nanoTime() - startNanos);
+    }
 
     this.waitingResources.subscribeQuery(resourceId, querier.referencedTopics);
 
@@ -593,6 +787,13 @@ public final class SimulationEngine implements AutoCloseable {
       this(new HashMap<>(), new HashMap<>(), new HashMap<>());
     }
 
+    public SpanInfo copy() {
+      return new SpanInfo(
+          new HashMap<>(this.spanToPlannedDirective),
+          new HashMap<>(this.input),
+          new HashMap<>(this.output));
+    }
+
     public boolean isActivity(final SpanId id) {
       return this.input.containsKey(id);
     }
@@ -740,7 +941,7 @@ public final class SimulationEngine implements AutoCloseable {
   ) {
     return computeActivitySimulationResults(
         startTime,
-        computeSpanInfo(activityTopic, serializableTopics, combineTimeline())
+        foldTimeline(activityTopic, serializableTopics, Optional.empty()).spanInfo()
     );
   }
 
@@ -785,7 +986,9 @@ public final class SimulationEngine implements AutoCloseable {
       final SpanInfo spanInfo
   ) {
     // Identify the nearest ancestor *activity* (excluding intermediate anonymous tasks).
+    // Children are listed in the order their spans were created, so that results do not depend on span id hashes.
     final var activityParents = new HashMap<SpanId, SpanId>();
+    final var activityChildren = new HashMap<SpanId, List<SpanId>>();
     final var activityDirectiveIds = spanToActivityDirectiveId(spanInfo);
     this.spans.forEach((span, state) -> {
       if (!spanInfo.isActivity(span)) return;
@@ -794,12 +997,10 @@ public final class SimulationEngine implements AutoCloseable {
       while (parent.isPresent() && !spanInfo.isActivity(parent.get())) {
         parent = this.spans.get(parent.get()).parent();
       }
-      parent.ifPresent(spanId -> activityParents.put(span, spanId));
-    });
-
-    final var activityChildren = new HashMap<SpanId, List<SpanId>>();
-    activityParents.forEach((activity, parent) -> {
-      activityChildren.computeIfAbsent(parent, $ -> new LinkedList<>()).add(activity);
+      parent.ifPresent(spanId -> {
+        activityParents.put(span, spanId);
+        activityChildren.computeIfAbsent(spanId, $ -> new LinkedList<>()).add(span);
+      });
     });
 
     // Give every task corresponding to a child activity an ID that doesn't conflict with any root activity.
@@ -850,62 +1051,304 @@ public final class SimulationEngine implements AutoCloseable {
     return new SimulationActivityExtract(startTime, elapsedTime, simulatedActivities, unfinishedActivities);
   }
 
-  private TreeMap<Duration, List<EventGraph<EventRecord>>> createSerializedTimeline(
-      final TemporalEventSource combinedTimeline,
+  /**
+   * Serializes the events of a single commit, attributing each event to the nearest activity span it was emitted under.
+   *
+   * {@code spanToActivities} is extended with the result of each ancestor lookup so that later events under the same
+   * span are attributed directly, and {@code attributions} records the activity each event's provenance was
+   * attributed to.
+   */
+  private EventGraph<EventRecord> serializeCommit(
+      final TemporalEventSource.TimePoint.Commit commit,
       final Iterable<SerializableTopic<?>> serializableTopics,
       final HashMap<SpanId, ActivityInstanceId> spanToActivities,
-      final HashMap<SerializableTopic<?>, Integer> serializableTopicToId) {
-    final var serializedTimeline = new TreeMap<Duration, List<EventGraph<EventRecord>>>();
-    var time = Duration.ZERO;
-    for (var point : combinedTimeline.points()) {
-      if (point instanceof TemporalEventSource.TimePoint.Delta delta) {
-        time = time.plus(delta.delta());
-      } else if (point instanceof TemporalEventSource.TimePoint.Commit commit) {
-        final var serializedEventGraph = commit.events().substitute(
-            event -> {
-              // TODO can we do this more efficiently?
-              EventGraph<EventRecord> output = EventGraph.empty();
-              for (final var serializableTopic : serializableTopics) {
-                Optional<SerializedValue> serializedEvent = trySerializeEvent(event, serializableTopic);
-                if (serializedEvent.isPresent()) {
-                  // If the event's `provenance` has no simulated activity id, search its ancestors to find the nearest
-                  // simulated activity id, if one exists
-                  if (!spanToActivities.containsKey(event.provenance())) {
-                    var spanId = Optional.of(event.provenance());
-
-                    while (true) {
-                      if (spanToActivities.containsKey(spanId.get())) {
-                        spanToActivities.put(event.provenance(), spanToActivities.get(spanId.get()));
-                        break;
-                      }
-                      spanId = this.getSpan(spanId.get()).parent();
-                      if (spanId.isEmpty()) {
-                        break;
-                      }
-                    }
+      final Map<SpanId, ActivityInstanceId> attributions,
+      final Map<SerializableTopic<?>, Integer> serializableTopicToId) {
+    return commit.events().substitute(
+        event -> {
+          // TODO can we do this more efficiently?
+          EventGraph<EventRecord> output = EventGraph.empty();
+          for (final var serializableTopic : serializableTopics) {
+            Optional<SerializedValue> serializedEvent = trySerializeEvent(event, serializableTopic);
+            if (serializedEvent.isPresent()) {
+              // If the event's `provenance` has no simulated activity id, search its ancestors to find the nearest
+              // simulated activity id, if one exists
+              if (!spanToActivities.containsKey(event.provenance())) {
+                var spanId = Optional.of(event.provenance());
+
+                while (true) {
+                  if (spanToActivities.containsKey(spanId.get())) {
+                    spanToActivities.put(event.provenance(), spanToActivities.get(spanId.get()));
+                    break;
+                  }
+                  spanId = this.getSpan(spanId.get()).parent();
+                  if (spanId.isEmpty()) {
+                    break;
                   }
-                  var activitySpanID = Optional.ofNullable(spanToActivities.get(event.provenance())).map(ActivityInstanceId::id);
-                  output = EventGraph.concurrently(
-                      output,
-                      EventGraph.atom(
-                          new EventRecord(serializableTopicToId.get(serializableTopic),
-                                          activitySpanID,
-                                          serializedEvent.get())));
                 }
               }
-              return output;
+              if (!attributions.containsKey(event.provenance())) {
+                attributions.put(event.provenance(), spanToActivities.get(event.provenance()));
+              }
+              var activitySpanID = Optional.ofNullable(spanToActivities.get(event.provenance())).map(ActivityInstanceId::id);
+              output = EventGraph.concurrently(
+                  output,
+                  EventGraph.atom(
+                      new EventRecord(serializableTopicToId.get(serializableTopic),
+                                      activitySpanID,
+                                      serializedEvent.get())));
             }
-        ).evaluate(new EventGraph.IdentityTrait<>(), EventGraph::atom);
-        if (!(serializedEventGraph instanceof EventGraph.Empty)) {
-          serializedTimeline
-              .computeIfAbsent(time, x -> new ArrayList<>())
-              .add(serializedEventGraph);
+          }
+          return output;
         }
+    ).evaluate(new EventGraph.IdentityTrait<>(), EventGraph::atom);
+  }
+
+  /** An engine this one was duplicated from, and the number of time points in its combined timeline at that time. */
+  private record Ancestor(WeakReference<SimulationEngine> engine, int points) {}
+
+  /**
+   * Results-relevant state folded from the first {@code points} time points of an engine's combined timeline.
+   *
+   * An engine duplicated from another one starts from the other's combined timeline, so a prefix folded by an engine
+   * -- or by one of its descendants, on its behalf -- lets every engine resumed from it fold only the time points
+   * it added itself.
+   */
+  private record ResultsPrefix(
+      Topic<ActivityDirectiveId> activityTopic,
+      Iterable<SerializableTopic<?>> serializableTopics,
+      int points,
+      SpanInfo spanInfo,
+      Optional<SerializedTimelinePrefix> serializedTimeline
+  ) {
+    public boolean foldedWith(
+        final Topic<ActivityDirectiveId> activityTopic,
+        final Iterable<SerializableTopic<?>> serializableTopics
+    ) {
+      return this.activityTopic.equals(activityTopic) && this.serializableTopics.equals(serializableTopics);
+    }
+  }
+
+  /**
+   * The first {@code eventsAtTime} entries at {@code time} of a serialized timeline, and everything before them.
+   *
+   * {@code attributions} maps the provenance of every event in the prefix to the activity instance it was attributed
+   * to, or to {@code null} if it was not attributed to any.
+   * The referenced timeline is shared with the results it was computed for and must not be modified.
+   */
+  private record SerializedTimelinePrefix(
+      TreeMap<Duration, List<EventGraph<EventRecord>>> timeline,
+      Duration time,
+      int eventsAtTime,
+      Map<SpanId, ActivityInstanceId> attributions
+  ) {
+
+    public TreeMap<Duration, List<EventGraph<EventRecord>>> copy() {
+      final var copy = new TreeMap<>(this.timeline.headMap(this.time));
+      if (this.eventsAtTime > 0) {
+        copy.put(this.time, new ArrayList<>(this.timeline.get(this.time).subList(0, this.eventsAtTime)));
       }
+      return copy;
     }
-    return serializedTimeline;
   }
 
+  private record FoldedTimeline(
+      SpanInfo spanInfo,
+      Optional<TreeMap<Duration, List<EventGraph<EventRecord>>>> serializedTimeline
+  ) {}
+
+  /**
+   * Folds the combined timeline into span information and, if topic ids are given, a serialized timeline.
+   *
+   * Folding resumes from the longest prefix already folded by this engine or by one of the engines it was duplicated
+   * from, and the state reached at the end of each of those engines' timelines is left with them in turn.
+   */
+  private FoldedTimeline foldTimeline(
+      final Topic<ActivityDirectiveId> activityTopic,
+      final Iterable<SerializableTopic<?>> serializableTopics,
+      final Optional<Map<SerializableTopic<?>, Integer>> serializableTopicToId
+  ) {
+    final var totalPoints = this.referenceTimeline.points().size() + this.timeline.points().size();
+    final var serialize = serializableTopicToId.isPresent();
+
+    ResultsPrefix base = null;
+    ResultsPrefix serializedBase = null;
+    final var sources = new ArrayList<SimulationEngine>();
+    sources.add(this);
+    for (final var ancestor : this.ancestors) {
+      final var engine = ancestor.engine().get();
+      if (engine != null) sources.add(engine);
+    }
+    for (final var source : sources) {
+      final var prefix = source.resultsPrefix;
+      if (prefix != null && prefix.foldedWith(activityTopic, serializableTopics)) {
+        if (base == null || prefix.points() > base.points()) base = prefix;
+      }
+      final var serializedPrefix = source.serializedResultsPrefix;
+      if (serializedPrefix != null && serializedPrefix.foldedWith(activityTopic, serializableTopics)) {
+        if (serializedBase == null || serializedPrefix.points() > serializedBase.points()) serializedBase = serializedPrefix;
+      }
+    }
+    final var start = (base == null) ? 0 : base.points();
+
+    // Leave the state reached at the end of each ancestor's timeline with that ancestor, unless it already has it.
+    final var targets = new ArrayList<Ancestor>();
+    for (final var ancestor : this.ancestors) {
+      final var engine = ancestor.engine().get();
+      if (engine == null || ancestor.points() < start) continue;
+      if (engine.hasResultsPrefix(activityTopic, serializableTopics, ancestor.points(), serialize)) continue;
+      targets.add(ancestor);
+    }
+
+    // Collect per-span information from the event graph.
+    final var spanInfo = (base == null) ? new SpanInfo() : base.spanInfo().copy();
+    final var targetSpanInfos = new SpanInfo[targets.size()];
+    {
+      final var trait = new SpanInfo.Trait(serializableTopics, activityTopic);
+      final var points = combinedTimelineFrom(start);
+      var target = 0;
+      for (var index = start; ; index++) {
+        while (target < targets.size() && targets.get(target).points() == index) {
+          targetSpanInfos[target++] = spanInfo.copy();
+        }
+        if (index == totalPoints) break;
+
+        if (points.next() instanceof TemporalEventSource.TimePoint.Commit p) {
+          p.events().evaluate(trait, trait::atom).accept(spanInfo);
+        }
+      }
+    }
+
+    if (serializableTopicToId.isEmpty()) {
+      for (var i = 0; i < targets.size(); i++) {
+        final var engine = targets.get(i).engine().get();
+        if (engine == null) continue;
+        engine.offerResultsPrefix(new ResultsPrefix(
+            activityTopic, serializableTopics, targets.get(i).points(), targetSpanInfos[i], Optional.empty()));
+      }
+      this.offerResultsPrefix(new ResultsPrefix(activityTopic, serializableTopics, totalPoints, spanInfo, Optional.empty()));
+      return new FoldedTimeline(spanInfo, Optional.empty());
+    }
+
+    // Serialize the events, resuming from a prefix only if it attributed them to the same activities we would.
+    final var activityIds = spanToSimulatedActivities(spanInfo);
+    final var timelineBase = (serializedBase != null && attributesLike(serializedBase.serializedTimeline().get(), activityIds))
+        ? serializedBase
+        : null;
+    final var serializedTimeline = (timelineBase == null)
+        ? new TreeMap<Duration, List<EventGraph<EventRecord>>>()
+        : timelineBase.serializedTimeline().get().copy();
+    final var spanToActivities = new HashMap<>(activityIds);
+    final var attributions = (timelineBase == null)
+        ? new HashMap<SpanId, ActivityInstanceId>()
+        : new HashMap<>(timelineBase.serializedTimeline().get().attributions());
+    final var targetTimes = new Duration[targets.size()];
+    final var targetEventCounts = new int[targets.size()];
+    final var targetAttributions = new ArrayList<Map<SpanId, ActivityInstanceId>>(targets.size());
+    var time = (timelineBase == null) ? Duration.ZERO : timelineBase.serializedTimeline().get().time();
+    {
+      final var timelineStart = (timelineBase == null) ? 0 : timelineBase.points();
+      final var points = combinedTimelineFrom(timelineStart);
+      var target = 0;
+      for (var index = timelineStart; ; index++) {
+        while (target < targets.size() && targets.get(target).points() == index) {
+          targetTimes[target] = time;
+          targetEventCounts[target] = serializedTimeline.getOrDefault(time, List.of()).size();
+          targetAttributions.add(new HashMap<>(attributions));
+          target++;
+        }
+        if (index == totalPoints) break;
+
+        final var point = points.next();
+        if (point instanceof TemporalEventSource.TimePoint.Delta delta) {
+          time = time.plus(delta.delta());
+        } else if (point instanceof TemporalEventSource.TimePoint.Commit commit) {
+          final var serializedEventGraph = serializeCommit(
+              commit, serializableTopics, spanToActivities, attributions, serializableTopicToId.get());
+          if (!(serializedEventGraph instanceof EventGraph.Empty)) {
+            serializedTimeline
+                .computeIfAbsent(time, x -> new ArrayList<>())
+                .add(serializedEventGraph);
+          }
+        }
+      }
+    }
+
+    for (var i = 0; i < targets.size(); i++) {
+      final var engine = targets.get(i).engine().get();
+      if (engine == null) continue;
+      engine.offerResultsPrefix(new ResultsPrefix(
+          activityTopic,
+          serializableTopics,
+          targets.get(i).points(),
+          targetSpanInfos[i],
+          Optional.of(new SerializedTimelinePrefix(
+              serializedTimeline, targetTimes[i], targetEventCounts[i], targetAttributions.get(i)))));
+    }
+    this.offerResultsPrefix(new ResultsPrefix(
+        activityTopic,
+        serializableTopics,
+        totalPoints,
+        spanInfo,
+        Optional.of(new SerializedTimelinePrefix(
+            serializedTimeline,
+            time,
+            serializedTimeline.getOrDefault(time, List.of()).size(),
+            attributions))));
+    return new FoldedTimeline(spanInfo, Optional.of(serializedTimeline));
+  }
+
+  private boolean hasResultsPrefix(
+      final Topic<ActivityDirectiveId> activityTopic,
+      final Iterable<SerializableTopic<?>> serializableTopics,
+      final int points,
+      final boolean serialized
+  ) {
+    final var prefix = serialized ? this.serializedResultsPrefix : this.resultsPrefix;
+    return prefix != null && prefix.foldedWith(activityTopic, serializableTopics) && prefix.points() >= points;
+  }
+
+  private synchronized void offerResultsPrefix(final ResultsPrefix prefix) {
+    if (!hasResultsPrefix(prefix.activityTopic(), prefix.serializableTopics(), prefix.points(), false)) {
+      this.resultsPrefix = prefix;
+    }
+    if (prefix.serializedTimeline().isPresent()
+        && !hasResultsPrefix(prefix.activityTopic(), prefix.serializableTopics(), prefix.points(), true)) {
+      this.serializedResultsPrefix = prefix;
+    }
+  }
+
+  /** Whether every event in the prefix would be attributed to the same activity given these activity ids. */
+  private boolean attributesLike(final SerializedTimelinePrefix prefix, final Map<SpanId, ActivityInstanceId> activityIds) {
+    for (final var entry : prefix.attributions().entrySet()) {
+      var spanId = Optional.of(entry.getKey());
+      while (spanId.isPresent() && !activityIds.containsKey(spanId.get())) {
+        spanId = this.getSpan(spanId.get()).parent();
+      }
+      if (!Objects.equals(spanId.map(activityIds::get).orElse(null), entry.getValue())) return false;
+    }
+    return true;
+  }
+
+  /** Iterates over the time points of {@link #combineTimeline()} from the given index, without building it. */
+  private Iterator<TemporalEventSource.TimePoint> combinedTimelineFrom(final int index) {
+    final var referenceSize = this.referenceTimeline.points().size();
+    if (index >= referenceSize) return this.timeline.points().iterator(index - referenceSize);
+
+    final var reference = this.referenceTimeline.points().iterator(index);
+    final var expanded = this.timeline.points().iterator();
+    return new Iterator<>() {
+      @Override
+      public boolean hasNext() {
+        return reference.hasNext() || expanded.hasNext();
+      }
+
+      @Override
+      public TemporalEventSource.TimePoint next() {
+        return reference.hasNext() ? reference.next() : expanded.next();
+      }
+    };
+  }
 
   /** Compute a set of results from the current state of simulation. */
   // TODO: Move result extraction out of the SimulationEngine.
@@ -920,40 +1363,8 @@ public final class SimulationEngine implements AutoCloseable {
       final Iterable<SerializableTopic<?>> serializableTopics,
       final SimulationResourceManager resourceManager
   ) {
-    final var combinedTimeline = this.combineTimeline();
-    // Collect per-task information from the event graph.
-    final var spanInfo = computeSpanInfo(activityTopic, serializableTopics, combinedTimeline);
-
     // Extract profiles for every resource.
-    final var resourceProfiles = resourceManager.computeProfiles(elapsedTime);
-    final var realProfiles = resourceProfiles.realProfiles();
-    final var discreteProfiles = resourceProfiles.discreteProfiles();
-
-    final var activityResults = computeActivitySimulationResults(startTime, spanInfo);
-
-    final List<Triple<Integer, String, ValueSchema>> topics = new ArrayList<>();
-    final var serializableTopicToId = new HashMap<SerializableTopic<?>, Integer>();
-    for (final var serializableTopic : serializableTopics) {
-      serializableTopicToId.put(serializableTopic, topics.size());
-      topics.add(Triple.of(topics.size(), serializableTopic.name(), serializableTopic.outputType().getSchema()));
-    }
-
-    final var serializedTimeline = createSerializedTimeline(
-        combinedTimeline,
-        serializableTopics,
-        spanToSimulatedActivities(spanInfo),
-        serializableTopicToId
-    );
-
-    return new SimulationResults(
-        realProfiles,
-        discreteProfiles,
-        activityResults.simulatedActivities,
-        activityResults.unfinishedActivities,
-        startTime,
-        elapsedTime,
-        topics,
-        serializedTimeline);
+    return computeResults(startTime, activityTopic, serializableTopics, resourceManager.computeProfiles(elapsedTime));
   }
 
   public SimulationResults computeResults(
@@ -963,17 +1374,23 @@ public final class SimulationEngine implements AutoCloseable {
       final SimulationResourceManager resourceManager,
       final Set<String> resourceNames
   ) {
-    final var combinedTimeline = this.combineTimeline();
-    // Collect per-task information from the event graph.
-    final var spanInfo = computeSpanInfo(activityTopic, serializableTopics, combinedTimeline);
-
     // Extract profiles for every resource.
-    final var resourceProfiles = resourceManager.computeProfiles(elapsedTime, resourceNames);
+    return computeResults(
+        startTime,
+        activityTopic,
+        serializableTopics,
+        resourceManager.computeProfiles(elapsedTime, resourceNames));
+  }
+
+  private SimulationResults computeResults(
+      final Instant startTime,
+      final Topic<ActivityDirectiveId> activityTopic,
+      final Iterable<SerializableTopic<?>> serializableTopics,
+      final ResourceProfiles resourceProfiles
+  ) {
     final var realProfiles = resourceProfiles.realProfiles();
     final var discreteProfiles = resourceProfiles.discreteProfiles();
 
-    final var activityResults = computeActivitySimulationResults(startTime, spanInfo);
-
     final List<Triple<Integer, String, ValueSchema>> topics = new ArrayList<>();
     final var serializableTopicToId = new HashMap<SerializableTopic<?>, Integer>();
     for (final var serializableTopic : serializableTopics) {
@@ -981,12 +1398,10 @@ public final class SimulationEngine implements AutoCloseable {
       topics.add(Triple.of(topics.size(), serializableTopic.name(), serializableTopic.outputType().getSchema()));
     }
 
-    final var serializedTimeline = createSerializedTimeline(
-        combinedTimeline,
-        serializableTopics,
-        spanToSimulatedActivities(spanInfo),
-        serializableTopicToId
-    );
+    // Collect per-task information and serialize events from the event graph.
+    final var folded = foldTimeline(activityTopic, serializableTopics, Optional.of(serializableTopicToId));
+
+    final var activityResults = computeActivitySimulationResults(startTime, folded.spanInfo());
 
     return new SimulationResults(
         realProfiles,
@@ -996,7 +1411,7 @@ public final class SimulationEngine implements AutoCloseable {
         startTime,
         elapsedTime,
         topics,
-        serializedTimeline);
+        folded.serializedTimeline().orElseThrow());
   }
 
   public Span getSpan(SpanId spanId) {
@@ -1014,11 +1429,20 @@ public final class SimulationEngine implements AutoCloseable {
   /** A handle for processing requests from a modeled resource or condition. */
   private static final class EngineQuerier implements Querier {
     private final TaskFrame<JobId> frame;
+    private final EngineInstrumentation instrumentation;
     private final Set<Topic<?>> referencedTopics = new HashSet<>();
     private Optional<Duration> expiry = Optional.empty();
+    /** Snapshots of the cells read so far, or null if not taking them, or if some cell can't be usefully compared. */
+    private List<CellSnapshot<?>> snapshots;
 
-    public EngineQuerier(final TaskFrame<JobId> frame) {
+    public EngineQuerier(final TaskFrame<JobId> frame, final EngineInstrumentation instrumentation) {
+      this(frame, instrumentation, false);
+    }
+
+    public EngineQuerier(final TaskFrame<JobId> frame, final EngineInstrumentation instrumentation, final boolean takeSnapshots) {
       this.frame = Objects.requireNonNull(frame);
+      this.instrumentation = instrumentation;
+      this.snapshots = takeSnapshots ? new ArrayList<>() : null;
     }
 
     @Override
@@ -1032,9 +1456,19 @@ public final class SimulationEngine implements AutoCloseable {
 
       // TODO: Cache the state (until the query returns) to avoid unnecessary copies
       //  if the same state is requested multiple times in a row.
-      final var state$ = this.frame.getState(query.query());
+      final var state = this.frame.getState(query.query()).orElseThrow(IllegalArgumentException::new);
+      if (this.instrumentation != null) this.instrumentation.recordCellRead(query.topic(), state);
+
+      if (this.snapshots != null) {
+        final var snapshot = this.frame.getSnapshot(query.query());
+        if (snapshot.isPresent()) {
+          this.snapshots.add(new CellSnapshot<>(query.query(), snapshot.get()));
+        } else {
+          this.snapshots = null;
+        }
+      }
 
-      return state$.orElseThrow(IllegalArgumentException::new);
+      return state;
     }
 
     private static Optional<Duration> min(final Optional<Duration> a, final Optional<Duration> b) {
@@ -1049,17 +1483,20 @@ public final class SimulationEngine implements AutoCloseable {
     private final Duration currentTime;
     private final SpanId span;
     private final Optional<TaskId> caller;
+    private final String taskType;
     private final TaskFrame<JobId> frame;
 
     public EngineScheduler(
         final Duration currentTime,
         final SpanId span,
         final Optional<TaskId> caller,
+        final String taskType,
         final TaskFrame<JobId> frame)
     {
       this.currentTime = Objects.requireNonNull(currentTime);
       this.span = Objects.requireNonNull(span);
       this.caller = Objects.requireNonNull(caller);
+      this.taskType = Objects.requireNonNull(taskType);
       this.frame = Objects.requireNonNull(frame);
     }
 
@@ -1071,8 +1508,11 @@ public final class SimulationEngine implements AutoCloseable {
 
       // TODO: Cache the return value (until the next emit or until the task yields) to avoid unnecessary copies
       //  if the same state is requested multiple times in a row.
-      final var state$ = this.frame.getState(query.query());
-      return state$.orElseThrow(IllegalArgumentException::new);
+      final var state = this.frame.getState(query.query()).orElseThrow(IllegalArgumentException::new);
+      if (SimulationEngine.this.instrumentation != null) {
+        SimulationEngine.this.instrumentation.recordCellRead(query.topic(), state);
+      }
+      return state;
     }
 
     @Override
@@ -1104,7 +1544,8 @@ public final class SimulationEngine implements AutoCloseable {
           new ExecutionState<>(
               childSpan,
               this.caller,
-              state.create(SimulationEngine.this.executor)));
+              state.create(SimulationEngine.this.executor),
+              this.taskType));
       this.frame.signal(JobId.forTask(childTask));
 
       this.caller.ifPresent($ -> SimulationEngine.this.blockedTasks.get($).increment());
@@ -1143,13 +1584,13 @@ public final class SimulationEngine implements AutoCloseable {
   }
 
   /** The state of an executing task. */
-  private record ExecutionState<Output>(SpanId span, Optional<TaskId> caller, Task<Output> state) {
+  private record ExecutionState<Output>(SpanId span, Optional<TaskId> caller, Task<Output> state, String type) {
     public ExecutionState<Output> continueWith(final Task<Output> newState) {
-      return new ExecutionState<>(this.span, this.caller, newState);
+      return new ExecutionState<>(this.span, this.caller, newState, this.type);
     }
 
     public ExecutionState<Output> duplicate(Executor executor) {
-      return new ExecutionState<>(span, caller, state.duplicate(executor));
+      return new ExecutionState<>(span, caller, state.duplicate(executor), type);
     }
   }
 
@@ -1186,7 +1627,7 @@ public final class SimulationEngine implements AutoCloseable {
    * Create a timeline that in the output of the engine's reference timeline combined with its expanded timeline.
    */
   public TemporalEventSource combineTimeline() {
-    final TemporalEventSource combinedTimeline = new TemporalEventSource();
+    final TemporalEventSource combinedTimeline = new TemporalEventSource(timeline.topics());
     for (final var timePoint : referenceTimeline.points()) {
       if (timePoint instanceof TemporalEventSource.TimePoint.Delta t) {
         combinedTimeline.add(t.delta());
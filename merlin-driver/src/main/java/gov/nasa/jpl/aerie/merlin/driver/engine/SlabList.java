@@ -71,6 +71,20 @@ public final class SlabList<T> implements Iterable<T> {
     return new SlabIterator();
   }
 
+  /**
+   * Returns an iterator positioned at the given index, skipping over whole slabs to get there.
+   */
+  public SlabIterator iterator(final int fromIndex) {
+    final var iterator = new SlabIterator();
+    var remaining = fromIndex;
+    while (remaining >= SLAB_SIZE && iterator.slab.next().getValue() != null) {
+      iterator.slab = iterator.slab.next().getValue();
+      remaining -= SLAB_SIZE;
+    }
+    iterator.index = remaining;
+    return iterator;
+  }
+
   public final class SlabIterator implements Iterator<T> {
     private Slab<T> slab = SlabList.this.head;
     private int index = 0;
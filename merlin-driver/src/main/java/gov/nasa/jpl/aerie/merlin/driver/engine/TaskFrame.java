@@ -1,6 +1,7 @@
 package gov.nasa.jpl.aerie.merlin.driver.engine;
 
 import gov.nasa.jpl.aerie.merlin.driver.timeline.CausalEventSource;
+import gov.nasa.jpl.aerie.merlin.driver.timeline.Cell;
 import gov.nasa.jpl.aerie.merlin.driver.timeline.Event;
 import gov.nasa.jpl.aerie.merlin.driver.timeline.EventGraph;
 import gov.nasa.jpl.aerie.merlin.driver.timeline.LiveCells;
@@ -64,6 +65,14 @@ public final class TaskFrame<Job> {
     return this.cells.getExpiry(query);
   }
 
+  public <State> Optional<Cell<State>> getSnapshot(final Query<State> query) {
+    return this.cells.getSnapshot(query);
+  }
+
+  public <State> boolean hasState(final Query<State> query, final Cell<State> snapshot) {
+    return this.cells.hasState(query, snapshot);
+  }
+
   public void emit(final Event event) {
     this.tip.add(event);
   }
@@ -36,7 +36,7 @@ public final class SerializedValueJsonParser implements JsonParser<SerializedVal
       case TRUE -> SerializedValue.of(true);
       case FALSE -> SerializedValue.of(false);
       case STRING -> SerializedValue.of(((JsonString) value).getString());
-      case NUMBER -> SerializedValue.of(((JsonNumber) value).bigDecimalValue());
+      case NUMBER -> parseNumber((JsonNumber) value);
       case ARRAY -> {
         final var arr = (JsonArray) value;
         final var list = new ArrayList<SerializedValue>(arr.size());
@@ -52,6 +52,18 @@ public final class SerializedValueJsonParser implements JsonParser<SerializedVal
     };
   }
 
+  private static SerializedValue parseNumber(final JsonNumber number) {
+    // Integral numbers in the range of a long are kept as longs, which are cheaper to compare and read back
+    if (number.isIntegral()) {
+      try {
+        return SerializedValue.of(number.longValueExact());
+      } catch (final ArithmeticException ex) {
+        // Out of the range of a long
+      }
+    }
+    return SerializedValue.of(number.bigDecimalValue());
+  }
+
   @Override
   public JsonValue unparse(final SerializedValue value) {
     return value.match(new SerializedValue.Visitor<>() {
@@ -70,6 +82,11 @@ public final class SerializedValueJsonParser implements JsonParser<SerializedVal
         return Json.createValue(value);
       }
 
+      @Override
+      public JsonValue onInt(final long value) {
+        return Json.createValue(value);
+      }
+
       @Override
       public JsonValue onString(final String value) {
         return Json.createValue(value);
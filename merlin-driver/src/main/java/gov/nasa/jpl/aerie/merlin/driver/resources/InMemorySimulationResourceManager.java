@@ -10,8 +10,10 @@ import org.apache.commons.lang3.tuple.Pair;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A variant of the SimulationResourceManager that keeps all segments in memory
@@ -22,10 +24,19 @@ public class InMemorySimulationResourceManager implements SimulationResourceMana
 
   private Duration lastReceivedTime;
 
+  /**
+   * The profile segments most recently computed for each resource, shared by all copies of this manager so that
+   * a simulation resumed from a copy only needs to compute the profile segments received since it was made.
+   */
+  private final ConcurrentHashMap<String, ProfilePrefix<?>> realProfilePrefixes;
+  private final ConcurrentHashMap<String, ProfilePrefix<?>> discreteProfilePrefixes;
+
   public InMemorySimulationResourceManager() {
     this.realResourceSegments = new HashMap<>();
     this.discreteResourceSegments = new HashMap<>();
     lastReceivedTime = Duration.ZERO;
+    this.realProfilePrefixes = new ConcurrentHashMap<>();
+    this.discreteProfilePrefixes = new ConcurrentHashMap<>();
   }
 
   public InMemorySimulationResourceManager(InMemorySimulationResourceManager other) {
@@ -33,6 +44,8 @@ public class InMemorySimulationResourceManager implements SimulationResourceMana
     this.discreteResourceSegments = new HashMap<>(other.discreteResourceSegments.size());
 
     this.lastReceivedTime = other.lastReceivedTime;
+    this.realProfilePrefixes = other.realProfilePrefixes;
+    this.discreteProfilePrefixes = other.discreteProfilePrefixes;
 
     // Deep copy the resource maps
     for(final var entry : other.realResourceSegments.entrySet()) {
@@ -76,48 +89,91 @@ public class InMemorySimulationResourceManager implements SimulationResourceMana
     // Compute Real Profiles
     for(final var resource : realResourceSegments.entrySet()) {
       final var name = resource.getKey();
-      final var schema = resource.getValue().valueSchema();
-      final var segments = resource.getValue().segments();
-
       if(!resources.contains(name)) continue;
 
-      profiles.realProfiles().put(name, new ResourceProfile<>(schema, new ArrayList<>()));
-      final var profile = profiles.realProfiles().get(name).segments();
-
-      for(int i = 0; i < segments.size()-1; i++) {
-        final var segment = segments.get(i);
-        final var nextSegment = segments.get(i+1);
-        profile.add(new ProfileSegment<>(nextSegment.startOffset().minus(segment.startOffset()), segment.dynamics()));
-      }
-
-      // Process final segment
-      final var finalSegment = segments.getLast();
-      profile.add(new ProfileSegment<>(elapsedDuration.minus(finalSegment.startOffset()), finalSegment.dynamics()));
+      final var schema = resource.getValue().valueSchema();
+      final var segments = resource.getValue().segments();
+      profiles.realProfiles().put(
+          name,
+          new ResourceProfile<>(schema, computeProfile(name, segments, elapsedDuration, realProfilePrefixes)));
     }
 
     // Compute Discrete Profiles
     for(final var resource : discreteResourceSegments.entrySet()) {
       final var name = resource.getKey();
+      if(!resources.contains(name)) continue;
+
       final var schema = resource.getValue().valueSchema();
       final var segments = resource.getValue().segments();
+      profiles.discreteProfiles().put(
+          name,
+          new ResourceProfile<>(schema, computeProfile(name, segments, elapsedDuration, discreteProfilePrefixes)));
+    }
 
-      if(!resources.contains(name)) continue;
+    return profiles;
+  }
+
+  /**
+   * Compute the profile of a single resource, reusing the completed profile segments of a previous computation
+   * for as long as it was computed from the same segments.
+   */
+  private static <T> List<ProfileSegment<T>> computeProfile(
+      final String name,
+      final ArrayList<ResourceSegments.Segment<T>> segments,
+      final Duration elapsedDuration,
+      final ConcurrentHashMap<String, ProfilePrefix<?>> prefixes
+  ) {
+    @SuppressWarnings("unchecked")
+    final var prefix = (ProfilePrefix<T>) prefixes.get(name);
+    final var reused = (prefix == null) ? 0 : prefix.sharedLength(segments);
+
+    final var profile = new ArrayList<ProfileSegment<T>>(segments.size());
+    if (reused > 0) profile.addAll(prefix.profile().subList(0, reused));
+    for(int i = reused; i < segments.size()-1; i++) {
+      final var segment = segments.get(i);
+      final var nextSegment = segments.get(i+1);
+      profile.add(new ProfileSegment<>(nextSegment.startOffset().minus(segment.startOffset()), segment.dynamics()));
+    }
+    if (prefix == null || profile.size() > prefix.profile().size()) {
+      prefixes.put(name, new ProfilePrefix<>(segments, List.copyOf(profile)));
+    }
 
-      profiles.discreteProfiles().put(name, new ResourceProfile<>(schema, new ArrayList<>()));
-      final var profile = profiles.discreteProfiles().get(name).segments();
+    // Process final segment
+    final var finalSegment = segments.getLast();
+    profile.add(new ProfileSegment<>(elapsedDuration.minus(finalSegment.startOffset()), finalSegment.dynamics()));
+    return profile;
+  }
 
-      for(int i = 0; i < segments.size()-1; i++) {
-        final var segment = segments.get(i);
-        final var nextSegment = segments.get(i+1);
-        profile.add(new ProfileSegment<>(nextSegment.startOffset().minus(segment.startOffset()), segment.dynamics()));
+  /**
+   * The profile segments computed from the first {@code profile.size() + 1} of {@code segments}.
+   *
+   * The segments list is the one the profile was computed from, not a copy: segments are only ever appended to it,
+   * so those the profile was computed from stay as they were. It may be appended to concurrently by the simulation
+   * that owns it, but only past those segments, and a segment read while it is being appended can only fail to
+   * match, which reuses less of the profile.
+   */
+  private record ProfilePrefix<T>(List<ResourceSegments.Segment<T>> segments, List<ProfileSegment<T>> profile) {
+    /**
+     * The number of profile segments that can be reused for the given segments.
+     *
+     * Segments are shared, not copied, between copies of a resource manager, and each is appended to a single
+     * list when it is received, so the first index at which the two lists hold different segments marks the end of
+     * their common history.
+     */
+    public int sharedLength(final List<ResourceSegments.Segment<T>> segments) {
+      if (this.segments == segments) return this.profile.size();
+      var low = 0;
+      var high = Math.min(Math.min(this.segments.size(), segments.size()), this.profile.size() + 1) - 1;
+      if (high < 0 || this.segments.get(0) != segments.get(0)) return 0;
+      // Invariant: the segments at `low` are the same, and those past `high` are not.
+      while (low < high) {
+        final var mid = (low + high + 1) >>> 1;
+        if (this.segments.get(mid) == segments.get(mid)) low = mid;
+        else high = mid - 1;
       }
-
-      // Process final segment
-      final var finalSegment = segments.getLast();
-      profile.add(new ProfileSegment<>(elapsedDuration.minus(finalSegment.startOffset()), finalSegment.dynamics()));
+      // The profile segment at `i` depends on the segments at `i` and `i + 1`.
+      return Math.min(low, this.profile.size());
     }
-
-    return profiles;
   }
 
   /**
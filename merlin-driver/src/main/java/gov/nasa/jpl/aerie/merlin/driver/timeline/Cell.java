@@ -1,12 +1,12 @@
 package gov.nasa.jpl.aerie.merlin.driver.timeline;
 
-import gov.nasa.jpl.aerie.merlin.protocol.driver.Topic;
 import gov.nasa.jpl.aerie.merlin.protocol.model.CellType;
 import gov.nasa.jpl.aerie.merlin.protocol.model.EffectTrait;
 import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
 
+import java.util.BitSet;
 import java.util.Optional;
-import java.util.Set;
+import java.util.function.BiPredicate;
 
 /** Binds the state of a cell together with its dynamical behavior. */
 public final class Cell<State> {
@@ -24,7 +24,7 @@ public final class Cell<State> {
       final EventGraphEvaluator evaluator,
       final State state
   ) {
-    this(new GenericCell<>(cellType, cellType.getEffectType(), selector, evaluator), state);
+    this(new GenericCell<>(cellType, cellType.getEffectType(), cellType.getStateEquivalence(), selector, evaluator), state);
   }
 
   public Cell<State> duplicate() {
@@ -55,8 +55,21 @@ public final class Cell<State> {
     return this.inner.cellType.duplicate(this.state);
   }
 
-  public boolean isInterestedIn(final Set<Topic<?>> topics) {
-    return this.inner.selector.matchesAny(topics);
+  /** Whether this cell's type can tell that two of its states are equivalent; see {@link #hasSameStateAs}. */
+  public boolean comparesStates() {
+    return this.inner.stateEquivalence.isPresent();
+  }
+
+  /**
+   * Whether this cell's state will behave identically to that of another cell of the same type,
+   * by the cell type's own test. Cells whose type has no such test are never considered the same.
+   */
+  public boolean hasSameStateAs(final Cell<State> other) {
+    return this.inner.stateEquivalence.map($ -> $.test(this.state, other.state)).orElse(false);
+  }
+
+  public boolean isInterestedIn(final BitSet topicIds) {
+    return this.inner.selector.matchesAny(topicIds);
   }
 
   @Override
@@ -67,6 +80,7 @@ public final class Cell<State> {
   private record GenericCell<Effect, State> (
       CellType<Effect, State> cellType,
       EffectTrait<Effect> algebra,
+      Optional<BiPredicate<State, State>> stateEquivalence,
       Selector<Effect> selector,
       EventGraphEvaluator evaluator
   ) {
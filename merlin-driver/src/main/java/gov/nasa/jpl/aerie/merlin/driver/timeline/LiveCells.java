@@ -30,6 +30,19 @@ public final class LiveCells {
     return getCell(query).flatMap(Cell::getExpiry);
   }
 
+  /**
+   * Get an independent copy of a cell, which can be stepped and compared against the live cell later,
+   * or empty if there is no such cell or its type can't compare states.
+   */
+  public <State> Optional<Cell<State>> getSnapshot(final Query<State> query) {
+    return getCell(query).filter(Cell::comparesStates).map(Cell::duplicate);
+  }
+
+  /** Whether a cell is currently in the same state as the given snapshot of it. */
+  public <State> boolean hasState(final Query<State> query, final Cell<State> snapshot) {
+    return getCell(query).map($ -> $.hasSameStateAs(snapshot)).orElse(false);
+  }
+
   public <State> void put(final Query<State> query, final Cell<State> cell) {
     // SAFETY: The query and cell share the same State type parameter.
     this.cells.put(query, new LiveCell<>(cell, this.source.cursor()));
@@ -3,7 +3,7 @@ package gov.nasa.jpl.aerie.merlin.driver.timeline;
 import gov.nasa.jpl.aerie.merlin.protocol.driver.Topic;
 import gov.nasa.jpl.aerie.merlin.protocol.model.EffectTrait;
 
-import java.util.Collection;
+import java.util.BitSet;
 import java.util.Optional;
 import java.util.function.Function;
 
@@ -15,6 +15,10 @@ public record Selector<Effect>(SelectorRow<?, Effect>... rows) {
     this(new SelectorRow<>(topic, transform));
   }
 
+  public <EventType> Selector(final Topic<EventType> topic, final int topicId, final Function<EventType, Effect> transform) {
+    this(new SelectorRow<>(topic, topicId, transform));
+  }
+
   public Optional<Effect> select(final EffectTrait<Effect> trait, final Event event) {
     // Bail out as fast as possible if we're in a trivial (and incredibly common) case.
     if (this.rows.length == 1) return this.rows[0].select(event);
@@ -33,17 +37,31 @@ public record Selector<Effect>(SelectorRow<?, Effect>... rows) {
     return accumulator;
   }
 
-  public boolean matchesAny(final Collection<Topic<?>> topics) {
+  /**
+   * Determine whether any row of this selector may select an event on one of the given topics.
+   *
+   * @param topicIds The ids of a set of topics, as assigned by a {@link TopicIndex}.
+   *   Rows with an {@link TopicIndex#UNINDEXED unindexed} topic conservatively match any set of topics.
+   */
+  public boolean matchesAny(final BitSet topicIds) {
     // Bail out as fast as possible if we're in a trivial (and incredibly common) case.
-    if (this.rows.length == 1) return topics.contains(this.rows[0].topic());
+    if (this.rows.length == 1) return this.rows[0].matches(topicIds);
 
     for (final var row : this.rows) {
-      if (topics.contains(row.topic)) return true;
+      if (row.matches(topicIds)) return true;
     }
     return false;
   }
 
-  public record SelectorRow<EventType, Effect>(Topic<EventType> topic, Function<EventType, Effect> transform) {
+  public record SelectorRow<EventType, Effect>(Topic<EventType> topic, int topicId, Function<EventType, Effect> transform) {
+    public SelectorRow(final Topic<EventType> topic, final Function<EventType, Effect> transform) {
+      this(topic, TopicIndex.UNINDEXED, transform);
+    }
+
+    public boolean matches(final BitSet topicIds) {
+      return (this.topicId == TopicIndex.UNINDEXED) || topicIds.get(this.topicId);
+    }
+
     public Optional<Effect> select(final Event event$) {
       return event$.extract(this.topic, this.transform);
     }
@@ -1,16 +1,23 @@
 package gov.nasa.jpl.aerie.merlin.driver.timeline;
 
 import gov.nasa.jpl.aerie.merlin.driver.engine.SlabList;
-import gov.nasa.jpl.aerie.merlin.protocol.driver.Topic;
 import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
-import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
 
+import java.util.BitSet;
 import java.util.Iterator;
-import java.util.Set;
 
-public record TemporalEventSource(SlabList<TimePoint> points) implements EventSource, Iterable<TemporalEventSource.TimePoint> {
+/**
+ * @param topics The index identifying the topics that the cells reading from this source listen to.
+ */
+public record TemporalEventSource(SlabList<TimePoint> points, TopicIndex topics)
+    implements EventSource, Iterable<TemporalEventSource.TimePoint>
+{
+  public TemporalEventSource(final TopicIndex topics) {
+    this(new SlabList<>(), topics);
+  }
+
   public TemporalEventSource() {
-    this(new SlabList<>());
+    this(new TopicIndex());
   }
 
   public void add(final Duration delta) {
@@ -20,7 +27,7 @@ public record TemporalEventSource(SlabList<TimePoint> points) implements EventSo
 
   public void add(final EventGraph<Event> graph) {
     if (graph instanceof EventGraph.Empty) return;
-    this.points.append(new TimePoint.Commit(graph, extractTopics(graph)));
+    this.points.append(new TimePoint.Commit(graph, extractTopics(this.topics, graph)));
   }
 
   @Override
@@ -55,26 +62,29 @@ public record TemporalEventSource(SlabList<TimePoint> points) implements EventSo
   }
 
 
-  private static Set<Topic<?>> extractTopics(final EventGraph<Event> graph) {
-    final var set = new ReferenceOpenHashSet<Topic<?>>();
-    extractTopics(set, graph);
-    set.trim();
-    return set;
+  private static BitSet extractTopics(final TopicIndex topics, final EventGraph<Event> graph) {
+    final var set = new BitSet();
+    extractTopics(topics, set, graph);
+    // Share a single empty set between all commits whose events no cell listens to.
+    return (set.isEmpty()) ? EMPTY_TOPICS : set;
   }
 
-  private static void extractTopics(final Set<Topic<?>> accumulator, EventGraph<Event> graph) {
+  private static final BitSet EMPTY_TOPICS = new BitSet(0);
+
+  private static void extractTopics(final TopicIndex topics, final BitSet accumulator, EventGraph<Event> graph) {
     while (true) {
       if (graph instanceof EventGraph.Empty) {
         // There are no events here!
         return;
       } else if (graph instanceof EventGraph.Atom<Event> g) {
-        accumulator.add(g.atom().topic());
+        final var id = topics.idOf(g.atom().topic());
+        if (id != TopicIndex.UNINDEXED) accumulator.set(id);
         return;
       } else if (graph instanceof EventGraph.Sequentially<Event> g) {
-        extractTopics(accumulator, g.prefix());
+        extractTopics(topics, accumulator, g.prefix());
         graph = g.suffix();
       } else if (graph instanceof EventGraph.Concurrently<Event> g) {
-        extractTopics(accumulator, g.left());
+        extractTopics(topics, accumulator, g.left());
         graph = g.right();
       } else {
         throw new IllegalArgumentException();
@@ -84,7 +94,8 @@ public record TemporalEventSource(SlabList<TimePoint> points) implements EventSo
 
   public sealed interface TimePoint {
     record Delta(Duration delta) implements TimePoint {}
-    record Commit(EventGraph<Event> events, Set<Topic<?>> topics) implements TimePoint {}
+    /** @param topics The ids of the topics of the committed events, as assigned by the source's {@link TopicIndex}. */
+    record Commit(EventGraph<Event> events, BitSet topics) implements TimePoint {}
   }
 
   public void freeze() {
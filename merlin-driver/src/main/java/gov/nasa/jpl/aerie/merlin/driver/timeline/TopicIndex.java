@@ -0,0 +1,38 @@
+package gov.nasa.jpl.aerie.merlin.driver.timeline;
+
+import gov.nasa.jpl.aerie.merlin.protocol.driver.Topic;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+
+/**
+ * Assigns dense integer ids to the topics cells of a mission model listen to,
+ * so that the topics of a commit can be represented as a bitset.
+ *
+ * Topics are registered while the mission model is built, and only looked up afterward.
+ */
+public final class TopicIndex {
+  /** The id of any topic that was never registered. No cell registered against this index listens to such a topic. */
+  public static final int UNINDEXED = -1;
+
+  private final Reference2IntOpenHashMap<Topic<?>> ids = new Reference2IntOpenHashMap<>();
+
+  public TopicIndex() {
+    this.ids.defaultReturnValue(UNINDEXED);
+  }
+
+  public int register(final Topic<?> topic) {
+    final var id = this.ids.getInt(topic);
+    if (id != UNINDEXED) return id;
+
+    final var fresh = this.ids.size();
+    this.ids.put(topic, fresh);
+    return fresh;
+  }
+
+  public int idOf(final Topic<?> topic) {
+    return this.ids.getInt(topic);
+  }
+
+  public int size() {
+    return this.ids.size();
+  }
+}
@@ -0,0 +1,72 @@
+package gov.nasa.jpl.aerie.merlin.driver;
+
+import gov.nasa.jpl.aerie.merlin.protocol.model.MerlinPlugin;
+import gov.nasa.jpl.aerie.merlin.protocol.model.ModelType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class MissionModelProviderCacheTest {
+  public static final class Plugin implements MerlinPlugin {
+    @Override
+    public ModelType<?, ?> getModelType() {
+      return null;
+    }
+  }
+
+  @TempDir
+  Path dir;
+  Path jar;
+
+  @BeforeEach
+  void beforeEach() throws IOException {
+    jar = dir.resolve("model.jar");
+    writeJar(jar, "");
+  }
+
+  private static void writeJar(final Path path, final String resource) throws IOException {
+    try (final var out = new JarOutputStream(Files.newOutputStream(path))) {
+      out.putNextEntry(new JarEntry("META-INF/services/" + MerlinPlugin.class.getCanonicalName()));
+      out.write((Plugin.class.getName() + "\n").getBytes(StandardCharsets.UTF_8));
+      out.closeEntry();
+      out.putNextEntry(new JarEntry("resource.txt"));
+      out.write(resource.getBytes(StandardCharsets.UTF_8));
+      out.closeEntry();
+    }
+  }
+
+  @Test
+  void reusesProviderForUnchangedJar() throws Exception {
+    final var cache = new MissionModelProviderCache();
+    final var provider = cache.get(jar, "model", "1");
+    assertSame(provider, cache.get(jar, "model", "1"));
+    assertNotSame(provider, cache.get(jar, "model", "2"));
+  }
+
+  @Test
+  void reloadsProviderForChangedJar() throws Exception {
+    final var cache = new MissionModelProviderCache();
+    final var provider = cache.get(jar, "model", "1");
+    writeJar(jar, "changed");
+    Files.setLastModifiedTime(jar, FileTime.from(Instant.now().plusSeconds(60)));
+    assertNotSame(provider, cache.get(jar, "model", "1"));
+  }
+
+  @Test
+  void disabledCacheLoadsEveryTime() throws Exception {
+    final var cache = MissionModelProviderCache.disabled();
+    assertNotSame(cache.get(jar, "model", "1"), cache.get(jar, "model", "1"));
+  }
+}
@@ -2,6 +2,8 @@ package gov.nasa.jpl.aerie.merlin.driver;
 
 import gov.nasa.jpl.aerie.merlin.driver.resources.InMemorySimulationResourceManager;
 import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.types.ActivityDirective;
+import gov.nasa.jpl.aerie.types.ActivityDirectiveId;
 import gov.nasa.jpl.aerie.types.MissionModelId;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -72,14 +74,60 @@ public class SimulationDuplicationTest {
     assertEquals(expected, newResults);
   }
 
+  @Test
+  void testResumedResultsMatchFullResults() {
+    final var missionModel = TestMissionModel.missionModel();
+    final var schedule = Map.of(
+        new ActivityDirectiveId(1), new ActivityDirective(Duration.of(5, MINUTES), "DelayActivityDirective", Map.of(), null, true),
+        new ActivityDirectiveId(2), new ActivityDirective(Duration.of(10, MINUTES), "DecomposingActivityDirective", Map.of(), null, true),
+        new ActivityDirectiveId(3), new ActivityDirective(Duration.of(20, MINUTES), "DecomposingActivityDirective", Map.of(), null, true),
+        new ActivityDirectiveId(4), new ActivityDirective(Duration.of(40, MINUTES), "DelayActivityDirective", Map.of(), null, true));
+    final SimulationResults expected = SimulationDriver.simulate(
+        missionModel,
+        schedule,
+        Instant.EPOCH,
+        Duration.HOUR,
+        Instant.EPOCH,
+        Duration.HOUR,
+        () -> false,
+        $ -> {},
+        new InMemorySimulationResourceManager());
+
+    final var results = simulateWithCheckpoints(
+        missionModel,
+        schedule,
+        CachedSimulationEngine.empty(missionModel, Instant.EPOCH),
+        List.of(Duration.of(7, MINUTES), Duration.of(15, MINUTES), Duration.of(30, MINUTES)),
+        store);
+    assertEquals(expected, results);
+
+    // Resuming from each checkpoint picks up what was folded from its timeline by the results above, and resuming
+    // from it again picks up what was folded by the results of the resumed simulation.
+    for (final var cachedEngine : List.copyOf(store.getCachedEngines(mockConfiguration()))) {
+      for (int i = 0; i < 2; i++) {
+        assertEquals(expected, simulateWithCheckpoints(missionModel, schedule, cachedEngine, List.of(), store));
+      }
+    }
+  }
+
   static SimulationResults simulateWithCheckpoints(
       final CachedSimulationEngine cachedEngine,
       final List<Duration> desiredCheckpoints,
       final CachedEngineStore engineStore
+  ) {
+    return simulateWithCheckpoints(TestMissionModel.missionModel(), Map.of(), cachedEngine, desiredCheckpoints, engineStore);
+  }
+
+  static SimulationResults simulateWithCheckpoints(
+      final MissionModel<?> missionModel,
+      final Map<ActivityDirectiveId, ActivityDirective> schedule,
+      final CachedSimulationEngine cachedEngine,
+      final List<Duration> desiredCheckpoints,
+      final CachedEngineStore engineStore
   ) {
     return CheckpointSimulationDriver.simulateWithCheckpoints(
-        TestMissionModel.missionModel(),
-        Map.of(),
+        missionModel,
+        schedule,
         Instant.EPOCH,
         Duration.HOUR,
         Instant.EPOCH,
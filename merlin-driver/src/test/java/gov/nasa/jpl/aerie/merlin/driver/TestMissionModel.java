@@ -2,6 +2,7 @@ package gov.nasa.jpl.aerie.merlin.driver;
 
 import gov.nasa.jpl.aerie.merlin.driver.timeline.LiveCells;
 import gov.nasa.jpl.aerie.merlin.driver.timeline.TemporalEventSource;
+import gov.nasa.jpl.aerie.merlin.driver.timeline.TopicIndex;
 import gov.nasa.jpl.aerie.merlin.protocol.driver.Initializer;
 import gov.nasa.jpl.aerie.merlin.protocol.driver.Topic;
 import gov.nasa.jpl.aerie.merlin.protocol.model.DirectiveType;
@@ -144,6 +145,7 @@ public class TestMissionModel {
     return new MissionModel<>(
         new Object(),
         new LiveCells(new TemporalEventSource()),
+        new TopicIndex(),
         Map.of(),
         List.of(
             new MissionModel.SerializableTopic<>(
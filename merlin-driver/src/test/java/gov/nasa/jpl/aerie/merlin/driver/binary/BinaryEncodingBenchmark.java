@@ -0,0 +1,121 @@
+package gov.nasa.jpl.aerie.merlin.driver.binary;
+
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import gov.nasa.jpl.aerie.merlin.protocol.types.ValueSchema;
+
+import javax.json.Json;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static gov.nasa.jpl.aerie.merlin.driver.json.SerializedValueJsonParser.serializedValueP;
+
+/**
+ * Compares the size and cost of encoding profile segments as JSON and with a schema-directed {@link SerializedValueCodec}.
+ */
+public class BinaryEncodingBenchmark {
+  private interface Codec {
+    byte[] encode(List<SerializedValue> values) throws IOException;
+    List<SerializedValue> decode(byte[] bytes) throws IOException;
+  }
+
+  private static final class JsonCodec implements Codec {
+    @Override
+    public byte[] encode(final List<SerializedValue> values) {
+      return serializedValueP.unparse(SerializedValue.of(values)).toString().getBytes();
+    }
+
+    @Override
+    public List<SerializedValue> decode(final byte[] bytes) {
+      final var json = Json.createReader(new StringReader(new String(bytes))).readValue();
+      return serializedValueP.parse(json).getSuccessOrThrow().asList().orElseThrow();
+    }
+  }
+
+  private record BinaryCodec(SerializedValueCodec codec) implements Codec {
+    @Override
+    public byte[] encode(final List<SerializedValue> values) throws IOException {
+      final var bytes = new ByteArrayOutputStream();
+      final var out = new DataOutputStream(bytes);
+      out.writeInt(values.size());
+      for (final var value : values) this.codec.encode(value, out);
+      return bytes.toByteArray();
+    }
+
+    @Override
+    public List<SerializedValue> decode(final byte[] bytes) throws IOException {
+      final var in = new DataInputStream(new ByteArrayInputStream(bytes));
+      final var size = in.readInt();
+      final var values = new ArrayList<SerializedValue>(size);
+      for (int i = 0; i < size; i++) values.add(this.codec.decode(in));
+      return values;
+    }
+  }
+
+  private static long timePerRun(final Codec codec, final List<SerializedValue> values, final int nbRuns) throws IOException {
+    // warm up
+    for (int i = 0; i < nbRuns; i++) codec.decode(codec.encode(values));
+
+    final var before = System.nanoTime();
+    for (int i = 0; i < nbRuns; i++) codec.decode(codec.encode(values));
+    return (System.nanoTime() - before) / nbRuns;
+  }
+
+  public static void main(String[] args) throws IOException {
+    //number of segments in each profile
+    final var segments = 100_000;
+    //number of runs per measurement
+    final var nbRuns = 20;
+
+    final var modes = ValueSchema.ofVariant(List.of(
+        new ValueSchema.Variant("IDLE", "Idle"),
+        new ValueSchema.Variant("SLEWING", "Slewing"),
+        new ValueSchema.Variant("IMAGING", "Imaging")));
+    final var state = ValueSchema.ofStruct(Map.of(
+        "mode", modes,
+        "temperature", ValueSchema.REAL,
+        "count", ValueSchema.INT,
+        "enabled", ValueSchema.BOOLEAN));
+    final var linear = ValueSchema.ofStruct(Map.of("initial", ValueSchema.REAL, "rate", ValueSchema.REAL));
+
+    final var profiles = Map.<String, Map.Entry<ValueSchema, List<SerializedValue>>>of(
+        "discrete int", Map.entry(ValueSchema.INT, new ArrayList<>()),
+        "discrete variant", Map.entry(modes, new ArrayList<>()),
+        "discrete struct", Map.entry(state, new ArrayList<>()),
+        "real dynamics", Map.entry(linear, new ArrayList<>()));
+    final var modeNames = List.of("IDLE", "SLEWING", "IMAGING");
+    for (var i = 0; i < segments; i++) {
+      final var mode = SerializedValue.of(modeNames.get(i % 3));
+      profiles.get("discrete int").getValue().add(SerializedValue.of(i % 1000));
+      profiles.get("discrete variant").getValue().add(mode);
+      profiles.get("discrete struct").getValue().add(SerializedValue.of(Map.of(
+          "mode", mode,
+          "temperature", SerializedValue.of(20.0 + i * 0.01),
+          "count", SerializedValue.of(i),
+          "enabled", SerializedValue.of(i % 2 == 0))));
+      profiles.get("real dynamics").getValue().add(SerializedValue.of(Map.of(
+          "initial", SerializedValue.of(i * 0.5),
+          "rate", SerializedValue.of((i % 2 == 0) ? 1 : -1.25))));
+    }
+
+    for (final var entry : profiles.entrySet()) {
+      final var values = entry.getValue().getValue();
+      final var codecs = Map.<String, Codec>of(
+          "json", new JsonCodec(),
+          "binary", new BinaryCodec(SerializedValueCodec.forSchema(entry.getValue().getKey())));
+
+      System.out.println(entry.getKey());
+      for (final var codec : codecs.entrySet()) {
+        final var size = codec.getValue().encode(values).length;
+        final var time = timePerRun(codec.getValue(), values, nbRuns);
+        System.out.println("  " + codec.getKey() + ": " + size + " bytes, " + time / 1_000_000 + " ms per round trip");
+      }
+    }
+  }
+}
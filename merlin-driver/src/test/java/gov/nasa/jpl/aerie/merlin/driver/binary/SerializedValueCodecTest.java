@@ -0,0 +1,100 @@
+package gov.nasa.jpl.aerie.merlin.driver.binary;
+
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import gov.nasa.jpl.aerie.merlin.protocol.types.ValueSchema;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class SerializedValueCodecTest {
+  private static final ValueSchema POINT = ValueSchema.ofStruct(Map.of(
+      "x", ValueSchema.REAL,
+      "y", ValueSchema.REAL,
+      "label", ValueSchema.STRING,
+      "mode", ValueSchema.ofVariant(List.of(new ValueSchema.Variant("ON", "On"), new ValueSchema.Variant("OFF", "Off"))),
+      "count", ValueSchema.INT,
+      "elapsed", ValueSchema.DURATION,
+      "enabled", ValueSchema.BOOLEAN,
+      "history", ValueSchema.ofSeries(ValueSchema.REAL)));
+
+  private static SerializedValue point(final SerializedValue x, final SerializedValue mode) {
+    return SerializedValue.of(Map.of(
+        "x", x,
+        "y", SerializedValue.of(-2.5),
+        "label", SerializedValue.of("pointé"),
+        "mode", mode,
+        "count", SerializedValue.of(300),
+        "elapsed", SerializedValue.of(-1_000_000L),
+        "enabled", SerializedValue.of(true),
+        "history", SerializedValue.of(List.of(SerializedValue.of(1.0), SerializedValue.NULL, SerializedValue.of(3)))));
+  }
+
+  private static byte[] encode(final SerializedValueCodec codec, final SerializedValue value) throws IOException {
+    final var bytes = new ByteArrayOutputStream();
+    codec.encode(value, new DataOutputStream(bytes));
+    return bytes.toByteArray();
+  }
+
+  private static byte[] roundTrip(final ValueSchema schema, final SerializedValue value) throws IOException {
+    final var codec = SerializedValueCodec.forSchema(schema);
+    final var bytes = encode(codec, value);
+    assertEquals(value, codec.decode(new DataInputStream(new ByteArrayInputStream(bytes))));
+
+    final var buffer = ByteBuffer.allocate(bytes.length);
+    codec.encode(value, buffer);
+    assertArrayEquals(bytes, buffer.array());
+    buffer.flip();
+    assertEquals(value, codec.decode(buffer));
+    assertFalse(buffer.hasRemaining());
+    return bytes;
+  }
+
+  @Test
+  public void testConformingValues() throws IOException {
+    final var bytes = roundTrip(POINT, point(SerializedValue.of(1.5), SerializedValue.of("OFF")));
+    // No field names: 8 tagged fields, of which 2 reals, a string, a variant index, 2 varints and a 3-element series
+    assertTrue(bytes.length < 60, "encoded in " + bytes.length + " bytes");
+    roundTrip(ValueSchema.INT, SerializedValue.of(0x1p60));
+  }
+
+  @Test
+  public void testNonConformingValues() throws IOException {
+    roundTrip(POINT, point(SerializedValue.of(new BigDecimal("0.10000000000000000001")), SerializedValue.of("UNKNOWN")));
+    roundTrip(POINT, point(SerializedValue.NULL, SerializedValue.of(4)));
+    roundTrip(POINT, SerializedValue.of(Map.of("x", SerializedValue.of(1.5))));
+    roundTrip(ValueSchema.INT, SerializedValue.of(2.5));
+    roundTrip(ValueSchema.REAL, SerializedValue.of(Long.MAX_VALUE));
+    roundTrip(ValueSchema.STRING, SerializedValue.of(List.of(SerializedValue.of(false), SerializedValue.of(Map.of()))));
+  }
+
+  @Test
+  public void testUntypedValues() throws IOException {
+    final var codec = SerializedValueCodec.UNTYPED;
+    final var value = point(SerializedValue.of(new BigDecimal("-12345678901234567890.5")), SerializedValue.of("ON"));
+    final var bytes = encode(codec, value);
+    assertEquals(value, codec.decode(new DataInputStream(new ByteArrayInputStream(bytes))));
+  }
+
+  @Test
+  public void testSchemas() throws IOException {
+    final var schema = ValueSchema.ofSeries(
+        ValueSchema.withMeta("unit", SerializedValue.of(Map.of("value", SerializedValue.of("m"))), POINT));
+    final var bytes = new ByteArrayOutputStream();
+    ValueSchemaCodec.encode(schema, new DataOutputStream(bytes));
+    assertEquals(schema, ValueSchemaCodec.decode(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))));
+    assertEquals(schema, ValueSchemaCodec.decode(ByteBuffer.wrap(bytes.toByteArray())));
+  }
+}
@@ -0,0 +1,279 @@
+package gov.nasa.jpl.aerie.merlin.driver.engine;
+
+import gov.nasa.jpl.aerie.merlin.driver.CachedEngineStore;
+import gov.nasa.jpl.aerie.merlin.driver.CachedSimulationEngine;
+import gov.nasa.jpl.aerie.merlin.driver.CheckpointSimulationDriver;
+import gov.nasa.jpl.aerie.merlin.driver.DirectiveTypeRegistry;
+import gov.nasa.jpl.aerie.merlin.driver.MissionModel;
+import gov.nasa.jpl.aerie.merlin.driver.MissionModelBuilder;
+import gov.nasa.jpl.aerie.merlin.driver.OneStepTask;
+import gov.nasa.jpl.aerie.merlin.driver.SimulationDriver;
+import gov.nasa.jpl.aerie.merlin.driver.SimulationEngineConfiguration;
+import gov.nasa.jpl.aerie.merlin.protocol.driver.Querier;
+import gov.nasa.jpl.aerie.merlin.protocol.driver.Topic;
+import gov.nasa.jpl.aerie.merlin.protocol.model.CellType;
+import gov.nasa.jpl.aerie.merlin.protocol.model.EffectTrait;
+import gov.nasa.jpl.aerie.merlin.protocol.model.OutputType;
+import gov.nasa.jpl.aerie.merlin.protocol.model.Resource;
+import gov.nasa.jpl.aerie.merlin.protocol.model.TaskFactory;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import gov.nasa.jpl.aerie.merlin.protocol.types.TaskStatus;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Unit;
+import gov.nasa.jpl.aerie.merlin.protocol.types.ValueSchema;
+import gov.nasa.jpl.aerie.types.MissionModelId;
+import org.apache.commons.lang3.mutable.MutableInt;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiPredicate;
+
+import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.MILLISECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class EngineInstrumentationTest {
+  /** A cell counting up the effects applied to it, whose state optionally expires at a fixed cadence. */
+  private record CounterCellType(Optional<Duration> expiry) implements CellType<Integer, MutableInt> {
+    @Override
+    public EffectTrait<Integer> getEffectType() {
+      return new EffectTrait<>() {
+        @Override
+        public Integer empty() {
+          return 0;
+        }
+
+        @Override
+        public Integer sequentially(final Integer prefix, final Integer suffix) {
+          return prefix + suffix;
+        }
+
+        @Override
+        public Integer concurrently(final Integer left, final Integer right) {
+          return left + right;
+        }
+      };
+    }
+
+    @Override
+    public MutableInt duplicate(final MutableInt state) {
+      return new MutableInt(state.intValue());
+    }
+
+    @Override
+    public void apply(final MutableInt state, final Integer effect) {
+      state.add(effect);
+    }
+
+    @Override
+    public Optional<Duration> getExpiry(final MutableInt state) {
+      return this.expiry;
+    }
+
+    @Override
+    public Optional<BiPredicate<MutableInt, MutableInt>> getStateEquivalence() {
+      return Optional.of(MutableInt::equals);
+    }
+  }
+
+  @Test
+  public void testResourcesAndCellsAreInstrumented() {
+    // Expire every 500ms, so the resource reading the cell is sampled on that cadence.
+    final var builder = new MissionModelBuilder();
+    final var ref = builder.allocate(
+        new MutableInt(),
+        new CounterCellType(Optional.of(MILLISECONDS.times(500))),
+        $ -> 1,
+        new Topic<Integer>());
+    builder.resource("/count", new Resource<Integer>() {
+      @Override
+      public String getType() {
+        return "discrete";
+      }
+
+      @Override
+      public OutputType<Integer> getOutputType() {
+        return new OutputType<>() {
+          @Override
+          public ValueSchema getSchema() {
+            return ValueSchema.INT;
+          }
+
+          @Override
+          public SerializedValue serialize(final Integer value) {
+            return SerializedValue.of(value);
+          }
+        };
+      }
+
+      @Override
+      public Integer getDynamics(final Querier querier) {
+        return querier.getState(ref).intValue();
+      }
+    });
+    final var model = builder.build(ref, new DirectiveTypeRegistry<>(Map.of()));
+
+    final var instrumentation = EngineInstrumentation.enable();
+    try {
+      instrumentation.reset();
+      final var now = Instant.now();
+      SimulationDriver.simulate(model, Map.of(), now, Duration.SECONDS.times(5), now, Duration.SECONDS.times(5), () -> false);
+    } finally {
+      EngineInstrumentation.disable();
+    }
+
+    // Sampled at 0, 0.5, ..., 5 seconds
+    assertEquals(11, instrumentation.resourceSamples().get("/count").count());
+    assertEquals(Map.of("cell 0 (" + MutableInt.class.getName() + ")", 11L), instrumentation.cellReads());
+    assertTrue(instrumentation.taskSteps().get("daemon").count() >= 1);
+
+    final var json = instrumentation.toJson();
+    assertEquals(11, json.getJsonObject("resourceSamples").getJsonObject("/count").getInt("count"));
+    assertEquals(EngineInstrumentation.global(), Optional.empty());
+  }
+
+  @Test
+  public void testConditionsAreNotReevaluatedWhenTheirCellsAreUndisturbed() {
+    final var countAtWake = new MutableInt(-1);
+    final var model = awaitingNoOpEffects(countAtWake);
+
+    final var instrumentation = EngineInstrumentation.enable();
+    System.setProperty(SimulationEngine.CONDITION_CACHE_PROPERTY, "true");
+    try {
+      instrumentation.reset();
+      final var now = Instant.now();
+      SimulationDriver.simulate(model, Map.of(), now, Duration.HOUR, now, Duration.HOUR, () -> false);
+    } finally {
+      System.clearProperty(SimulationEngine.CONDITION_CACHE_PROPERTY);
+      EngineInstrumentation.disable();
+    }
+
+    assertEquals(5, countAtWake.intValue());
+    assertEquals(2, instrumentation.conditionEvaluations().get("daemon").count());
+    // The first no-op effect lands alongside the condition's first evaluation; the other three reuse it.
+    assertEquals(Map.of("daemon", 3L), instrumentation.conditionCacheHits());
+    assertEquals(Duration.HOUR, instrumentation.simulatedTime());
+    assertEquals(Map.of("daemon", 2.0), instrumentation.conditionEvaluationsPerSimulatedHour());
+  }
+
+  @Test
+  public void testConditionsAreReevaluatedUnlessCachingIsEnabled() {
+    final var countAtWake = new MutableInt(-1);
+    final var model = awaitingNoOpEffects(countAtWake);
+
+    final var instrumentation = EngineInstrumentation.enable();
+    try {
+      instrumentation.reset();
+      final var now = Instant.now();
+      SimulationDriver.simulate(model, Map.of(), now, Duration.HOUR, now, Duration.HOUR, () -> false);
+    } finally {
+      EngineInstrumentation.disable();
+    }
+
+    assertEquals(5, countAtWake.intValue());
+    assertEquals(5, instrumentation.conditionEvaluations().get("daemon").count());
+    assertEquals(Map.of(), instrumentation.conditionCacheHits());
+  }
+
+  @Test
+  public void testCachedConditionsAreCarriedOverToDuplicatedEngines() {
+    final var countAtWake = new MutableInt(-1);
+    final var model = awaitingNoOpEffects(countAtWake);
+    final var configuration = new SimulationEngineConfiguration(Map.of(), Instant.EPOCH, new MissionModelId(0));
+    final var engines = new ArrayList<CachedSimulationEngine>();
+    final var store = new CachedEngineStore() {
+      @Override
+      public void save(final CachedSimulationEngine engine, final SimulationEngineConfiguration configuration) {
+        engines.add(engine);
+      }
+
+      @Override
+      public List<CachedSimulationEngine> getCachedEngines(final SimulationEngineConfiguration configuration) {
+        return engines;
+      }
+
+      @Override
+      public int capacity() {
+        return Integer.MAX_VALUE;
+      }
+    };
+
+    final var instrumentation = EngineInstrumentation.enable();
+    System.setProperty(SimulationEngine.CONDITION_CACHE_PROPERTY, "true");
+    try {
+      // Checkpoint between the third and fourth no-op effects, then resume from the checkpoint.
+      simulateWithCheckpoints(
+          model,
+          CachedSimulationEngine.empty(model, Instant.EPOCH),
+          List.of(Duration.of(2500, MILLISECONDS)),
+          store,
+          configuration);
+      assertEquals(1, engines.size());
+
+      instrumentation.reset();
+      countAtWake.setValue(-1);
+      simulateWithCheckpoints(model, engines.getFirst(), List.of(), store, configuration);
+    } finally {
+      System.clearProperty(SimulationEngine.CONDITION_CACHE_PROPERTY);
+      EngineInstrumentation.disable();
+    }
+
+    assertEquals(5, countAtWake.intValue());
+    // The fourth no-op effect reuses the evaluation cached before the checkpoint; the fifth effect forces a new one.
+    assertEquals(Map.of("daemon", 1L), instrumentation.conditionCacheHits());
+    assertEquals(1, instrumentation.conditionEvaluations().get("daemon").count());
+  }
+
+  /** A model with a daemon awaiting a count of 5, and a daemon emitting four no-op effects before adding 5. */
+  private static MissionModel<?> awaitingNoOpEffects(final MutableInt countAtWake) {
+    final var builder = new MissionModelBuilder();
+    final var topic = new Topic<Integer>();
+    final var ref = builder.allocate(new MutableInt(), new CounterCellType(Optional.empty()), $ -> $, topic);
+
+    builder.daemon(executor -> new OneStepTask<>($ -> TaskStatus.awaiting(
+        (now, atLatest) -> (now.getState(ref).intValue() >= 5) ? Optional.of(Duration.ZERO) : Optional.empty(),
+        new OneStepTask<>($$ -> {
+          countAtWake.setValue($$.get(ref).intValue());
+          return TaskStatus.completed(Unit.UNIT);
+        }))));
+    final TaskFactory<Unit> emitter = executor -> emitting(topic, List.of(0, 0, 0, 0, 5));
+    builder.daemon(emitter);
+    return builder.build(ref, new DirectiveTypeRegistry<>(Map.of()));
+  }
+
+  private static void simulateWithCheckpoints(
+      final MissionModel<?> model,
+      final CachedSimulationEngine cachedEngine,
+      final List<Duration> checkpoints,
+      final CachedEngineStore store,
+      final SimulationEngineConfiguration configuration)
+  {
+    CheckpointSimulationDriver.simulateWithCheckpoints(
+        model,
+        Map.of(),
+        Instant.EPOCH,
+        Duration.HOUR,
+        Instant.EPOCH,
+        Duration.HOUR,
+        $ -> {},
+        () -> false,
+        cachedEngine,
+        CheckpointSimulationDriver.desiredCheckpoints(checkpoints),
+        CheckpointSimulationDriver.noCondition(),
+        store,
+        configuration);
+  }
+
+  /** Emit each effect in turn, a second apart. */
+  private static OneStepTask<Unit> emitting(final Topic<Integer> topic, final List<Integer> effects) {
+    return new OneStepTask<>($ -> {
+      $.emit(effects.getFirst(), topic);
+      if (effects.size() == 1) return TaskStatus.completed(Unit.UNIT);
+      return TaskStatus.delayed(Duration.SECOND, emitting(topic, effects.subList(1, effects.size())));
+    });
+  }
+}
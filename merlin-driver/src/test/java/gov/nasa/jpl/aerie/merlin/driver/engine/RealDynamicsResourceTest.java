@@ -0,0 +1,150 @@
+package gov.nasa.jpl.aerie.merlin.driver.engine;
+
+import gov.nasa.jpl.aerie.merlin.driver.DirectiveTypeRegistry;
+import gov.nasa.jpl.aerie.merlin.driver.MissionModelBuilder;
+import gov.nasa.jpl.aerie.merlin.driver.OneStepTask;
+import gov.nasa.jpl.aerie.merlin.driver.SimulationDriver;
+import gov.nasa.jpl.aerie.merlin.protocol.driver.CellId;
+import gov.nasa.jpl.aerie.merlin.protocol.driver.Querier;
+import gov.nasa.jpl.aerie.merlin.protocol.driver.Topic;
+import gov.nasa.jpl.aerie.merlin.protocol.model.CellType;
+import gov.nasa.jpl.aerie.merlin.protocol.model.EffectTrait;
+import gov.nasa.jpl.aerie.merlin.protocol.model.OutputType;
+import gov.nasa.jpl.aerie.merlin.protocol.model.RealDynamicsResource;
+import gov.nasa.jpl.aerie.merlin.protocol.model.Resource;
+import gov.nasa.jpl.aerie.merlin.protocol.model.TaskFactory;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.RealDynamics;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import gov.nasa.jpl.aerie.merlin.protocol.types.TaskStatus;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Unit;
+import gov.nasa.jpl.aerie.merlin.protocol.types.ValueSchema;
+import org.apache.commons.lang3.mutable.MutableInt;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public final class RealDynamicsResourceTest {
+  private static final ValueSchema SCHEMA = ValueSchema.ofStruct(Map.of(
+      "initial", ValueSchema.REAL,
+      "rate", ValueSchema.REAL));
+
+  /** A cell counting up the effects applied to it. */
+  private static final class CounterCellType implements CellType<Integer, MutableInt> {
+    @Override
+    public EffectTrait<Integer> getEffectType() {
+      return new EffectTrait<>() {
+        @Override
+        public Integer empty() {
+          return 0;
+        }
+
+        @Override
+        public Integer sequentially(final Integer prefix, final Integer suffix) {
+          return prefix + suffix;
+        }
+
+        @Override
+        public Integer concurrently(final Integer left, final Integer right) {
+          return left + right;
+        }
+      };
+    }
+
+    @Override
+    public MutableInt duplicate(final MutableInt state) {
+      return new MutableInt(state.intValue());
+    }
+
+    @Override
+    public void apply(final MutableInt state, final Integer effect) {
+      state.add(effect);
+    }
+  }
+
+  /** Dynamics whose initial value and rate are both awkward in binary, so that any lossy round-trip would show. */
+  private static double[] dynamicsAt(final CellId<MutableInt> ref, final Querier querier) {
+    final var count = querier.getState(ref).intValue();
+    return new double[] {0.1 * count, count / 3.0};
+  }
+
+  @Test
+  public void typedRealResourcesAreSampledAsTheirSerializedFormWouldBe() {
+    final var builder = new MissionModelBuilder();
+    final var topic = new Topic<Integer>();
+    final var ref = builder.allocate(new MutableInt(), new CounterCellType(), $ -> $, topic);
+
+    builder.resource("/typed", new RealDynamicsResource() {
+      @Override
+      public OutputType<RealDynamics> getOutputType() {
+        return outputType(dynamics -> new double[] {dynamics.initial, dynamics.rate});
+      }
+
+      @Override
+      public RealDynamics getDynamics(final Querier querier) {
+        final var dynamics = dynamicsAt(ref, querier);
+        return RealDynamics.linear(dynamics[0], dynamics[1]);
+      }
+    });
+    // A real resource with dynamics of its own type, which the engine can only read through their serialized form
+    builder.resource("/serialized", new Resource<double[]>() {
+      @Override
+      public String getType() {
+        return "real";
+      }
+
+      @Override
+      public OutputType<double[]> getOutputType() {
+        return outputType(dynamics -> dynamics);
+      }
+
+      @Override
+      public double[] getDynamics(final Querier querier) {
+        return dynamicsAt(ref, querier);
+      }
+    });
+    final TaskFactory<Unit> emitter = executor -> incrementing(topic, 10);
+    builder.daemon(emitter);
+    final var model = builder.build(ref, new DirectiveTypeRegistry<>(Map.of()));
+
+    final var now = Instant.now();
+    final var results = SimulationDriver.simulate(model, Map.of(), now, Duration.HOUR, now, Duration.HOUR, () -> false);
+
+    final var typed = results.realProfiles.get("/typed");
+    final var serialized = results.realProfiles.get("/serialized");
+    // The first increment lands alongside the initial sample, and each later one starts a new segment
+    assertEquals(10, typed.segments().size());
+    assertEquals(RealDynamics.linear(0.1 * 10, 10 / 3.0), typed.segments().getLast().dynamics());
+    assertEquals(serialized, typed);
+  }
+
+  private static <Dynamics> OutputType<Dynamics> outputType(final Function<Dynamics, double[]> toArray) {
+    return new OutputType<>() {
+      @Override
+      public ValueSchema getSchema() {
+        return SCHEMA;
+      }
+
+      @Override
+      public SerializedValue serialize(final Dynamics value) {
+        final var dynamics = toArray.apply(value);
+        return SerializedValue.of(Map.of(
+            "initial", SerializedValue.of(dynamics[0]),
+            "rate", SerializedValue.of(dynamics[1])));
+      }
+    };
+  }
+
+  /** Increment the counter the given number of times, a second apart. */
+  private static OneStepTask<Unit> incrementing(final Topic<Integer> topic, final int remaining) {
+    return new OneStepTask<>($ -> {
+      $.emit(1, topic);
+      if (remaining == 1) return TaskStatus.completed(Unit.UNIT);
+      return TaskStatus.delayed(Duration.SECOND, incrementing(topic, remaining - 1));
+    });
+  }
+}
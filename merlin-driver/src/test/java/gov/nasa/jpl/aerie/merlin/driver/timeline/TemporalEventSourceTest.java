@@ -0,0 +1,106 @@
+package gov.nasa.jpl.aerie.merlin.driver.timeline;
+
+import gov.nasa.jpl.aerie.merlin.driver.engine.SpanId;
+import gov.nasa.jpl.aerie.merlin.protocol.driver.Topic;
+import gov.nasa.jpl.aerie.merlin.protocol.model.CellType;
+import gov.nasa.jpl.aerie.merlin.protocol.model.EffectTrait;
+import org.apache.commons.lang3.mutable.MutableInt;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public final class TemporalEventSourceTest {
+  private static final SpanId ORIGIN = SpanId.generate();
+
+  /** Counts the events selected by a cell. */
+  private static final class CountingCellType implements CellType<Integer, MutableInt> {
+    @Override
+    public EffectTrait<Integer> getEffectType() {
+      return new EffectTrait<>() {
+        @Override
+        public Integer empty() {
+          return 0;
+        }
+
+        @Override
+        public Integer sequentially(final Integer prefix, final Integer suffix) {
+          return prefix + suffix;
+        }
+
+        @Override
+        public Integer concurrently(final Integer left, final Integer right) {
+          return left + right;
+        }
+      };
+    }
+
+    @Override
+    public MutableInt duplicate(final MutableInt state) {
+      return new MutableInt(state.intValue());
+    }
+
+    @Override
+    public void apply(final MutableInt state, final Integer effect) {
+      state.add(effect);
+    }
+  }
+
+  private static Cell<MutableInt> counter(final Selector<Integer> selector) {
+    return new Cell<>(new CountingCellType(), selector, new RecursiveEventGraphEvaluator(), new MutableInt());
+  }
+
+  private static EventGraph<Event> atom(final Topic<String> topic) {
+    return EventGraph.atom(Event.create(topic, "event", ORIGIN));
+  }
+
+  private static BitSet bits(final int... ids) {
+    final var set = new BitSet();
+    for (final var id : ids) set.set(id);
+    return set;
+  }
+
+  @Test
+  public void commitsTrackIndexedTopics() {
+    final var index = new TopicIndex();
+    final var a = new Topic<String>();
+    final var b = new Topic<String>();
+    final var unindexed = new Topic<String>();
+    final var idA = index.register(a);
+    final var idB = index.register(b);
+    assertEquals(idA, index.register(a));
+    assertEquals(TopicIndex.UNINDEXED, index.idOf(unindexed));
+
+    final var source = new TemporalEventSource(index);
+    source.add(atom(a));
+    source.add(atom(unindexed));
+    source.add(EventGraph.concurrently(atom(b), EventGraph.sequentially(atom(a), atom(a))));
+
+    final var topics = new ArrayList<BitSet>();
+    for (final var point : source) {
+      if (point instanceof TemporalEventSource.TimePoint.Commit commit) topics.add(commit.topics());
+    }
+    assertEquals(List.of(bits(idA), bits(), bits(idA, idB)), topics);
+
+    final var cellA = counter(new Selector<>(a, idA, $ -> 1));
+    final var cellB = counter(new Selector<>(b, idB, $ -> 1));
+    final var cellUnindexed = counter(new Selector<>(unindexed, $ -> 1));
+    final var cellAB = counter(new Selector<>(
+        new Selector.SelectorRow<>(a, idA, $ -> 1),
+        new Selector.SelectorRow<>(b, idB, $ -> 10)));
+
+    assertEquals(List.of(true, false, true), topics.stream().map(cellA::isInterestedIn).toList());
+    assertEquals(List.of(false, false, true), topics.stream().map(cellB::isInterestedIn).toList());
+    assertEquals(List.of(true, true, true), topics.stream().map(cellUnindexed::isInterestedIn).toList());
+    assertEquals(List.of(true, false, true), topics.stream().map(cellAB::isInterestedIn).toList());
+
+    for (final var cell : List.of(cellA, cellB, cellUnindexed, cellAB)) source.cursor().stepUp(cell);
+    assertEquals(3, cellA.getState().intValue());
+    assertEquals(1, cellB.getState().intValue());
+    assertEquals(1, cellUnindexed.getState().intValue());
+    assertEquals(13, cellAB.getState().intValue());
+  }
+}
@@ -10,7 +10,6 @@ import com.squareup.javapoet.ParameterizedTypeName;
 import com.squareup.javapoet.TypeName;
 import com.squareup.javapoet.TypeSpec;
 import com.squareup.javapoet.TypeVariableName;
-import gov.nasa.jpl.aerie.contrib.serialization.mappers.RecordValueMapper;
 import gov.nasa.jpl.aerie.merlin.framework.Result;
 import gov.nasa.jpl.aerie.merlin.framework.ValueMapper;
 import gov.nasa.jpl.aerie.merlin.framework.annotations.AutoValueMapper;
@@ -135,34 +134,7 @@ public class AutoValueMappers {
               .addCode(
                   CodeBlock
                       .builder()
-                      .add("return new $T<>($>\n", ClassName.get(RecordValueMapper.class))
-                      .add("$L$T.class,\n",
-                           // SAFETY: This cast cannot fail - it merely exists to compensate for an inability
-                           // to express a MyRecord<T>.class. Instead, we use MyRecord.class, and cast it, via
-                           // Object, to a `Class<MyRecord<T>>`. We need to go via Object because Java generics
-                           // do not allow casting a Foo<Bar> to a Foo<Bar<Baz>> - since Bar may be a container
-                           // that already contains non-Baz objects. In this case, since MyRecord.class is not
-                           // a container, the Java type checker is being overly conservative
-                           castIfGeneric(record),
-                           ClassName.get((TypeElement) record))
-                      .add("$T.of($>\n", List.class)
-                      .add(CodeBlock.join(
-                          componentMappers.components()
-                              .stream()
-                              .map(recordComponent ->
-                                       CodeBlock
-                                           .builder()
-                                           .add(
-                                               "new $T<>($>\n" + "$S,\n" + "$T::$L,\n" + "$L" + "$<)",
-                                               RecordValueMapper.Component.class,
-                                               recordComponent.componentName(),
-                                               ClassName.get((TypeElement) record),
-                                               recordComponent.componentName(),
-                                               recordComponent.mapperIdentifier())
-                                           .build())
-                              .toList(),
-                          ",\n"))
-                      .add("$<)$<);")
+                      .add("return $L;\n", generateRecordMapper(record, componentMappers))
                       .build())
               .build());
     }
@@ -295,13 +267,130 @@ public class AutoValueMappers {
         .build();
   }
 
-  private static CodeBlock castIfGeneric(final Element record) {
-    final var typeParameters = ((Parameterizable) record).getTypeParameters();
-    if (typeParameters.isEmpty()) {
-      return CodeBlock.of("");
-    } else {
-      return CodeBlock.of("(Class<$T>) (Object) ", TypeName.get(record.asType()));
+  /**
+   * Generate a mapper for a record which accesses each component directly and invokes the canonical constructor,
+   * rather than going through the reflective {@link gov.nasa.jpl.aerie.contrib.serialization.mappers.RecordValueMapper}.
+   */
+  private static TypeSpec generateRecordMapper(final Element record, final ComponentsAndMappers componentMappers) {
+    final var recordType = TypeName.get(record.asType());
+    final var components = componentMappers.components();
+
+    final var deserialize = CodeBlock.builder()
+        .addStatement("final var $$fields$$ = $$value$$.asMap()")
+        .addStatement("if ($$fields$$.isEmpty()) return $T.failure($S)", Result.class, "Expected struct, got: ")
+        .addStatement("final var $$map$$ = $$fields$$.get()");
+    for (final var component : components) {
+      deserialize
+          .addStatement("final var $L = $$map$$.get($S)", serializedName(component), component.componentName())
+          .addStatement(
+              "if ($L == null) return $T.failure($S)",
+              serializedName(component),
+              Result.class,
+              "Record missing key %s".formatted(component.componentName()));
+    }
+    deserialize
+        .beginControlFlow("if ($$map$$.size() != $L)", components.size())
+        .beginControlFlow("for (final var $$key$$ : $$map$$.keySet())")
+        .beginControlFlow("switch ($$key$$)");
+    if (!components.isEmpty()) {
+      deserialize.addStatement(
+          "case $L: break",
+          CodeBlock.join(components.stream().map($ -> CodeBlock.of("$S", $.componentName())).toList(), ", "));
     }
+    deserialize
+        .addStatement("default: return $T.failure($S.formatted($$key$$))", Result.class, "Record has extra key %s")
+        .endControlFlow()
+        .endControlFlow()
+        .endControlFlow();
+    for (final var component : components) {
+      deserialize
+          .addStatement(
+              "final var $L = $L.deserializeValue($L)",
+              resultName(component),
+              component.mapperIdentifier(),
+              serializedName(component))
+          .addStatement(
+              "if ($L.getKind() == $T.Kind.Failure) return $T.failure($S)",
+              resultName(component),
+              Result.class,
+              Result.class,
+              "Failed to deserialize %s".formatted(component.componentName()));
+    }
+    deserialize.addStatement(
+        "return $T.success(new $T$L($L))",
+        Result.class,
+        ClassName.get((TypeElement) record),
+        ((Parameterizable) record).getTypeParameters().isEmpty() ? "" : "<>",
+        CodeBlock.join(components.stream().map($ -> CodeBlock.of("$L.getSuccessOrThrow()", resultName($))).toList(), ", "));
+
+    return TypeSpec
+        .anonymousClassBuilder("")
+        .addSuperinterface(ParameterizedTypeName.get(ClassName.get(ValueMapper.class), recordType))
+        .addMethod(
+            MethodSpec
+                .methodBuilder("getValueSchema")
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PUBLIC)
+                .returns(ValueSchema.class)
+                .addStatement(
+                    "return $T.ofStruct($L)",
+                    ValueSchema.class,
+                    immutableMap(components
+                        .stream()
+                        .map($ -> CodeBlock.of("$S, $L.getValueSchema()", $.componentName(), $.mapperIdentifier()))
+                        .toList()))
+                .build())
+        .addMethod(
+            MethodSpec
+                .methodBuilder("deserializeValue")
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(SerializedValue.class, "$value$", Modifier.FINAL)
+                .returns(ParameterizedTypeName.get(ClassName.get(Result.class), recordType, ClassName.get(String.class)))
+                .addCode(deserialize.build())
+                .build())
+        .addMethod(
+            MethodSpec
+                .methodBuilder("serializeValue")
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(recordType, "$value$", Modifier.FINAL)
+                .returns(SerializedValue.class)
+                .addStatement(
+                    "return $T.of($L)",
+                    SerializedValue.class,
+                    immutableMap(components
+                        .stream()
+                        .map($ -> CodeBlock.of(
+                            "$S, $L.serializeValue($$value$$.$L())",
+                            $.componentName(),
+                            $.mapperIdentifier(),
+                            $.componentName()))
+                        .toList()))
+                .build())
+        .build();
+  }
+
+  /**
+   * Build an immutable map from key-value pairs, so that factories like {@link SerializedValue#of(Map)} need not copy it.
+   * @param entries code blocks of the form {@code key, value}
+   */
+  private static CodeBlock immutableMap(final List<CodeBlock> entries) {
+    // Map.of is only overloaded for up to 10 entries
+    if (entries.size() <= 10) return CodeBlock.of("$T.of($L)", Map.class, CodeBlock.join(entries, ", "));
+    return CodeBlock.builder()
+        .add("$T.ofEntries($>\n", Map.class)
+        .add(CodeBlock.join(entries.stream().map($ -> CodeBlock.of("$T.entry($L)", Map.class, $)).toList(), ",\n"))
+        .add("$<)")
+        .build();
+  }
+
+  private static String serializedName(final ComponentMapper component) {
+    return "$serialized$" + component.componentName();
+  }
+
+  private static String resultName(final ComponentMapper component) {
+    return "$result$" + component.componentName();
   }
 
   /**
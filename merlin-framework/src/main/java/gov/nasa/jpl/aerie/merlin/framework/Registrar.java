@@ -3,6 +3,7 @@ package gov.nasa.jpl.aerie.merlin.framework;
 import gov.nasa.jpl.aerie.merlin.protocol.driver.Initializer;
 import gov.nasa.jpl.aerie.merlin.protocol.driver.Querier;
 import gov.nasa.jpl.aerie.merlin.protocol.model.OutputType;
+import gov.nasa.jpl.aerie.merlin.protocol.model.RealDynamicsResource;
 import gov.nasa.jpl.aerie.merlin.protocol.types.RealDynamics;
 import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
 import gov.nasa.jpl.aerie.merlin.protocol.types.ValueSchema;
@@ -36,17 +37,26 @@ public final class Registrar {
   }
 
   private void real(final String name, final Resource<RealDynamics> resource, UnaryOperator<ValueSchema> schemaModifier) {
-    this.builder.resource(
-        name,
-        makeResource(
-            "real",
-            resource,
-            schemaModifier.apply(ValueSchema.ofStruct(Map.of(
-                "initial", ValueSchema.REAL,
-                "rate", ValueSchema.REAL))),
-            dynamics -> SerializedValue.of(Map.of(
-                "initial", SerializedValue.of(dynamics.initial),
-                "rate", SerializedValue.of(dynamics.rate)))));
+    final var outputType = makeOutputType(
+        schemaModifier.apply(ValueSchema.ofStruct(Map.of(
+            "initial", ValueSchema.REAL,
+            "rate", ValueSchema.REAL))),
+        (RealDynamics dynamics) -> SerializedValue.of(Map.of(
+            "initial", SerializedValue.of(dynamics.initial),
+            "rate", SerializedValue.of(dynamics.rate))));
+
+    // Real resources are typed, so that simulations can sample them without serializing their dynamics
+    this.builder.resource(name, new RealDynamicsResource() {
+      @Override
+      public OutputType<RealDynamics> getOutputType() {
+        return outputType;
+      }
+
+      @Override
+      public RealDynamics getDynamics(final Querier querier) {
+        return Registrar.getDynamics(resource, querier);
+      }
+    });
   }
 
   private static <Value> gov.nasa.jpl.aerie.merlin.protocol.model.Resource<Value> makeResource(
@@ -55,6 +65,7 @@ public final class Registrar {
       final ValueSchema valueSchema,
       final Function<Value, SerializedValue> serializer
   ) {
+    final var outputType = makeOutputType(valueSchema, serializer);
     return new gov.nasa.jpl.aerie.merlin.protocol.model.Resource<>() {
       @Override
       public String getType() {
@@ -63,28 +74,39 @@ public final class Registrar {
 
       @Override
       public OutputType<Value> getOutputType() {
-        return new OutputType<>() {
-          @Override
-          public ValueSchema getSchema() {
-            return valueSchema;
-          }
-
-          @Override
-          public SerializedValue serialize(final Value value) {
-            return serializer.apply(value);
-          }
-        };
+        return outputType;
       }
 
       @Override
       public Value getDynamics(final Querier querier) {
-        try (final var _token = ModelActions.context.set(new QueryContext(querier))) {
-          return resource.getDynamics();
-        }
+        return Registrar.getDynamics(resource, querier);
+      }
+    };
+  }
+
+  private static <Value> OutputType<Value> makeOutputType(
+      final ValueSchema valueSchema,
+      final Function<Value, SerializedValue> serializer
+  ) {
+    return new OutputType<>() {
+      @Override
+      public ValueSchema getSchema() {
+        return valueSchema;
+      }
+
+      @Override
+      public SerializedValue serialize(final Value value) {
+        return serializer.apply(value);
       }
     };
   }
 
+  private static <Value> Value getDynamics(final Resource<Value> resource, final Querier querier) {
+    try (final var _token = ModelActions.context.set(new QueryContext(querier))) {
+      return resource.getDynamics();
+    }
+  }
+
   public <Event> void topic(final String name, final CellRef<Event,?> ref, final ValueMapper<Event> mapper) {
     Objects.requireNonNull(mapper);
 
@@ -0,0 +1,82 @@
+package gov.nasa.jpl.aerie.merlin.framework;
+
+import gov.nasa.jpl.aerie.merlin.protocol.driver.CellId;
+import gov.nasa.jpl.aerie.merlin.protocol.driver.Initializer;
+import gov.nasa.jpl.aerie.merlin.protocol.driver.Querier;
+import gov.nasa.jpl.aerie.merlin.protocol.driver.Topic;
+import gov.nasa.jpl.aerie.merlin.protocol.model.CellType;
+import gov.nasa.jpl.aerie.merlin.protocol.model.OutputType;
+import gov.nasa.jpl.aerie.merlin.protocol.model.RealDynamicsResource;
+import gov.nasa.jpl.aerie.merlin.protocol.model.TaskFactory;
+import gov.nasa.jpl.aerie.merlin.protocol.types.RealDynamics;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import gov.nasa.jpl.aerie.merlin.protocol.types.ValueSchema;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+class RegistrarTest {
+  /** Collects the resources registered with it. */
+  private static final class ResourceCollector implements Initializer {
+    final Map<String, gov.nasa.jpl.aerie.merlin.protocol.model.Resource<?>> resources = new HashMap<>();
+
+    @Override
+    public <State> State getInitialState(final CellId<State> cellId) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <Event, Effect, State> CellId<State> allocate(
+        final State initialState,
+        final CellType<Effect, State> cellType,
+        final Function<Event, Effect> interpretation,
+        final Topic<Event> topic)
+    {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void daemon(final TaskFactory<?> factory) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void resource(final String name, final gov.nasa.jpl.aerie.merlin.protocol.model.Resource<?> resource) {
+      this.resources.put(name, resource);
+    }
+
+    @Override
+    public <Event> void topic(final String name, final Topic<Event> topic, final OutputType<Event> outputType) {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  private static final Querier NO_CELLS = new Querier() {
+    @Override
+    public <State> State getState(final CellId<State> cellId) {
+      throw new UnsupportedOperationException();
+    }
+  };
+
+  @Test
+  void realResourcesAreTypedAndSerializeTheirDynamics() {
+    final var collector = new ResourceCollector();
+    final var dynamics = RealDynamics.linear(0.1, -1 / 3.0);
+    new Registrar(collector).real("/real", () -> dynamics);
+
+    final var resource = assertInstanceOf(RealDynamicsResource.class, collector.resources.get("/real"));
+    assertEquals("real", resource.getType());
+    assertEquals(dynamics, resource.getDynamics(NO_CELLS));
+    assertEquals(
+        ValueSchema.ofStruct(Map.of("initial", ValueSchema.REAL, "rate", ValueSchema.REAL)),
+        resource.getOutputType().getSchema());
+    assertEquals(
+        SerializedValue.of(Map.of("initial", SerializedValue.of(0.1), "rate", SerializedValue.of(-1 / 3.0))),
+        resource.getOutputType().serialize(dynamics));
+  }
+}
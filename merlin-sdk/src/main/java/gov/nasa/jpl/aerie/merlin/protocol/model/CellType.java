@@ -3,6 +3,7 @@ package gov.nasa.jpl.aerie.merlin.protocol.model;
 import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
 
 import java.util.Optional;
+import java.util.function.BiPredicate;
 
 public interface CellType<Effect, State> {
   EffectTrait<Effect> getEffectType();
@@ -18,4 +19,14 @@ public interface CellType<Effect, State> {
   default Optional<Duration> getExpiry(final State state) {
     return Optional.empty();
   }
+
+  /**
+   * Get a test of whether two states of this cell will behave identically under any future effects and steps,
+   * or empty if this cell can't tell.
+   *
+   * When given, the engine uses it to tell that a condition reading this cell needn't be re-evaluated.
+   */
+  default Optional<BiPredicate<State, State>> getStateEquivalence() {
+    return Optional.empty();
+  }
 }
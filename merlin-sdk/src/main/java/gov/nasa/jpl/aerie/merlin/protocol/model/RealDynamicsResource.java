@@ -0,0 +1,17 @@
+package gov.nasa.jpl.aerie.merlin.protocol.model;
+
+import gov.nasa.jpl.aerie.merlin.protocol.types.RealDynamics;
+
+/**
+ * A resource of type {@code "real"} whose dynamics are directly available as {@link RealDynamics}.
+ *
+ * <p> A simulation may read the dynamics of such a resource as they are, rather than extracting them from the
+ * {@linkplain #getOutputType() serialized} form, which is then only needed when producing the final output. The output
+ * type of such a resource must serialize dynamics to a struct of real {@code "initial"} and {@code "rate"} fields. </p>
+ */
+public interface RealDynamicsResource extends Resource<RealDynamics> {
+  @Override
+  default String getType() {
+    return "real";
+  }
+}
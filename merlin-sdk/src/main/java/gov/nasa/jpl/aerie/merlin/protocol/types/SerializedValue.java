@@ -61,6 +61,20 @@ public sealed interface SerializedValue extends Comparable<SerializedValue> {
     T onString(String value);
     T onMap(Map<String, SerializedValue> value);
     T onList(List<SerializedValue> value);
+
+    /**
+     * Called for numbers held as a long. Visitors that do not override it see them as arbitrary-precision numbers.
+     */
+    default T onInt(final long value) {
+      return this.onNumeric(BigDecimal.valueOf(value));
+    }
+
+    /**
+     * Called for numbers held as a double. Visitors that do not override it see them as arbitrary-precision numbers.
+     */
+    default T onReal(final double value) {
+      return this.onNumeric(BigDecimal.valueOf(value));
+    }
   }
 
   @Override
@@ -101,14 +115,183 @@ public sealed interface SerializedValue extends Comparable<SerializedValue> {
     // `BigDecimal#equals` is too strict -- values differing only in representation need to be considered the same.
     @Override
     public boolean equals(final Object obj) {
-      if (!(obj instanceof NumericValue other)) return false;
-      return (this.value.compareTo(other.value) == 0);
+      return numericEquals(this, obj);
+    }
+
+    // Must agree with the hash of the same number held as a long or a double.
+    @Override
+    public int hashCode() {
+      final var stripped = this.value.stripTrailingZeros();
+      if (stripped.scale() <= 0 && stripped.precision() - stripped.scale() <= 19) {
+        try {
+          return Long.hashCode(stripped.longValueExact());
+        } catch (final ArithmeticException ex) {
+          // Out of the range of a long
+        }
+      }
+      final var asDouble = this.value.doubleValue();
+      if (Double.isFinite(asDouble) && BigDecimal.valueOf(asDouble).compareTo(this.value) == 0) {
+        return hashReal(asDouble);
+      }
+      return stripped.hashCode();
+    }
+
+    @Override
+    public int compareTo(final SerializedValue o) {
+      return numericCompare(this, o);
+    }
+  }
+
+  /**
+   * A number held as a long, sparing the cost of an arbitrary-precision number to the numerous integral values.
+   * It is equal to any other number of the same value, whatever its representation.
+   */
+  record LongValue(long value) implements SerializedValue {
+    @Override
+    public <T> T match(final Visitor<T> visitor) {
+      return visitor.onInt(value);
+    }
+
+    @Override
+    public BigDecimal getValue() {
+      return BigDecimal.valueOf(value);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      if (obj instanceof LongValue other) return (this.value == other.value);
+      return numericEquals(this, obj);
+    }
+
+    @Override
+    public int hashCode() {
+      return Long.hashCode(value);
+    }
+
+    @Override
+    public int compareTo(final SerializedValue o) {
+      if (o instanceof LongValue other) return Long.compare(this.value, other.value);
+      return numericCompare(this, o);
+    }
+
+    @Override
+    public Optional<BigDecimal> asNumeric() {
+      return Optional.of(BigDecimal.valueOf(value));
+    }
+
+    @Override
+    public Optional<Double> asReal() {
+      return Optional.of((double) value);
+    }
+
+    @Override
+    public Optional<Long> asInt() {
+      return Optional.of(value);
+    }
+  }
+
+  /**
+   * A finite number held as a double, sparing the cost of an arbitrary-precision number to the numerous real values.
+   * It stands for the decimal number {@link BigDecimal#valueOf(double)} makes of it, and is equal to any other number of
+   * the same value, whatever its representation.
+   */
+  record DoubleValue(double value) implements SerializedValue {
+    @Override
+    public <T> T match(final Visitor<T> visitor) {
+      return visitor.onReal(value);
+    }
+
+    @Override
+    public BigDecimal getValue() {
+      return BigDecimal.valueOf(value);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      // `==` rather than `Double#equals`, which tells 0.0 and -0.0 apart
+      if (obj instanceof DoubleValue other) return (this.value == other.value);
+      return numericEquals(this, obj);
     }
 
     @Override
     public int hashCode() {
-      return this.value.stripTrailingZeros().hashCode();
+      return hashReal(value);
+    }
+
+    @Override
+    public int compareTo(final SerializedValue o) {
+      if (o instanceof DoubleValue other) return (this.value < other.value) ? -1 : ((this.value > other.value) ? 1 : 0);
+      return numericCompare(this, o);
+    }
+
+    @Override
+    public Optional<BigDecimal> asNumeric() {
+      return Optional.of(BigDecimal.valueOf(value));
+    }
+
+    @Override
+    public Optional<Double> asReal() {
+      return Optional.of(value);
+    }
+
+    @Override
+    public Optional<Long> asInt() {
+      if (isLong(value)) return Optional.of((long) value);
+      try {
+        return Optional.of(BigDecimal.valueOf(value).longValueExact());
+      } catch (final ArithmeticException ex) {
+        return Optional.empty();
+      }
+    }
+  }
+
+  /**
+   * Whether a double is an integer small enough that {@link BigDecimal#valueOf(double)} makes it exactly its binary
+   * value, so that it stands for the same number as its cast to a long. Beyond 2^53, the shortest decimal of a double
+   * is not always the integer it holds: 2^60 holds 1152921504606846976, but stands for 1152921504606847000.
+   */
+  private static boolean isLong(final double value) {
+    return (value == Math.rint(value) && value > -0x1p53 && value < 0x1p53);
+  }
+
+  /** Integral numbers hash as longs, whatever their representation, and other numbers that are doubles as doubles. */
+  private static int hashReal(final double value) {
+    if (isLong(value)) return Long.hashCode((long) value);
+    if (value == Math.rint(value) && Math.abs(value) < 0x1p63) {
+      return Long.hashCode(BigDecimal.valueOf(value).longValueExact());
+    }
+    return Double.hashCode(value);
+  }
+
+  private static BigDecimal toBigDecimal(final SerializedValue value) {
+    return switch (value) {
+      case NumericValue v -> v.value();
+      case LongValue v -> BigDecimal.valueOf(v.value());
+      case DoubleValue v -> BigDecimal.valueOf(v.value());
+      default -> throw new IllegalArgumentException("Not a number: " + value);
+    };
+  }
+
+  private static boolean isNumber(final Object value) {
+    return (value instanceof NumericValue || value instanceof LongValue || value instanceof DoubleValue);
+  }
+
+  private static boolean numericEquals(final SerializedValue value, final Object other) {
+    return isNumber(other) && numericCompare(value, (SerializedValue) other) == 0;
+  }
+
+  /** Compares a number with any value, numerically if that value is also a number */
+  private static int numericCompare(final SerializedValue value, final SerializedValue other) {
+    if (!isNumber(other)) {
+      return ObjectComparator.getInstance().compare(value.getValue(), other.getValue());
+    }
+    if (value instanceof LongValue a && other instanceof DoubleValue b && isLong(b.value())) {
+      return Long.compare(a.value(), (long) b.value());
+    }
+    if (value instanceof DoubleValue a && other instanceof LongValue b && isLong(a.value())) {
+      return Long.compare((long) a.value(), b.value());
     }
+    return toBigDecimal(value).compareTo(toBigDecimal(other));
   }
 
   record BooleanValue(boolean value) implements SerializedValue {
@@ -181,7 +364,9 @@ public sealed interface SerializedValue extends Comparable<SerializedValue> {
    * @return A new {@link SerializedValue} containing a real number.
    */
   static SerializedValue of(final double value) {
-    return new NumericValue(BigDecimal.valueOf(value));
+    // Only finite numbers can be serialized, as arbitrary-precision numbers
+    if (!Double.isFinite(value)) throw new NumberFormatException("Infinite or NaN");
+    return new DoubleValue(value);
   }
 
   /**
@@ -191,7 +376,7 @@ public sealed interface SerializedValue extends Comparable<SerializedValue> {
    * @return A new {@link SerializedValue} containing an integral number.
    */
   static SerializedValue of(final long value) {
-    return new NumericValue(BigDecimal.valueOf(value));
+    return new LongValue(value);
   }
 
   /**
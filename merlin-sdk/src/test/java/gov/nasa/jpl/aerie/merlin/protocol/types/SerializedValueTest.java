@@ -0,0 +1,75 @@
+package gov.nasa.jpl.aerie.merlin.protocol.types;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class SerializedValueTest {
+  private static void assertSameNumber(final SerializedValue expected, final SerializedValue actual) {
+    assertEquals(expected, actual);
+    assertEquals(actual, expected);
+    assertEquals(expected.hashCode(), actual.hashCode());
+    assertEquals(0, expected.compareTo(actual));
+    assertEquals(0, actual.compareTo(expected));
+  }
+
+  @Test
+  public void testNumbersAreEqualAcrossRepresentations() {
+    assertSameNumber(SerializedValue.of(new BigDecimal("3.00")), SerializedValue.of(3));
+    assertSameNumber(SerializedValue.of(new BigDecimal("3.00")), SerializedValue.of(3.0));
+    assertSameNumber(SerializedValue.of(3), SerializedValue.of(3.0));
+    assertSameNumber(SerializedValue.of(0), SerializedValue.of(-0.0));
+    assertSameNumber(SerializedValue.of(new BigDecimal("0.1")), SerializedValue.of(0.1));
+    assertSameNumber(SerializedValue.of(new BigDecimal("1E+20")), SerializedValue.of(1e20));
+    assertSameNumber(SerializedValue.of(new BigDecimal(Long.MIN_VALUE)), SerializedValue.of(Long.MIN_VALUE));
+    assertSameNumber(SerializedValue.of(List.of(SerializedValue.of(1))), SerializedValue.of(List.of(SerializedValue.of(1.0))));
+    // Beyond 2^53 a double stands for its shortest decimal, not the integer it holds in binary
+    final var shortest = BigDecimal.valueOf(0x1p60);
+    assertNotEquals(new BigDecimal(1L << 60), shortest);
+    assertSameNumber(SerializedValue.of(shortest), SerializedValue.of(0x1p60));
+    assertSameNumber(SerializedValue.of(shortest.longValueExact()), SerializedValue.of(0x1p60));
+    assertSameNumber(SerializedValue.of(0x1p53), SerializedValue.of(1L << 53));
+
+    assertNotEquals(SerializedValue.of(1), SerializedValue.of(1.5));
+    assertNotEquals(SerializedValue.of(new BigDecimal("0.1")), SerializedValue.of(0.1f));
+    assertNotEquals(SerializedValue.of(Long.MAX_VALUE), SerializedValue.of((double) Long.MAX_VALUE));
+    assertNotEquals(SerializedValue.of(1L << 60), SerializedValue.of(0x1p60));
+    assertNotEquals(SerializedValue.of(1), SerializedValue.of("1"));
+  }
+
+  @Test
+  public void testNumbersAreOrderedAcrossRepresentations() {
+    assertTrue(SerializedValue.of(1).compareTo(SerializedValue.of(1.5)) < 0);
+    assertTrue(SerializedValue.of(2.5).compareTo(SerializedValue.of(2)) > 0);
+    assertTrue(SerializedValue.of(new BigDecimal("1.25")).compareTo(SerializedValue.of(1.5)) < 0);
+    assertTrue(SerializedValue.of(Long.MAX_VALUE).compareTo(SerializedValue.of((double) Long.MAX_VALUE)) < 0);
+    assertTrue(SerializedValue.NULL.compareTo(SerializedValue.of(0)) < 0);
+  }
+
+  @Test
+  public void testAccessorsAgreeAcrossRepresentations() {
+    for (final var value : List.of(SerializedValue.of(new BigDecimal("7")), SerializedValue.of(7), SerializedValue.of(7.0))) {
+      assertEquals(Optional.of(7L), value.asInt());
+      assertEquals(Optional.of(7.0), value.asReal());
+      assertEquals(0, value.asNumeric().orElseThrow().compareTo(BigDecimal.valueOf(7)));
+    }
+    assertEquals(Optional.empty(), SerializedValue.of(7.5).asInt());
+    assertEquals(Optional.empty(), SerializedValue.of(1e20).asInt());
+    assertEquals(Optional.of(BigDecimal.valueOf(0x1p60).longValueExact()), SerializedValue.of(0x1p60).asInt());
+    assertEquals(Optional.of(new BigDecimal("0.1")), SerializedValue.of(0.1).asNumeric());
+    assertEquals(Optional.of(new BigDecimal("0.1")), SerializedValue.of(0.1).match(new SerializedValue.OptionalVisitor<BigDecimal>() {
+      @Override
+      public Optional<BigDecimal> onNumeric(final BigDecimal value) {
+        return Optional.of(value);
+      }
+    }));
+    assertThrows(NumberFormatException.class, () -> SerializedValue.of(Double.NaN));
+  }
+}
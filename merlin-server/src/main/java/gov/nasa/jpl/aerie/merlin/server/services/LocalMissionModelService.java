@@ -3,6 +3,7 @@ package gov.nasa.jpl.aerie.merlin.server.services;
 import gov.nasa.jpl.aerie.merlin.driver.DirectiveTypeRegistry;
 import gov.nasa.jpl.aerie.merlin.driver.MissionModel;
 import gov.nasa.jpl.aerie.merlin.driver.MissionModelLoader;
+import gov.nasa.jpl.aerie.merlin.driver.MissionModelProviderCache;
 import gov.nasa.jpl.aerie.types.ActivityDirectiveId;
 import gov.nasa.jpl.aerie.types.MissionModelId;
 import gov.nasa.jpl.aerie.types.Plan;
@@ -49,15 +50,26 @@ public final class LocalMissionModelService implements MissionModelService {
   private final Path missionModelDataPath;
   private final MissionModelRepository missionModelRepository;
   private final Instant untruePlanStart;
+  private final MissionModelProviderCache missionModelProviders;
 
   public LocalMissionModelService(
       final Path missionModelDataPath,
       final MissionModelRepository missionModelRepository,
       final Instant untruePlanStart
+  ) {
+    this(missionModelDataPath, missionModelRepository, untruePlanStart, MissionModelProviderCache.disabled());
+  }
+
+  public LocalMissionModelService(
+      final Path missionModelDataPath,
+      final MissionModelRepository missionModelRepository,
+      final Instant untruePlanStart,
+      final MissionModelProviderCache missionModelProviders
   ) {
     this.missionModelDataPath = missionModelDataPath;
     this.missionModelRepository = missionModelRepository;
     this.untruePlanStart = untruePlanStart;
+    this.missionModelProviders = missionModelProviders;
   }
 
   @Override
@@ -364,7 +376,9 @@ public final class LocalMissionModelService implements MissionModelService {
   {
     try {
       final var missionModelJar = this.missionModelRepository.getMissionModel(missionModelId);
-      return MissionModelLoader.loadModelType(missionModelDataPath.resolve(missionModelJar.path), missionModelJar.name, missionModelJar.version);
+      return this.missionModelProviders
+          .get(missionModelDataPath.resolve(missionModelJar.path), missionModelJar.name, missionModelJar.version)
+          .getModelType();
     } catch (final MissionModelRepository.NoSuchMissionModelException ex) {
       throw new NoSuchMissionModelException(missionModelId, ex);
     } catch (final MissionModelLoader.MissionModelLoadException ex) {
@@ -408,9 +422,9 @@ public final class LocalMissionModelService implements MissionModelService {
       return MissionModelLoader.loadMissionModel(
           planStart,
           configuration,
-          missionModelDataPath.resolve(missionModelJar.path),
-          missionModelJar.name,
-          missionModelJar.version);
+          this.missionModelProviders
+              .get(missionModelDataPath.resolve(missionModelJar.path), missionModelJar.name, missionModelJar.version)
+              .getModelType());
     } catch (final MissionModelRepository.NoSuchMissionModelException ex) {
       throw new NoSuchMissionModelException(missionModelId, ex);
     } catch (final MissionModelLoader.MissionModelLoadException ex) {
@@ -12,6 +12,7 @@ import javax.json.Json;
 import javax.sql.DataSource;
 import java.io.StringReader;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.concurrent.BlockingQueue;
 
 import static gov.nasa.jpl.aerie.merlin.worker.postgres.PostgresNotificationJsonParsers.postgresSimulationNotificationP;
@@ -29,7 +30,11 @@ public class ListenSimulationCapability {
     this.notificationQueue = notificationQueue;
   }
 
-  public Thread registerListener(SimulationCanceledListener canceledListener) {
+  /**
+   * Starts listening for requests and cancellations.
+   * @param canceledListeners the listeners of the jobs currently running, each of which is sent every canceled signal
+   */
+  public Thread registerListener(final Collection<SimulationCanceledListener> canceledListeners) {
     final var listenThread = new Thread(() -> {
       try (final var connection = this.dataSource.getConnection()) {
         try (final var listenSimulationStatusAction = new ListenSimulationStatusAction(connection)) {
@@ -50,7 +55,8 @@ public class ListenSimulationCapability {
               logger.info("Received PSQL Notification: {}, {}, {}", processId, channelName, payload);
 
               if (channelName.equals("simulation_cancel")) {
-                canceledListener.receiveSignal(new DatasetId(Long.parseLong(payload)));
+                final var id = new DatasetId(Long.parseLong(payload));
+                for (final var canceledListener : canceledListeners) canceledListener.receiveSignal(id);
               } else {
                 try (final var reader = Json.createReader(new StringReader(payload))) {
                   final var jsonValue = reader.readValue();
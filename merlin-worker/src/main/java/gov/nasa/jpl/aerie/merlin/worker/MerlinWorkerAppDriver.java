@@ -2,6 +2,7 @@ package gov.nasa.jpl.aerie.merlin.worker;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import gov.nasa.jpl.aerie.merlin.driver.MissionModelProviderCache;
 import gov.nasa.jpl.aerie.merlin.driver.resources.StreamingSimulationResourceManager;
 import gov.nasa.jpl.aerie.merlin.server.ResultsProtocol;
 import gov.nasa.jpl.aerie.merlin.server.config.PostgresStore;
@@ -19,14 +20,23 @@ import gov.nasa.jpl.aerie.merlin.server.services.UnexpectedSubtypeError;
 import gov.nasa.jpl.aerie.merlin.worker.postgres.PostgresProfileStreamer;
 import gov.nasa.jpl.aerie.merlin.worker.postgres.PostgresSimulationNotificationPayload;
 import io.javalin.Javalin;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import javax.sql.DataSource;
 import java.nio.file.Path;
 import java.time.Instant;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 
 public final class MerlinWorkerAppDriver {
+  private static final Logger logger = LoggerFactory.getLogger(MerlinWorkerAppDriver.class);
+
   public static void main(String[] args) throws InterruptedException {
     final var configuration = loadConfiguration();
     final var store = configuration.store();
@@ -42,7 +52,8 @@ public final class MerlinWorkerAppDriver {
     hikariConfig.addDataSourceProperty("applicationName", "Merlin Server");
     hikariConfig.setUsername(postgresStore.user());
     hikariConfig.setPassword(postgresStore.password());
-    hikariConfig.setMaximumPoolSize(3);
+    // One connection to listen for notifications, and two per worker to claim, stream and write results
+    hikariConfig.setMaximumPoolSize(1 + 2 * configuration.workerPoolSize());
 
     hikariConfig.setConnectionInitSql("set time zone 'UTC'");
 
@@ -56,7 +67,8 @@ public final class MerlinWorkerAppDriver {
     final var missionModelController = new LocalMissionModelService(
         configuration.merlinFileStore(),
         stores.missionModels(),
-        configuration.untruePlanStart()
+        configuration.untruePlanStart(),
+        new MissionModelProviderCache()
     );
     final var planController = new LocalPlanService(stores.plans());
     final var simulationAgent = new SimulationAgent(
@@ -66,54 +78,78 @@ public final class MerlinWorkerAppDriver {
 
     final var notificationQueue = new LinkedBlockingQueue<PostgresSimulationNotificationPayload>();
     final var listenAction = new ListenSimulationCapability(hikariDataSource, notificationQueue);
-    final var canceledListener = new SimulationCanceledListener();
-    final var listenThread = listenAction.registerListener(canceledListener);
+    final Set<SimulationCanceledListener> canceledListeners = ConcurrentHashMap.newKeySet();
+    final var listenThread = listenAction.registerListener(canceledListeners);
+
+    final var workers = Executors.newFixedThreadPool(configuration.workerPoolSize());
+    final var idleWorkers = new Semaphore(configuration.workerPoolSize());
 
     try (final var app = Javalin.create().start(8080)) {
       app.get("/health", ctx -> ctx.status(200));
 
       while (listenThread.isAlive()) {
+        // Only take a request once a worker is free to run it, so that other worker processes may claim it meanwhile
+        if (!idleWorkers.tryAcquire(1, TimeUnit.MINUTES)) continue;
         final var notification = notificationQueue.poll(1, TimeUnit.MINUTES);
-        if(notification == null) continue;
-        final var planId = new PlanId(notification.planId());
-        final var datasetId = notification.datasetId();
-
-        // Register as early as possible to avoid potentially missing a canceled signal
-        canceledListener.register(new DatasetId(datasetId));
-
-        final Optional<ResultsProtocol.OwnerRole> owner = stores.results().claim(planId, datasetId);
-        if (owner.isEmpty()) {
-          canceledListener.unregister();
+        if (notification == null) {
+          idleWorkers.release();
           continue;
         }
 
-        final var revisionData = new PostgresPlanRevisionData(
-            notification.modelRevision(),
-            notification.planRevision(),
-            notification.simulationRevision(),
-            notification.simulationTemplateRevision());
-        final ResultsProtocol.WriterRole writer = owner.get();
-        try(final var streamer = new PostgresProfileStreamer(hikariDataSource, datasetId)) {
-          simulationAgent.simulate(
-              planId,
-              revisionData,
-              writer,
-              canceledListener,
-              new StreamingSimulationResourceManager(streamer));
-        } catch (final Throwable ex) {
-          ex.printStackTrace(System.err);
-          writer.failWith(b -> b
-              .type("UNEXPECTED_SIMULATION_EXCEPTION")
-              .message("Something went wrong while simulating")
-              .trace(ex));
-        }
-        finally {
-          canceledListener.unregister();
-        }
+        // Register as early as possible to avoid potentially missing a canceled signal
+        final var canceledListener = new SimulationCanceledListener();
+        canceledListener.register(new DatasetId(notification.datasetId()));
+        canceledListeners.add(canceledListener);
+
+        workers.execute(() -> {
+          try {
+            simulate(notification, stores, hikariDataSource, simulationAgent, canceledListener);
+          } finally {
+            canceledListeners.remove(canceledListener);
+            canceledListener.unregister();
+            idleWorkers.release();
+          }
+        });
       }
     } finally {
-      // Kill the listening thread
+      // Kill the listening thread, then let the running simulations finish
       listenThread.interrupt();
+      workers.close();
+    }
+  }
+
+  private static void simulate(
+      final PostgresSimulationNotificationPayload notification,
+      final Stores stores,
+      final DataSource dataSource,
+      final SimulationAgent simulationAgent,
+      final SimulationCanceledListener canceledListener)
+  {
+    final var planId = new PlanId(notification.planId());
+    final var datasetId = notification.datasetId();
+
+    final Optional<ResultsProtocol.OwnerRole> owner = stores.results().claim(planId, datasetId);
+    if (owner.isEmpty()) return;
+
+    final var revisionData = new PostgresPlanRevisionData(
+        notification.modelRevision(),
+        notification.planRevision(),
+        notification.simulationRevision(),
+        notification.simulationTemplateRevision());
+    final ResultsProtocol.WriterRole writer = owner.get();
+    try(final var streamer = new PostgresProfileStreamer(dataSource, datasetId)) {
+      simulationAgent.simulate(
+          planId,
+          revisionData,
+          writer,
+          canceledListener,
+          new StreamingSimulationResourceManager(streamer));
+    } catch (final Throwable ex) {
+      ex.printStackTrace(System.err);
+      writer.failWith(b -> b
+          .type("UNEXPECTED_SIMULATION_EXCEPTION")
+          .message("Something went wrong while simulating")
+          .trace(ex));
     }
   }
 
@@ -123,6 +159,11 @@ public final class MerlinWorkerAppDriver {
   }
 
   private static WorkerAppConfiguration loadConfiguration() {
+    int workerPoolSize = Integer.parseInt(getEnv("WORKER_POOL_SIZE", "1"));
+    if (workerPoolSize < 1) {
+      logger.warn("WORKER_POOL_SIZE is " + workerPoolSize + " but minimum is 1. Setting to 1.");
+      workerPoolSize = 1;
+    }
     return new WorkerAppConfiguration(
         Path.of(getEnv("MERLIN_WORKER_LOCAL_STORE", "/usr/src/app/merlin_file_store")),
         new PostgresStore(getEnv("AERIE_DB_HOST", "postgres"),
@@ -131,7 +172,8 @@ public final class MerlinWorkerAppDriver {
                           getEnv("MERLIN_DB_PASSWORD", ""),
                           "aerie"),
         Integer.parseInt(getEnv("SIMULATION_PROGRESS_POLL_PERIOD_MILLIS", "5000")),
-        Instant.parse(getEnv("UNTRUE_PLAN_START", ""))
+        Instant.parse(getEnv("UNTRUE_PLAN_START", "")),
+        workerPoolSize
     );
   }
 }
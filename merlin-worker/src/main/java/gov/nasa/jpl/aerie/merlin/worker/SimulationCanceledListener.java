@@ -6,8 +6,9 @@ import java.util.Optional;
 import java.util.function.Supplier;
 
 public class SimulationCanceledListener implements Supplier<Boolean> {
-  private Optional<DatasetId> registeredSimulation;
-  private boolean canceled;
+  // Written by the listen thread and read by the worker running the registered job
+  private volatile Optional<DatasetId> registeredSimulation;
+  private volatile boolean canceled;
 
   public SimulationCanceledListener() {
     registeredSimulation = Optional.empty();
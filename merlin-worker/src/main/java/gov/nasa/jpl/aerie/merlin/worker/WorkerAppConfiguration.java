@@ -10,11 +10,13 @@ public record WorkerAppConfiguration(
     Path merlinFileStore,
     Store store,
     long simulationProgressPollPeriodMillis,
-    Instant untruePlanStart
+    Instant untruePlanStart,
+    int workerPoolSize
 ) {
   public WorkerAppConfiguration {
     Objects.requireNonNull(merlinFileStore);
     Objects.requireNonNull(store);
     Objects.requireNonNull(untruePlanStart);
+    if (workerPoolSize < 1) throw new IllegalArgumentException("workerPoolSize must be at least 1");
   }
 }
@@ -5,8 +5,15 @@ import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.random.RandomGenerator;
 import java.util.random.RandomGeneratorFactory;
 
@@ -46,6 +53,36 @@ public class EquationSolvingAlgorithms {
     T valueAt(T x, History<T, Metadata> history) throws DiscontinuityException, SchedulingInterruptedException;
   }
 
+  /**
+   * A function whose evaluation at a point can be split into a preparation step, which runs on the caller's thread,
+   * and a computation step, which may run concurrently with the computation of other points.
+   */
+  public interface ConcurrentFunction<T, Metadata> extends Function<T, Metadata> {
+    /**
+     * Prepares the evaluation of the function at x. Calls to this method are made from a single thread, in a
+     * deterministic order.
+     */
+    PreparedPoint<T, Metadata> prepare(T x) throws SchedulingInterruptedException;
+
+    @Override
+    default T valueAt(T x, History<T, Metadata> history) throws DiscontinuityException, SchedulingInterruptedException {
+      final var value = prepare(x).compute();
+      history.add(value.functionCoordinate(), value.metadata());
+      if (value.functionCoordinate().fx() == null) throw new DiscontinuityException();
+      return value.functionCoordinate().fx();
+    }
+  }
+
+  public interface PreparedPoint<T, Metadata> {
+    /**
+     * Computes the value of the function at the prepared point, with a null value if the function is discontinuous
+     * at that point. May be called from any thread.
+     */
+    PointValue<T, Metadata> compute() throws SchedulingInterruptedException;
+  }
+
+  public record PointValue<T, Metadata>(FunctionCoordinate<T> functionCoordinate, Metadata metadata){}
+
   public interface History<T, Metadata>{
     void add(FunctionCoordinate<T> functionCoordinate, Metadata metadata);
     List<Pair<FunctionCoordinate<T>, Optional<Metadata>>> getHistory();
@@ -298,4 +335,228 @@ public class EquationSolvingAlgorithms {
       throw new ExceededMaxIterationException();
     }
   }
+
+  /**
+   * Solves f(x) = y like {@link SecantDurationAlgorithm}, but evaluates several candidate values of x concurrently.
+   *
+   * Each round evaluates up to `parallelism` points: the first round probes x0 and `parallelism - 1` points spanning
+   * [xLow, xHigh] bounds included (or, if there is only room for one, the bound furthest from x0), and
+   * subsequent rounds probe the constant-duration guess of the best point so far, the regula falsi and bisection
+   * points of the sign-changing bracket closest to x0, and a secant step. Points are prepared and recorded in the
+   * history in a fixed order, and among the points of a round that satisfy the tolerance, the one closest to x0 is
+   * chosen, so the solution does not depend on the order in which concurrent evaluations complete.
+   *
+   * The number of evaluations (not rounds) is bounded by maxNbIterations. Functions that are not
+   * {@link ConcurrentFunction}s, or a parallelism of 1, fall back to the serial algorithm.
+   */
+  public static class ParallelSecantDurationAlgorithm<Metadata> implements SecantAlgorithm<Duration, Metadata> {
+
+    private final int parallelism;
+    private final RandomGenerator randomGenerator = RandomGeneratorFactory.of("Random").create(956756789);
+
+    public ParallelSecantDurationAlgorithm(final int parallelism) {
+      if (parallelism < 1) throw new IllegalArgumentException("Parallelism must be at least 1, got " + parallelism);
+      this.parallelism = parallelism;
+    }
+
+    @Override
+    public RootFindingResult<Duration, Metadata> findRoot(
+        final Function<Duration, Metadata> f,
+        final History<Duration, Metadata> history,
+        final Duration x0,
+        final Duration y,
+        final Duration toleranceYLow,
+        final Duration toleranceYHigh,
+        final Duration xLow,
+        final Duration xHigh,
+        final int maxNbIterations)
+    throws ZeroDerivativeException, NoSolutionException, ExceededMaxIterationException, DivergenceException,
+           InfiniteDerivativeException, SchedulingInterruptedException
+    {
+      if (parallelism == 1 || !(f instanceof ConcurrentFunction<Duration, Metadata> concurrentFunction)) {
+        return new SecantDurationAlgorithm<Metadata>()
+            .findRoot(f, history, x0, y, toleranceYLow, toleranceYHigh, xLow, xHigh, maxNbIterations);
+      }
+
+      // f(x) - y at every point where f is continuous
+      final var evaluated = new TreeMap<Duration, Duration>();
+      final Comparator<Duration> closestToX0 = Comparator
+          .comparing((Duration x) -> x.minus(x0).abs())
+          .thenComparing(x -> x);
+      var candidates = initialCandidates(x0, xLow, xHigh);
+      int nbEvaluations = 0;
+      while (nbEvaluations < maxNbIterations) {
+        final var batch = selectBatch(candidates, history, xLow, xHigh, Math.min(parallelism, maxNbIterations - nbEvaluations));
+        if (batch.isEmpty()) throw new NoSolutionException();
+        final var values = computeAll(concurrentFunction, batch);
+        nbEvaluations += batch.size();
+
+        Duration solution = null;
+        for (final var value : values) {
+          history.add(value.functionCoordinate(), value.metadata());
+          final var x = value.functionCoordinate().x();
+          final var fx = value.functionCoordinate().fx();
+          if (fx == null) continue;
+          final var diff = fx.minus(y);
+          evaluated.put(x, diff);
+          if (diff.between(Duration.negate(toleranceYLow), toleranceYHigh)
+              && (solution == null || closestToX0.compare(x, solution) < 0)) {
+            solution = x;
+          }
+        }
+        if (solution != null) {
+          logger.debug("Root found after " + nbEvaluations + " evaluations");
+          return new RootFindingResult<>(new FunctionCoordinate<>(solution, evaluated.get(solution).plus(y)), history);
+        }
+        candidates = nextCandidates(evaluated, closestToX0, x0);
+      }
+      throw new ExceededMaxIterationException();
+    }
+
+    private List<Duration> initialCandidates(final Duration x0, final Duration xLow, final Duration xHigh) {
+      final var candidates = new ArrayList<Duration>();
+      candidates.add(x0);
+      // x0 and the grid make up the first round
+      final var gridSize = parallelism - 1;
+      if (gridSize == 1) {
+        candidates.add(x0.minus(xLow).longerThan(xHigh.minus(x0)) ? xLow : xHigh);
+        return candidates;
+      }
+      final var span = xHigh.minus(xLow);
+      for (int i = 0; i < gridSize; i++) {
+        candidates.add(xLow.plus(span.times(i).dividedBy(gridSize - 1)));
+      }
+      return candidates;
+    }
+
+    private List<Duration> nextCandidates(
+        final TreeMap<Duration, Duration> evaluated,
+        final Comparator<Duration> closestToX0,
+        final Duration x0)
+    {
+      final var candidates = new ArrayList<Duration>();
+      final var byPreference = new ArrayList<>(evaluated.keySet());
+      byPreference.sort(closestToX0);
+
+      //optimistic heuristic: the duration of the activity does not depend on its start time
+      if (!byPreference.isEmpty()) {
+        final var best = byPreference.getFirst();
+        candidates.add(best.minus(evaluated.get(best)));
+      }
+
+      //sign-changing bracket closest to x0
+      Duration bracketLow = null;
+      Duration bracketHigh = null;
+      Duration bracketDistance = null;
+      Duration previous = null;
+      for (final var x : evaluated.keySet()) {
+        if (previous != null && evaluated.get(previous).isNegative() != evaluated.get(x).isNegative()) {
+          final Duration distance;
+          if (x0.shorterThan(previous)) distance = previous.minus(x0);
+          else if (x0.longerThan(x)) distance = x0.minus(x);
+          else distance = Duration.ZERO;
+          if (bracketDistance == null || distance.shorterThan(bracketDistance)) {
+            bracketLow = previous;
+            bracketHigh = x;
+            bracketDistance = distance;
+          }
+        }
+        previous = x;
+      }
+      if (bracketLow != null) {
+        candidates.add(secant(bracketLow, evaluated.get(bracketLow), bracketHigh, evaluated.get(bracketHigh)));
+        final var width = bracketHigh.minus(bracketLow);
+        for (int i = 1; i < parallelism; i++) {
+          candidates.add(bracketLow.plus(width.times(i).dividedBy(parallelism)));
+        }
+      }
+
+      if (byPreference.size() >= 2) {
+        final var first = byPreference.get(0);
+        final var second = byPreference.get(1);
+        if (!evaluated.get(first).isEqualTo(evaluated.get(second))) {
+          candidates.add(secant(first, evaluated.get(first), second, evaluated.get(second)));
+        }
+      }
+
+      for (final var x : byPreference) {
+        candidates.add(x.minus(evaluated.get(x)));
+      }
+      return candidates;
+    }
+
+    /**
+     * Intersection of the line going through (x1, fx1) and (x2, fx2) with the x axis
+     */
+    private static Duration secant(final Duration x1, final Duration fx1, final Duration x2, final Duration fx2) {
+      final double x1_double = x1.in(Duration.MICROSECONDS);
+      final double fx1_double = fx1.in(Duration.MICROSECONDS);
+      final double slope = (fx2.in(Duration.MICROSECONDS) - fx1_double) / (x2.in(Duration.MICROSECONDS) - x1_double);
+      return Duration.of((long) (x1_double - fx1_double / slope), Duration.MICROSECONDS);
+    }
+
+    /**
+     * Picks up to `size` distinct unvisited candidates within bounds, in order, completing with random points if
+     * there are not enough candidates
+     */
+    private List<Duration> selectBatch(
+        final List<Duration> candidates,
+        final History<Duration, Metadata> history,
+        final Duration xLow,
+        final Duration xHigh,
+        final int size)
+    {
+      final var batch = new LinkedHashSet<Duration>();
+      for (final var candidate : candidates) {
+        if (batch.size() == size) break;
+        if (candidate.between(xLow, xHigh) && !history.alreadyVisited(candidate)) batch.add(candidate);
+      }
+      // the number of possible values may be less than the batch size, so give up on random points at some point
+      final var numTimepoints = xHigh.minus(xLow).in(Duration.MICROSECONDS) + 1;
+      for (int attempts = 0; batch.size() < size && attempts < 2 * size; attempts++) {
+        final var candidate = xLow.isEqualTo(xHigh) ? xLow : Duration.of(
+            randomGenerator.nextLong(xLow.in(Duration.MICROSECONDS), xHigh.in(Duration.MICROSECONDS)),
+            Duration.MICROSECONDS);
+        if (!history.alreadyVisited(candidate)) batch.add(candidate);
+        if (batch.size() >= numTimepoints) break;
+      }
+      return new ArrayList<>(batch);
+    }
+
+    /**
+     * Prepares the points in order on this thread, then computes them concurrently, this thread computing the first
+     * one.
+     */
+    private List<PointValue<Duration, Metadata>> computeAll(
+        final ConcurrentFunction<Duration, Metadata> f,
+        final List<Duration> xs) throws SchedulingInterruptedException
+    {
+      final var prepared = new ArrayList<PreparedPoint<Duration, Metadata>>(xs.size());
+      for (final var x : xs) prepared.add(f.prepare(x));
+
+      final var values = new ArrayList<PointValue<Duration, Metadata>>(xs.size());
+      try (final var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+        final var futures = new ArrayList<Future<PointValue<Duration, Metadata>>>(xs.size() - 1);
+        for (final var point : prepared.subList(1, prepared.size())) {
+          futures.add(executor.submit(point::compute));
+        }
+        try {
+          values.add(prepared.getFirst().compute());
+          for (final var future : futures) {
+            values.add(future.get());
+          }
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new SchedulingInterruptedException("evaluating root finding candidates");
+        } catch (final ExecutionException e) {
+          if (e.getCause() instanceof SchedulingInterruptedException sie) throw sie;
+          if (e.getCause() instanceof RuntimeException re) throw re;
+          throw new RuntimeException(e.getCause());
+        } finally {
+          for (final var future : futures) future.cancel(true);
+        }
+      }
+      return values;
+    }
+  }
 }
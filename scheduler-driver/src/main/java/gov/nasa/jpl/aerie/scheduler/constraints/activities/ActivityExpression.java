@@ -436,7 +436,8 @@ public record ActivityExpression(
       final EvaluationEnvironment environment)
   {
     final var spans = new Spans();
-    results.activities.stream().filter(x -> matches(x, results, environment, false)).forEach(x -> spans.add(x.interval()));
+    final var candidates = (this.type == null) ? results.activities : results.activityIndex().ofType(this.type.getName());
+    candidates.stream().filter(x -> matches(x, results, environment, false)).forEach(x -> spans.add(x.interval()));
     return spans;
   }
 
@@ -32,9 +32,8 @@ public class StateQueryParam implements VariableArgumentComputer {
 
     //TODO: unify necessary generic profile operations in Profile interface to avoid special casing
     if (simulationResults.realProfiles.containsKey(this.resourceName)) {
-      //TODO: improve the profile data structure to allow fast time-keyed query
-      //for now we look for the last matching profile segment, if any
-      final var profile = simulationResults.realProfiles.get(this.resourceName);
+      //slicing narrows the search to the few segments around the query time
+      final var profile = simulationResults.realProfiles.get(this.resourceName).slice(Interval.at(queryT));
       final var piece = profile.profilePieces
           .stream()
           .filter($ -> $.interval().contains(queryT))
@@ -44,9 +43,8 @@ public class StateQueryParam implements VariableArgumentComputer {
           );
       return SerializedValue.of(piece.value().valueAt(queryT));
     } else if (simulationResults.discreteProfiles.containsKey(this.resourceName)) {
-      //TODO: improve the profile data structure to allow fast time-keyed query
-      //for now we look for the last matching profile segment, if any
-      final var profile = simulationResults.discreteProfiles.get(this.resourceName);
+      //slicing narrows the search to the few segments around the query time
+      final var profile = simulationResults.discreteProfiles.get(this.resourceName).slice(Interval.at(queryT));
       final var matchPiece = profile.profilePieces
           .stream()
           .filter($ -> $.interval().contains(queryT))
@@ -0,0 +1,212 @@
+package gov.nasa.jpl.aerie.scheduler.model;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * an immutable sorted map, where updates return a new map sharing all but O(log n) nodes with the original
+ *
+ * backed by an AVL tree with path copying, so that plans can be duplicated without copying their indices
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values, which must not be null
+ */
+final class PersistentSortedMap<K, V> {
+  private record Node<K, V>(K key, V value, Node<K, V> left, Node<K, V> right, int height, int size) {
+    static <K, V> Node<K, V> of(final K key, final V value, final Node<K, V> left, final Node<K, V> right) {
+      return new Node<>(
+          key,
+          value,
+          left,
+          right,
+          1 + Math.max(PersistentSortedMap.height(left), PersistentSortedMap.height(right)),
+          1 + PersistentSortedMap.size(left) + PersistentSortedMap.size(right));
+    }
+  }
+
+  private final Comparator<? super K> comparator;
+  private final Node<K, V> root;
+
+  private PersistentSortedMap(final Comparator<? super K> comparator, final Node<K, V> root) {
+    this.comparator = comparator;
+    this.root = root;
+  }
+
+  /**
+   * creates an empty map ordered by the given comparator
+   *
+   * @param comparator the order of the keys
+   * @return an empty map
+   */
+  static <K, V> PersistentSortedMap<K, V> empty(final Comparator<? super K> comparator) {
+    return new PersistentSortedMap<>(comparator, null);
+  }
+
+  int size() {
+    return size(this.root);
+  }
+
+  boolean isEmpty() {
+    return this.root == null;
+  }
+
+  /**
+   * @param key the key to look up
+   * @return the value associated with the key, or null if there is none
+   */
+  V get(final K key) {
+    var node = this.root;
+    while (node != null) {
+      final var c = this.comparator.compare(key, node.key);
+      if (c == 0) return node.value;
+      node = (c < 0) ? node.left : node.right;
+    }
+    return null;
+  }
+
+  /**
+   * @param key the key to associate a value with
+   * @param value the value to associate with the key
+   * @return a map with the key associated to the value, and all other entries of this map
+   */
+  PersistentSortedMap<K, V> with(final K key, final V value) {
+    return new PersistentSortedMap<>(this.comparator, insert(this.root, key, value));
+  }
+
+  /**
+   * @param key the key to remove
+   * @return a map with all entries of this map but the one for the key, or this map if there is no such entry
+   */
+  PersistentSortedMap<K, V> without(final K key) {
+    final var newRoot = delete(this.root, key);
+    return (newRoot == this.root) ? this : new PersistentSortedMap<>(this.comparator, newRoot);
+  }
+
+  /**
+   * @return the entries of this map, in key order
+   */
+  Iterable<Map.Entry<K, V>> entries() {
+    return () -> new EntryIterator(null, null);
+  }
+
+  /**
+   * @param from the least key to include, or null for no lower bound
+   * @param to the greatest key to include, or null for no upper bound
+   * @return the values of the entries with keys in the given inclusive range, in key order
+   */
+  Iterable<V> values(final K from, final K to) {
+    return () -> {
+      final var entries = new EntryIterator(from, to);
+      return new Iterator<>() {
+        @Override
+        public boolean hasNext() {
+          return entries.hasNext();
+        }
+
+        @Override
+        public V next() {
+          return entries.next().getValue();
+        }
+      };
+    };
+  }
+
+  private Node<K, V> insert(final Node<K, V> node, final K key, final V value) {
+    if (node == null) return Node.of(key, value, null, null);
+    final var c = this.comparator.compare(key, node.key);
+    if (c == 0) return Node.of(key, value, node.left, node.right);
+    if (c < 0) return balance(node.key, node.value, insert(node.left, key, value), node.right);
+    return balance(node.key, node.value, node.left, insert(node.right, key, value));
+  }
+
+  private Node<K, V> delete(final Node<K, V> node, final K key) {
+    if (node == null) return null;
+    final var c = this.comparator.compare(key, node.key);
+    if (c < 0) {
+      final var left = delete(node.left, key);
+      return (left == node.left) ? node : balance(node.key, node.value, left, node.right);
+    }
+    if (c > 0) {
+      final var right = delete(node.right, key);
+      return (right == node.right) ? node : balance(node.key, node.value, node.left, right);
+    }
+    if (node.left == null) return node.right;
+    if (node.right == null) return node.left;
+    var successor = node.right;
+    while (successor.left != null) successor = successor.left;
+    return balance(successor.key, successor.value, node.left, delete(node.right, successor.key));
+  }
+
+  private static <K, V> Node<K, V> balance(final K key, final V value, final Node<K, V> left, final Node<K, V> right) {
+    final var skew = height(left) - height(right);
+    if (skew > 1) {
+      if (height(left.left) >= height(left.right)) {
+        return Node.of(left.key, left.value, left.left, Node.of(key, value, left.right, right));
+      }
+      final var pivot = left.right;
+      return Node.of(
+          pivot.key,
+          pivot.value,
+          Node.of(left.key, left.value, left.left, pivot.left),
+          Node.of(key, value, pivot.right, right));
+    }
+    if (skew < -1) {
+      if (height(right.right) >= height(right.left)) {
+        return Node.of(right.key, right.value, Node.of(key, value, left, right.left), right.right);
+      }
+      final var pivot = right.left;
+      return Node.of(
+          pivot.key,
+          pivot.value,
+          Node.of(key, value, left, pivot.left),
+          Node.of(right.key, right.value, pivot.right, right.right));
+    }
+    return Node.of(key, value, left, right);
+  }
+
+  private static int height(final Node<?, ?> node) {
+    return (node == null) ? 0 : node.height;
+  }
+
+  private static int size(final Node<?, ?> node) {
+    return (node == null) ? 0 : node.size;
+  }
+
+  /**
+   * in-order traversal of the entries with keys in an inclusive range, keeping the path to the next entry on a stack
+   */
+  private final class EntryIterator implements Iterator<Map.Entry<K, V>> {
+    private final ArrayDeque<Node<K, V>> path = new ArrayDeque<>();
+    private final K to;
+
+    EntryIterator(final K from, final K to) {
+      this.to = to;
+      var node = root;
+      while (node != null) {
+        if (from != null && comparator.compare(node.key, from) < 0) {
+          node = node.right;
+        } else {
+          this.path.push(node);
+          node = node.left;
+        }
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      final var next = this.path.peek();
+      return next != null && (this.to == null || comparator.compare(next.key, this.to) <= 0);
+    }
+
+    @Override
+    public Map.Entry<K, V> next() {
+      if (!hasNext()) throw new NoSuchElementException();
+      final var node = this.path.pop();
+      for (var child = node.right; child != null; child = child.left) this.path.push(child);
+      return Map.entry(node.key, node.value);
+    }
+  }
+}
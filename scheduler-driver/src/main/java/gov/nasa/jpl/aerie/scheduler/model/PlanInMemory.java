@@ -7,16 +7,19 @@ import gov.nasa.jpl.aerie.scheduler.constraints.activities.ActivityExpression;
 import gov.nasa.jpl.aerie.scheduler.solver.Evaluation;
 import gov.nasa.jpl.aerie.types.ActivityDirectiveId;
 
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 /**
@@ -24,6 +27,9 @@ import java.util.stream.Collectors;
  *
  * may only be a partial solution to the whole planning problem, ie some
  * goals may be left unsatisfied
+ *
+ * a plan must only be used by one thread at a time. duplicates share no mutable state with their source, so they
+ * may be handed to other threads once created.
  */
 public class PlanInMemory implements Plan {
 
@@ -35,24 +41,64 @@ public class PlanInMemory implements Plan {
   protected Evaluation evaluation;
 
   /**
-   * container of all activity instances in plan, indexed by start time
+   * indices over the activity instances of the plan, which share their structure with those of duplicates of the plan
+   */
+  private final Indices indices;
+
+  /**
+   * unmodifiable live view of the activities in the plan by id
    */
-  private final TreeMap<Duration, List<SchedulingActivity>> actsByTime;
+  private final Map<ActivityDirectiveId, SchedulingActivity> actsByIdView = new AbstractMap<>() {
+    @Override
+    public SchedulingActivity get(final Object key) {
+      return (key instanceof ActivityDirectiveId id) ? indices.actsById.get(id) : null;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+      return get(key) != null;
+    }
+
+    @Override
+    public int size() {
+      return indices.actsById.size();
+    }
+
+    @Override
+    public Set<Entry<ActivityDirectiveId, SchedulingActivity>> entrySet() {
+      return new AbstractSet<>() {
+        @Override
+        public Iterator<Entry<ActivityDirectiveId, SchedulingActivity>> iterator() {
+          return indices.actsById.entries().iterator();
+        }
+
+        @Override
+        public int size() {
+          return indices.actsById.size();
+        }
+      };
+    }
+  };
 
   /**
    * ctor creates a new empty solution plan
    *
    */
   public PlanInMemory() {
-    this.actsByTime = new TreeMap<>();
+    this.indices = new Indices();
   }
 
+  /**
+   * creates a copy of a plan, with its own copy of the evaluation
+   *
+   * the indices of the copy share their structure with those of the original, so the copy costs time proportional
+   * to the number of activity types rather than to the number of activities
+   *
+   * @param other the plan to copy
+   */
   public PlanInMemory(final PlanInMemory other){
     if(other.evaluation != null) this.evaluation = other.evaluation.duplicate();
-    this.actsByTime = new TreeMap<>();
-    for(final var entry: other.actsByTime.entrySet()){
-      this.actsByTime.put(entry.getKey(), new ArrayList<>(entry.getValue()));
-    }
+    this.indices = new Indices(other.indices);
   }
 
   @Override
@@ -71,11 +117,7 @@ public class PlanInMemory implements Plan {
   }
 
   public int size(){
-    int size = 0;
-    for(final var entry: this.actsByTime.entrySet()){
-      size += entry.getValue().size();
-    }
-    return size;
+    return indices.size;
   }
 
   /**
@@ -92,8 +134,7 @@ public class PlanInMemory implements Plan {
       throw new IllegalArgumentException(
           "adding activity with null start time to plan");
     }
-    actsByTime.computeIfAbsent(startT, k -> new LinkedList<>())
-              .add(act);
+    indices.add(act);
   }
 
   @Override
@@ -105,8 +146,9 @@ public class PlanInMemory implements Plan {
 
   @Override
   public void remove(SchedulingActivity act) {
-    var acts = actsByTime.get(act.startOffset());
-    if (acts != null) acts.remove(act);
+    final var acts = indices.actsByTime.get(act.startOffset());
+    if (acts == null || !acts.contains(act)) return;
+    indices.remove(act);
   }
 
   /**
@@ -114,16 +156,18 @@ public class PlanInMemory implements Plan {
    */
   @Override
   public List<SchedulingActivity> getActivitiesByTime() {
-    //REVIEW: could probably do something tricky with streams to avoid new
-    final var orderedActs = new LinkedList<SchedulingActivity>();
+    final var indices = this.indices;
+    if (indices.byTimeCache == null) {
+      final var orderedActs = new ArrayList<SchedulingActivity>(indices.size);
 
-    //NB: tree map ensures that values are in key order, but still need to flatten
-    for (final var actsAtT : actsByTime.values()) {
-      assert actsAtT != null;
-      orderedActs.addAll(actsAtT);
+      //NB: tree map ensures that values are in key order, but still need to flatten
+      for (final var actsAtT : indices.actsByTime.values(null, null)) {
+        assert actsAtT != null;
+        orderedActs.addAll(actsAtT);
+      }
+      indices.byTimeCache = Collections.unmodifiableList(orderedActs);
     }
-
-    return Collections.unmodifiableList(orderedActs);
+    return indices.byTimeCache;
   }
 
   public void replaceActivity(SchedulingActivity oldAct, SchedulingActivity newAct){
@@ -137,24 +181,26 @@ public class PlanInMemory implements Plan {
    */
   @Override
   public Map<ActivityType, List<SchedulingActivity>> getActivitiesByType() {
-    final var map = new HashMap<ActivityType, List<SchedulingActivity>>();
-    for(final var entry: this.actsByTime.entrySet()){
-      for(final var activity : entry.getValue()){
+    final var indices = this.indices;
+    if (indices.byTypeCache == null) {
+      final var map = new HashMap<ActivityType, List<SchedulingActivity>>();
+      for (final var activity : getActivitiesByTime()) {
         map.computeIfAbsent(activity.type(), t -> new ArrayList<>()).add(activity);
       }
+      map.replaceAll(($, acts) -> Collections.unmodifiableList(acts));
+      indices.byTypeCache = Collections.unmodifiableMap(map);
     }
-    return Collections.unmodifiableMap(map);
+    return indices.byTypeCache;
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * the returned map is a live view, which reflects later changes to the plan
+   */
   @Override
   public Map<ActivityDirectiveId, SchedulingActivity> getActivitiesById() {
-    final var map = new HashMap<ActivityDirectiveId, SchedulingActivity>();
-    for(final var entry: this.actsByTime.entrySet()){
-      for(final var activity : entry.getValue()){
-        map.put(activity.id(), activity);
-      }
-    }
-    return Collections.unmodifiableMap(map);
+    return actsByIdView;
   }
 
 @Override
@@ -169,11 +215,11 @@ public class PlanInMemory implements Plan {
    */
   @Override
   public Set<SchedulingActivity> getActivities() {
-    final var set = new HashSet<SchedulingActivity>();
-    for(final var entry: this.actsByTime.entrySet()){
-      set.addAll(entry.getValue());
+    final var indices = this.indices;
+    if (indices.setCache == null) {
+      indices.setCache = Collections.unmodifiableSet(new HashSet<>(getActivitiesByTime()));
     }
-    return Collections.unmodifiableSet(set);
+    return indices.setCache;
   }
 
   /**
@@ -185,9 +231,8 @@ public class PlanInMemory implements Plan {
       EvaluationEnvironment evaluationEnvironment)
   {
     //REVIEW: could do something clever with returning streams to prevent wasted work
-    //REVIEW: something more clever for time-based queries using time index
     LinkedList<SchedulingActivity> matched = new LinkedList<>();
-    for (final var actsAtTime : actsByTime.values()) {
+    for (final var actsAtTime : candidates(template)) {
       for (final var act : actsAtTime) {
         if (template.matches(act, simulationResults, evaluationEnvironment, true, this)) {
           matched.add(act);
@@ -197,6 +242,44 @@ public class PlanInMemory implements Plan {
     return matched;
   }
 
+  /**
+   * narrows down the activities that may match a template using the type and start time indices
+   *
+   * the returned activities are in the same order as in {@link #getActivitiesByTime()}, and must still be checked against
+   * the template
+   *
+   * @param template the template that activities are matched against
+   * @return the lists of activities by start time containing at least every activity matching the template
+   */
+  private Iterable<List<SchedulingActivity>> candidates(final ActivityExpression template) {
+    final PersistentSortedMap<Duration, List<SchedulingActivity>> index;
+    final boolean hasAnchoredActs;
+    if (template.type() != null) {
+      final var typeName = template.type().getName();
+      index = indices.actsByTypeAndTime.get(typeName);
+      if (index == null) return List.of();
+      hasAnchoredActs = indices.anchoredCountByType.containsKey(typeName);
+    } else {
+      index = indices.actsByTime;
+      hasAnchoredActs = !indices.anchoredCountByType.isEmpty();
+    }
+
+    Duration lowerBound = null;
+    Duration upperBound = null;
+    //start offsets are absolute start times only for unanchored activities
+    if (template.startRange() != null && !hasAnchoredActs) {
+      lowerBound = template.startRange().start;
+      upperBound = template.startRange().end;
+    }
+    //end times are computed from start offsets, and an activity can't end before its start offset
+    if (template.endRange() != null) {
+      upperBound = (upperBound == null) ? template.endRange().end : Duration.min(upperBound, template.endRange().end);
+    }
+
+    if (lowerBound != null && upperBound != null && lowerBound.longerThan(upperBound)) return List.of();
+    return index.values(lowerBound, upperBound);
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -225,4 +308,122 @@ public class PlanInMemory implements Plan {
     }
     return act.startOffset();
   }
+
+  /**
+   * the activity instances of a plan, indexed for the different kinds of queries made on plans
+   *
+   * the indices by time and by id are persistent maps, so a copy of indices shares them with the original and each
+   * modification only copies the path to the modified entry. only the small maps keyed by type name are copied.
+   */
+  private static final class Indices {
+    /**
+     * all activity instances in plan, indexed by start time
+     */
+    PersistentSortedMap<Duration, List<SchedulingActivity>> actsByTime;
+
+    /**
+     * secondary index of activity instances by type name, each indexed by start time like {@link #actsByTime}
+     */
+    final Map<String, PersistentSortedMap<Duration, List<SchedulingActivity>>> actsByTypeAndTime;
+
+    /**
+     * number of anchored activity instances per type name
+     *
+     * the start offset of an anchored activity is relative to its anchor, so the start time index can only be used
+     * to prune start range queries for types that have no anchored activities
+     */
+    final Map<String, Integer> anchoredCountByType;
+
+    /**
+     * activity instances by id
+     */
+    PersistentSortedMap<ActivityDirectiveId, SchedulingActivity> actsById;
+
+    /**
+     * number of activity instances in the plan
+     */
+    int size;
+
+    /**
+     * flattened views, computed on demand and discarded on modification
+     */
+    List<SchedulingActivity> byTimeCache;
+    Map<ActivityType, List<SchedulingActivity>> byTypeCache;
+    Set<SchedulingActivity> setCache;
+
+    Indices() {
+      this.actsByTime = PersistentSortedMap.empty(Comparator.naturalOrder());
+      this.actsByTypeAndTime = new HashMap<>();
+      this.anchoredCountByType = new HashMap<>();
+      this.actsById = PersistentSortedMap.empty(Comparator.comparingLong(ActivityDirectiveId::id));
+      this.size = 0;
+    }
+
+    Indices(final Indices other) {
+      this.actsByTime = other.actsByTime;
+      this.actsByTypeAndTime = new HashMap<>(other.actsByTypeAndTime);
+      this.anchoredCountByType = new HashMap<>(other.anchoredCountByType);
+      this.actsById = other.actsById;
+      this.size = other.size;
+      this.byTimeCache = other.byTimeCache;
+      this.byTypeCache = other.byTypeCache;
+      this.setCache = other.setCache;
+    }
+
+    void add(final SchedulingActivity act) {
+      final var startT = act.startOffset();
+      final var typeName = act.getType().getName();
+      actsByTime = withAdded(actsByTime, startT, act);
+      actsByTypeAndTime.put(
+          typeName,
+          withAdded(actsByTypeAndTime.getOrDefault(typeName, PersistentSortedMap.empty(Comparator.naturalOrder())), startT, act));
+      if (act.anchorId() != null) anchoredCountByType.merge(typeName, 1, Integer::sum);
+      actsById = actsById.with(act.id(), act);
+      size++;
+      invalidateCaches();
+    }
+
+    void remove(final SchedulingActivity act) {
+      final var startT = act.startOffset();
+      final var typeName = act.getType().getName();
+      actsByTime = withRemoved(actsByTime, startT, act);
+      final var actsOfType = withRemoved(actsByTypeAndTime.get(typeName), startT, act);
+      if (actsOfType.isEmpty()) {
+        actsByTypeAndTime.remove(typeName);
+      } else {
+        actsByTypeAndTime.put(typeName, actsOfType);
+      }
+      if (act.anchorId() != null) anchoredCountByType.computeIfPresent(typeName, (k, count) -> (count == 1) ? null : count - 1);
+      if (act.equals(actsById.get(act.id()))) actsById = actsById.without(act.id());
+      size--;
+      invalidateCaches();
+    }
+
+    private void invalidateCaches() {
+      this.byTimeCache = null;
+      this.byTypeCache = null;
+      this.setCache = null;
+    }
+
+    private static PersistentSortedMap<Duration, List<SchedulingActivity>> withAdded(
+        final PersistentSortedMap<Duration, List<SchedulingActivity>> index,
+        final Duration startT,
+        final SchedulingActivity act)
+    {
+      final var existing = index.get(startT);
+      final var acts = (existing == null) ? new ArrayList<SchedulingActivity>(1) : new ArrayList<>(existing);
+      acts.add(act);
+      return index.with(startT, Collections.unmodifiableList(acts));
+    }
+
+    private static PersistentSortedMap<Duration, List<SchedulingActivity>> withRemoved(
+        final PersistentSortedMap<Duration, List<SchedulingActivity>> index,
+        final Duration startT,
+        final SchedulingActivity act)
+    {
+      final var acts = new ArrayList<>(index.get(startT));
+      acts.remove(act);
+      return acts.isEmpty() ? index.without(startT) : index.with(startT, Collections.unmodifiableList(acts));
+    }
+  }
 }
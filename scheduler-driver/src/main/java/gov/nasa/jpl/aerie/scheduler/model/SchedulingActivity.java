@@ -28,7 +28,7 @@ import java.util.Optional;
  * @param type the descriptor for the behavior invoked by this activity instance
  * @param startOffset the time at which this activity instance is scheduled to start
  * @param duration the length of time this activity instances lasts for after its start
- * @param arguments arguments are stored in a String/SerializedValue hashmap.
+ * @param arguments arguments are stored in an immutable String/SerializedValue map, shared by the copies of this activity
  * @param topParent the parent activity if any
  * @param isNew whether this activity was created in this scheduling run, or already existed in the plan
  */
@@ -44,6 +44,11 @@ public record SchedulingActivity(
     boolean isNew
 ) {
 
+  public SchedulingActivity {
+    //copying an immutable map returns it, so that copies of an activity share its arguments
+    arguments = Map.copyOf(arguments);
+  }
+
   public static SchedulingActivity of(
       ActivityDirectiveId id,
       ActivityType type,
@@ -96,7 +101,7 @@ public record SchedulingActivity(
         this.type,
         this.startOffset,
         duration,
-        new HashMap<>(this.arguments),
+        this.arguments,
         this.topParent,
         this.anchorId,
         this.anchoredToStart,
@@ -110,7 +115,7 @@ public record SchedulingActivity(
         this.type,
         startOffset,
         this.duration,
-        new HashMap<>(this.arguments),
+        this.arguments,
         this.topParent,
         anchorId,
         anchoredToStart,
@@ -124,7 +129,7 @@ public record SchedulingActivity(
         this.type,
         startOffset,
         this.duration,
-        new HashMap<>(this.arguments),
+        this.arguments,
         this.topParent,
         this.anchorId,
         this.anchoredToStart,
@@ -138,7 +143,7 @@ public record SchedulingActivity(
         this.type,
         startOffset,
         this.duration,
-        new HashMap<>(this.arguments),
+        this.arguments,
         topParent,
         this.anchorId,
         this.anchoredToStart,
@@ -271,13 +276,26 @@ public record SchedulingActivity(
   }
 
   /**
-   * adds an argument to the activity instance
+   * creates a copy of the activity instance with an added argument
    *
    * @param argument specification. must be identical as the one defined in the model
    * @param param value of the argument
+   * @return the activity with the argument
    */
-  public void addArgument(String argument, SerializedValue param) {
+  public SchedulingActivity withArgument(String argument, SerializedValue param) {
     assert(type.isParamLegal(argument));
+    final var arguments = new HashMap<>(this.arguments);
     arguments.put(argument, param);
+    return SchedulingActivity.of(
+        this.id,
+        this.type,
+        this.startOffset,
+        this.duration,
+        arguments,
+        this.topParent,
+        this.anchorId,
+        this.anchoredToStart,
+        this.isNew
+    );
   }
 }
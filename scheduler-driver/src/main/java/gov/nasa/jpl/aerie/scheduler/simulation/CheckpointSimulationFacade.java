@@ -22,9 +22,11 @@ import org.slf4j.LoggerFactory;
 import java.time.Instant;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -44,6 +46,14 @@ public class CheckpointSimulationFacade implements SimulationFacade {
   private final SchedulerModel schedulerModel;
   private Duration totalSimulationTime = Duration.ZERO;
   private SimulationData latestSimulationData;
+  /**
+   * names of the resources profiled by simulations started from scratch, or null if they profile every resource
+   */
+  private final Set<String> profiledResources;
+  /**
+   * directives projected from the activities of the latest simulated plan, reused for the activities that did not change
+   */
+  private final Map<SchedulingActivity, ActivityDirective> directiveProjections = new IdentityHashMap<>();
 
   /**
    * Loads initial simulation results into the simulation. They will be served until initialSimulationResultsAreStale()
@@ -63,6 +73,30 @@ public class CheckpointSimulationFacade implements SimulationFacade {
       final PlanningHorizon planningHorizon,
       final SimulationEngineConfiguration simulationEngineConfiguration,
       final Supplier<Boolean> canceledListener)
+  {
+    this(
+        missionModel,
+        schedulerModel,
+        cachedEngines,
+        planningHorizon,
+        simulationEngineConfiguration,
+        canceledListener,
+        false);
+  }
+
+  /**
+   * @param profileResourcesOfInterestOnly whether simulations only profile the resources declared with
+   *     {@link #addResourcesOfInterest} or requested from {@link #simulateWithResults}. Results computed from the inputs
+   *     returned by the no-results simulations then only hold the profiles of those resources.
+   */
+  public CheckpointSimulationFacade(
+      final MissionModel<?> missionModel,
+      final SchedulerModel schedulerModel,
+      final InMemoryCachedEngineStore cachedEngines,
+      final PlanningHorizon planningHorizon,
+      final SimulationEngineConfiguration simulationEngineConfiguration,
+      final Supplier<Boolean> canceledListener,
+      final boolean profileResourcesOfInterestOnly)
   {
     if (cachedEngines.capacity() > 1) ThreadedTask.CACHE_READS = true;
     this.missionModel = missionModel;
@@ -73,6 +107,7 @@ public class CheckpointSimulationFacade implements SimulationFacade {
     this.configuration = simulationEngineConfiguration;
     this.canceledListener = canceledListener;
     this.latestSimulationData = null;
+    this.profiledResources = profileResourcesOfInterestOnly ? ConcurrentHashMap.newKeySet() : null;
   }
 
   public CheckpointSimulationFacade(
@@ -95,10 +130,32 @@ public class CheckpointSimulationFacade implements SimulationFacade {
    * @return
    */
   @Override
-  public Duration totalSimulationTime(){
+  public synchronized Duration totalSimulationTime(){
     return totalSimulationTime;
   }
 
+  private synchronized void addSimulationTime(final Duration simulationTime) {
+    this.totalSimulationTime = this.totalSimulationTime.plus(simulationTime);
+  }
+
+  /**
+   * Simulations only run concurrently when the cached engines they start from are duplicated, which is only the case
+   * if the store can hold more than one engine.
+   */
+  @Override
+  public boolean supportsConcurrentSimulations() {
+    return cachedEngines.capacity() > 1;
+  }
+
+  /**
+   * Resources added after a simulation has started are only profiled by simulations started from scratch, so cached
+   * engines are only resumed for results if they profile every requested resource.
+   */
+  @Override
+  public void addResourcesOfInterest(final Set<String> resourceNames) {
+    if (this.profiledResources != null) this.profiledResources.addAll(resourceNames);
+  }
+
   @Override
   public Supplier<Boolean> getCanceledListener() {
     return this.canceledListener;
@@ -146,7 +203,7 @@ public class CheckpointSimulationFacade implements SimulationFacade {
   public SimulationResultsComputerInputs simulateNoResultsAllActivities(final Plan plan)
   throws SimulationException, SchedulingInterruptedException
   {
-    return simulateNoResults(plan, null, null).simulationResultsComputerInputs();
+    return simulateNoResults(plan, null, null, Set.of()).simulationResultsComputerInputs();
   }
 
   /**
@@ -162,12 +219,12 @@ public class CheckpointSimulationFacade implements SimulationFacade {
       final Plan plan,
       final SchedulingActivity activity)
   throws SimulationException, SchedulingInterruptedException {
-    return simulateNoResults(plan, null, activity).simulationResultsComputerInputs();
+    return simulateNoResults(plan, null, activity, Set.of()).simulationResultsComputerInputs();
   }
 
   public AugmentedSimulationResultsComputerInputs simulateNoResults(final Plan plan, final Duration until)
   throws SimulationException, SchedulingInterruptedException {
-    return simulateNoResults(plan, until, null);
+    return simulateNoResults(plan, until, null, Set.of());
   }
 
 
@@ -176,17 +233,28 @@ public class CheckpointSimulationFacade implements SimulationFacade {
    * @param plan
    * @param until can be null
    * @param activity can be null
+   * @param resourceNames the resources the simulation must profile
    */
   private AugmentedSimulationResultsComputerInputs simulateNoResults(
       final Plan plan,
       final Duration until,
-      final SchedulingActivity activity)
+      final SchedulingActivity activity,
+      final Set<String> resourceNames)
   throws SimulationException, SchedulingInterruptedException {
-    final var planSimCorrespondence = scheduleFromPlan(plan, this.schedulerModel);
+    final PlanSimCorrespondence planSimCorrespondence;
+    synchronized (this.directiveProjections) {
+      planSimCorrespondence = scheduleFromPlan(plan, this.schedulerModel, this.directiveProjections);
+    }
 
+    //engines that did not profile a resource from the start cannot provide its results
+    final var candidateEngines = cachedEngines
+        .getCachedEngines(configuration)
+        .stream()
+        .filter(cachedEngine -> resourceNames.stream().allMatch(cachedEngine.simulationEngine()::isTrackingResource))
+        .toList();
     final var best = CheckpointSimulationDriver.bestCachedEngine(
         planSimCorrespondence.directiveIdActivityDirectiveMap(),
-        cachedEngines.getCachedEngines(configuration),
+        candidateEngines,
         planningHorizon.getEndAerie());
     CachedSimulationEngine engine = null;
     Duration from = Duration.ZERO;
@@ -223,7 +291,11 @@ public class CheckpointSimulationFacade implements SimulationFacade {
       throw new SimulationException("Bad configuration", null);
     }
 
-    if (engine == null) engine = CachedSimulationEngine.empty(missionModel, planningHorizon.getStartInstant());
+    if (engine == null) {
+      engine = (profiledResources == null)
+          ? CachedSimulationEngine.empty(missionModel, planningHorizon.getStartInstant())
+          : CachedSimulationEngine.empty(missionModel, planningHorizon.getStartInstant(), Set.copyOf(profiledResources));
+    }
 
     Function<CheckpointSimulationDriver.SimulationState, Boolean> checkpointPolicy =
         new ResourceAwareSpreadCheckpointPolicy(
@@ -256,7 +328,7 @@ public class CheckpointSimulationFacade implements SimulationFacade {
           cachedEngines,
           configuration
       );
-      this.totalSimulationTime = this.totalSimulationTime.plus(simulation.engine().getElapsedTime().minus(from));
+      addSimulationTime(simulation.engine().getElapsedTime().minus(from));
       if (canceledListener.get()) throw new SchedulingInterruptedException("simulating");
       final var activityResults = simulation.computeActivitySimulationResults();
 
@@ -317,7 +389,8 @@ public class CheckpointSimulationFacade implements SimulationFacade {
         return initialSimulationResults;
       }
     }
-    final var resultsInput = simulateNoResults(plan, until);
+    addResourcesOfInterest(resourceNames);
+    final var resultsInput = simulateNoResults(plan, until, null, resourceNames);
     final var driverResults = resultsInput.simulationResultsComputerInputs().computeResults(resourceNames);
     this.latestSimulationData = new SimulationData(
         plan,
@@ -12,6 +12,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
+/**
+ * A bounded store of simulation engines, safe to use from concurrent simulations
+ */
 public class InMemoryCachedEngineStore implements AutoCloseable, CachedEngineStore {
   private record CachedEngineMetadata(
       SimulationEngineConfiguration configuration,
@@ -33,12 +36,12 @@ public class InMemoryCachedEngineStore implements AutoCloseable, CachedEngineSto
     this.savedSimulationTime = Duration.ZERO;
   }
 
-  public Duration getTotalSavedSimulationTime(){
+  public synchronized Duration getTotalSavedSimulationTime(){
     return savedSimulationTime;
   }
 
   @Override
-  public void close() {
+  public synchronized void close() {
     cachedEngines.forEach((cachedEngine, metadata) -> cachedEngine.simulationEngine().close());
     cachedEngines.clear();
   }
@@ -47,7 +50,7 @@ public class InMemoryCachedEngineStore implements AutoCloseable, CachedEngineSto
    * Register a re-use for a saved cached simulation engine. Will decrease likelihood of this engine being deleted.
    * @param cachedSimulationEngine the simulation engine
    */
-  public void registerUsed(final CachedSimulationEngine cachedSimulationEngine){
+  public synchronized void registerUsed(final CachedSimulationEngine cachedSimulationEngine){
     final var engineMetadata = this.cachedEngines.remove(cachedSimulationEngine);
     if(engineMetadata != null){
       this.cachedEngines.put(0, cachedSimulationEngine, engineMetadata);
@@ -55,7 +58,7 @@ public class InMemoryCachedEngineStore implements AutoCloseable, CachedEngineSto
     }
   }
 
-  public void save(
+  public synchronized void save(
       final CachedSimulationEngine engine,
       final SimulationEngineConfiguration configuration) {
     if (shouldWeSave(engine, configuration)) {
@@ -73,7 +76,7 @@ public class InMemoryCachedEngineStore implements AutoCloseable, CachedEngineSto
     return capacity;
   }
 
-  public List<CachedSimulationEngine> getCachedEngines(
+  public synchronized List<CachedSimulationEngine> getCachedEngines(
       final SimulationEngineConfiguration configuration){
     return cachedEngines
         .entrySet()
@@ -83,7 +86,7 @@ public class InMemoryCachedEngineStore implements AutoCloseable, CachedEngineSto
         .toList();
   }
 
-  public Optional<MissionModel<?>> getMissionModel(
+  public synchronized Optional<MissionModel<?>> getMissionModel(
       final Map<String, SerializedValue> configuration,
       final Instant simulationStartTime){
     for(final var entry: cachedEngines.entrySet()){
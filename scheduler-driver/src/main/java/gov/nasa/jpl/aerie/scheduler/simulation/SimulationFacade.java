@@ -23,11 +23,24 @@ public interface SimulationFacade {
 
   Supplier<Boolean> getCanceledListener();
 
+  /**
+   * Declares resources whose results will be requested, so that a facade profiling only those resources can profile
+   * them from the start of its simulations instead of re-simulating when they are first requested
+   */
+  default void addResourcesOfInterest(Set<String> resourceNames) {}
+
   void addActivityTypes(Collection<ActivityType> activityTypes);
 
   SimulationResultsComputerInputs simulateNoResultsAllActivities(Plan plan)
   throws SimulationException, SchedulingInterruptedException;
 
+  /**
+   * Whether {@link #simulateNoResultsUntilEndAct} may be called concurrently from several threads, on distinct plans
+   */
+  default boolean supportsConcurrentSimulations() {
+    return false;
+  }
+
   SimulationResultsComputerInputs simulateNoResultsUntilEndAct(
       Plan plan,
       SchedulingActivity activity) throws SimulationException, SchedulingInterruptedException;
@@ -19,6 +19,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.Optional;
 
@@ -41,6 +42,33 @@ public class SimulationFacadeUtils {
     return new SimulationFacade.PlanSimCorrespondence(directivesToSimulate);
   }
 
+  /**
+   * Same as {@link #scheduleFromPlan(Plan, SchedulerModel)}, but reuses the directives projected from the same activity
+   * instances by the previous call. Scheduling activities are immutable, so a projection stays valid for as long as its
+   * activity is in the plan, and only the activities added or replaced since the previous call are projected again.
+   *
+   * @param projections the projections of the previous call, replaced by those of this plan
+   */
+  public static SimulationFacade.PlanSimCorrespondence scheduleFromPlan(
+      final Plan plan,
+      final SchedulerModel schedulerModel,
+      final Map<SchedulingActivity, ActivityDirective> projections)
+  {
+    final var activities = plan.getActivities();
+    final Map<SchedulingActivity, ActivityDirective> newProjections = new IdentityHashMap<>(activities.size());
+    final Map<ActivityDirectiveId, ActivityDirective> directivesToSimulate = new HashMap<>(activities.size());
+    for (final var activity : activities) {
+      if (activity.topParent() != null) continue;
+      var activityDirective = projections.get(activity);
+      if (activityDirective == null) activityDirective = schedulingActToActivityDir(activity, schedulerModel);
+      newProjections.put(activity, activityDirective);
+      directivesToSimulate.put(activity.id(), activityDirective);
+    }
+    projections.clear();
+    projections.putAll(newProjections);
+    return new SimulationFacade.PlanSimCorrespondence(directivesToSimulate);
+  }
+
   /**
    * For activities that have a null duration (in an initial plan for example) and that have been simulated, we pull the duration and
    * replace the original instance with a new instance that includes the duration, both in the plan and the simulation facade
@@ -141,10 +169,12 @@ public class SimulationFacadeUtils {
     if(activity.getParentActivity().isPresent()) {
       throw new Error("This method should not be called with a generated activity but with its top-level parent.");
     }
-    final var arguments = new HashMap<>(activity.arguments());
+    //the arguments of the activity are immutable, they are only copied to add the duration
+    var arguments = activity.arguments();
     if (activity.duration() != null) {
       final var durationType = activity.getType().getDurationType();
       if (durationType instanceof DurationType.Controllable dt) {
+        arguments = new HashMap<>(arguments);
         arguments.put(dt.parameterName(), schedulerModel.serializeDuration(activity.duration()));
       } else if (
           !(durationType instanceof DurationType.Uncontrollable
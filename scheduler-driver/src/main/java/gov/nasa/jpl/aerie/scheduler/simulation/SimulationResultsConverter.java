@@ -1,6 +1,5 @@
 package gov.nasa.jpl.aerie.scheduler.simulation;
 
-import com.google.common.collect.Maps;
 import gov.nasa.jpl.aerie.constraints.model.DiscreteProfile;
 import gov.nasa.jpl.aerie.constraints.model.LinearProfile;
 import gov.nasa.jpl.aerie.constraints.time.Interval;
@@ -10,12 +9,38 @@ import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.MICROSECONDS;
 
 public class SimulationResultsConverter {
 
+  /**
+   * gets the number of resource profiles converted so far for results returned by
+   * {@link #convertToConstraintModelResults(SimulationResults)}
+   *
+   * profiles are converted lazily, the first time they are read from converted results, and only once per converted
+   * results object
+   *
+   * @param results results returned by {@link #convertToConstraintModelResults(SimulationResults)}
+   * @return the number of profiles of these results converted so far, or 0 if they were not converted by this class
+   */
+  public static long profileConversionCount(final gov.nasa.jpl.aerie.constraints.model.SimulationResults results) {
+    long count = 0;
+    if (results.realProfiles instanceof MemoizedMap<?, ?, ?> m) count += m.transformCount();
+    if (results.discreteProfiles instanceof MemoizedMap<?, ?, ?> m) count += m.transformCount();
+    return count;
+  }
+
   /**
    * convert a simulation driver SimulationResult to a constraint evaluation engine SimulationResult
    *
@@ -30,11 +55,64 @@ public class SimulationResultsConverter {
         driverResults.startTime,
         Interval.between(Duration.ZERO, driverResults.duration),
         activities,
-        Maps.transformValues(driverResults.realProfiles, $ -> LinearProfile.fromSimulatedProfile($.segments())),
-        Maps.transformValues(driverResults.discreteProfiles, $ -> DiscreteProfile.fromSimulatedProfile($.segments()))
+        new MemoizedMap<>(driverResults.realProfiles, $ -> LinearProfile.fromSimulatedProfile($.segments())),
+        new MemoizedMap<>(driverResults.discreteProfiles, $ -> DiscreteProfile.fromSimulatedProfile($.segments()))
     );
   }
 
+  /**
+   * an unmodifiable map that transforms the values of another map lazily, the first time each key is read
+   *
+   * unlike a transforming view, each value is transformed at most once, even if read concurrently
+   */
+  private static final class MemoizedMap<K, U, V> extends AbstractMap<K, V> {
+    private final Map<K, U> source;
+    private final Function<U, V> transform;
+    private final ConcurrentHashMap<K, V> transformed;
+    private final LongAdder transforms = new LongAdder();
+    private Set<Entry<K, V>> entries = null;
+
+    private MemoizedMap(final Map<K, U> source, final Function<U, V> transform) {
+      this.source = source;
+      this.transform = transform;
+      this.transformed = new ConcurrentHashMap<>(source.size());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(final Object key) {
+      if (!this.source.containsKey(key)) return null;
+      return this.transformed.computeIfAbsent((K) key, k -> {
+        this.transforms.increment();
+        return Objects.requireNonNull(this.transform.apply(this.source.get(k)));
+      });
+    }
+
+    long transformCount() {
+      return this.transforms.sum();
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+      return this.source.containsKey(key);
+    }
+
+    @Override
+    public int size() {
+      return this.source.size();
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+      if (this.entries == null) {
+        final var all = new LinkedHashMap<K, V>(this.source.size());
+        for (final var key : this.source.keySet()) all.put(key, get(key));
+        this.entries = Collections.unmodifiableMap(all).entrySet();
+      }
+      return this.entries;
+    }
+  }
+
   /**
    * convert an activity entry output by the simulation driver to one suitable for the constraint evaluation engine
    *
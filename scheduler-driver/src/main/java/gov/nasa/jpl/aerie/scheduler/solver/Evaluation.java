@@ -213,7 +213,8 @@ public class Evaluation {
    */
   private Optional<Goal> getGoalCreator(final SchedulingActivity instance){
     for(final var goalEval : goalEvals.entrySet()){
-      if(goalEval.getValue().getInsertedActivities().contains(instance)){
+      //look the activity up directly: getInsertedActivities() copies every activity associated to the goal
+      if(Boolean.TRUE.equals(goalEval.getValue().acts.get(instance))){
         return Optional.of(goalEval.getKey());
       }
     }
@@ -40,6 +40,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -71,6 +74,25 @@ public class PrioritySolver implements Solver {
    */
   private final boolean analysisOnly;
 
+  /**
+   * maximum number of start times probed concurrently when instantiating activities with uncontrollable durations
+   *
+   * only used if the simulation facade supports concurrent simulations
+   */
+  private final int rootFindingParallelism;
+
+  /**
+   * maximum number of goals whose conflicts are detected concurrently in analysis-only runs
+   */
+  private final int conflictDetectionParallelism;
+
+  /**
+   * conflicts detected ahead of time for goals not processed yet, all against the same plan and simulation results
+   *
+   * emptied as soon as the plan changes, since the conflicts of the remaining goals may differ from then on
+   */
+  private final Map<Goal, Collection<Conflict>> precomputedConflicts = new HashMap<>();
+
   /**
    * description of the planning problem to solve
    *
@@ -137,13 +159,56 @@ public class PrioritySolver implements Solver {
    *     solved, which must not change
    */
   public PrioritySolver(final Problem problem, final boolean analysisOnly) {
+    this(problem, analysisOnly, 1);
+  }
+
+  /**
+   * create a new greedy solver for the specified input planning problem
+   *
+   * @param problem IN, STORED description of the planning problem to be
+   *     solved, which must not change
+   * @param analysisOnly whether only conflict analysis should be performed
+   * @param rootFindingParallelism maximum number of start times simulated concurrently when instantiating activities
+   *     with uncontrollable durations. The chosen start times never depend on thread timing, but may differ from the
+   *     ones chosen with a parallelism of 1.
+   */
+  public PrioritySolver(final Problem problem, final boolean analysisOnly, final int rootFindingParallelism) {
+    this(problem, analysisOnly, rootFindingParallelism, 1);
+  }
+
+  /**
+   * create a new greedy solver for the specified input planning problem
+   *
+   * @param problem IN, STORED description of the planning problem to be
+   *     solved, which must not change
+   * @param analysisOnly whether only conflict analysis should be performed
+   * @param rootFindingParallelism maximum number of start times simulated concurrently when instantiating activities
+   *     with uncontrollable durations. The chosen start times never depend on thread timing, but may differ from the
+   *     ones chosen with a parallelism of 1.
+   * @param conflictDetectionParallelism maximum number of goals whose conflicts are detected concurrently. Only used
+   *     if analysisOnly is set; the evaluation is the same as with a parallelism of 1.
+   */
+  public PrioritySolver(
+      final Problem problem,
+      final boolean analysisOnly,
+      final int rootFindingParallelism,
+      final int conflictDetectionParallelism)
+  {
     checkNotNull(problem, "creating solver with null input problem descriptor");
+    if (rootFindingParallelism < 1) {
+      throw new IllegalArgumentException("root finding parallelism must be at least 1, got " + rootFindingParallelism);
+    }
+    if (conflictDetectionParallelism < 1) {
+      throw new IllegalArgumentException("conflict detection parallelism must be at least 1, got " + conflictDetectionParallelism);
+    }
     this.checkSimBeforeInsertingActivities = true;
     this.checkSimBeforeEvaluatingGoal = true;
     this.atLeastOneSimulateAfter = false;
     this.problem = problem;
     this.simulationFacade = problem.getSimulationFacade();
     this.analysisOnly = analysisOnly;
+    this.rootFindingParallelism = rootFindingParallelism;
+    this.conflictDetectionParallelism = conflictDetectionParallelism;
 
     this.idGenerator = new DirectiveIdGenerator(
         problem
@@ -224,6 +289,7 @@ public class PrioritySolver implements Solver {
     try {
       if(checkSimBeforeInsertingActivities) simulationFacade.simulateNoResultsAllActivities(planWithAddedActivities);
       plan = planWithAddedActivities;
+      precomputedConflicts.clear();
     } catch (SimulationFacade.SimulationException e) {
       allGood = false;
       logger.error("Tried to simulate the plan {} but a simulation exception happened", planWithAddedActivities, e);
@@ -270,6 +336,19 @@ public class PrioritySolver implements Solver {
     final var goalQ = getGoalQueue();
     assert goalQ != null;
 
+    //let the simulations profile the resources needed by any goal from their start
+    final var resourcesOfInterest = new HashSet<String>();
+    if (atLeastOneSimulateAfter) {
+      resourcesOfInterest.addAll(problem.getMissionModel().getResources().keySet());
+    } else {
+      goalQ.forEach(goal -> goal.extractResources(resourcesOfInterest));
+      problem.getGlobalConstraints().forEach(constraint -> constraint.extractResources(resourcesOfInterest));
+    }
+    simulationFacade.addResourcesOfInterest(resourcesOfInterest);
+
+    //no activity is inserted in analysis-only runs, so the goals can all look for conflicts in the same plan at once
+    if (analysisOnly && conflictDetectionParallelism > 1) detectConflictsConcurrently(goalQ);
+
     //process each goal independently in that order
     while (!goalQ.isEmpty()) {
       var goal = goalQ.remove();
@@ -401,7 +480,10 @@ public class PrioritySolver implements Solver {
     var evalForGoal = plan.getEvaluation().forGoal(goal);
     var associatedActivities = evalForGoal.getAssociatedActivities();
     var insertedActivities = evalForGoal.getInsertedActivities();
-    plan.remove(insertedActivities);
+    if (!insertedActivities.isEmpty()) {
+      plan.remove(insertedActivities);
+      precomputedConflicts.clear();
+    }
     evalForGoal.removeAssociation(associatedActivities);
     evalForGoal.removeAssociation(insertedActivities);
   }
@@ -473,7 +555,8 @@ public class PrioritySolver implements Solver {
     assert plan != null;
     //continue creating activities as long as goal wants more and we can do so
     logger.info("Starting conflict detection before goal " + goal.getName());
-    var missingConflicts = getConflicts(goal);
+    final var precomputed = precomputedConflicts.remove(goal);
+    var missingConflicts = (precomputed != null) ? precomputed : getConflicts(goal);
     plan.getEvaluation().forGoal(goal).addConflicts(missingConflicts);
     logger.info("Found "+ missingConflicts.size() +" conflicts in conflict detection");
     //setting the number of conflicts detected at first evaluation, will be used at backtracking
@@ -488,7 +571,8 @@ public class PrioritySolver implements Solver {
       logger.info("Processing conflict " + (++i));
       logger.info(missing.toString());
       //determine the best activities to satisfy the conflict
-      ConflictSolverResult conflictSolverReturn = null;
+      //in analysis-only runs, only missing associations are resolved and other conflicts remain unsatisfied
+      ConflictSolverResult conflictSolverReturn = new ConflictSolverResult();
       if (!analysisOnly && (missing instanceof MissingActivityInstanceConflict missingActivityInstanceConflict)) {
         conflictSolverReturn = solveActivityInstanceConflict(missingActivityInstanceConflict, goal);
       } else if (!analysisOnly && (missing instanceof MissingActivityTemplateConflict missingActivityTemplateConflict)) {
@@ -820,6 +904,7 @@ public class PrioritySolver implements Solver {
                 startOffset
             );
             plan.replaceActivity(act, replacementAct);
+            precomputedConflicts.clear();
             satisfaction = ConflictSatisfaction.SAT;
             plan.getEvaluation().forGoal(goal).associate(replacementAct, false, missingAssociationConflict);
             //decision-making here, we choose the first satisfying activity
@@ -859,6 +944,79 @@ public class PrioritySolver implements Solver {
     return new ConflictSolverResult(satisfaction, List.of());
   }
 
+  /**
+   * detects the conflicts of the given goals concurrently, against the current plan and simulation results
+   *
+   * composite and option goals are left to be evaluated in turn, as are goals appearing more than once. the
+   * detected conflicts are used by the goals in priority order, unless the plan changes before their turn.
+   *
+   * @param goals IN the goals to detect conflicts for, in priority order
+   */
+  private void detectConflictsConcurrently(final Collection<Goal> goals) throws SchedulingInterruptedException {
+    final var occurrences = new HashMap<Goal, Integer>();
+    for (final var goal : goals) occurrences.merge(goal, 1, Integer::sum);
+    final var flatGoals = goals
+        .stream()
+        .filter(goal -> !(goal instanceof CompositeAndGoal) && !(goal instanceof OptionGoal))
+        .filter(goal -> occurrences.get(goal) == 1)
+        .toList();
+    if (flatGoals.size() < 2) return;
+    if(simulationFacade.getCanceledListener().get()) throw new SchedulingInterruptedException("detecting conflicts");
+
+    //goals reading no resource are evaluated against the grounded plan, as they would be on their own
+    final var horizonEnd = this.problem.getPlanningHorizon().getEndAerie();
+    final var resourcesByGoal = new HashMap<Goal, Set<String>>();
+    final var allResources = new HashSet<String>();
+    for (final var goal : flatGoals) {
+      final var resources = new HashSet<String>();
+      goal.extractResources(resources);
+      resourcesByGoal.put(goal, resources);
+      allResources.addAll(resources);
+    }
+    final var groundedResults = flatGoals.stream().anyMatch(goal -> resourcesByGoal.get(goal).isEmpty())
+        ? getLatestSimResultsUpTo(horizonEnd, Set.of()).constraintsResults()
+        : null;
+    final var simulatedResults = allResources.isEmpty()
+        ? null
+        : getLatestSimResultsUpTo(horizonEnd, allResources).constraintsResults();
+
+    //build the lazily computed parts of the plan on this thread, so that the goals only ever read it
+    final var evaluation = plan.getEvaluation();
+    for (final var goal : flatGoals) evaluation.forGoal(goal);
+    plan.getActivitiesByTime();
+    plan.getActivitiesByType();
+    plan.getActivities();
+
+    logger.info("Detecting conflicts of " + flatGoals.size() + " goals concurrently");
+    final var results = new ArrayList<Collection<Conflict>>(flatGoals.size());
+    try (final var executor = Executors.newFixedThreadPool(Math.min(conflictDetectionParallelism, flatGoals.size()))) {
+      final var futures = new ArrayList<Future<Collection<Conflict>>>(flatGoals.size());
+      for (final var goal : flatGoals) {
+        final var simulationResults = resourcesByGoal.get(goal).isEmpty() ? groundedResults : simulatedResults;
+        futures.add(executor.submit(() -> goal.getConflicts(
+            plan,
+            simulationResults,
+            new EvaluationEnvironment(this.problem.getRealExternalProfiles(), this.problem.getDiscreteExternalProfiles()),
+            this.problem.getSchedulerModel())));
+      }
+      try {
+        for (final var future : futures) results.add(future.get());
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new SchedulingInterruptedException("detecting conflicts");
+      } catch (final ExecutionException e) {
+        if (e.getCause() instanceof RuntimeException re) throw re;
+        if (e.getCause() instanceof Error err) throw err;
+        throw new RuntimeException(e.getCause());
+      } finally {
+        for (final var future : futures) future.cancel(true);
+      }
+    }
+    for (int i = 0; i < flatGoals.size(); i++) {
+      precomputedConflicts.put(flatGoals.get(i), results.get(i));
+    }
+  }
+
   /**
    * finds plan conflicts due to missing activities induced by the goal
    *
@@ -1206,10 +1364,10 @@ public class PrioritySolver implements Solver {
     //CASE 1: activity has an uncontrollable duration
     if(activityExpression.type().getDurationType() instanceof DurationType.Uncontrollable){
       final var history = new HistoryWithActivity();
-      final var f = new EquationSolvingAlgorithms.Function<Duration, ActivityMetadata>(){
+      final var f = new EquationSolvingAlgorithms.ConcurrentFunction<Duration, ActivityMetadata>(){
         @Override
-        public Duration valueAt(Duration start, final EquationSolvingAlgorithms.History<Duration, ActivityMetadata> history)
-        throws EquationSolvingAlgorithms.DiscontinuityException, SchedulingInterruptedException
+        public EquationSolvingAlgorithms.PreparedPoint<Duration, ActivityMetadata> prepare(final Duration start)
+        throws SchedulingInterruptedException
         {
           final var latestConstraintsSimulationResults = getLatestSimResultsUpTo(start, resourceNames);
           final var actToSim = new SchedulingActivity(
@@ -1228,24 +1386,23 @@ public class PrioritySolver implements Solver {
               true,
               true
           );
-          Duration computedDuration = null;
-          try {
-            final var duplicatePlan = plan.duplicate();
-            duplicatePlan.add(actToSim);
-            simulationFacade.simulateNoResultsUntilEndAct(duplicatePlan, actToSim);
-            computedDuration = duplicatePlan.getActivitiesById().get(actToSim.id()).duration();
-            if(computedDuration != null) {
-              history.add(new EquationSolvingAlgorithms.FunctionCoordinate<>(start, start.plus(computedDuration)), new ActivityMetadata(actToSim.withNewDuration(computedDuration)));
-            } else{
+          //the plan and its evaluation are duplicated here, on the solver thread, so that the simulation below can run
+          //concurrently with other candidates without sharing any mutable state with them
+          final var duplicatePlan = plan.duplicate();
+          duplicatePlan.add(actToSim);
+          return () -> {
+            try {
+              simulationFacade.simulateNoResultsUntilEndAct(duplicatePlan, actToSim);
+              final var computedDuration = duplicatePlan.getActivitiesById().get(actToSim.id()).duration();
+              if(computedDuration != null) {
+                return new EquationSolvingAlgorithms.PointValue<>(new EquationSolvingAlgorithms.FunctionCoordinate<>(start, start.plus(computedDuration)), new ActivityMetadata(actToSim.withNewDuration(computedDuration)));
+              }
               logger.debug("No simulation error but activity duration could not be found in simulation, likely caused by unfinished activity or activity outside plan bounds.");
-              history.add(new EquationSolvingAlgorithms.FunctionCoordinate<>(start,  null), new ActivityMetadata(actToSim));
+            } catch (SimulationFacade.SimulationException e) {
+              logger.debug("Simulation error while trying to simulate activities: " + e);
             }
-          } catch (SimulationFacade.SimulationException e) {
-            logger.debug("Simulation error while trying to simulate activities: " + e);
-            history.add(new EquationSolvingAlgorithms.FunctionCoordinate<>(start,  null), new ActivityMetadata(actToSim));
-          }
-          if(computedDuration == null) throw new EquationSolvingAlgorithms.DiscontinuityException();
-          return start.plus(computedDuration);
+            return new EquationSolvingAlgorithms.PointValue<>(new EquationSolvingAlgorithms.FunctionCoordinate<>(start, null), new ActivityMetadata(actToSim));
+          };
         }
 
       };
@@ -1366,8 +1523,9 @@ public class PrioritySolver implements Solver {
 
       final var durationHalfEndInterval = endInterval.duration().dividedBy(2);
 
+      final var parallelism = simulationFacade.supportsConcurrentSimulations() ? rootFindingParallelism : 1;
       final var result = new EquationSolvingAlgorithms
-          .SecantDurationAlgorithm<ActivityMetadata>()
+          .ParallelSecantDurationAlgorithm<ActivityMetadata>(parallelism)
           .findRoot(
               f,
               history,
@@ -1382,8 +1540,13 @@ public class PrioritySolver implements Solver {
       // TODO: When scheduling is allowed to create activities with anchors, this constructor should pull from an expanded creation template
       logger.info("Finished rootfinding: SUCCESS");
       history.logHistory();
-      final var lastActivityTested = result.history().getHistory().get(history.getHistory().size() - 1);
-      return Optional.of(lastActivityTested.getRight().get().activityDirective());
+      final var events = result.history().getHistory();
+      for (final var event : events.reversed()) {
+        if (event.getLeft().x().isEqualTo(result.functionCoordinate().x()) && event.getLeft().fx() != null) {
+          return Optional.of(event.getRight().get().activityDirective());
+        }
+      }
+      throw new IllegalStateException("Root finding returned a point that is not in its history: " + result.functionCoordinate());
     } catch (EquationSolvingAlgorithms.ZeroDerivativeException zeroOrInfiniteDerivativeException) {
       logger.info("Rootfinding encountered a zero-derivative");
     } catch (EquationSolvingAlgorithms.InfiniteDerivativeException infiniteDerivativeException) {
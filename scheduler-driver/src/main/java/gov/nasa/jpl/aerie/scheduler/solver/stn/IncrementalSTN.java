@@ -0,0 +1,368 @@
+package gov.nasa.jpl.aerie.scheduler.solver.stn;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.jgrapht.Graph;
+import org.jgrapht.graph.DefaultWeightedEdge;
+import org.jgrapht.graph.builder.GraphTypeBuilder;
+import org.jgrapht.nio.DefaultAttribute;
+import org.jgrapht.nio.dot.DOTExporter;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Simple temporal network maintaining the all-pairs shortest paths of its distance graph as constraints are added.
+ *
+ * Offers the same operations as {@link STN}, which runs Bellman-Ford from scratch for every source it is queried for.
+ * Here, tightening a constraint updates the shortest paths in O(n²) (incremental Floyd-Warshall) and detects a negative
+ * cycle immediately, so that {@link #update()} and queries are constant time. Loosening a constraint or removing a
+ * timepoint cannot be propagated incrementally, and triggers a full O(n³) recomputation on the next query.
+ *
+ * Every change is recorded on a trail, so that the network can be rolled back to a {@link #mark()} without any
+ * recomputation.
+ *
+ * Path lengths are kept as whole microseconds in longs rather than doubles: the unbounded horizon of {@link TaskNetwork}
+ * is {@link Double#MAX_VALUE} long, and composing paths through it in floating point absorbs every other term, which
+ * makes up negative cycles. Weights are rounded up to the microsecond, and sums that leave the range of a long saturate
+ * towards a looser bound, so that no inconsistency is ever reported that exact arithmetic would not find.
+ */
+public class IncrementalSTN {
+
+  private static final double INF = Double.POSITIVE_INFINITY;
+  /** length of a missing path */
+  private static final long NO_PATH = Long.MAX_VALUE;
+  /** lowest finite path length, so that path lengths can be negated without overflow */
+  private static final long MIN_PATH = -Long.MAX_VALUE;
+
+  //kinds of trail entries
+  /** a shortest path changed; row, column and previous length */
+  private static final byte PATH = 0;
+  /** an edge weight changed; row, column and previous weight */
+  private static final byte EDGE = 1;
+  /** a timepoint was added at row */
+  private static final byte ADDED = 2;
+  /** the timepoint at row, whose name is the payload, was removed */
+  private static final byte REMOVED = 3;
+  /** the consistent and stale flags changed; row holds their previous values */
+  private static final byte FLAGS = 4;
+  /** the shortest paths were recomputed; the payload holds the previous ones */
+  private static final byte RECOMPUTED = 5;
+
+  private final Map<String, Integer> indices = new HashMap<>();
+  /** names of the timepoints by index, null for removed timepoints */
+  private String[] names = new String[8];
+  /** number of indices in use, including removed timepoints */
+  private int size = 0;
+  /** edges[i][j] is the weight of the edge i -> j of the distance graph, ie tp_j - tp_i <= edges[i][j] */
+  private double[][] edges = new double[8][8];
+  /** paths[i][j] is the length of the shortest path from i to j, in microseconds */
+  private long[][] paths = new long[8][8];
+  /** whether the distance graph has no negative cycle, only meaningful if the paths are not stale */
+  private boolean consistent = true;
+  /** whether a constraint was loosened since the paths were last computed */
+  private boolean stale = false;
+  private boolean updateLaunched = false;
+
+  private byte[] trailKinds = new byte[64];
+  private int[] trailRows = new int[64];
+  private int[] trailColumns = new int[64];
+  /** previous path lengths, or raw bits of previous edge weights */
+  private long[] trailValues = new long[64];
+  private Object[] trailPayloads = new Object[64];
+  private int trailSize = 0;
+
+  public void addTimepoint(final String tp) {
+    if (indices.containsKey(tp)) return;
+    ensureCapacity(size + 1);
+    final var i = size++;
+    names[i] = tp;
+    indices.put(tp, i);
+    for (int k = 0; k < size; k++) {
+      edges[i][k] = INF;
+      edges[k][i] = INF;
+      paths[i][k] = NO_PATH;
+      paths[k][i] = NO_PATH;
+    }
+    paths[i][i] = 0;
+    record(ADDED, i, 0, 0, null);
+  }
+
+  public void removeTimepoint(final String tp) {
+    final var i = indices.get(tp);
+    if (i == null) return;
+    for (int k = 0; k < size; k++) {
+      if (k == i) continue;
+      setEdgeWeight(i, k, INF);
+      setEdgeWeight(k, i, INF);
+    }
+    indices.remove(tp);
+    names[i] = null;
+    record(REMOVED, i, 0, 0, tp);
+  }
+
+  /**
+   * tp1 is before tp2
+   * @see STN#addBeforeCst(String, String)
+   */
+  public void addBeforeCst(final String tp1, final String tp2) {
+    setEdgeWeight(index(tp2), index(tp1), -0.);
+  }
+
+  /**
+   * Sets the constraint tp1 --- [min, max] ---> tp2, replacing any previous constraint between them
+   * @see STN#addDurCst(String, String, double, double)
+   */
+  public void addDurCst(final String tp1, final String tp2, final double min, final double max) {
+    final var i = index(tp1);
+    final var j = index(tp2);
+    setEdgeWeight(j, i, -min);
+    setEdgeWeight(i, j, max);
+  }
+
+  public Pair<Double, Double> getDurCst(final String a, final String b) {
+    return Pair.of(-getDist(b, a), getDist(a, b));
+  }
+
+  /**
+   * @return false if the network is inconsistent (or empty), true otherwise
+   */
+  public boolean update() {
+    updateLaunched = true;
+    if (indices.isEmpty()) return false;
+    if (stale) recompute();
+    return consistent;
+  }
+
+  /**
+   * gets the weight on link a-->b
+   */
+  public double getDist(final String a, final String b) {
+    failIfUpdateNotLaunched();
+    final var i = index(a);
+    final var j = index(b);
+    if (stale) recompute();
+    if (!consistent) throw new IllegalStateException("Temporal network is inconsistent");
+    return paths[i][j] == NO_PATH ? INF : paths[i][j];
+  }
+
+  /**
+   * @return a mark to which the network can be rolled back
+   */
+  public int mark() {
+    return trailSize;
+  }
+
+  /**
+   * Reverts every change made to the network since the given mark was taken
+   * @param mark a mark returned by {@link #mark()} and not yet rolled back past
+   */
+  public void rollback(final int mark) {
+    if (mark < 0 || mark > trailSize) throw new IllegalArgumentException("Mark " + mark + " is not on the trail");
+    while (trailSize > mark) {
+      trailSize--;
+      final var row = trailRows[trailSize];
+      final var column = trailColumns[trailSize];
+      switch (trailKinds[trailSize]) {
+        case PATH -> paths[row][column] = trailValues[trailSize];
+        case EDGE -> edges[row][column] = Double.longBitsToDouble(trailValues[trailSize]);
+        case ADDED -> {
+          indices.remove(names[row]);
+          names[row] = null;
+          size--;
+        }
+        case REMOVED -> {
+          final var name = (String) trailPayloads[trailSize];
+          names[row] = name;
+          indices.put(name, row);
+        }
+        case FLAGS -> {
+          consistent = (row & 1) != 0;
+          stale = (row & 2) != 0;
+        }
+        case RECOMPUTED -> {
+          final var previous = (long[][]) trailPayloads[trailSize];
+          for (int k = 0; k < previous.length; k++) System.arraycopy(previous[k], 0, paths[k], 0, previous.length);
+        }
+        default -> throw new IllegalStateException("Unknown trail entry " + trailKinds[trailSize]);
+      }
+      trailPayloads[trailSize] = null;
+    }
+  }
+
+  public String toDOT() {
+    final Graph<String, DefaultWeightedEdge> graph = GraphTypeBuilder
+        .<String, DefaultWeightedEdge>directed()
+        .allowingMultipleEdges(false)
+        .allowingSelfLoops(false)
+        .edgeClass(DefaultWeightedEdge.class)
+        .weighted(true)
+        .buildGraph();
+    for (int i = 0; i < size; i++) {
+      if (names[i] != null) graph.addVertex(names[i]);
+    }
+    for (int i = 0; i < size; i++) {
+      for (int j = 0; j < size; j++) {
+        if (edges[i][j] != INF) graph.setEdgeWeight(graph.addEdge(names[i], names[j]), edges[i][j]);
+      }
+    }
+    final var graphAsDot = new ByteArrayOutputStream();
+    final var exporter = new DOTExporter<String, DefaultWeightedEdge>();
+    exporter.setVertexIdProvider(v -> v);
+    exporter.setVertexAttributeProvider(v -> Map.of("label", DefaultAttribute.createAttribute(v)));
+    exporter.setEdgeAttributeProvider(e -> Map.of("label", DefaultAttribute.createAttribute(String.valueOf(graph.getEdgeWeight(e)))));
+    exporter.exportGraph(graph, graphAsDot);
+    return graphAsDot.toString();
+  }
+
+  private void setEdgeWeight(final int i, final int j, final double weight) {
+    if (i == j) throw new IllegalArgumentException("Timepoints cannot be constrained with themselves");
+    final var previous = edges[i][j];
+    if (previous == weight) return;
+    record(EDGE, i, j, Double.doubleToRawLongBits(previous), null);
+    edges[i][j] = weight;
+    if (weight < previous) {
+      tighten(i, j, toPathLength(weight));
+    } else if (!stale) {
+      setFlags(consistent, true);
+    }
+  }
+
+  /**
+   * Propagates a tightened edge i -> j to the shortest paths.
+   *
+   * A path a -> b can only get shorter through the new edge if a -> j and i -> b both do, so only those rows and
+   * columns are visited.
+   */
+  private void tighten(final int i, final int j, final long weight) {
+    if (stale || !consistent || weight >= paths[i][j]) return;
+    if (add(paths[j][i], weight) < 0) {
+      setFlags(false, false);
+      return;
+    }
+    final var rows = new int[size];
+    var nbRows = 0;
+    for (int a = 0; a < size; a++) {
+      if (add(paths[a][i], weight) < paths[a][j]) rows[nbRows++] = a;
+    }
+    final var columns = new int[size];
+    var nbColumns = 0;
+    final var pathsFromJ = paths[j];
+    for (int b = 0; b < size; b++) {
+      if (add(weight, pathsFromJ[b]) < paths[i][b]) columns[nbColumns++] = b;
+    }
+    for (int r = 0; r < nbRows; r++) {
+      final var a = rows[r];
+      final var pathsFromA = paths[a];
+      final var throughEdge = add(pathsFromA[i], weight);
+      for (int c = 0; c < nbColumns; c++) {
+        final var b = columns[c];
+        final var candidate = add(throughEdge, pathsFromJ[b]);
+        if (candidate < pathsFromA[b]) {
+          record(PATH, a, b, pathsFromA[b], null);
+          pathsFromA[b] = candidate;
+        }
+      }
+    }
+  }
+
+  /** Recomputes the shortest paths from the edges with Floyd-Warshall */
+  private void recompute() {
+    final var previous = new long[size][];
+    for (int a = 0; a < size; a++) previous[a] = Arrays.copyOf(paths[a], size);
+    record(RECOMPUTED, 0, 0, 0, previous);
+
+    for (int a = 0; a < size; a++) {
+      for (int b = 0; b < size; b++) paths[a][b] = toPathLength(edges[a][b]);
+      paths[a][a] = 0;
+    }
+    for (int k = 0; k < size; k++) {
+      final var pathsFromK = paths[k];
+      for (int a = 0; a < size; a++) {
+        final var pathsFromA = paths[a];
+        final var toK = pathsFromA[k];
+        if (toK == NO_PATH) continue;
+        for (int b = 0; b < size; b++) {
+          final var candidate = add(toK, pathsFromK[b]);
+          if (candidate < pathsFromA[b]) pathsFromA[b] = candidate;
+        }
+      }
+    }
+    var noNegativeCycle = true;
+    for (int a = 0; a < size && noNegativeCycle; a++) noNegativeCycle = paths[a][a] >= 0;
+    setFlags(noNegativeCycle, false);
+  }
+
+  private void setFlags(final boolean consistent, final boolean stale) {
+    record(FLAGS, (this.consistent ? 1 : 0) | (this.stale ? 2 : 0), 0, 0, null);
+    this.consistent = consistent;
+    this.stale = stale;
+  }
+
+  /** Rounds a weight up to the microsecond, weights beyond the range of a long being missing or lowest paths */
+  private static long toPathLength(final double weight) {
+    if (weight >= 0x1p63) return NO_PATH;
+    if (weight <= -0x1p63) return MIN_PATH;
+    return Math.max(MIN_PATH, (long) Math.ceil(weight));
+  }
+
+  /** Length of the concatenation of two paths, saturating towards the longer path on overflow */
+  private static long add(final long a, final long b) {
+    if (a == NO_PATH || b == NO_PATH) return NO_PATH;
+    final var sum = a + b;
+    if (((a ^ sum) & (b ^ sum)) < 0) return (a > 0) ? NO_PATH : MIN_PATH;
+    return Math.max(MIN_PATH, sum);
+  }
+
+  private void record(final byte kind, final int row, final int column, final long value, final Object payload) {
+    if (trailSize == trailKinds.length) {
+      final var capacity = 2 * trailSize;
+      trailKinds = Arrays.copyOf(trailKinds, capacity);
+      trailRows = Arrays.copyOf(trailRows, capacity);
+      trailColumns = Arrays.copyOf(trailColumns, capacity);
+      trailValues = Arrays.copyOf(trailValues, capacity);
+      trailPayloads = Arrays.copyOf(trailPayloads, capacity);
+    }
+    trailKinds[trailSize] = kind;
+    trailRows[trailSize] = row;
+    trailColumns[trailSize] = column;
+    trailValues[trailSize] = value;
+    trailPayloads[trailSize] = payload;
+    trailSize++;
+  }
+
+  private void ensureCapacity(final int capacity) {
+    if (capacity <= names.length) return;
+    final var newCapacity = Math.max(capacity, 2 * names.length);
+    names = Arrays.copyOf(names, newCapacity);
+    edges = grow(edges, newCapacity);
+    paths = grow(paths, newCapacity);
+  }
+
+  private static double[][] grow(final double[][] matrix, final int capacity) {
+    final var grown = new double[capacity][];
+    for (int i = 0; i < capacity; i++) {
+      grown[i] = (i < matrix.length) ? Arrays.copyOf(matrix[i], capacity) : new double[capacity];
+    }
+    return grown;
+  }
+
+  private static long[][] grow(final long[][] matrix, final int capacity) {
+    final var grown = new long[capacity][];
+    for (int i = 0; i < capacity; i++) {
+      grown[i] = (i < matrix.length) ? Arrays.copyOf(matrix[i], capacity) : new long[capacity];
+    }
+    return grown;
+  }
+
+  private int index(final String tp) {
+    final var i = indices.get(tp);
+    if (i == null) throw new IllegalArgumentException("Timepoint is not present in temporal network, insert it before use");
+    return i;
+  }
+
+  private void failIfUpdateNotLaunched() {
+    if (!updateLaunched) throw new IllegalArgumentException("Must call update() before getting results");
+  }
+}
@@ -20,14 +20,14 @@ public class TaskNetwork {
 
   double stHorizon = 0;
 
-  private final STN stn;
+  private final IncrementalSTN stn;
 
   public TaskNetwork(){
     this(0., Double.MAX_VALUE);
   }
 
   public TaskNetwork(double horizonStart, double horizonEnd){
-    stn = new STN();
+    stn = new IncrementalSTN();
     startActTimepoints = new HashMap<>();
     endActTimepoints = new HashMap<>();
     setHorizon(horizonStart, horizonEnd);
@@ -0,0 +1,116 @@
+package gov.nasa.jpl.aerie.scheduler;
+
+import gov.nasa.jpl.aerie.scheduler.solver.stn.IncrementalSTN;
+import gov.nasa.jpl.aerie.scheduler.solver.stn.STN;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IncrementalSTNTest {
+
+  /**
+   * Random networks of precedences and bounded delays are propagated by both implementations, which must agree on
+   * consistency and on every distance
+   */
+  @Test
+  public void agreesWithSTN(){
+    final var random = new Random(42);
+    for (int run = 0; run < 50; run++) {
+      final var stn = new STN();
+      final var incremental = new IncrementalSTN();
+      final var nbTimepoints = 2 + random.nextInt(10);
+      for (int i = 0; i < nbTimepoints; i++) {
+        stn.addTimepoint("tp" + i);
+        incremental.addTimepoint("tp" + i);
+      }
+      //STN only looks for negative cycles reachable from the first timepoint
+      for (int i = 1; i < nbTimepoints; i++) {
+        stn.addDurCst("tp0", "tp" + i, -1000, 1000);
+        incremental.addDurCst("tp0", "tp" + i, -1000, 1000);
+      }
+      final var nbConstraints = random.nextInt(3 * nbTimepoints);
+      for (int c = 0; c < nbConstraints; c++) {
+        final var i = random.nextInt(nbTimepoints);
+        final var j = (i + 1 + random.nextInt(nbTimepoints - 1)) % nbTimepoints;
+        if (random.nextBoolean()) {
+          stn.addBeforeCst("tp" + i, "tp" + j);
+          incremental.addBeforeCst("tp" + i, "tp" + j);
+        } else {
+          final double min = random.nextInt(20) - 5;
+          final double max = min + random.nextInt(20);
+          stn.addDurCst("tp" + i, "tp" + j, min, max);
+          incremental.addDurCst("tp" + i, "tp" + j, min, max);
+        }
+      }
+      final var consistent = stn.update();
+      assertEquals(consistent, incremental.update());
+      if (!consistent) continue;
+      for (int i = 0; i < nbTimepoints; i++) {
+        for (int j = 0; j < nbTimepoints; j++) {
+          assertEquals(stn.getDist("tp" + i, "tp" + j), incremental.getDist("tp" + i, "tp" + j), 0);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void rollsBackConstraints(){
+    final var stn = new IncrementalSTN();
+    stn.addTimepoint("a");
+    stn.addTimepoint("b");
+    stn.addDurCst("a", "b", 0, 10);
+    assertTrue(stn.update());
+    final var mark = stn.mark();
+    stn.addTimepoint("c");
+    stn.addDurCst("b", "c", 2, 3);
+    stn.addDurCst("a", "c", 0, 5);
+    assertTrue(stn.update());
+    assertEquals(3., stn.getDist("a", "b"));
+    assertEquals(0., stn.getDist("b", "a"));
+    stn.addDurCst("a", "c", 0, 1);
+    assertFalse(stn.update());
+    stn.rollback(mark);
+    assertTrue(stn.update());
+    assertEquals(10., stn.getDist("a", "b"));
+    assertEquals(0., stn.getDist("b", "a"));
+    assertThrows(IllegalArgumentException.class, () -> stn.getDist("a", "c"));
+  }
+
+  @Test
+  public void recoversFromRemovedTimepoint(){
+    final var stn = new IncrementalSTN();
+    stn.addTimepoint("a");
+    stn.addTimepoint("b");
+    stn.addTimepoint("c");
+    stn.addDurCst("a", "b", 5, 5);
+    stn.addDurCst("b", "c", 5, 5);
+    stn.addDurCst("a", "c", 0, 8);
+    assertFalse(stn.update());
+    stn.removeTimepoint("c");
+    assertTrue(stn.update());
+    assertEquals(Pair.of(5., 5.), stn.getDurCst("a", "b"));
+  }
+
+  /**
+   * Paths through the unbounded horizon of a task network must not absorb the other bounds
+   */
+  @Test
+  public void unboundedHorizonDoesNotCreateCycles(){
+    final var stn = new IncrementalSTN();
+    stn.addTimepoint("start");
+    stn.addTimepoint("end");
+    stn.addTimepoint("tp");
+    stn.addDurCst("start", "end", Double.MAX_VALUE, Double.MAX_VALUE);
+    stn.addBeforeCst("start", "tp");
+    stn.addBeforeCst("tp", "end");
+    stn.addDurCst("start", "tp", 120, 780);
+    assertTrue(stn.update());
+    assertEquals(Pair.of(120., 780.), stn.getDurCst("start", "tp"));
+  }
+}
@@ -0,0 +1,262 @@
+package gov.nasa.jpl.aerie.scheduler;
+
+import gov.nasa.jpl.aerie.constraints.model.EvaluationEnvironment;
+import gov.nasa.jpl.aerie.constraints.time.Interval;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.scheduler.constraints.activities.ActivityExpression;
+import gov.nasa.jpl.aerie.scheduler.goals.Goal;
+import gov.nasa.jpl.aerie.scheduler.model.ActivityType;
+import gov.nasa.jpl.aerie.scheduler.model.PlanInMemory;
+import gov.nasa.jpl.aerie.scheduler.model.SchedulingActivity;
+import gov.nasa.jpl.aerie.scheduler.solver.Evaluation;
+import gov.nasa.jpl.aerie.types.ActivityDirectiveId;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.HOURS;
+import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.MINUTES;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PlanInMemoryTest {
+  private static final ActivityType typeA = new ActivityType("A");
+  private static final ActivityType typeB = new ActivityType("B");
+
+  private static SchedulingActivity act(final long id, final ActivityType type, final long startHours, final long durationMinutes) {
+    return SchedulingActivity.of(
+        new ActivityDirectiveId(id), type, Duration.of(startHours, HOURS), Duration.of(durationMinutes, MINUTES), null, true, false);
+  }
+
+  private static List<SchedulingActivity> findByScan(final PlanInMemory plan, final ActivityExpression template) {
+    final var matched = new ArrayList<SchedulingActivity>();
+    for (final var act : plan.getActivitiesByTime()) {
+      if (template.matches(act, null, new EvaluationEnvironment(), true, plan)) matched.add(act);
+    }
+    return matched;
+  }
+
+  private static List<ActivityExpression> templates() {
+    final var ranges = List.of(
+        Interval.between(Duration.of(3, HOURS), Duration.of(6, HOURS)),
+        Interval.between(Duration.of(0, HOURS), Duration.of(1, HOURS)),
+        Interval.between(Duration.of(8, HOURS), Duration.of(4, HOURS)),
+        Interval.between(Duration.of(0, HOURS), Duration.of(1000, HOURS))
+    );
+    final var templates = new ArrayList<ActivityExpression>();
+    for (final var type : new ActivityType[]{null, typeA, typeB, new ActivityType("C")}) {
+      templates.add(new ActivityExpression.Builder().ofType(type).build());
+      for (final var range : ranges) {
+        templates.add(new ActivityExpression.Builder().ofType(type).startsIn(range).build());
+        templates.add(new ActivityExpression.Builder().ofType(type).endsIn(range).build());
+        templates.add(new ActivityExpression.Builder().ofType(type).startsIn(range).endsIn(ranges.get(0)).build());
+      }
+    }
+    return templates;
+  }
+
+  private static PlanInMemory makePlan() {
+    final var plan = new PlanInMemory();
+    for (var i = 0; i < 10; i++) {
+      plan.add(act(i, (i % 3 == 0) ? typeB : typeA, i, 30 + 10 * i));
+    }
+    plan.add(act(100, typeA, 4, 0));
+    return plan;
+  }
+
+  @Test
+  public void findMatchesLinearScan() {
+    final var plan = makePlan();
+    for (final var template : templates()) {
+      assertEquals(findByScan(plan, template), new ArrayList<>(plan.find(template, null, new EvaluationEnvironment())));
+    }
+  }
+
+  @Test
+  public void findMatchesLinearScanWithAnchors() {
+    final var plan = makePlan();
+    // anchored 2 hours after the start of activity 5, i.e. at 7 hours
+    plan.add(SchedulingActivity.of(
+        new ActivityDirectiveId(200), typeA, Duration.of(2, HOURS), Duration.of(1, HOURS), new ActivityDirectiveId(5), true, false));
+    for (final var template : templates()) {
+      assertEquals(findByScan(plan, template), new ArrayList<>(plan.find(template, null, new EvaluationEnvironment())));
+    }
+  }
+
+  @Test
+  public void findAfterRemoveAndReplace() {
+    final var plan = makePlan();
+    final var removed = plan.getActivitiesById().get(new ActivityDirectiveId(4));
+    plan.remove(removed);
+    final var replaced = plan.getActivitiesById().get(new ActivityDirectiveId(3));
+    plan.replaceActivity(replaced, act(3, typeA, 5, 10));
+
+    final var copy = (PlanInMemory) plan.duplicate();
+    copy.remove(copy.getActivitiesById().get(new ActivityDirectiveId(5)));
+
+    for (final var template : templates()) {
+      assertEquals(findByScan(plan, template), new ArrayList<>(plan.find(template, null, new EvaluationEnvironment())));
+      assertEquals(findByScan(copy, template), new ArrayList<>(copy.find(template, null, new EvaluationEnvironment())));
+    }
+    assertEquals(10, plan.size());
+    assertEquals(9, copy.size());
+  }
+
+  @Test
+  public void duplicateIsIsolatedInBothDirections() {
+    final var plan = makePlan();
+    final var before = List.copyOf(plan.getActivitiesByTime());
+
+    final var copy = (PlanInMemory) plan.duplicate();
+    copy.add(act(300, typeB, 2, 5));
+    plan.remove(plan.getActivitiesById().get(new ActivityDirectiveId(2)));
+
+    assertEquals(12, copy.size());
+    assertEquals(before.size() + 1, copy.getActivitiesByTime().size());
+    assertTrue(copy.getActivitiesById().containsKey(new ActivityDirectiveId(2)));
+    assertFalse(plan.getActivitiesById().containsKey(new ActivityDirectiveId(300)));
+    assertFalse(plan.getActivitiesById().containsKey(new ActivityDirectiveId(2)));
+    assertEquals(10, plan.size());
+
+    final var copyOfCopy = (PlanInMemory) copy.duplicate();
+    copyOfCopy.remove(copyOfCopy.getActivitiesById().get(new ActivityDirectiveId(300)));
+    assertEquals(before, copyOfCopy.getActivitiesByTime());
+    assertEquals(12, copy.size());
+  }
+
+  @Test
+  public void duplicatesStayConsistentThroughManyEdits() {
+    final var random = new Random(42);
+    final var plans = new ArrayList<PlanInMemory>(List.of(new PlanInMemory()));
+    final var expected = new ArrayList<List<SchedulingActivity>>(List.of(new ArrayList<>()));
+    for (var i = 0; i < 2000; i++) {
+      final var which = random.nextInt(plans.size());
+      final var plan = plans.get(which);
+      final var acts = expected.get(which);
+      final var choice = random.nextInt(10);
+      if (choice == 0) {
+        plans.add((PlanInMemory) plan.duplicate());
+        expected.add(new ArrayList<>(acts));
+      } else if (choice < 4 && !acts.isEmpty()) {
+        final var removed = acts.remove(random.nextInt(acts.size()));
+        plan.remove(removed);
+      } else {
+        final var added = act(i, random.nextBoolean() ? typeA : typeB, random.nextInt(50), 10);
+        acts.add(added);
+        plan.add(added);
+      }
+    }
+
+    for (var i = 0; i < plans.size(); i++) {
+      final var sorted = new ArrayList<>(expected.get(i));
+      sorted.sort(Comparator.comparing(SchedulingActivity::startOffset));
+      assertEquals(sorted, plans.get(i).getActivitiesByTime());
+      assertEquals(sorted.size(), plans.get(i).size());
+      assertEquals(sorted.size(), plans.get(i).getActivitiesById().size());
+      for (final var act : sorted) assertSame(act, plans.get(i).getActivitiesById().get(act.id()));
+    }
+  }
+
+  @Test
+  public void activitiesByIdIsLiveView() {
+    final var plan = makePlan();
+    final var byId = plan.getActivitiesById();
+    final var added = act(300, typeB, 2, 5);
+    plan.add(added);
+    assertSame(added, byId.get(new ActivityDirectiveId(300)));
+    assertEquals(12, byId.size());
+    plan.remove(added);
+    assertFalse(byId.containsKey(new ActivityDirectiveId(300)));
+  }
+
+  @Test
+  public void activitiesByTypeAreInTimeOrder() {
+    final var plan = makePlan();
+    final var copy = (PlanInMemory) plan.duplicate();
+    copy.add(act(300, typeB, 2, 5));
+
+    for (final var p : List.of(plan, copy)) {
+      final var byType = p.getActivitiesByType();
+      for (final var type : List.of(typeA, typeB)) {
+        assertEquals(p.getActivitiesByTime().stream().filter(a -> a.type().equals(type)).toList(), byType.get(type));
+      }
+    }
+    assertNotSame(plan.getActivitiesByType(), copy.getActivitiesByType());
+  }
+
+  @Test
+  public void duplicateEvaluationIsIsolatedInBothDirections() {
+    final var goal = new Goal("goal") {};
+    final var plan = makePlan();
+    plan.addEvaluation(new Evaluation());
+    plan.getEvaluation().forGoal(goal).associate(plan.getActivitiesById().get(new ActivityDirectiveId(1)), false, null);
+
+    final var copy = plan.duplicate();
+    final var copyOfCopy = copy.duplicate();
+    plan.getEvaluation().forGoal(goal).associate(plan.getActivitiesById().get(new ActivityDirectiveId(2)), false, null);
+    copy.getEvaluation().forGoal(goal).associate(plan.getActivitiesById().get(new ActivityDirectiveId(3)), false, null);
+
+    assertEquals(2, plan.getEvaluation().forGoal(goal).getAssociatedActivities().size());
+    assertEquals(2, copy.getEvaluation().forGoal(goal).getAssociatedActivities().size());
+    assertEquals(1, copyOfCopy.getEvaluation().forGoal(goal).getAssociatedActivities().size());
+    assertNotSame(plan.getEvaluation(), copy.getEvaluation());
+  }
+
+  @Test
+  public void concurrentProbesOnDuplicatesAreIsolated() throws Exception {
+    // Mirrors root finding: duplicates are made on the solver thread, then each is edited on its own thread.
+    final var goal = new Goal("goal") {};
+    final var plan = makePlan();
+    final var associated = plan.getActivitiesById().get(new ActivityDirectiveId(1));
+    plan.addEvaluation(new Evaluation());
+    plan.getEvaluation().forGoal(goal).associate(associated, false, null);
+
+    final var probeCount = 64;
+    final var probes = new ArrayList<PlanInMemory>();
+    for (var i = 0; i < probeCount; i++) {
+      final var probe = (PlanInMemory) plan.duplicate();
+      probe.add(act(1000 + i, typeA, i, 10));
+      probes.add(probe);
+    }
+
+    final var start = new CountDownLatch(1);
+    try (final var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      final var futures = new ArrayList<Future<?>>();
+      for (var i = 0; i < probeCount; i++) {
+        final var probe = probes.get(i);
+        final var probeAct = probe.getActivitiesById().get(new ActivityDirectiveId(1000 + i));
+        final var minutes = i;
+        futures.add(executor.submit(() -> {
+          start.await();
+          probe.replaceActivity(probeAct, probeAct.withNewDuration(Duration.of(minutes, MINUTES)));
+          probe.replaceActivity(associated, associated.withNewDuration(Duration.of(minutes, MINUTES)));
+          return null;
+        }));
+      }
+      start.countDown();
+      for (final var future : futures) future.get();
+    }
+
+    assertEquals(Set.of(associated), plan.getEvaluation().forGoal(goal).getAssociatedActivities());
+    assertEquals(11, plan.size());
+    for (var i = 0; i < probeCount; i++) {
+      final var probe = probes.get(i);
+      final var duration = Duration.of(i, MINUTES);
+      assertEquals(duration, probe.getActivitiesById().get(new ActivityDirectiveId(1000 + i)).duration());
+      assertEquals(
+          Set.of(associated.withNewDuration(duration)),
+          probe.getEvaluation().forGoal(goal).getAssociatedActivities());
+      assertEquals(12, probe.size());
+    }
+  }
+}
@@ -11,6 +11,7 @@ import gov.nasa.jpl.aerie.scheduler.constraints.timeexpressions.TimeAnchor;
 import gov.nasa.jpl.aerie.scheduler.goals.CardinalityGoal;
 import gov.nasa.jpl.aerie.scheduler.goals.ChildCustody;
 import gov.nasa.jpl.aerie.scheduler.goals.CoexistenceGoal;
+import gov.nasa.jpl.aerie.scheduler.goals.Goal;
 import gov.nasa.jpl.aerie.scheduler.goals.ProceduralCreationGoal;
 import gov.nasa.jpl.aerie.scheduler.goals.RecurrenceGoal;
 import gov.nasa.jpl.aerie.scheduler.model.SchedulingActivity;
@@ -27,9 +28,11 @@ import gov.nasa.jpl.aerie.types.MissionModelId;
 import org.junit.jupiter.api.Test;
 
 import java.time.Instant;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static gov.nasa.jpl.aerie.scheduler.TestUtility.assertSetEquality;
 import static org.junit.jupiter.api.Assertions.*;
@@ -316,4 +319,80 @@ public class PrioritySolverTest {
     //will insert an activity at the beginning of the plan in addition of the two already-present activities
     assertEquals(3, plan.getActivities().size());
   }
+
+  private static List<Goal> makeAnalysisGoals(final Problem problem) {
+    final var actTypeA = problem.getActivityType("ControllableDurationActivity");
+    final var actTypeB = problem.getActivityType("OtherControllableDurationActivity");
+    final var recurrence = new RecurrenceGoal.Builder()
+        .named("recurrence")
+        .startingAt(t0)
+        .endingAt(t2hr.plus(Duration.of(10, Duration.MINUTE)))
+        .separatedByAtLeast(d1hr)
+        .separatedByAtMost(d1hr)
+        .thereExistsOne(new ActivityExpression.Builder()
+                            .ofType(actTypeA)
+                            .durationIn(d1min)
+                            .build())
+        .withinPlanHorizon(h)
+        .build();
+    final var coexistence = new CoexistenceGoal.Builder()
+        .named("coexistence")
+        .forAllTimeIn(new WindowsWrapperExpression(new Windows(false).set(h.getHor(), true)))
+        .forEach(new ActivityExpression.Builder()
+                     .ofType(actTypeA)
+                     .build())
+        .thereExistsOne(new ActivityExpression.Builder()
+                            .ofType(actTypeB)
+                            .durationIn(d1min)
+                            .build())
+        .startsAt(TimeAnchor.START)
+        .aliasForAnchors("a")
+        .withinPlanHorizon(h)
+        .build();
+    final var cardinality = new CardinalityGoal.Builder()
+        .occurences(new Range<>(2, 5))
+        .thereExistsOne(new ActivityExpression.Builder()
+                            .ofType(actTypeA)
+                            .build())
+        .named("cardinality")
+        .forAllTimeIn(new WindowsWrapperExpression(new Windows(false).set(h.getHor(), true)))
+        .owned(ChildCustody.Jointly)
+        .withinPlanHorizon(h)
+        .build();
+    return List.of(recurrence, coexistence, cardinality);
+  }
+
+  private static Map<String, Evaluation.GoalEvaluation> analyze(final int conflictDetectionParallelism)
+  throws SchedulingInterruptedException
+  {
+    final var problem = makeTestMissionAB();
+    problem.setInitialPlan(makePlanA012(problem));
+    problem.setGoals(makeAnalysisGoals(problem));
+    final var solver = new PrioritySolver(problem, true, 1, conflictDetectionParallelism);
+
+    final var plan = solver.getNextSolution().orElseThrow();
+    assertSetEquality(plan.getActivitiesByTime(), makePlanA012(problem).getActivitiesByTime());
+    final var evaluations = new HashMap<String, Evaluation.GoalEvaluation>();
+    plan.getEvaluation().getGoalEvaluations().forEach((goal, evaluation) -> evaluations.put(goal.getName(), evaluation));
+    return evaluations;
+  }
+
+  @Test
+  public void analysisOnly_concurrentConflictDetectionMatchesSequential() throws SchedulingInterruptedException {
+    final var sequential = analyze(1);
+    final var concurrent = analyze(4);
+
+    assertEquals(Set.of("recurrence", "coexistence", "cardinality"), sequential.keySet());
+    assertEquals(sequential.keySet(), concurrent.keySet());
+    for (final var goal : sequential.keySet()) {
+      final var expected = sequential.get(goal);
+      final var actual = concurrent.get(goal);
+      assertEquals(expected.getSatisfaction(), actual.getSatisfaction(), goal);
+      assertEquals(expected.getScore(), actual.getScore(), goal);
+      assertSetEquality(
+          List.copyOf(expected.getAssociatedActivities()),
+          List.copyOf(actual.getAssociatedActivities()));
+    }
+    assertEquals(-3, sequential.get("coexistence").getScore());
+  }
 }
@@ -4,7 +4,11 @@ import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
 import gov.nasa.jpl.aerie.scheduler.solver.PrioritySolver;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class RootfindingTest {
   final Duration zeroSecond = Duration.of(0, Duration.SECONDS);
@@ -167,4 +171,90 @@ public class RootfindingTest {
     assertEquals(1, solution.history().getHistory().size());
     assertEquals(new EquationSolvingAlgorithms.FunctionCoordinate<>(Duration.of(-860925, Duration.MICROSECONDS), Duration.of(0, Duration.MICROSECONDS)), solution.functionCoordinate());
   }
+
+  /**
+   * end time of an activity starting at x whose duration decreases with its start time, computed after a random delay
+   * so that concurrent evaluations complete in arbitrary order
+   */
+  private static EquationSolvingAlgorithms.ConcurrentFunction<Duration, PrioritySolver.ActivityMetadata> slowEndTime() {
+    return x -> () -> {
+      try {
+        Thread.sleep(ThreadLocalRandom.current().nextInt(5));
+      } catch (InterruptedException e) {
+        throw new SchedulingInterruptedException("sleeping");
+      }
+      final var duration = Duration.of(600, Duration.SECONDS).minus(x.dividedBy(10));
+      return new EquationSolvingAlgorithms.PointValue<>(new EquationSolvingAlgorithms.FunctionCoordinate<>(x, x.plus(duration)), null);
+    };
+  }
+
+  @Test
+  public void parallelRootfindingIsDeterministic()
+  throws EquationSolvingAlgorithms.ZeroDerivativeException, EquationSolvingAlgorithms.NoSolutionException,
+         EquationSolvingAlgorithms.ExceededMaxIterationException, EquationSolvingAlgorithms.DivergenceException,
+         EquationSolvingAlgorithms.InfiniteDerivativeException, SchedulingInterruptedException
+  {
+    final var y = Duration.of(2000, Duration.SECONDS);
+    final var tolerance = Duration.of(1, Duration.SECONDS);
+    EquationSolvingAlgorithms.RootFindingResult<Duration, PrioritySolver.ActivityMetadata> first = null;
+    for (int i = 0; i < 5; i++) {
+      final var history = new PrioritySolver.HistoryWithActivity();
+      final var solution = new EquationSolvingAlgorithms.ParallelSecantDurationAlgorithm<PrioritySolver.ActivityMetadata>(4)
+          .findRoot(slowEndTime(), history, zeroSecond, y, tolerance, tolerance, zeroSecond, Duration.of(3000, Duration.SECONDS), 20);
+      assertTrue(solution.functionCoordinate().fx().minus(y).abs().noLongerThan(tolerance));
+      if (first == null) {
+        first = solution;
+      } else {
+        assertEquals(first.functionCoordinate(), solution.functionCoordinate());
+        assertEquals(first.history().getHistory(), solution.history().getHistory());
+      }
+    }
+  }
+
+  private static List<Duration> firstRound(final int parallelism, final Duration x0, final Duration xHigh)
+  throws EquationSolvingAlgorithms.ZeroDerivativeException, EquationSolvingAlgorithms.NoSolutionException,
+         EquationSolvingAlgorithms.ExceededMaxIterationException, EquationSolvingAlgorithms.DivergenceException,
+         EquationSolvingAlgorithms.InfiniteDerivativeException, SchedulingInterruptedException
+  {
+    // no point of the first round is within tolerance of the root at 1555.5s
+    final var solution = new EquationSolvingAlgorithms.ParallelSecantDurationAlgorithm<PrioritySolver.ActivityMetadata>(parallelism)
+        .findRoot(slowEndTime(), new PrioritySolver.HistoryWithActivity(), x0, Duration.of(2000, Duration.SECONDS),
+                  oneSecond, oneSecond, Duration.ZERO, xHigh, 20);
+    return solution.history().getHistory().stream().limit(parallelism).map(event -> event.getLeft().x()).toList();
+  }
+
+  @Test
+  public void parallelRootfindingFirstProbesBothBounds()
+  throws EquationSolvingAlgorithms.ZeroDerivativeException, EquationSolvingAlgorithms.NoSolutionException,
+         EquationSolvingAlgorithms.ExceededMaxIterationException, EquationSolvingAlgorithms.DivergenceException,
+         EquationSolvingAlgorithms.InfiniteDerivativeException, SchedulingInterruptedException
+  {
+    final var max = Duration.of(3000, Duration.SECONDS);
+    assertEquals(
+        List.of(Duration.of(1000, Duration.SECONDS), Duration.ZERO, Duration.of(1500, Duration.SECONDS), max),
+        firstRound(4, Duration.of(1000, Duration.SECONDS), max));
+    assertEquals(
+        List.of(Duration.of(1000, Duration.SECONDS), Duration.ZERO, max),
+        firstRound(3, Duration.of(1000, Duration.SECONDS), max));
+    // with room for a single grid point, the bound furthest from x0
+    assertEquals(List.of(Duration.ZERO, max), firstRound(2, Duration.ZERO, max));
+    assertEquals(List.of(Duration.of(2000, Duration.SECONDS), Duration.ZERO), firstRound(2, Duration.of(2000, Duration.SECONDS), max));
+  }
+
+  @Test
+  public void parallelRootfindingWithParallelismOneIsSerial()
+  throws EquationSolvingAlgorithms.ZeroDerivativeException, EquationSolvingAlgorithms.NoSolutionException,
+         EquationSolvingAlgorithms.ExceededMaxIterationException, EquationSolvingAlgorithms.DivergenceException,
+         EquationSolvingAlgorithms.InfiniteDerivativeException, SchedulingInterruptedException
+  {
+    final var y = Duration.of(2000, Duration.SECONDS);
+    final var tolerance = Duration.of(1, Duration.SECONDS);
+    final var max = Duration.of(3000, Duration.SECONDS);
+    final var serial = new EquationSolvingAlgorithms.SecantDurationAlgorithm<PrioritySolver.ActivityMetadata>()
+        .findRoot(slowEndTime(), new PrioritySolver.HistoryWithActivity(), zeroSecond, y, tolerance, tolerance, zeroSecond, max, 20);
+    final var parallel = new EquationSolvingAlgorithms.ParallelSecantDurationAlgorithm<PrioritySolver.ActivityMetadata>(1)
+        .findRoot(slowEndTime(), new PrioritySolver.HistoryWithActivity(), zeroSecond, y, tolerance, tolerance, zeroSecond, max, 20);
+    assertEquals(serial.functionCoordinate(), parallel.functionCoordinate());
+    assertEquals(serial.history().getHistory(), parallel.history().getHistory());
+  }
 }
@@ -0,0 +1,115 @@
+package gov.nasa.jpl.aerie.scheduler;
+
+import gov.nasa.jpl.aerie.scheduler.solver.stn.IncrementalSTN;
+import gov.nasa.jpl.aerie.scheduler.solver.stn.STN;
+
+import java.util.List;
+
+/**
+ * Compares {@link STN} and {@link IncrementalSTN} on networks of hundreds of timepoints.
+ *
+ * Networks are built as a scheduler builds them: a horizon, then activities chained one after the other, the network
+ * being propagated and the bounds of the new activity queried after each insertion. A second measure tries inserting one
+ * more activity in the full network and undoes it, as done when a candidate placement is evaluated.
+ */
+public class STNBenchmark {
+
+  private static final double HORIZON = 1_000_000;
+
+  private static void addActivity(final STN stn, final int i) {
+    stn.addTimepoint("st" + i);
+    stn.addTimepoint("et" + i);
+    stn.addBeforeCst("SI", "st" + i);
+    stn.addBeforeCst("et" + i, "EI");
+    stn.addDurCst("st" + i, "et" + i, 10, 100);
+    if (i > 0) stn.addDurCst("et" + (i - 1), "st" + i, 0, 1_000);
+  }
+
+  private static void addActivity(final IncrementalSTN stn, final int i) {
+    stn.addTimepoint("st" + i);
+    stn.addTimepoint("et" + i);
+    stn.addBeforeCst("SI", "st" + i);
+    stn.addBeforeCst("et" + i, "EI");
+    stn.addDurCst("st" + i, "et" + i, 10, 100);
+    if (i > 0) stn.addDurCst("et" + (i - 1), "st" + i, 0, 1_000);
+  }
+
+  private static STN buildSTN(final int nbActivities) {
+    final var stn = new STN();
+    stn.addTimepoint("SI");
+    stn.addTimepoint("EI");
+    stn.addDurCst("SI", "EI", HORIZON, HORIZON);
+    for (int i = 0; i < nbActivities; i++) {
+      addActivity(stn, i);
+      stn.update();
+      stn.getDist("SI", "st" + i);
+      stn.getDist("st" + i, "SI");
+    }
+    return stn;
+  }
+
+  private static IncrementalSTN buildIncrementalSTN(final int nbActivities) {
+    final var stn = new IncrementalSTN();
+    stn.addTimepoint("SI");
+    stn.addTimepoint("EI");
+    stn.addDurCst("SI", "EI", HORIZON, HORIZON);
+    for (int i = 0; i < nbActivities; i++) {
+      addActivity(stn, i);
+      stn.update();
+      stn.getDist("SI", "st" + i);
+      stn.getDist("st" + i, "SI");
+    }
+    return stn;
+  }
+
+  private static long timeTentativeInsertion(final STN stn, final int i, final int nbRuns) {
+    final var before = System.nanoTime();
+    for (int run = 0; run < nbRuns; run++) {
+      addActivity(stn, i);
+      stn.update();
+      stn.getDist("SI", "st" + i);
+      stn.getDist("st" + i, "SI");
+      stn.removeTimepoint("st" + i);
+      stn.removeTimepoint("et" + i);
+    }
+    return (System.nanoTime() - before) / nbRuns;
+  }
+
+  private static long timeTentativeInsertion(final IncrementalSTN stn, final int i, final int nbRuns) {
+    final var before = System.nanoTime();
+    for (int run = 0; run < nbRuns; run++) {
+      final var mark = stn.mark();
+      addActivity(stn, i);
+      stn.update();
+      stn.getDist("SI", "st" + i);
+      stn.getDist("st" + i, "SI");
+      stn.rollback(mark);
+    }
+    return (System.nanoTime() - before) / nbRuns;
+  }
+
+  public static void main(String[] args) {
+    //number of runs per measurement
+    final var nbRuns = 5;
+
+    for (final var nbActivities : List.of(50, 100, 200)) {
+      System.out.println((2 * nbActivities + 2) + " timepoints");
+
+      // warm up
+      buildSTN(nbActivities);
+      buildIncrementalSTN(nbActivities);
+
+      var before = System.nanoTime();
+      STN stn = null;
+      for (int run = 0; run < nbRuns; run++) stn = buildSTN(nbActivities);
+      System.out.println("  build STN: " + (System.nanoTime() - before) / nbRuns / 1_000 + " us");
+      before = System.nanoTime();
+      IncrementalSTN incremental = null;
+      for (int run = 0; run < nbRuns; run++) incremental = buildIncrementalSTN(nbActivities);
+      System.out.println("  build IncrementalSTN: " + (System.nanoTime() - before) / nbRuns / 1_000 + " us");
+
+      System.out.println("  tentative insertion STN: " + timeTentativeInsertion(stn, nbActivities, 10 * nbRuns) / 1_000 + " us");
+      System.out.println("  tentative insertion IncrementalSTN: " + timeTentativeInsertion(incremental, nbActivities, 10 * nbRuns) / 1_000 + " us");
+    }
+  }
+}
@@ -8,6 +8,7 @@ import gov.nasa.jpl.aerie.scheduler.constraints.activities.ActivityExpression;
 import gov.nasa.jpl.aerie.scheduler.goals.CardinalityGoal;
 import gov.nasa.jpl.aerie.scheduler.goals.ChildCustody;
 import gov.nasa.jpl.aerie.scheduler.model.PlanningHorizon;
+import gov.nasa.jpl.aerie.scheduler.model.Problem;
 import gov.nasa.jpl.aerie.scheduler.model.SchedulingActivity;
 import gov.nasa.jpl.aerie.scheduler.solver.PrioritySolver;
 import org.junit.jupiter.api.Test;
@@ -47,4 +48,41 @@ public class TestCardinalityGoal {
                      .map(SchedulingActivity::duration)
                      .reduce(Duration.ZERO, Duration::plus), Duration.of(12, Duration.SECOND));
   }
+
+  private static CardinalityGoal makeOccurrenceGoal(
+      final Problem problem,
+      final PlanningHorizon planningHorizon,
+      final String name,
+      final int occurrences,
+      final ChildCustody custody)
+  {
+    final var period = Interval.betweenClosedOpen(Duration.of(0, Duration.SECONDS), Duration.of(20, Duration.SECONDS));
+    return new CardinalityGoal.Builder()
+        .occurences(new Range<>(occurrences, occurrences))
+        .thereExistsOne(new ActivityExpression.Builder()
+                            .ofType(problem.getActivityType("ControllableDurationActivity"))
+                            .durationIn(Duration.of(2, Duration.SECONDS))
+                            .build())
+        .named(name)
+        .forAllTimeIn(new WindowsWrapperExpression(new Windows(false).set(period, true)))
+        .owned(custody)
+        .withinPlanHorizon(planningHorizon)
+        .build();
+  }
+
+  @Test
+  public void activitiesOwnedSolelyAreNotShared() throws SchedulingInterruptedException {
+    for (final var custody : List.of(ChildCustody.Solely, ChildCustody.Jointly)) {
+      final var planningHorizon = new PlanningHorizon(TestUtility.timeFromEpochSeconds(0), TestUtility.timeFromEpochSeconds(25));
+      final var problem = SimulationUtility.buildProblemFromFoo(planningHorizon);
+      final var owner = makeOccurrenceGoal(problem, planningHorizon, "owner", 2, custody);
+      final var other = makeOccurrenceGoal(problem, planningHorizon, "other", 3, ChildCustody.Jointly);
+      problem.setGoals(List.of(owner, other));
+
+      final var plan = new PrioritySolver(problem).getNextSolution().orElseThrow();
+      final var inserted = plan.getEvaluation().forGoal(other).getInsertedActivities();
+      assertEquals(custody == ChildCustody.Solely ? 5 : 3, plan.getActivitiesByTime().size());
+      assertEquals(custody == ChildCustody.Solely ? 3 : 1, inserted.size());
+    }
+  }
 }
@@ -46,6 +46,16 @@ public class UncontrollableDurationTest {
   }
   @Test
   public void testNonLinear() throws SchedulingInterruptedException {
+    checkNonLinear(new PrioritySolver(problem));
+  }
+
+  @Test
+  public void testNonLinearParallelRootfinding() throws SchedulingInterruptedException {
+    problem = buildProblemFromFoo(planningHorizon, 10);
+    checkNonLinear(new PrioritySolver(problem, false, 4));
+  }
+
+  private void checkNonLinear(final PrioritySolver solver) throws SchedulingInterruptedException {
 
     //duration should be 300 seconds trapezoidal
     final var solarPanelActivityTrapezoidal = new ActivityExpression.Builder()
@@ -87,7 +97,6 @@ public class UncontrollableDurationTest {
 
     problem.setGoals(List.of(recurrenceTrapezoidal, coexistenceTriangle));
 
-    final var solver = new PrioritySolver(problem);
     final var plan = solver.getNextSolution().get();
     assertTrue(TestUtility.containsActivity(plan, planningHorizon.fromStart("PT11M40S"), planningHorizon.fromStart("PT16M40S"), problem.getActivityType("SolarPanelNonLinear")));
     assertTrue(TestUtility.containsActivity(plan, planningHorizon.fromStart("PT28M20S"), planningHorizon.fromStart("PT33M20S"), problem.getActivityType("SolarPanelNonLinear")));
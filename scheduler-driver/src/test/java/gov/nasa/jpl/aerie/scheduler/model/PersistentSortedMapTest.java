@@ -0,0 +1,125 @@
+package gov.nasa.jpl.aerie.scheduler.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PersistentSortedMapTest {
+
+  private static <K, V> List<Map.Entry<K, V>> entries(final PersistentSortedMap<K, V> map) {
+    final var entries = new ArrayList<Map.Entry<K, V>>();
+    map.entries().forEach(entries::add);
+    return entries;
+  }
+
+  private static <K, V> List<V> values(final PersistentSortedMap<K, V> map, final K from, final K to) {
+    final var values = new ArrayList<V>();
+    map.values(from, to).forEach(values::add);
+    return values;
+  }
+
+  private static void assertSameContents(final TreeMap<Integer, String> expected, final PersistentSortedMap<Integer, String> actual) {
+    assertEquals(expected.size(), actual.size());
+    assertEquals(expected.isEmpty(), actual.isEmpty());
+    assertEquals(new ArrayList<>(expected.entrySet()), entries(actual));
+  }
+
+  /**
+   * Random insertions and removals are applied to both a persistent map and a TreeMap, which must agree on lookups,
+   * on their entries and on the values of random ranges
+   */
+  @Test
+  public void agreesWithTreeMap() {
+    final var random = new Random(42);
+    final var expected = new TreeMap<Integer, String>();
+    var actual = PersistentSortedMap.<Integer, String>empty(Integer::compare);
+    for (int op = 0; op < 5000; op++) {
+      final var key = random.nextInt(300);
+      if (random.nextInt(5) < 3) {
+        expected.put(key, "v" + op);
+        actual = actual.with(key, "v" + op);
+      } else {
+        expected.remove(key);
+        actual = actual.without(key);
+      }
+      assertEquals(expected.size(), actual.size());
+      assertEquals(expected.get(key), actual.get(key));
+
+      if (op % 100 == 0) {
+        assertSameContents(expected, actual);
+        final var from = random.nextInt(300);
+        final var to = from + random.nextInt(100);
+        assertEquals(new ArrayList<>(expected.subMap(from, true, to, true).values()), values(actual, from, to));
+        assertEquals(new ArrayList<>(expected.headMap(to, true).values()), values(actual, null, to));
+        assertEquals(new ArrayList<>(expected.tailMap(from, true).values()), values(actual, from, null));
+        assertEquals(new ArrayList<>(expected.values()), values(actual, null, null));
+      }
+    }
+    assertSameContents(expected, actual);
+  }
+
+  /**
+   * Versions of a map kept along a random sequence of updates are unaffected by the updates made after them
+   */
+  @Test
+  public void versionsAreIsolated() {
+    final var random = new Random(7);
+    final var expected = new TreeMap<Integer, String>();
+    var actual = PersistentSortedMap.<Integer, String>empty(Integer::compare);
+    final var expectedVersions = new ArrayList<TreeMap<Integer, String>>();
+    final var versions = new ArrayList<PersistentSortedMap<Integer, String>>();
+    for (int op = 0; op < 2000; op++) {
+      final var key = random.nextInt(100);
+      if (random.nextBoolean()) {
+        expected.put(key, "v" + op);
+        actual = actual.with(key, "v" + op);
+      } else {
+        expected.remove(key);
+        actual = actual.without(key);
+      }
+      if (op % 50 == 0) {
+        expectedVersions.add(new TreeMap<>(expected));
+        versions.add(actual);
+      }
+    }
+    for (int i = 0; i < versions.size(); i++) {
+      assertSameContents(expectedVersions.get(i), versions.get(i));
+    }
+  }
+
+  @Test
+  public void updatesLeaveTheOriginalUnchanged() {
+    final var original = PersistentSortedMap.<Integer, String>empty(Integer::compare).with(1, "a").with(2, "b");
+    final var replaced = original.with(1, "c");
+    final var added = original.with(3, "d");
+    final var removed = original.without(2);
+
+    assertEquals(List.of(Map.entry(1, "a"), Map.entry(2, "b")), entries(original));
+    assertEquals(List.of(Map.entry(1, "c"), Map.entry(2, "b")), entries(replaced));
+    assertEquals(List.of(Map.entry(1, "a"), Map.entry(2, "b"), Map.entry(3, "d")), entries(added));
+    assertEquals(List.of(Map.entry(1, "a")), entries(removed));
+    assertSame(original, original.without(4));
+    assertNull(removed.get(2));
+  }
+
+  @Test
+  public void rangesPastTheLastEntryAreEmpty() {
+    final var map = PersistentSortedMap.<Integer, String>empty(Integer::compare).with(1, "a");
+    assertTrue(values(map, 2, 10).isEmpty());
+    assertTrue(values(map, null, 0).isEmpty());
+    assertTrue(values(PersistentSortedMap.<Integer, String>empty(Integer::compare), null, null).isEmpty());
+    final var iterator = map.values(2, 10).iterator();
+    assertThrows(NoSuchElementException.class, iterator::next);
+  }
+}
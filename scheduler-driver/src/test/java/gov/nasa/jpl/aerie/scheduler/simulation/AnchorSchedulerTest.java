@@ -11,6 +11,7 @@ import gov.nasa.jpl.aerie.merlin.driver.SimulationEngineConfiguration;
 import gov.nasa.jpl.aerie.merlin.driver.SimulationResults;
 import gov.nasa.jpl.aerie.merlin.driver.SimulationResultsComputerInputs;
 import gov.nasa.jpl.aerie.merlin.driver.timeline.LiveCells;
+import gov.nasa.jpl.aerie.merlin.driver.timeline.TopicIndex;
 import gov.nasa.jpl.aerie.merlin.protocol.driver.Initializer;
 import gov.nasa.jpl.aerie.merlin.protocol.driver.Topic;
 import gov.nasa.jpl.aerie.merlin.protocol.model.DirectiveType;
@@ -768,6 +769,7 @@ public class AnchorSchedulerTest {
   private static final MissionModel<Object> AnchorTestModel = new MissionModel<>(
       new Object(),
       new LiveCells(null),
+      new TopicIndex(),
       Map.of(),
       List.of(
           new MissionModel.SerializableTopic<>(
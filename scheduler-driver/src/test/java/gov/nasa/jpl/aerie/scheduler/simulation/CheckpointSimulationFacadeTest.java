@@ -11,17 +11,24 @@ import gov.nasa.jpl.aerie.scheduler.model.ActivityType;
 import gov.nasa.jpl.aerie.scheduler.model.PlanInMemory;
 import gov.nasa.jpl.aerie.scheduler.model.PlanningHorizon;
 import gov.nasa.jpl.aerie.scheduler.model.SchedulingActivity;
+import gov.nasa.jpl.aerie.types.ActivityDirective;
 import gov.nasa.jpl.aerie.types.MissionModelId;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.time.Instant;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
 import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.HOUR;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class CheckpointSimulationFacadeTest {
   private static final DirectiveIdGenerator idGenerator = new DirectiveIdGenerator(0);
@@ -109,4 +116,68 @@ public class CheckpointSimulationFacadeTest {
     assert(results.unfinishedActivities.size() == 1);
   }
 
+  private static Map<String, Object> profiles(final gov.nasa.jpl.aerie.merlin.driver.SimulationResults results) {
+    final var profiles = new HashMap<String, Object>(results.realProfiles);
+    profiles.putAll(results.discreteProfiles);
+    return profiles;
+  }
+
+  /**
+   * A facade profiling only the resources of interest returns the same profiles for them as one profiling every
+   * resource, including for resources requested after its first simulations.
+   */
+  @Test
+  public void profilesResourcesOfInterestOnly() throws SchedulingInterruptedException, SimulationFacade.SimulationException {
+    final var fooMissionModel = SimulationUtility.getFooMissionModel();
+    final var resourceNames = new TreeSet<>(fooMissionModel.getResources().keySet());
+    final var first = resourceNames.pollFirst();
+    final var second = resourceNames.pollFirst();
+    final var prunedFacade = new CheckpointSimulationFacade(
+        fooMissionModel,
+        SimulationUtility.getFooSchedulerModel(),
+        new InMemoryCachedEngineStore(10),
+        H,
+        new SimulationEngineConfiguration(Map.of(), Instant.EPOCH, new MissionModelId(1)),
+        () -> false,
+        true);
+    prunedFacade.addActivityTypes(activityTypes.values());
+    prunedFacade.addResourcesOfInterest(Set.of(first));
+
+    final var plan = makePlanA012(activityTypes);
+    final var expected = profiles(newSimulationFacade.simulateWithResults(plan, t2hr).driverResults());
+
+    final var firstResults = profiles(prunedFacade.simulateWithResults(plan, t2hr, Set.of(first)).driverResults());
+    assertEquals(Map.of(first, expected.get(first)), firstResults);
+    final var secondResults = profiles(prunedFacade.simulateWithResults(plan, t2hr, Set.of(second)).driverResults());
+    assertEquals(Map.of(second, expected.get(second)), secondResults);
+    final var noResults = prunedFacade.simulateNoResultsAllActivities(plan).computeResults();
+    assertTrue(Set.of(first, second).containsAll(profiles(noResults).keySet()));
+  }
+
+  /**
+   * Projecting a plan again only rebuilds the directives of the activities that were replaced since the previous
+   * projection, and copies of an activity share its arguments.
+   */
+  @Test
+  public void reusesDirectivesOfUnchangedActivities() {
+    final var plan = makePlanA012(activityTypes);
+    final var projections = new IdentityHashMap<SchedulingActivity, ActivityDirective>();
+    final var first = SimulationFacadeUtils.scheduleFromPlan(plan, SimulationUtility.getFooSchedulerModel(), projections);
+    assertEquals(SimulationFacadeUtils.scheduleFromPlan(plan, SimulationUtility.getFooSchedulerModel()), first);
+
+    final var replaced = plan.getActivities().iterator().next();
+    final var replacement = replaced.withNewDuration(d1hr);
+    assertSame(replaced.arguments(), replacement.arguments());
+    plan.replaceActivity(replaced, replacement);
+    final var second = SimulationFacadeUtils.scheduleFromPlan(plan, SimulationUtility.getFooSchedulerModel(), projections);
+    assertEquals(3, projections.size());
+    for (final var activity : plan.getActivities()) {
+      final var directive = second.directiveIdActivityDirectiveMap().get(activity.id());
+      if (activity == replacement) {
+        assertNotSame(first.directiveIdActivityDirectiveMap().get(activity.id()), directive);
+      } else {
+        assertSame(first.directiveIdActivityDirectiveMap().get(activity.id()), directive);
+      }
+    }
+  }
 }
@@ -42,7 +42,9 @@ public class InMemoryCachedEngineStoreTest {
             new ActivityDirectiveId(1), new ActivityDirective(Duration.HOUR, "ActivityType1", Map.of(), null, true),
             new ActivityDirectiveId(2), new ActivityDirective(Duration.HOUR, "ActivityType2", Map.of(), null, true)
         ),
-        new SimulationEngine(SimulationUtility.getFooMissionModel().getInitialCells()),
+        new SimulationEngine(
+            SimulationUtility.getFooMissionModel().getInitialCells(),
+            SimulationUtility.getFooMissionModel().getTopicIndex()),
         null,
         SimulationUtility.getFooMissionModel(),
         new InMemorySimulationResourceManager()
@@ -56,7 +58,9 @@ public class InMemoryCachedEngineStoreTest {
             new ActivityDirectiveId(3), new ActivityDirective(Duration.HOUR, "ActivityType3", Map.of(), null, true),
             new ActivityDirectiveId(4), new ActivityDirective(Duration.HOUR, "ActivityType4", Map.of(), null, true)
         ),
-        new SimulationEngine(SimulationUtility.getFooMissionModel().getInitialCells()),
+        new SimulationEngine(
+            SimulationUtility.getFooMissionModel().getInitialCells(),
+            SimulationUtility.getFooMissionModel().getTopicIndex()),
         null,
         SimulationUtility.getFooMissionModel(),
         new InMemorySimulationResourceManager()
@@ -70,7 +74,9 @@ public class InMemoryCachedEngineStoreTest {
             new ActivityDirectiveId(5), new ActivityDirective(Duration.HOUR, "ActivityType5", Map.of(), null, true),
             new ActivityDirectiveId(6), new ActivityDirective(Duration.HOUR, "ActivityType6", Map.of(), null, true)
         ),
-        new SimulationEngine(SimulationUtility.getFooMissionModel().getInitialCells()),
+        new SimulationEngine(
+            SimulationUtility.getFooMissionModel().getInitialCells(),
+            SimulationUtility.getFooMissionModel().getTopicIndex()),
         null,
         SimulationUtility.getFooMissionModel(),
         new InMemorySimulationResourceManager()
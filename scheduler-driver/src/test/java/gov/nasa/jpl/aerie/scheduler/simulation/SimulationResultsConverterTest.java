@@ -0,0 +1,74 @@
+package gov.nasa.jpl.aerie.scheduler.simulation;
+
+import gov.nasa.jpl.aerie.merlin.driver.SimulationResults;
+import gov.nasa.jpl.aerie.merlin.driver.engine.ProfileSegment;
+import gov.nasa.jpl.aerie.merlin.driver.resources.ResourceProfile;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.RealDynamics;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import gov.nasa.jpl.aerie.merlin.protocol.types.ValueSchema;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class SimulationResultsConverterTest {
+  private static SimulationResults makeDriverResults() {
+    final var hour = Duration.of(1, Duration.HOUR);
+    return new SimulationResults(
+        Map.of(
+            "real", new ResourceProfile<>(ValueSchema.REAL, List.of(
+                new ProfileSegment<>(hour, RealDynamics.linear(0, 1)),
+                new ProfileSegment<>(hour, RealDynamics.constant(3))))),
+        Map.of(
+            "discrete", new ResourceProfile<>(ValueSchema.BOOLEAN, List.of(
+                new ProfileSegment<>(hour, SerializedValue.of(true)),
+                new ProfileSegment<>(hour, SerializedValue.of(false)))),
+            "unread", new ResourceProfile<>(ValueSchema.BOOLEAN, List.of(
+                new ProfileSegment<>(hour, SerializedValue.of(true))))),
+        Map.of(),
+        Map.of(),
+        Instant.EPOCH,
+        Duration.of(2, Duration.HOURS),
+        List.of(),
+        new TreeMap<>());
+  }
+
+  @Test
+  public void convertsEachProfileOnceOnFirstAccess() {
+    final var results = SimulationResultsConverter.convertToConstraintModelResults(makeDriverResults());
+    assertEquals(0, SimulationResultsConverter.profileConversionCount(results));
+
+    final var real = results.realProfiles.get("real");
+    for (int i = 0; i < 10; i++) {
+      assertSame(real, results.realProfiles.get("real"));
+      assertSame(results.discreteProfiles.get("discrete"), results.discreteProfiles.get("discrete"));
+    }
+    assertNull(results.realProfiles.get("discrete"));
+    assertEquals(2, SimulationResultsConverter.profileConversionCount(results));
+
+    assertEquals(2, results.discreteProfiles.entrySet().size());
+    assertEquals(3, SimulationResultsConverter.profileConversionCount(results));
+  }
+
+  @Test
+  public void concurrentReadsConvertOnce() throws Exception {
+    final var results = SimulationResultsConverter.convertToConstraintModelResults(makeDriverResults());
+    try (final var executor = Executors.newFixedThreadPool(8)) {
+      final var futures = new ArrayList<Future<?>>();
+      for (int i = 0; i < 64; i++) futures.add(executor.submit(() -> results.realProfiles.get("real")));
+      final var first = futures.getFirst().get();
+      for (final var future : futures) assertSame(first, future.get());
+    }
+    assertEquals(1, SimulationResultsConverter.profileConversionCount(results));
+  }
+}
@@ -52,11 +52,15 @@ import javax.json.JsonArrayBuilder;
 import javax.json.JsonException;
 import javax.json.JsonObject;
 import javax.json.JsonValue;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.time.Instant;
 import java.time.LocalDateTime;
@@ -66,6 +70,7 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.TreeMap;
 import java.util.concurrent.ExecutionException;
@@ -73,6 +78,8 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import static gov.nasa.jpl.aerie.json.BasicParsers.chooseP;
 import static gov.nasa.jpl.aerie.merlin.driver.json.SerializedValueJsonParser.serializedValueP;
@@ -94,14 +101,46 @@ import static gov.nasa.jpl.aerie.scheduler.server.graphql.ProfileParsers.realVal
  * {@inheritDoc}
  *
  * @param merlinGraphqlURI endpoint of the merlin graphql service that should be used to access all plan data
+ * @param httpClient client shared by all requests, so that connections to aerie are reused
+ * @param compressRequests whether large request bodies are sent gzip-compressed
  */
-public record GraphQLMerlinDatabaseService(URI merlinGraphqlURI, String hasuraGraphQlAdminSecret) implements MerlinDatabaseService.OwnerRole {
+public record GraphQLMerlinDatabaseService(
+    URI merlinGraphqlURI,
+    String hasuraGraphQlAdminSecret,
+    HttpClient httpClient,
+    boolean compressRequests
+) implements MerlinDatabaseService.OwnerRole {
 
   /**
    * timeout for http graphql requests issued to aerie
    */
   private static final java.time.Duration httpTimeout = java.time.Duration.ofSeconds(60);
 
+  /**
+   * request bodies smaller than this are sent uncompressed, as compressing them would save less than it costs
+   */
+  private static final int minCompressedRequestBytes = 8192;
+
+  /**
+   * profile segments are inserted in mutations of at most this many rows, so that long simulations
+   * neither build one unbounded request body nor hold one unbounded database transaction
+   */
+  private static final int maxProfileSegmentsPerRequest = 10_000;
+
+  public GraphQLMerlinDatabaseService {
+    Objects.requireNonNull(merlinGraphqlURI);
+    Objects.requireNonNull(hasuraGraphQlAdminSecret);
+    Objects.requireNonNull(httpClient);
+  }
+
+  public GraphQLMerlinDatabaseService(final URI merlinGraphqlURI, final String hasuraGraphQlAdminSecret) {
+    this(merlinGraphqlURI, hasuraGraphQlAdminSecret, defaultHttpClient(), false);
+  }
+
+  public static HttpClient defaultHttpClient() {
+    return HttpClient.newBuilder().connectTimeout(httpTimeout).build();
+  }
+
   public record DatasetMetadata(DatasetId datasetId, Duration offsetFromPlanStart){}
 
   private record SimulationId(long id){}
@@ -137,62 +176,47 @@ public record GraphQLMerlinDatabaseService(URI merlinGraphqlURI, String hasuraGr
    * @return the json response returned by aerie, or an empty optional in case of io errors
    */
   protected Optional<JsonObject> postRequest(final String gqlStr) throws IOException, MerlinServiceException {
-    try {
-      //TODO: (mem optimization) use streams here to avoid several copies of strings
-      final var reqBody = Json.createObjectBuilder().add("query", gqlStr).build();
-      final var httpReq = HttpRequest
-          .newBuilder().uri(merlinGraphqlURI).timeout(httpTimeout)
-          .header("Content-Type", "application/json")
-          .header("Accept", "application/json")
-          .header("Origin", merlinGraphqlURI.toString())
-          .header("x-hasura-admin-secret", hasuraGraphQlAdminSecret)
-          .POST(HttpRequest.BodyPublishers.ofString(reqBody.toString()))
-          .build();
-      //TODO: (net optimization) gzip compress the request body if large enough (eg for createAllActs)
-      final var httpResp = HttpClient
-          .newHttpClient().send(httpReq, HttpResponse.BodyHandlers.ofInputStream());
-      if (httpResp.statusCode() != 200) {
-        //TODO: how severely to error out if aerie cannot be reached or has a 500 error or json is garbled etc etc?
-        return Optional.empty();
-      }
-      final var respBody = Json.createReader(httpResp.body()).readObject();
-      if (respBody.containsKey("errors")) {
-        throw new MerlinServiceException(respBody.toString());
-      }
-      return Optional.of(respBody);
-    } catch (final InterruptedException e) {
-      //TODO: maybe retry if interrupted? but depends on semantics (eg don't duplicate mutation if not idempotent)
-      return Optional.empty();
-    } catch (final JsonException e) { // or also JsonParsingException
-      throw new IOException("json parse error on graphql response:" + e.getMessage(), e);
-    }
+    return postRequest(Json.createObjectBuilder().add("query", gqlStr).build());
   }
 
   protected Optional<JsonObject> postRequest(final String query, final JsonObject variables)
   throws IOException, MerlinServiceException {
+    return postRequest(Json
+        .createObjectBuilder()
+        .add("query", query)
+        .add("variables", variables)
+        .build());
+  }
+
+  private Optional<JsonObject> postRequest(final JsonObject reqBody) throws IOException, MerlinServiceException {
     try {
       //TODO: (mem optimization) use streams here to avoid several copies of strings
-      final var reqBody = Json
-          .createObjectBuilder()
-          .add("query", query)
-          .add("variables", variables)
-          .build();
-      final var httpReq = HttpRequest
+      final var reqBytes = reqBody.toString().getBytes(StandardCharsets.UTF_8);
+      final var httpReqBuilder = HttpRequest
           .newBuilder().uri(merlinGraphqlURI).timeout(httpTimeout)
           .header("Content-Type", "application/json")
           .header("Accept", "application/json")
+          .header("Accept-Encoding", "gzip")
           .header("Origin", merlinGraphqlURI.toString())
-          .header("x-hasura-admin-secret", hasuraGraphQlAdminSecret)
-          .POST(HttpRequest.BodyPublishers.ofString(reqBody.toString()))
-          .build();
-      //TODO: (net optimization) gzip compress the request body if large enough (eg for createAllActs)
-      final var httpResp = HttpClient
-          .newHttpClient().send(httpReq, HttpResponse.BodyHandlers.ofInputStream());
+          .header("x-hasura-admin-secret", hasuraGraphQlAdminSecret);
+      if (compressRequests && reqBytes.length >= minCompressedRequestBytes) {
+        httpReqBuilder
+            .header("Content-Encoding", "gzip")
+            .POST(HttpRequest.BodyPublishers.ofByteArray(gzip(reqBytes)));
+      } else {
+        httpReqBuilder.POST(HttpRequest.BodyPublishers.ofByteArray(reqBytes));
+      }
+      // The body is read in full so that the connection goes back to the client's pool
+      final var httpResp = httpClient.send(httpReqBuilder.build(), HttpResponse.BodyHandlers.ofByteArray());
       if (httpResp.statusCode() != 200) {
         //TODO: how severely to error out if aerie cannot be reached or has a 500 error or json is garbled etc etc?
         return Optional.empty();
       }
-      final var respBody = Json.createReader(httpResp.body()).readObject();
+      final var isGzipped = httpResp.headers().firstValue("Content-Encoding").filter("gzip"::equalsIgnoreCase).isPresent();
+      final InputStream respStream = isGzipped
+          ? new GZIPInputStream(new ByteArrayInputStream(httpResp.body()))
+          : new ByteArrayInputStream(httpResp.body());
+      final var respBody = Json.createReader(respStream).readObject();
       if (respBody.containsKey("errors")) {
         throw new MerlinServiceException(respBody.toString());
       }
@@ -205,6 +229,14 @@ public record GraphQLMerlinDatabaseService(URI merlinGraphqlURI, String hasuraGr
     }
   }
 
+  private static byte[] gzip(final byte[] bytes) throws IOException {
+    final var out = new ByteArrayOutputStream(bytes.length / 4);
+    try (final var gzipOut = new GZIPOutputStream(out)) {
+      gzipOut.write(bytes);
+    }
+    return out.toByteArray();
+  }
+
   //TODO: maybe use fancy aerie typed json parsers/serializers, ala BasicParsers.productP use in MerlinParsers
   //TODO: or upgrade to gson or similar modern library with registered object mappings
 
@@ -422,13 +454,13 @@ public record GraphQLMerlinDatabaseService(URI merlinGraphqlURI, String hasuraGr
     final var ids = new HashMap<ActivityDirectiveId, ActivityDirectiveId>();
     //creation are done in batch as that's what the scheduler does the most
     final var toAdd = new ArrayList<SchedulingActivity>();
-    for (final var activity : plan.getActivities()) {
+    for (var activity : plan.getActivities()) {
       if(activity.getParentActivity().isPresent()) continue; // Skip generated activities
       if (!activity.isNew()) {
         //add duration to parameters if controllable
         if (activity.getType().getDurationType() instanceof DurationType.Controllable durationType){
           if (!activity.arguments().containsKey(durationType.parameterName())){
-            activity.addArgument(durationType.parameterName(), schedulerModel.serializeDuration(activity.duration()));
+            activity = activity.withArgument(durationType.parameterName(), schedulerModel.serializeDuration(activity.duration()));
           }
         }
         final var actFromInitialPlan = initialPlan.getActivityById(activity.id());
@@ -467,17 +499,40 @@ public record GraphQLMerlinDatabaseService(URI merlinGraphqlURI, String hasuraGr
   public void updatePlanActivityDirectiveAnchors(final PlanId planId, final Plan plan, final Map<ActivityDirectiveId, ActivityDirectiveId> uploadIdMap)
   throws MerlinServiceException, IOException
   {
+    //all anchors are set by a single mutation rather than one per activity
+    final var req = """
+        mutation($updates:[activity_directive_updates!]!) {
+          update_activity_directive_many(updates: $updates) {
+            affected_rows
+          }
+        }
+        """;
+    final var updates = Json.createArrayBuilder();
+    int updateCounter = 0;
     for (final SchedulingActivity act: plan.getActivities()) {
       if (act.isNew() && act.anchorId() != null) {
-        final var request = """
-            mutation {
-              update_activity_directive_by_pk(pk_columns: {id: %d, plan_id: %d}, _set: {anchor_id: %d}) {
-                id
-              }
-            }""".formatted(uploadIdMap.get(act.id()).id(), planId.id(), uploadIdMap.get(act.anchorId()).id());
-        final var response = postRequest(request);
+        updates.add(Json.createObjectBuilder()
+            .add("where", Json.createObjectBuilder()
+                .add("id", Json.createObjectBuilder().add("_eq", uploadIdMap.get(act.id()).id()))
+                .add("plan_id", Json.createObjectBuilder().add("_eq", planId.id())))
+            .add("_set", Json.createObjectBuilder().add("anchor_id", uploadIdMap.get(act.anchorId()).id()))
+            .build());
+        updateCounter++;
       }
     }
+    if (updateCounter == 0) return;
+    final var arguments = Json.createObjectBuilder()
+                              .add("updates", updates)
+                              .build();
+    final var response = postRequest(req, arguments)
+        .orElseThrow(() -> new MerlinServiceException("Could not update the anchors of plan " + planId.id()));
+    var affected_rows = 0;
+    for (final var jsonObject : response.getJsonObject("data").getJsonArray("update_activity_directive_many").getValuesAs(JsonObject.class)) {
+      affected_rows += jsonObject.getInt("affected_rows");
+    }
+    if (affected_rows != updateCounter) {
+      throw new MerlinServiceException("not the same size");
+    }
   }
 
   /**
@@ -1370,40 +1425,65 @@ public record GraphQLMerlinDatabaseService(URI merlinGraphqlURI, String hasuraGr
       final ProfileSet profileSet
   ) throws MerlinServiceException, IOException
   {
+    //the segments of all profiles are batched across profiles, in mutations of bounded size
+    final var req = """
+        mutation($profileSegments:[profile_segment_insert_input!]!) {
+          insert_profile_segment(objects: $profileSegments) {
+            affected_rows
+          }
+        }
+        """;
     final var realProfiles = profileSet.realProfiles();
     final var discreteProfiles = profileSet.discreteProfiles();
+    final var profileSegments = new ArrayList<JsonObject>();
     for (final var entry : records.entrySet()) {
       final ProfileRecord record =  entry.getValue();
       final var resource =  entry.getKey();
       switch (record.type().getLeft()) {
-        case "real" -> postRealProfileSegments(
+        case "real" -> addProfileSegments(
+            profileSegments,
             datasetId,
             record,
-            realProfiles.get(resource).segments());
-        case "discrete" -> postDiscreteProfileSegments(
+            realProfiles.get(resource).segments(),
+            realDynamicsP);
+        case "discrete" -> addProfileSegments(
+            profileSegments,
             datasetId,
             record,
-            discreteProfiles.get(resource).segments());
+            discreteProfiles.get(resource).segments(),
+            serializedValueP);
         default -> throw new Error("Unrecognized profile type " + record.type().getLeft());
       }
     }
+
+    for (var from = 0; from < profileSegments.size(); from += maxProfileSegmentsPerRequest) {
+      final var chunk = profileSegments.subList(from, Math.min(from + maxProfileSegmentsPerRequest, profileSegments.size()));
+      final var jsonChunk = Json.createArrayBuilder();
+      chunk.forEach(jsonChunk::add);
+      final var arguments = Json.createObjectBuilder()
+                                .add("profileSegments", jsonChunk)
+                                .build();
+
+      final JsonObject response;
+      try {
+        response = postRequest(req, arguments).get();
+      } catch (MerlinServiceException e) {
+        throw new MerlinServiceException(e.toString());
+      }
+      final var affected_rows = response.getJsonObject("data").getJsonObject("insert_profile_segment").getInt("affected_rows");
+      if(affected_rows!=chunk.size()) {
+        throw new MerlinServiceException("not the same size");
+      }
+    }
   }
 
-  private <Dynamics> void postProfileSegment(
+  private static <Dynamics> void addProfileSegments(
+      final List<JsonObject> profileSegments,
       final DatasetId datasetId,
       final ProfileRecord profileRecord,
       final List<ProfileSegment<Optional<Dynamics>>> segments,
-      final JsonParser<Dynamics> dynamicsP
-  ) throws MerlinServiceException, IOException
+      final JsonParser<Dynamics> dynamicsP)
   {
-    final var req = """
-        mutation($profileSegments:[profile_segment_insert_input!]!) {
-          insert_profile_segment(objects: $profileSegments) {
-            affected_rows
-          }
-        }
-        """;
-    final var profiles = Json.createArrayBuilder();
     var accumulatedOffset = Duration.ZERO;
     for (final var pair : segments) {
       final var duration = pair.extent();
@@ -1418,7 +1498,7 @@ public record GraphQLMerlinDatabaseService(URI merlinGraphqlURI, String hasuraGr
         serializedDynamics = null;
         stringIsGap = true;
       }
-      profiles.add(Json.createObjectBuilder()
+      profileSegments.add(Json.createObjectBuilder()
           .add("dataset_id", datasetId.id())
           .add("profile_id", profileRecord.id())
           .add("start_offset", graphQLIntervalFromDuration(accumulatedOffset).toString())
@@ -1427,37 +1507,6 @@ public record GraphQLMerlinDatabaseService(URI merlinGraphqlURI, String hasuraGr
           .build());
       accumulatedOffset = Duration.add(accumulatedOffset, duration);
     }
-
-    final var arguments = Json.createObjectBuilder()
-                              .add("profileSegments", profiles)
-                              .build();
-
-    final JsonObject response;
-    try {
-      response = postRequest(req, arguments).get();
-    } catch (MerlinServiceException e) {
-      throw new MerlinServiceException(e.toString());
-    }
-    final var affected_rows = response.getJsonObject("data").getJsonObject("insert_profile_segment").getInt("affected_rows");
-    if(affected_rows!=segments.size()) {
-      throw new MerlinServiceException("not the same size");
-    }
-  }
-
-  private void postRealProfileSegments(final DatasetId datasetId,
-                                              final ProfileRecord profileRecord,
-                                              final List<ProfileSegment<Optional<RealDynamics>>> segments)
-  throws MerlinServiceException, IOException
-  {
-    postProfileSegment(datasetId, profileRecord, segments, realDynamicsP);
-  }
-
-  private void postDiscreteProfileSegments(final DatasetId datasetId,
-                                                  final ProfileRecord profileRecord,
-                                                  final List<ProfileSegment<Optional<SerializedValue>>> segments)
-  throws MerlinServiceException, IOException
-  {
-    postProfileSegment(datasetId, profileRecord, segments, serializedValueP);
   }
 
   private void insertSimulationTopics(
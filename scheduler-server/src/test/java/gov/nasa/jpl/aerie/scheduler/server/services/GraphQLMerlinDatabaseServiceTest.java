@@ -0,0 +1,145 @@
+package gov.nasa.jpl.aerie.scheduler.server.services;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.scheduler.model.ActivityType;
+import gov.nasa.jpl.aerie.scheduler.model.PlanInMemory;
+import gov.nasa.jpl.aerie.scheduler.model.SchedulingActivity;
+import gov.nasa.jpl.aerie.scheduler.server.models.PlanId;
+import gov.nasa.jpl.aerie.types.ActivityDirectiveId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GraphQLMerlinDatabaseServiceTest {
+  private record Request(int remotePort, boolean gzipped, JsonObject body) {}
+
+  private HttpServer server;
+  private final List<Request> requests = new ArrayList<>();
+  private String responseBody;
+  private boolean gzipResponses;
+
+  @BeforeEach
+  void beforeEach() throws IOException {
+    responseBody = "{\"data\":{}}";
+    gzipResponses = false;
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/v1/graphql", this::handle);
+    server.start();
+  }
+
+  @AfterEach
+  void afterEach() {
+    server.stop(0);
+  }
+
+  private synchronized void handle(final HttpExchange exchange) throws IOException {
+    final var gzipped = "gzip".equals(exchange.getRequestHeaders().getFirst("Content-Encoding"));
+    final byte[] requestBytes;
+    try (final InputStream in = gzipped ? new GZIPInputStream(exchange.getRequestBody()) : exchange.getRequestBody()) {
+      requestBytes = in.readAllBytes();
+    }
+    final var body = Json.createReader(new StringReader(new String(requestBytes, StandardCharsets.UTF_8))).readObject();
+    requests.add(new Request(exchange.getRemoteAddress().getPort(), gzipped, body));
+
+    var responseBytes = responseBody.getBytes(StandardCharsets.UTF_8);
+    if (gzipResponses && "gzip".equals(exchange.getRequestHeaders().getFirst("Accept-Encoding"))) {
+      final var out = new ByteArrayOutputStream();
+      try (final var gzipOut = new GZIPOutputStream(out)) {
+        gzipOut.write(responseBytes);
+      }
+      responseBytes = out.toByteArray();
+      exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+    }
+    exchange.getResponseHeaders().add("Content-Type", "application/json");
+    exchange.sendResponseHeaders(200, responseBytes.length);
+    try (final var out = exchange.getResponseBody()) {
+      out.write(responseBytes);
+    }
+  }
+
+  private GraphQLMerlinDatabaseService service(final boolean compressRequests) {
+    final var uri = URI.create("http://localhost:" + server.getAddress().getPort() + "/v1/graphql");
+    return new GraphQLMerlinDatabaseService(uri, "secret", GraphQLMerlinDatabaseService.defaultHttpClient(), compressRequests);
+  }
+
+  @Test
+  void reusesConnectionAcrossRequests() throws Exception {
+    final var service = service(false);
+    for (int i = 0; i < 10; i++) service.postRequest("query { plan { id } }");
+    final Set<Integer> ports = new HashSet<>();
+    for (final var request : requests) ports.add(request.remotePort());
+    assertEquals(10, requests.size());
+    assertEquals(1, ports.size());
+  }
+
+  @Test
+  void compressesLargeRequestsOnly() throws Exception {
+    final var service = service(true);
+    final var largeQuery = "query { plan { id } }" + " ".repeat(20000);
+    service.postRequest("query { plan { id } }");
+    service.postRequest(largeQuery);
+    assertFalse(requests.get(0).gzipped());
+    assertTrue(requests.get(1).gzipped());
+    assertEquals(largeQuery, requests.get(1).body().getString("query"));
+
+    service(false).postRequest(largeQuery);
+    assertFalse(requests.get(2).gzipped());
+  }
+
+  @Test
+  void decompressesResponses() throws Exception {
+    gzipResponses = true;
+    responseBody = "{\"data\":{\"plan_by_pk\":{\"id\":3}}}";
+    final var response = service(false).postRequest("query { plan_by_pk(id: 3) { id } }").orElseThrow();
+    assertEquals(3, response.getJsonObject("data").getJsonObject("plan_by_pk").getInt("id"));
+  }
+
+  @Test
+  void updatesAllAnchorsInOneRequest() throws Exception {
+    final var type = new ActivityType("A");
+    final var plan = new PlanInMemory();
+    plan.add(SchedulingActivity.of(new ActivityDirectiveId(-1), type, Duration.ZERO, Duration.ZERO, null, true, true));
+    plan.add(SchedulingActivity.of(new ActivityDirectiveId(-2), type, Duration.ZERO, Duration.ZERO, new ActivityDirectiveId(-1), true, true));
+    plan.add(SchedulingActivity.of(new ActivityDirectiveId(-3), type, Duration.ZERO, Duration.ZERO, new ActivityDirectiveId(-1), false, true));
+    final var uploadIdMap = Map.of(
+        new ActivityDirectiveId(-1), new ActivityDirectiveId(10),
+        new ActivityDirectiveId(-2), new ActivityDirectiveId(20),
+        new ActivityDirectiveId(-3), new ActivityDirectiveId(30));
+    responseBody = "{\"data\":{\"update_activity_directive_many\":[{\"affected_rows\":1},{\"affected_rows\":1}]}}";
+
+    service(false).updatePlanActivityDirectiveAnchors(new PlanId(7), plan, uploadIdMap);
+
+    assertEquals(1, requests.size());
+    final var updates = requests.getFirst().body().getJsonObject("variables").getJsonArray("updates");
+    final Set<Long> updated = new HashSet<>();
+    for (final var update : updates.getValuesAs(JsonObject.class)) {
+      assertEquals(7, update.getJsonObject("where").getJsonObject("plan_id").getInt("_eq"));
+      assertEquals(10, update.getJsonObject("_set").getInt("anchor_id"));
+      updated.add(update.getJsonObject("where").getJsonObject("id").getJsonNumber("_eq").longValue());
+    }
+    assertEquals(Set.of(20L, 30L), updated);
+  }
+}
@@ -12,6 +12,7 @@ import javax.json.Json;
 import javax.sql.DataSource;
 import java.io.StringReader;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.concurrent.BlockingQueue;
 
 import static gov.nasa.jpl.aerie.scheduler.worker.postgres.PostgresNotificationJsonParsers.postgresSchedulingRequestNotificationP;
@@ -29,7 +30,11 @@ public class ListenSchedulerCapability {
     this.notificationQueue = notificationQueue;
   }
 
-  public Thread registerListener(SchedulingCanceledListener canceledListener) {
+  /**
+   * Starts listening for requests and cancellations.
+   * @param canceledListeners the listeners of the jobs currently running, each of which is sent every canceled signal
+   */
+  public Thread registerListener(final Collection<SchedulingCanceledListener> canceledListeners) {
     final var listenerThread = new Thread(() -> {
       try (final var connection = this.dataSource.getConnection()) {
         try (final var listenSimulationStatusAction = new ListenSchedulingRequestStatusAction(connection)) {
@@ -50,7 +55,8 @@ public class ListenSchedulerCapability {
               logger.info("Received PSQL Notification: {}, {}, {}", processId, channelName, payload);
 
               if (channelName.equals("scheduling_cancel")) {
-                  canceledListener.receiveSignal(new SpecificationId(Long.parseLong(payload)));
+                  final var id = new SpecificationId(Long.parseLong(payload));
+                  for (final var canceledListener : canceledListeners) canceledListener.receiveSignal(id);
               } else {
                 try (final var reader = Json.createReader(new StringReader(payload))) {
                   final var jsonValue = reader.readValue();
@@ -4,11 +4,16 @@ import java.io.IOException;
 import java.net.URI;
 import java.nio.file.Path;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import gov.nasa.jpl.aerie.merlin.driver.MissionModelProviderCache;
 import gov.nasa.jpl.aerie.scheduler.server.ResultsProtocol;
 import gov.nasa.jpl.aerie.scheduler.server.config.PlanOutputMode;
 import gov.nasa.jpl.aerie.scheduler.server.config.PostgresStore;
@@ -22,6 +27,7 @@ import gov.nasa.jpl.aerie.scheduler.server.services.ScheduleRequest;
 import gov.nasa.jpl.aerie.scheduler.server.services.SpecificationService;
 import gov.nasa.jpl.aerie.scheduler.server.services.UnexpectedSubtypeError;
 import gov.nasa.jpl.aerie.scheduler.worker.postgres.PostgresSchedulingRequestNotificationPayload;
+import gov.nasa.jpl.aerie.scheduler.worker.services.CheckpointCache;
 import gov.nasa.jpl.aerie.scheduler.worker.services.SchedulingDSLCompilationService;
 import gov.nasa.jpl.aerie.scheduler.worker.services.SynchronousSchedulerAgent;
 import io.javalin.Javalin;
@@ -34,7 +40,11 @@ public final class SchedulerWorkerAppDriver {
   public static void main(String[] args) throws Exception {
     final var config = loadConfiguration();
 
-    final var merlinDatabaseService = new GraphQLMerlinDatabaseService(config.merlinGraphqlURI(), config.hasuraGraphQlAdminSecret());
+    final var merlinDatabaseService = new GraphQLMerlinDatabaseService(
+        config.merlinGraphqlURI(),
+        config.hasuraGraphQlAdminSecret(),
+        GraphQLMerlinDatabaseService.defaultHttpClient(),
+        config.compressMerlinGraphqlRequests());
 
     final SchedulingDSLCompilationService schedulingDSLCompilationService;
     try {
@@ -57,7 +67,8 @@ public final class SchedulerWorkerAppDriver {
     hikariConfig.addDataSourceProperty("applicationName", "Scheduler Worker");
     hikariConfig.setUsername(postgresStore.user());
     hikariConfig.setPassword(postgresStore.password());
-    hikariConfig.setMaximumPoolSize(2);
+    // One connection to listen for notifications, and one per worker to claim and write results
+    hikariConfig.setMaximumPoolSize(1 + config.workerPoolSize());
 
     hikariConfig.setConnectionInitSql("set time zone 'UTC'");
 
@@ -73,55 +84,83 @@ public final class SchedulerWorkerAppDriver {
         config.merlinFileStore(),
         config.missionRuleJarPath(),
         config.outputMode(),
-        schedulingDSLCompilationService);
+        schedulingDSLCompilationService,
+        config.rootFindingParallelism(),
+        config.conflictDetectionParallelism(),
+        new CheckpointCache(config.maxCachedCheckpointSets(), config.checkpointCacheMaxHeapFraction()),
+        new MissionModelProviderCache());
 
     final var notificationQueue = new LinkedBlockingQueue<PostgresSchedulingRequestNotificationPayload>();
     final var listenAction = new ListenSchedulerCapability(hikariDataSource, notificationQueue);
-    final var canceledListener = new SchedulingCanceledListener();
-    final var listenThread = listenAction.registerListener(canceledListener);
+    final Set<SchedulingCanceledListener> canceledListeners = ConcurrentHashMap.newKeySet();
+    final var listenThread = listenAction.registerListener(canceledListeners);
+
+    final var workers = Executors.newFixedThreadPool(config.workerPoolSize());
+    final var idleWorkers = new Semaphore(config.workerPoolSize());
 
     try(final var app = Javalin.create().start(8080)) {
       app.get("/health", ctx -> ctx.status(200));
 
       while (listenThread.isAlive()) {
+        // Only take a request once a worker is free to run it, so that other worker processes may claim it meanwhile
+        if (!idleWorkers.tryAcquire(1, TimeUnit.MINUTES)) continue;
         final var notification = notificationQueue.poll(1, TimeUnit.MINUTES);
-        if (notification == null) continue;
-        final var specificationRevision = notification.specificationRevision();
-        final var planRevision = notification.planRevision();
-        final var specificationId = new SpecificationId(notification.specificationId());
-        final var analysisId = notification.analysisId();
-
-        // Register as early as possible to avoid potentially missing a canceled signal
-        canceledListener.register(specificationId);
-
-        final Optional<ResultsProtocol.OwnerRole> owner = stores.results().claim(analysisId);
-        if (owner.isEmpty()) {
-          canceledListener.unregister();
+        if (notification == null) {
+          idleWorkers.release();
           continue;
         }
 
-        final var revisionData = new SpecificationRevisionData(specificationRevision, planRevision);
-        final ResultsProtocol.WriterRole writer = owner.get();
-        try {
-          scheduleAgent.schedule(
-              new ScheduleRequest(specificationId, revisionData),
-              writer,
-              canceledListener,
-              config.maxCachedSimulationEngines());
-        } catch (final Throwable ex) {
-          ex.printStackTrace(System.err);
-          writer.failWith(b -> b
-              .type("UNEXPECTED_SCHEDULER_EXCEPTION")
-              .message("Something went wrong while scheduling")
-              .trace(ex));
-        }
-        finally {
-          canceledListener.unregister();
-        }
+        // Register as early as possible to avoid potentially missing a canceled signal
+        final var canceledListener = new SchedulingCanceledListener();
+        canceledListener.register(new SpecificationId(notification.specificationId()));
+        canceledListeners.add(canceledListener);
+
+        workers.execute(() -> {
+          try {
+            schedule(notification, stores, scheduleAgent, canceledListener, config.maxCachedSimulationEngines());
+          } finally {
+            canceledListeners.remove(canceledListener);
+            canceledListener.unregister();
+            idleWorkers.release();
+          }
+        });
       }
     } finally {
-      // Kill the listen thread
+      // Kill the listen thread, then let the running scheduling runs finish
       listenThread.interrupt();
+      workers.close();
+    }
+  }
+
+  private static void schedule(
+      final PostgresSchedulingRequestNotificationPayload notification,
+      final Stores stores,
+      final SynchronousSchedulerAgent scheduleAgent,
+      final SchedulingCanceledListener canceledListener,
+      final int maxCachedSimulationEngines)
+  {
+    final var specificationRevision = notification.specificationRevision();
+    final var planRevision = notification.planRevision();
+    final var specificationId = new SpecificationId(notification.specificationId());
+    final var analysisId = notification.analysisId();
+
+    final Optional<ResultsProtocol.OwnerRole> owner = stores.results().claim(analysisId);
+    if (owner.isEmpty()) return;
+
+    final var revisionData = new SpecificationRevisionData(specificationRevision, planRevision);
+    final ResultsProtocol.WriterRole writer = owner.get();
+    try {
+      scheduleAgent.schedule(
+          new ScheduleRequest(specificationId, revisionData),
+          writer,
+          canceledListener,
+          maxCachedSimulationEngines);
+    } catch (final Throwable ex) {
+      ex.printStackTrace(System.err);
+      writer.failWith(b -> b
+          .type("UNEXPECTED_SCHEDULER_EXCEPTION")
+          .message("Something went wrong while scheduling")
+          .trace(ex));
     }
   }
 
@@ -136,6 +175,31 @@ public final class SchedulerWorkerAppDriver {
       logger.warn("MAX_NB_CACHED_SIMULATION_ENGINES is " + maxNbCachedSimulationEngine + " but minimum is 1. Setting to 1.");
       maxNbCachedSimulationEngine = 1;
     }
+    int rootFindingParallelism = Integer.parseInt(getEnv("ROOT_FINDING_PARALLELISM", "1"));
+    if (rootFindingParallelism < 1) {
+      logger.warn("ROOT_FINDING_PARALLELISM is " + rootFindingParallelism + " but minimum is 1. Setting to 1.");
+      rootFindingParallelism = 1;
+    }
+    int conflictDetectionParallelism = Integer.parseInt(getEnv("CONFLICT_DETECTION_PARALLELISM", "1"));
+    if (conflictDetectionParallelism < 1) {
+      logger.warn("CONFLICT_DETECTION_PARALLELISM is " + conflictDetectionParallelism + " but minimum is 1. Setting to 1.");
+      conflictDetectionParallelism = 1;
+    }
+    int maxCachedCheckpointSets = Integer.parseInt(getEnv("MAX_NB_CACHED_CHECKPOINT_SETS", "1"));
+    if (maxCachedCheckpointSets < 0) {
+      logger.warn("MAX_NB_CACHED_CHECKPOINT_SETS is " + maxCachedCheckpointSets + " but minimum is 0. Setting to 0.");
+      maxCachedCheckpointSets = 0;
+    }
+    double checkpointCacheMaxHeapFraction = Double.parseDouble(getEnv("CHECKPOINT_CACHE_MAX_HEAP_FRACTION", "0.5"));
+    if (!(checkpointCacheMaxHeapFraction > 0 && checkpointCacheMaxHeapFraction <= 1)) {
+      logger.warn("CHECKPOINT_CACHE_MAX_HEAP_FRACTION is " + checkpointCacheMaxHeapFraction + " but must be in (0, 1]. Setting to 0.5.");
+      checkpointCacheMaxHeapFraction = 0.5;
+    }
+    int workerPoolSize = Integer.parseInt(getEnv("WORKER_POOL_SIZE", "1"));
+    if (workerPoolSize < 1) {
+      logger.warn("WORKER_POOL_SIZE is " + workerPoolSize + " but minimum is 1. Setting to 1.");
+      workerPoolSize = 1;
+    }
     return new WorkerAppConfiguration(
         new PostgresStore(getEnv("AERIE_DB_HOST", "postgres"),
                           getEnv("SCHEDULER_DB_USER", ""),
@@ -147,7 +211,13 @@ public final class SchedulerWorkerAppDriver {
         Path.of(getEnv("SCHEDULER_RULES_JAR", "/usr/src/app/merlin_file_store/scheduler_rules.jar")),
         PlanOutputMode.valueOf((getEnv("SCHEDULER_OUTPUT_MODE", "CreateNewOutputPlan"))),
         getEnv("HASURA_GRAPHQL_ADMIN_SECRET", ""),
-        maxNbCachedSimulationEngine
+        Boolean.parseBoolean(getEnv("MERLIN_GRAPHQL_GZIP_REQUESTS", "false")),
+        maxNbCachedSimulationEngine,
+        rootFindingParallelism,
+        conflictDetectionParallelism,
+        maxCachedCheckpointSets,
+        checkpointCacheMaxHeapFraction,
+        workerPoolSize
     );
   }
 }
@@ -6,8 +6,9 @@ import java.util.Optional;
 import java.util.function.Supplier;
 
 public class SchedulingCanceledListener implements Supplier<Boolean> {
-  private Optional<SpecificationId> registeredSchedulingRun;
-  private boolean canceled;
+  // Written by the listen thread and read by the worker running the registered job
+  private volatile Optional<SpecificationId> registeredSchedulingRun;
+  private volatile boolean canceled;
 
   public SchedulingCanceledListener() {
     registeredSchedulingRun = Optional.empty();
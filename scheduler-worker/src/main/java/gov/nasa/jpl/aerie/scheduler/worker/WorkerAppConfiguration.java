@@ -12,5 +12,11 @@ public record WorkerAppConfiguration(
     Path missionRuleJarPath,
     PlanOutputMode outputMode,
     String hasuraGraphQlAdminSecret,
-    int maxCachedSimulationEngines
+    boolean compressMerlinGraphqlRequests,
+    int maxCachedSimulationEngines,
+    int rootFindingParallelism,
+    int conflictDetectionParallelism,
+    int maxCachedCheckpointSets,
+    double checkpointCacheMaxHeapFraction,
+    int workerPoolSize
 ) { }
@@ -0,0 +1,203 @@
+package gov.nasa.jpl.aerie.scheduler.worker.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+import gov.nasa.jpl.aerie.merlin.driver.SimulationEngineConfiguration;
+import gov.nasa.jpl.aerie.scheduler.model.PlanningHorizon;
+import gov.nasa.jpl.aerie.scheduler.simulation.InMemoryCachedEngineStore;
+import gov.nasa.jpl.aerie.scheduler.worker.services.SynchronousSchedulerAgent.SchedulerMissionModel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Simulation checkpoints kept by a scheduler worker across scheduling requests
+ *
+ * Checkpoints are grouped by the checksum of the mission model jar they were simulated with, by the simulation
+ * configuration, and by the planning horizon, since simulations start at the start of the horizon. Cached engines hold on to the mission model instance that produced them, so each group also keeps
+ * that mission model, and a request resuming from the group's checkpoints must simulate with it.
+ *
+ * A group is leased for the duration of a request, so that two requests never share one: a request that finds its
+ * group already leased starts from an empty one. When a lease is closed, the least recently used groups are evicted
+ * until at most {@code maxEntries} remain and the heap is at most {@code maxHeapFraction} full. The group just checked
+ * in is never evicted, since the request that filled it is the most likely to be repeated.
+ *
+ * Heap usage is measured as of the end of the latest garbage collection of each heap pool, so that garbage which
+ * has not been collected yet does not count towards it.
+ */
+public final class CheckpointCache {
+  private static final Logger LOGGER = LoggerFactory.getLogger(CheckpointCache.class);
+
+  record Key(String modelChecksum, SimulationEngineConfiguration configuration, Instant horizonStart, Instant horizonEnd) {}
+  private record Entry(SchedulerMissionModel missionModel, InMemoryCachedEngineStore engines) {}
+  private record JarChecksum(long size, FileTime lastModified, String checksum) {}
+
+  private final int maxEntries;
+  private final double maxHeapFraction;
+  private final DoubleSupplier heapFraction;
+  /** Groups that are not leased, least recently used first. */
+  private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>();
+  private final ConcurrentHashMap<Path, JarChecksum> checksums = new ConcurrentHashMap<>();
+
+  /**
+   * @param maxEntries the maximum number of groups of checkpoints kept between requests; 0 disables the cache
+   * @param maxHeapFraction the fraction of the maximum heap size above which groups are evicted
+   */
+  public CheckpointCache(final int maxEntries, final double maxHeapFraction) {
+    this(maxEntries, maxHeapFraction, CheckpointCache::heapFractionAfterLastCollection);
+  }
+
+  CheckpointCache(final int maxEntries, final double maxHeapFraction, final DoubleSupplier heapFraction) {
+    if (maxEntries < 0) throw new IllegalArgumentException("maxEntries must be at least 0");
+    if (maxHeapFraction <= 0 || maxHeapFraction > 1) throw new IllegalArgumentException("maxHeapFraction must be in (0, 1]");
+    this.maxEntries = maxEntries;
+    this.maxHeapFraction = maxHeapFraction;
+    this.heapFraction = heapFraction;
+  }
+
+  /** A cache that keeps nothing between requests. */
+  public static CheckpointCache disabled() {
+    return new CheckpointCache(0, 1);
+  }
+
+  /**
+   * Starts a lease on a group of checkpoints; the group is chosen by {@link Lease#acquire}.
+   * @param capacity the capacity of the cached engine store used by the request
+   */
+  public Lease lease(final int capacity) {
+    return new Lease(capacity);
+  }
+
+  public final class Lease implements AutoCloseable {
+    private final int capacity;
+    private Key key;
+    private Entry entry;
+
+    private Lease(final int capacity) {
+      this.capacity = capacity;
+    }
+
+    /**
+     * Acquires the checkpoints simulated with the given mission model jar, configuration and horizon, if any are cached.
+     * @param modelJar the mission model jar
+     * @param configuration the simulation configuration
+     * @param planningHorizon the planning horizon the checkpoints are simulated over
+     * @param loader loads the mission model if no checkpoints are cached
+     * @return the mission model the checkpoints were simulated with, or a freshly loaded one
+     * @throws IOException if the mission model jar could not be read
+     */
+    public SchedulerMissionModel acquire(
+        final Path modelJar,
+        final SimulationEngineConfiguration configuration,
+        final PlanningHorizon planningHorizon,
+        final Supplier<SchedulerMissionModel> loader) throws IOException
+    {
+      if (this.entry != null) throw new IllegalStateException("Lease has already been acquired");
+      // Avoid reading the jar if nothing would be kept anyway
+      final var key = (maxEntries == 0) ? null : new Key(
+          checksum(modelJar),
+          configuration,
+          planningHorizon.getStartInstant(),
+          planningHorizon.getEndInstant());
+      var entry = (key == null) ? null : checkOut(key, this.capacity);
+      if (entry == null) {
+        entry = new Entry(loader.get(), new InMemoryCachedEngineStore(this.capacity));
+      } else {
+        LOGGER.info("Resuming from " + entry.engines().getCachedEngines(configuration).size() + " cached simulation engines");
+      }
+      this.key = key;
+      this.entry = entry;
+      return entry.missionModel();
+    }
+
+    public InMemoryCachedEngineStore engines() {
+      if (this.entry == null) throw new IllegalStateException("Lease has not been acquired");
+      return this.entry.engines();
+    }
+
+    @Override
+    public void close() {
+      if (this.entry == null) return;
+      if (this.key == null) {
+        this.entry.engines().close();
+      } else {
+        checkIn(this.key, this.entry);
+      }
+      this.entry = null;
+    }
+  }
+
+  private synchronized Entry checkOut(final Key key, final int capacity) {
+    final var entry = this.entries.remove(key);
+    if (entry == null) return null;
+    if (entry.engines().capacity() != capacity) {
+      entry.engines().close();
+      return null;
+    }
+    return entry;
+  }
+
+  private synchronized void checkIn(final Key key, final Entry entry) {
+    // A concurrent request for the same group may have checked one in already
+    final var displaced = this.entries.remove(key);
+    if (displaced != null) displaced.engines().close();
+    this.entries.put(key, entry);
+
+    final var iterator = this.entries.entrySet().iterator();
+    while (this.entries.size() > 1 && (this.entries.size() > this.maxEntries || this.heapFraction.getAsDouble() > this.maxHeapFraction)) {
+      final var eldest = iterator.next();
+      iterator.remove();
+      eldest.getValue().engines().close();
+      LOGGER.info("Evicted cached simulation engines for mission model " + eldest.getKey().modelChecksum());
+    }
+  }
+
+  private static double heapFractionAfterLastCollection() {
+    long used = 0;
+    for (final var pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() != MemoryType.HEAP) continue;
+      final var usage = pool.getCollectionUsage();
+      if (usage != null) used += usage.getUsed();
+    }
+    return (double) used / Runtime.getRuntime().maxMemory();
+  }
+
+  /**
+   * The SHA-256 checksum of a file, recomputed only if the file's size or modification time changed.
+   */
+  String checksum(final Path path) throws IOException {
+    final var attributes = Files.readAttributes(path, BasicFileAttributes.class);
+    final var cached = this.checksums.get(path);
+    if (cached != null && cached.size() == attributes.size() && cached.lastModified().equals(attributes.lastModifiedTime())) {
+      return cached.checksum();
+    }
+
+    final MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (final NoSuchAlgorithmException e) {
+      throw new Error(e);
+    }
+    try (final InputStream input = Files.newInputStream(path)) {
+      final var buffer = new byte[8192];
+      for (int read; (read = input.read(buffer)) != -1; ) digest.update(buffer, 0, read);
+    }
+    final var checksum = HexFormat.of().formatHex(digest.digest());
+    this.checksums.put(path, new JarChecksum(attributes.size(), attributes.lastModifiedTime(), checksum));
+    return checksum;
+  }
+}
@@ -22,6 +22,7 @@ import java.util.stream.Collectors;
 
 import gov.nasa.jpl.aerie.merlin.driver.MissionModel;
 import gov.nasa.jpl.aerie.merlin.driver.MissionModelLoader;
+import gov.nasa.jpl.aerie.merlin.driver.MissionModelProviderCache;
 import gov.nasa.jpl.aerie.merlin.driver.SimulationEngineConfiguration;
 import gov.nasa.jpl.aerie.merlin.driver.SimulationResults;
 import gov.nasa.jpl.aerie.merlin.protocol.model.SchedulerModel;
@@ -66,7 +67,6 @@ import gov.nasa.jpl.aerie.scheduler.server.services.ScheduleResults;
 import gov.nasa.jpl.aerie.scheduler.server.services.SchedulerAgent;
 import gov.nasa.jpl.aerie.scheduler.server.services.SpecificationService;
 import gov.nasa.jpl.aerie.scheduler.simulation.CheckpointSimulationFacade;
-import gov.nasa.jpl.aerie.scheduler.simulation.InMemoryCachedEngineStore;
 import gov.nasa.jpl.aerie.scheduler.simulation.SimulationData;
 import gov.nasa.jpl.aerie.scheduler.solver.PrioritySolver;
 import gov.nasa.jpl.aerie.types.ActivityDirectiveId;
@@ -82,6 +82,11 @@ import org.slf4j.LoggerFactory;
  * @param modelJarsDir path to parent directory for mission model jars (interim backdoor jar file access)
  * @param goalsJarPath path to jar file to load scheduling goals from (interim solution for user input goals)
  * @param outputMode how the scheduling output should be returned to aerie (eg overwrite or new container)
+ * @param rootFindingParallelism maximum number of start times simulated concurrently when placing an activity
+ * @param conflictDetectionParallelism maximum number of goals whose conflicts are detected concurrently in
+ *     analysis-only requests
+ * @param checkpointCache simulation checkpoints kept across scheduling requests
+ * @param missionModelProviders mission model providers shared across scheduling requests
  */
 //TODO: will eventually need scheduling goal service arg to pull goals from scheduler's own data store
 public record SynchronousSchedulerAgent(
@@ -90,7 +95,11 @@ public record SynchronousSchedulerAgent(
     Path modelJarsDir,
     Path goalsJarPath,
     PlanOutputMode outputMode,
-    SchedulingDSLCompilationService schedulingDSLCompilationService
+    SchedulingDSLCompilationService schedulingDSLCompilationService,
+    int rootFindingParallelism,
+    int conflictDetectionParallelism,
+    CheckpointCache checkpointCache,
+    MissionModelProviderCache missionModelProviders
 )
     implements SchedulerAgent
 {
@@ -101,6 +110,36 @@ public record SynchronousSchedulerAgent(
     Objects.requireNonNull(modelJarsDir);
     Objects.requireNonNull(goalsJarPath);
     Objects.requireNonNull(schedulingDSLCompilationService);
+    Objects.requireNonNull(checkpointCache);
+    Objects.requireNonNull(missionModelProviders);
+    if (rootFindingParallelism < 1) throw new IllegalArgumentException("rootFindingParallelism must be at least 1");
+    if (conflictDetectionParallelism < 1) {
+      throw new IllegalArgumentException("conflictDetectionParallelism must be at least 1");
+    }
+  }
+
+  /**
+   * creates an agent that keeps nothing across requests and places activities serially
+   */
+  public SynchronousSchedulerAgent(
+      final SpecificationService specificationService,
+      final MerlinDatabaseService.OwnerRole merlinDatabaseService,
+      final Path modelJarsDir,
+      final Path goalsJarPath,
+      final PlanOutputMode outputMode,
+      final SchedulingDSLCompilationService schedulingDSLCompilationService)
+  {
+    this(
+        specificationService,
+        merlinDatabaseService,
+        modelJarsDir,
+        goalsJarPath,
+        outputMode,
+        schedulingDSLCompilationService,
+        1,
+        1,
+        CheckpointCache.disabled(),
+        MissionModelProviderCache.disabled());
   }
 
   /**
@@ -118,7 +157,7 @@ public record SynchronousSchedulerAgent(
       final Supplier<Boolean> canceledListener,
       final int sizeCachedEngineStore
   ) {
-    try(final var cachedEngineStore = new InMemoryCachedEngineStore(sizeCachedEngineStore)) {
+    try(final var checkpoints = checkpointCache.lease(sizeCachedEngineStore)) {
       //confirm requested plan to schedule from/into still exists at targeted version (request could be stale)
       //TODO: maybe some kind of high level db transaction wrapping entire read/update of target plan revision
 
@@ -127,21 +166,35 @@ public record SynchronousSchedulerAgent(
       ensurePlanRevisionMatch(specification, planMetadata.planRev());
       ensureRequestIsCurrent(specification, request);
       //create scheduler problem seeded with initial plan
-      final var schedulerMissionModel = loadMissionModel(planMetadata);
+      //the mission model is reused along with the checkpoints simulated with it by previous requests, if any
+      final var simulationConfiguration = new SimulationEngineConfiguration(
+          planMetadata.modelConfiguration(),
+          planMetadata.horizon().getStartInstant(),
+          new MissionModelId(planMetadata.modelId()));
       final var planningHorizon = new PlanningHorizon(
           specification.horizonStartTimestamp().toInstant(),
           specification.horizonEndTimestamp().toInstant()
       );
+      final SchedulerMissionModel schedulerMissionModel;
+      try {
+        schedulerMissionModel = checkpoints.acquire(
+            modelJarsDir.resolve(planMetadata.modelPath()),
+            simulationConfiguration,
+            planningHorizon,
+            () -> loadMissionModel(planMetadata));
+      } catch (final IOException e) {
+        throw new ResultsProtocolFailure(e);
+      }
+      final var cachedEngineStore = checkpoints.engines();
+      final var savedSimulationTimeBefore = cachedEngineStore.getTotalSavedSimulationTime();
       final var simulationFacade = new CheckpointSimulationFacade(
           schedulerMissionModel.missionModel(),
           schedulerMissionModel.schedulerModel(),
           cachedEngineStore,
           planningHorizon,
-          new SimulationEngineConfiguration(
-              planMetadata.modelConfiguration(),
-              planMetadata.horizon().getStartInstant(),
-              new MissionModelId(planMetadata.modelId())),
-          canceledListener);
+          simulationConfiguration,
+          canceledListener,
+          true);
         final var problem = new Problem(
             schedulerMissionModel.missionModel(),
             planningHorizon,
@@ -228,7 +281,11 @@ public record SynchronousSchedulerAgent(
         }
         problem.setGoals(orderedGoals);
 
-      final var scheduler = new PrioritySolver(problem, specification.analysisOnly());
+      final var scheduler = new PrioritySolver(
+          problem,
+          specification.analysisOnly(),
+          rootFindingParallelism,
+          conflictDetectionParallelism);
       //run the scheduler to find a solution to the posed problem, if any
       final var solutionPlan = scheduler.getNextSolution().orElseThrow(
           () -> new ResultsProtocolFailure("scheduler returned no solution"));
@@ -272,7 +329,9 @@ public record SynchronousSchedulerAgent(
 
       //collect results and notify subscribers of success
       final var results = collectResults(solutionPlan, uploadIdMap, goals);
-      LOGGER.info("Simulation cache saved " + cachedEngineStore.getTotalSavedSimulationTime() + " in simulation time");
+      LOGGER.info("Simulation cache saved "
+                  + cachedEngineStore.getTotalSavedSimulationTime().minus(savedSimulationTimeBefore)
+                  + " in simulation time");
       writer.succeedWith(results, datasetId);
     } catch (final SpecificationLoadException e) {
       writer.failWith(b -> b
@@ -470,7 +529,10 @@ public record SynchronousSchedulerAgent(
       final var missionConfig = SerializedValue.of(plan.modelConfiguration());
       final var modelJarPath = modelJarsDir.resolve(plan.modelPath());
       return new SchedulerMissionModel(
-          MissionModelLoader.loadMissionModel(plan.horizon().getStartInstant(), missionConfig, modelJarPath, plan.modelName(), plan.modelVersion()),
+          MissionModelLoader.loadMissionModel(
+              plan.horizon().getStartInstant(),
+              missionConfig,
+              missionModelProviders.get(modelJarPath, plan.modelName(), plan.modelVersion()).getModelType()),
           loadSchedulerModelProvider(modelJarPath, plan.modelName(), plan.modelVersion()).getSchedulerModel());
     } catch (MissionModelLoader.MissionModelLoadException | SchedulerModelLoadException e) {
       throw new ResultsProtocolFailure(e);
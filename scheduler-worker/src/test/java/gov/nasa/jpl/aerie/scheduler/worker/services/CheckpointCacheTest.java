@@ -0,0 +1,155 @@
+package gov.nasa.jpl.aerie.scheduler.worker.services;
+
+import gov.nasa.jpl.aerie.merlin.driver.SimulationEngineConfiguration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import gov.nasa.jpl.aerie.scheduler.model.PlanningHorizon;
+import gov.nasa.jpl.aerie.scheduler.worker.services.SynchronousSchedulerAgent.SchedulerMissionModel;
+import gov.nasa.jpl.aerie.types.MissionModelId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class CheckpointCacheTest {
+  private static final SimulationEngineConfiguration configuration =
+      new SimulationEngineConfiguration(Map.of(), Instant.EPOCH, new MissionModelId(1));
+  private static final SimulationEngineConfiguration otherConfiguration =
+      new SimulationEngineConfiguration(Map.of("x", SerializedValue.of(1)), Instant.EPOCH, new MissionModelId(1));
+  private static final PlanningHorizon horizon =
+      new PlanningHorizon(Instant.EPOCH, Instant.EPOCH.plusSeconds(3600));
+
+  @TempDir
+  Path dir;
+  Path jar;
+  Path otherJar;
+  int loads;
+
+  @BeforeEach
+  void beforeEach() throws IOException {
+    jar = Files.writeString(dir.resolve("model.jar"), "model");
+    otherJar = Files.writeString(dir.resolve("other.jar"), "other model");
+    loads = 0;
+  }
+
+  private SchedulerMissionModel load() {
+    loads++;
+    return new SchedulerMissionModel(null, null);
+  }
+
+  private SchedulerMissionModel schedule(
+      final CheckpointCache cache,
+      final Path jar,
+      final SimulationEngineConfiguration configuration,
+      final int capacity) throws IOException
+  {
+    return schedule(cache, jar, configuration, horizon, capacity);
+  }
+
+  private SchedulerMissionModel schedule(
+      final CheckpointCache cache,
+      final Path jar,
+      final SimulationEngineConfiguration configuration,
+      final PlanningHorizon horizon,
+      final int capacity) throws IOException
+  {
+    try (final var lease = cache.lease(capacity)) {
+      return lease.acquire(jar, configuration, horizon, this::load);
+    }
+  }
+
+  @Test
+  void reusesMissionModelAcrossRequests() throws IOException {
+    final var cache = new CheckpointCache(2, 1);
+    final var first = schedule(cache, jar, configuration, 2);
+    assertSame(first, schedule(cache, jar, configuration, 2));
+    assertNotSame(first, schedule(cache, jar, otherConfiguration, 2));
+    assertNotSame(first, schedule(cache, otherJar, configuration, 2));
+    assertEquals(3, loads);
+  }
+
+  @Test
+  void specificationsWithDifferentHorizonsDoNotShareCheckpoints() throws IOException {
+    final var cache = new CheckpointCache(3, 1);
+    final var laterStart = new PlanningHorizon(Instant.EPOCH.plusSeconds(600), Instant.EPOCH.plusSeconds(3600));
+    final var laterEnd = new PlanningHorizon(Instant.EPOCH, Instant.EPOCH.plusSeconds(7200));
+    final var first = schedule(cache, jar, configuration, horizon, 2);
+    final var second = schedule(cache, jar, configuration, laterStart, 2);
+    final var third = schedule(cache, jar, configuration, laterEnd, 2);
+    assertNotSame(first, second);
+    assertNotSame(first, third);
+    assertNotSame(second, third);
+    assertSame(first, schedule(cache, jar, configuration, new PlanningHorizon(Instant.EPOCH, Instant.EPOCH.plusSeconds(3600)), 2));
+    assertSame(second, schedule(cache, jar, configuration, laterStart, 2));
+    assertEquals(3, loads);
+  }
+
+  @Test
+  void evictsLeastRecentlyUsed() throws IOException {
+    final var cache = new CheckpointCache(2, 1);
+    final var first = schedule(cache, jar, configuration, 2);
+    final var second = schedule(cache, jar, otherConfiguration, 2);
+    assertSame(first, schedule(cache, jar, configuration, 2));
+    schedule(cache, otherJar, configuration, 2);
+    assertSame(first, schedule(cache, jar, configuration, 2));
+    assertNotSame(second, schedule(cache, jar, otherConfiguration, 2));
+    assertEquals(4, loads);
+  }
+
+  @Test
+  void changingCapacityDiscardsCheckpoints() throws IOException {
+    final var cache = new CheckpointCache(2, 1);
+    final var first = schedule(cache, jar, configuration, 2);
+    assertNotSame(first, schedule(cache, jar, configuration, 3));
+    assertEquals(2, loads);
+  }
+
+  @Test
+  void concurrentRequestsDoNotShareCheckpoints() throws IOException {
+    final var cache = new CheckpointCache(2, 1);
+    try (final var lease = cache.lease(2); final var otherLease = cache.lease(2)) {
+      final var model = lease.acquire(jar, configuration, horizon, this::load);
+      assertNotSame(model, otherLease.acquire(jar, configuration, horizon, this::load));
+      assertNotSame(lease.engines(), otherLease.engines());
+    }
+    assertEquals(2, loads);
+  }
+
+  @Test
+  void heapPressureNeverEvictsTheCheckedInGroup() throws IOException {
+    final var cache = new CheckpointCache(2, 0.5, () -> 1.0);
+    final var first = schedule(cache, jar, configuration, 2);
+    assertSame(first, schedule(cache, jar, configuration, 2));
+    final var second = schedule(cache, jar, otherConfiguration, 2);
+    assertSame(second, schedule(cache, jar, otherConfiguration, 2));
+    assertNotSame(first, schedule(cache, jar, configuration, 2));
+    assertEquals(3, loads);
+  }
+
+  @Test
+  void disabledCacheKeepsNothing() throws IOException {
+    final var cache = CheckpointCache.disabled();
+    assertNotSame(schedule(cache, jar, configuration, 2), schedule(cache, jar, configuration, 2));
+    assertEquals(2, loads);
+  }
+
+  @Test
+  void checksumFollowsJarContents() throws IOException {
+    final var cache = new CheckpointCache(1, 1);
+    final var checksum = cache.checksum(jar);
+    assertEquals(checksum, cache.checksum(jar));
+    Files.writeString(jar, "new model");
+    Files.setLastModifiedTime(jar, FileTime.from(Instant.now().plusSeconds(60)));
+    assertNotEquals(checksum, cache.checksum(jar));
+  }
+}